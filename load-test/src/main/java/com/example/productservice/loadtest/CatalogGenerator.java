@@ -0,0 +1,174 @@
+package com.example.productservice.loadtest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generator of realistic product catalogs. Category popularity follows
+ * a Zipf distribution, prices are log-normal around a per-category median and
+ * a fraction of products is out of stock. Every product is derived from the
+ * seed and its index alone, so catalogs of any size are streamed without
+ * keeping state and the same seed always yields the same catalog.
+ */
+public final class CatalogGenerator {
+
+    /** Category vocabulary ordered from most to least popular. */
+    static final String[] CATEGORIES = {"Electronics", "Clothing", "Home", "Books", "Toys", "Sports", "Beauty",
+            "Grocery", "Automotive", "Garden", "Health", "Office", "Pet Supplies", "Music", "Movies", "Jewelry",
+            "Shoes", "Tools", "Baby", "Outdoors", "Kitchen", "Furniture", "Crafts", "Video Games", "Software",
+            "Appliances", "Luggage", "Watches", "Industrial", "Collectibles", "Camera", "Lighting", "Party",
+            "Stationery", "Bedding", "Bath", "Fitness", "Cycling", "Fishing", "Camping"};
+
+    private static final String[] ADJECTIVES = {"Classic", "Pro", "Ultra", "Compact", "Deluxe", "Eco", "Smart",
+            "Premium", "Basic", "Portable", "Wireless", "Vintage", "Modern", "Heavy-Duty", "Mini", "Max"};
+
+    private static final String[] NOUNS = {"Widget", "Gadget", "Kit", "Set", "Pack", "Device", "Bundle", "Tool",
+            "Organizer", "Stand", "Case", "Lamp", "Bottle", "Speaker", "Chair", "Jacket", "Charger", "Board"};
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final double CATEGORY_SKEW = 1.1;
+    private static final double PRICE_SIGMA = 0.9;
+    private static final double OUT_OF_STOCK_RATIO = 0.12;
+
+    /**
+     * A generated product row.
+     *
+     * @param id
+     *            1-based product ID
+     * @param name
+     *            product name
+     * @param category
+     *            product category
+     * @param price
+     *            price rounded to cents
+     * @param stock
+     *            stock level
+     */
+    public record GeneratedProduct(long id, String name, String category, double price, int stock) {
+
+        /**
+         * Renders the product as a JSON request body without the ID.
+         *
+         * @return the JSON document
+         */
+        public String toJson() {
+            return String.format(Locale.ROOT, "{\"name\":\"%s\",\"category\":\"%s\",\"price\":%.2f,\"stock\":%d}",
+                    name, category, price, stock);
+        }
+
+        /**
+         * Renders the product as a CSV row matching the products table columns, with
+         * the price in cents.
+         *
+         * @return the CSV line without line terminator
+         */
+        public String toCsv() {
+            return String.format(Locale.ROOT, "%d,%s,%s,%d,%d", id, name, category, Math.round(price * 100), stock);
+        }
+    }
+
+    // CHECKSTYLE:OFF - immutable generator state uses standard naming
+    private final long seed;
+    private final ZipfSampler categorySampler;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates a generator.
+     *
+     * @param pSeed
+     *            the catalog seed
+     */
+    public CatalogGenerator(long pSeed) {
+        this.seed = pSeed;
+        this.categorySampler = new ZipfSampler(CATEGORIES.length, CATEGORY_SKEW);
+    }
+
+    /**
+     * Generates the product with the given 1-based ID.
+     *
+     * @param pId
+     *            the product ID
+     * @return the product
+     */
+    public GeneratedProduct product(long pId) {
+        SplittableRandom random = new SplittableRandom(seed + pId * GOLDEN_GAMMA);
+        int categoryRank = categorySampler.sample(random);
+        String category = CATEGORIES[categoryRank - 1];
+        String name = ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " "
+                + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+        double median = medianPrice(categoryRank);
+        double price = Math.round(median * Math.exp(PRICE_SIGMA * gaussian(random)) * 100.0) / 100.0;
+        int stock = random.nextDouble() < OUT_OF_STOCK_RATIO ? 0 : 1 + (int) (-Math.log(random.nextDouble()) * 40);
+        return new GeneratedProduct(pId, name, category, price, stock);
+    }
+
+    /**
+     * Draws a category with the same skew as the catalog, for search traffic.
+     *
+     * @param pRandom
+     *            the random source
+     * @return a category name
+     */
+    public String sampleCategory(SplittableRandom pRandom) {
+        return CATEGORIES[categorySampler.sample(pRandom) - 1];
+    }
+
+    /**
+     * Gets the median price of a category by popularity rank.
+     *
+     * @param pCategoryRank
+     *            1-based category rank
+     * @return the median price
+     */
+    static double medianPrice(int pCategoryRank) {
+        return 8.0 * Math.pow(1.12, pCategoryRank % 17);
+    }
+
+    /**
+     * Writes products 1..size as CSV with a header row, suitable for
+     * {@code INSERT INTO products SELECT * FROM CSVREAD('file')} in H2.
+     *
+     * @param pSize
+     *            number of products
+     * @param pOut
+     *            the output file
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void writeCsv(long pSize, Path pOut) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(pOut, StandardCharsets.UTF_8)) {
+            writeCsv(pSize, writer);
+        }
+    }
+
+    /**
+     * Writes products 1..size as CSV with a header row.
+     *
+     * @param pSize
+     *            number of products
+     * @param pWriter
+     *            the destination
+     * @throws IOException
+     *             if writing fails
+     */
+    public void writeCsv(long pSize, Writer pWriter) throws IOException {
+        pWriter.write("ID,NAME,CATEGORY,PRICE_CENTS,STOCK\n");
+        for (long id = 1; id <= pSize; id++) {
+            pWriter.write(product(id).toCsv());
+            pWriter.write('\n');
+        }
+    }
+
+    private static double gaussian(SplittableRandom pRandom) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        double u1 = 1.0 - pRandom.nextDouble();
+        double u2 = pRandom.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.productservice.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Prints per-operation latency percentiles and optionally writes the full HDR
+ * percentile distribution of each operation to {@code <dir>/<op>.hgrm}, which
+ * can be plotted with the standard HdrHistogram plotter.
+ */
+public final class LatencyReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private LatencyReport() {
+    }
+
+    /**
+     * Prints a summary table.
+     *
+     * @param pOut
+     *            the destination
+     * @param pHistograms
+     *            latency histograms (nanoseconds) per operation
+     * @param pStatusCounts
+     *            response counts per operation and status class
+     * @param pSeconds
+     *            the measured period in seconds
+     */
+    public static void print(PrintStream pOut, Map<Operation, Histogram> pHistograms,
+            Map<Operation, long[]> pStatusCounts, double pSeconds) {
+        pOut.printf(Locale.ROOT, "%-8s %9s %9s %9s %9s %9s %9s %9s %7s %7s %7s%n", "op", "count", "rate/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "2xx", "4xx", "err");
+        for (Map.Entry<Operation, Histogram> entry : pHistograms.entrySet()) {
+            Histogram h = entry.getValue();
+            long[] status = pStatusCounts.get(entry.getKey());
+            pOut.printf(Locale.ROOT, "%-8s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d %7d%n",
+                    entry.getKey().getKey(), h.getTotalCount(), h.getTotalCount() / pSeconds, millis(h, 50.0),
+                    millis(h, 90.0), millis(h, 99.0), millis(h, 99.9), h.getMaxValue() / NANOS_PER_MILLI, status[0],
+                    status[1], status[2]);
+        }
+    }
+
+    /**
+     * Writes one HDR percentile distribution file per operation.
+     *
+     * @param pDirectory
+     *            the output directory
+     * @param pHistograms
+     *            latency histograms (nanoseconds) per operation
+     * @throws IOException
+     *             if a file cannot be written
+     */
+    public static void writeDistributions(Path pDirectory, Map<Operation, Histogram> pHistograms)
+            throws IOException {
+        Files.createDirectories(pDirectory);
+        for (Map.Entry<Operation, Histogram> entry : pHistograms.entrySet()) {
+            Path file = pDirectory.resolve(entry.getKey().getKey() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, "UTF-8")) {
+                entry.getValue().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static double millis(Histogram pHistogram, double pPercentile) {
+        return pHistogram.getValueAtPercentile(pPercentile) / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.productservice.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Open-model load driver. Requests are issued on a fixed arrival schedule
+ * regardless of how quickly earlier ones complete, and latency is measured
+ * from each request's intended start time, so queueing inside the service is
+ * not hidden by coordinated omission.
+ *
+ * <p>
+ * A request that finds {@code max-in-flight} requests outstanding waits for one
+ * to complete, until its intended start plus the request timeout, and its wait
+ * counts in its latency. One that gets no slot by then is not sent; it is
+ * recorded as failed with the time it waited, so the percentiles still cover
+ * every scheduled request.
+ */
+public final class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    private static final int STATUS_2XX = 0;
+    private static final int STATUS_4XX = 1;
+    private static final int STATUS_ERROR = 2;
+
+    /**
+     * Results of a run.
+     *
+     * @param histograms
+     *            latency histograms in nanoseconds per operation
+     * @param statusCounts
+     *            per operation counts of 2xx, 4xx and failed requests
+     * @param dropped
+     *            requests not sent because the in-flight limit stayed reached
+     *            for the request timeout, also recorded as failed
+     * @param seconds
+     *            length of the measured period
+     */
+    public record Result(Map<Operation, Histogram> histograms, Map<Operation, long[]> statusCounts, long dropped,
+            double seconds) {
+    }
+
+    // CHECKSTYLE:OFF - immutable driver state uses standard naming
+    private final LoadTestConfig config;
+    private final RequestFactory requests;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates a driver.
+     *
+     * @param pConfig
+     *            the run configuration
+     * @param pRequests
+     *            the request factory
+     */
+    public LoadDriver(LoadTestConfig pConfig, RequestFactory pRequests) {
+        this.config = pConfig;
+        this.requests = pRequests;
+    }
+
+    /**
+     * Runs warmup plus the measured period and returns the measured results.
+     *
+     * @return the run results
+     * @throws InterruptedException
+     *             if interrupted while draining outstanding requests
+     */
+    public Result run() throws InterruptedException {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        Map<Operation, AtomicLongArray> status = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            status.put(operation, new AtomicLongArray(3));
+        }
+        LongAdder dropped = new LongAdder();
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        ExecutorService ioExecutor = Executors.newFixedThreadPool(config.getIoThreads());
+        HttpClient client = HttpClient.newBuilder().executor(ioExecutor).version(HttpClient.Version.HTTP_1_1)
+                .build();
+        SplittableRandom random = new SplittableRandom(config.getSeed() ^ 0xA5A5A5A5L);
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRate());
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + config.getWarmup().toNanos();
+        long end = measureFrom + config.getDuration().toNanos();
+        try {
+            for (long i = 0;; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                while (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                    wait = intended - System.nanoTime();
+                }
+                Operation operation = config.getMix().next(random);
+                HttpRequest request = requests.build(operation, random);
+                boolean measured = intended >= measureFrom;
+                long slotDeadline = intended + config.getRequestTimeout().toNanos();
+                if (!inFlight.tryAcquire(slotDeadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    if (measured) {
+                        dropped.increment();
+                        recorders.get(operation).recordValue(Math.min(System.nanoTime() - intended,
+                                HIGHEST_TRACKABLE_NANOS));
+                        status.get(operation).incrementAndGet(STATUS_ERROR);
+                    }
+                    continue;
+                }
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                    long latency = System.nanoTime() - intended;
+                    inFlight.release();
+                    if (!measured) {
+                        return;
+                    }
+                    recorders.get(operation).recordValue(Math.min(latency, HIGHEST_TRACKABLE_NANOS));
+                    status.get(operation).incrementAndGet(classify(response, error));
+                });
+            }
+            inFlight.tryAcquire(config.getMaxInFlight(), config.getRequestTimeout().toMillis() * 2,
+                    TimeUnit.MILLISECONDS);
+        } finally {
+            ioExecutor.shutdownNow();
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        Map<Operation, long[]> statusCounts = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            if (histogram.getTotalCount() > 0) {
+                histograms.put(operation, histogram);
+                AtomicLongArray counts = status.get(operation);
+                statusCounts.put(operation, new long[] {counts.get(0), counts.get(1), counts.get(2)});
+            }
+        }
+        return new Result(histograms, statusCounts, dropped.sum(), config.getDuration().toNanos() / 1e9);
+    }
+
+    private static int classify(HttpResponse<Void> pResponse, Throwable pError) {
+        if (pError != null || pResponse == null || pResponse.statusCode() >= 500) {
+            return STATUS_ERROR;
+        }
+        return pResponse.statusCode() >= 400 ? STATUS_4XX : STATUS_2XX;
+    }
+}
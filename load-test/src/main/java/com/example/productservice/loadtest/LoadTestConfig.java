@@ -0,0 +1,214 @@
+package com.example.productservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options for the load generator. Options are given as
+ * {@code --name=value}; every option has a default so a bare run drives a
+ * local service at a modest rate.
+ */
+public final class LoadTestConfig {
+
+    // CHECKSTYLE:OFF - immutable option values use standard naming
+    private final String command;
+    private final String baseUrl;
+    private final double rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final OperationMix mix;
+    private final long seed;
+    private final long catalogSize;
+    private final double idSkew;
+    private final int maxInFlight;
+    private final int ioThreads;
+    private final Duration requestTimeout;
+    private final Path output;
+    // CHECKSTYLE:ON
+
+    private LoadTestConfig(String pCommand, Map<String, String> pOptions) {
+        this.command = pCommand;
+        this.baseUrl = pOptions.getOrDefault("base-url", "http://localhost:8080");
+        this.rate = Double.parseDouble(pOptions.getOrDefault("rate", "200"));
+        this.duration = Duration.ofSeconds(Long.parseLong(pOptions.getOrDefault("duration", "60")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(pOptions.getOrDefault("warmup", "10")));
+        this.mix = OperationMix.parse(pOptions.getOrDefault("mix", "get=70,search=20,create=5,update=4,delete=1"));
+        this.seed = Long.parseLong(pOptions.getOrDefault("seed", "42"));
+        this.catalogSize = parseSize(pOptions.getOrDefault("size", "100000"));
+        this.idSkew = Double.parseDouble(pOptions.getOrDefault("id-skew", "0.99"));
+        this.maxInFlight = Integer.parseInt(pOptions.getOrDefault("max-in-flight", "1024"));
+        this.ioThreads = Integer.parseInt(pOptions.getOrDefault("io-threads", "8"));
+        this.requestTimeout = Duration.ofMillis(Long.parseLong(pOptions.getOrDefault("timeout-ms", "5000")));
+        String out = pOptions.get("out");
+        this.output = out == null ? null : Path.of(out);
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (catalogSize <= 0 || catalogSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("--size must be between 1 and " + Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Parses command line arguments: a command followed by options.
+     *
+     * @param pArgs
+     *            the arguments
+     * @return the configuration
+     */
+    public static LoadTestConfig parse(String[] pArgs) {
+        if (pArgs.length == 0) {
+            throw new IllegalArgumentException("Missing command");
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < pArgs.length; i++) {
+            String arg = pArgs[i];
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+            }
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(pArgs[0], options);
+    }
+
+    /**
+     * Parses sizes such as {@code 100000}, {@code 100k} or {@code 50m}.
+     *
+     * @param pValue
+     *            the size text
+     * @return the size
+     */
+    static long parseSize(String pValue) {
+        String value = pValue.trim().toLowerCase();
+        long multiplier = 1;
+        if (value.endsWith("k")) {
+            multiplier = 1_000;
+        } else if (value.endsWith("m")) {
+            multiplier = 1_000_000;
+        }
+        if (multiplier > 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Long.parseLong(value) * multiplier;
+    }
+
+    /**
+     * Gets the command to run.
+     *
+     * @return the command
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * Gets the service base URL.
+     *
+     * @return the base URL without trailing slash
+     */
+    public String getBaseUrl() {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    /**
+     * Gets the fixed arrival rate.
+     *
+     * @return requests per second
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Gets the measured run duration (after warmup).
+     *
+     * @return the duration
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Gets the warmup period whose latencies are discarded.
+     *
+     * @return the warmup
+     */
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Gets the operation mix.
+     *
+     * @return the mix
+     */
+    public OperationMix getMix() {
+        return mix;
+    }
+
+    /**
+     * Gets the seed for the catalog and the request stream.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the catalog size.
+     *
+     * @return the number of products
+     */
+    public long getCatalogSize() {
+        return catalogSize;
+    }
+
+    /**
+     * Gets the Zipf exponent used to pick product IDs.
+     *
+     * @return the ID skew
+     */
+    public double getIdSkew() {
+        return idSkew;
+    }
+
+    /**
+     * Gets the cap on concurrently outstanding requests.
+     *
+     * @return the in-flight limit
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Gets the number of HTTP client I/O threads.
+     *
+     * @return the thread count
+     */
+    public int getIoThreads() {
+        return ioThreads;
+    }
+
+    /**
+     * Gets the per-request timeout.
+     *
+     * @return the timeout
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Gets the output path (CSV file or histogram directory), if any.
+     *
+     * @return the output path or null
+     */
+    public Path getOutput() {
+        return output;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.productservice.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entry point of the load test harness.
+ *
+ * <pre>
+ * generate --size=10m --seed=42 --out=catalog.csv   write a seeded catalog as CSV
+ * seed     --size=100k --seed=42                    POST a seeded catalog to a running service
+ * run      --rate=500 --duration=60 --mix=...       drive the service at a fixed arrival rate
+ * </pre>
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    /**
+     * Runs a harness command.
+     *
+     * @param pArgs
+     *            the command and its options
+     * @throws Exception
+     *             if the command fails
+     */
+    public static void main(String[] pArgs) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(pArgs);
+        CatalogGenerator catalog = new CatalogGenerator(config.getSeed());
+        switch (config.getCommand()) {
+        case "generate":
+            generate(config, catalog);
+            break;
+        case "seed":
+            seed(config, catalog);
+            break;
+        case "run":
+            run(config, catalog);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown command '" + config.getCommand() + "'");
+        }
+    }
+
+    private static void generate(LoadTestConfig pConfig, CatalogGenerator pCatalog) throws IOException {
+        Path out = pConfig.getOutput() == null ? Path.of("catalog.csv") : pConfig.getOutput();
+        long started = System.nanoTime();
+        pCatalog.writeCsv(pConfig.getCatalogSize(), out);
+        System.out.printf("Wrote %d products to %s in %d ms%n", pConfig.getCatalogSize(), out,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    private static void seed(LoadTestConfig pConfig, CatalogGenerator pCatalog) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(pConfig.getIoThreads());
+        HttpClient client = HttpClient.newBuilder().executor(executor).build();
+        Semaphore permits = new Semaphore(pConfig.getIoThreads() * 4);
+        LongAdder failures = new LongAdder();
+        URI uri = URI.create(pConfig.getBaseUrl() + "/api/products");
+        try {
+            for (long id = 1; id <= pConfig.getCatalogSize(); id++) {
+                permits.acquire();
+                HttpRequest request = HttpRequest.newBuilder(uri).timeout(pConfig.getRequestTimeout())
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(pCatalog.product(id).toJson())).build();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                    if (error != null || response.statusCode() != 201) {
+                        failures.increment();
+                    }
+                    permits.release();
+                });
+            }
+            permits.acquire(pConfig.getIoThreads() * 4);
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("Seeded %d products (%d failures)%n", pConfig.getCatalogSize(), failures.sum());
+    }
+
+    private static void run(LoadTestConfig pConfig, CatalogGenerator pCatalog) throws Exception {
+        RequestFactory requests = new RequestFactory(pConfig.getBaseUrl(), pCatalog, pConfig.getCatalogSize(),
+                pConfig.getIdSkew(), pConfig.getRequestTimeout());
+        System.out.printf("Driving %s at %.0f req/s for %ds (+%ds warmup), mix %s%n", pConfig.getBaseUrl(),
+                pConfig.getRate(), pConfig.getDuration().getSeconds(), pConfig.getWarmup().getSeconds(),
+                pConfig.getMix());
+        LoadDriver.Result result = new LoadDriver(pConfig, requests).run();
+        LatencyReport.print(System.out, result.histograms(), result.statusCounts(), result.seconds());
+        if (result.dropped() > 0) {
+            System.out.printf("Dropped %d requests that waited the request timeout for an in-flight slot;"
+                    + " counted as errors%n", result.dropped());
+        }
+        if (pConfig.getOutput() != null) {
+            LatencyReport.writeDistributions(pConfig.getOutput(), result.histograms());
+            System.out.printf("HDR percentile distributions written to %s%n", pConfig.getOutput());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.productservice.loadtest;
+
+/**
+ * Kinds of calls issued against the Product Service.
+ */
+public enum Operation {
+    /** GET /api/products/{id}. */
+    GET_BY_ID("get"),
+    /** GET /api/products/search. */
+    SEARCH("search"),
+    /** POST /api/products. */
+    CREATE("create"),
+    /** PUT /api/products/{id}. */
+    UPDATE("update"),
+    /** DELETE /api/products/{id}. */
+    DELETE("delete");
+
+    // CHECKSTYLE:OFF - enum constant data uses standard naming
+    private final String key;
+    // CHECKSTYLE:ON
+
+    Operation(String pKey) {
+        this.key = pKey;
+    }
+
+    /**
+     * Gets the short name used in the mix specification and reports.
+     *
+     * @return the operation key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Resolves an operation from its short name.
+     *
+     * @param pKey
+     *            the operation key
+     * @return the operation
+     */
+    public static Operation fromKey(String pKey) {
+        for (Operation operation : values()) {
+            if (operation.key.equalsIgnoreCase(pKey)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + pKey + "'");
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.productservice.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted mix of operations, parsed from a specification such as
+ * {@code get=70,search=20,create=5,update=4,delete=1}.
+ */
+public final class OperationMix {
+
+    // CHECKSTYLE:OFF - immutable mix state uses standard naming
+    private final Operation[] operations;
+    private final double[] cumulative;
+    private final Map<Operation, Double> weights;
+    // CHECKSTYLE:ON
+
+    private OperationMix(Map<Operation, Double> pWeights) {
+        this.weights = pWeights;
+        this.operations = pWeights.keySet().toArray(new Operation[0]);
+        this.cumulative = new double[operations.length];
+        double total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += pWeights.get(operations[i]);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= total;
+        }
+    }
+
+    /**
+     * Parses a mix specification.
+     *
+     * @param pSpec
+     *            comma separated {@code operation=weight} pairs
+     * @return the mix
+     */
+    public static OperationMix parse(String pSpec) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String part : pSpec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + part + "'");
+            }
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix entry '" + part + "'");
+            }
+            if (weight > 0) {
+                weights.put(Operation.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Operation mix must contain at least one positive weight");
+        }
+        return new OperationMix(weights);
+    }
+
+    /**
+     * Draws the next operation.
+     *
+     * @param pRandom
+     *            the random source
+     * @return the operation
+     */
+    public Operation next(SplittableRandom pRandom) {
+        double u = pRandom.nextDouble();
+        for (int i = 0; i < cumulative.length - 1; i++) {
+            if (u < cumulative[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        return weights.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.productservice.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Builds the HTTP request for each operation. Product IDs are drawn from a
+ * Zipf distribution over the seeded catalog so that a small hot set receives
+ * most reads, and search parameters follow the catalog's category skew.
+ */
+public final class RequestFactory {
+
+    private static final long ID_SCRAMBLE = 0x5DEECE66DL;
+
+    // CHECKSTYLE:OFF - immutable factory state uses standard naming
+    private final String baseUrl;
+    private final CatalogGenerator catalog;
+    private final long catalogSize;
+    private final ZipfSampler idSampler;
+    private final Duration timeout;
+    private final AtomicLong nextNewId;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates a request factory.
+     *
+     * @param pBaseUrl
+     *            the service base URL
+     * @param pCatalog
+     *            the catalog generator used to seed the service
+     * @param pCatalogSize
+     *            number of products loaded into the service
+     * @param pIdSkew
+     *            Zipf exponent for ID selection
+     * @param pTimeout
+     *            per-request timeout
+     */
+    public RequestFactory(String pBaseUrl, CatalogGenerator pCatalog, long pCatalogSize, double pIdSkew,
+            Duration pTimeout) {
+        this.baseUrl = pBaseUrl;
+        this.catalog = pCatalog;
+        this.catalogSize = pCatalogSize;
+        this.idSampler = new ZipfSampler((int) pCatalogSize, pIdSkew);
+        this.timeout = pTimeout;
+        this.nextNewId = new AtomicLong(pCatalogSize + 1);
+    }
+
+    /**
+     * Builds the request for an operation.
+     *
+     * @param pOperation
+     *            the operation
+     * @param pRandom
+     *            the random source (request stream)
+     * @return the request
+     */
+    public HttpRequest build(Operation pOperation, SplittableRandom pRandom) {
+        switch (pOperation) {
+        case GET_BY_ID:
+            return request("/api/products/" + hotId(pRandom)).GET().build();
+        case SEARCH:
+            return request("/api/products/search?" + searchQuery(pRandom)).GET().build();
+        case CREATE:
+            return request("/api/products").header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(catalog.product(nextNewId.getAndIncrement()).toJson()))
+                    .build();
+        case UPDATE:
+            long id = hotId(pRandom);
+            CatalogGenerator.GeneratedProduct product = catalog.product(id);
+            CatalogGenerator.GeneratedProduct updated = new CatalogGenerator.GeneratedProduct(id, product.name(),
+                    product.category(), product.price(), pRandom.nextInt(500));
+            return request("/api/products/" + id).header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(updated.toJson())).build();
+        case DELETE:
+            return request("/api/products/" + (1 + pRandom.nextLong(catalogSize))).DELETE().build();
+        default:
+            throw new IllegalStateException("Unhandled operation " + pOperation);
+        }
+    }
+
+    private HttpRequest.Builder request(String pPath) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + pPath)).timeout(timeout);
+    }
+
+    /**
+     * Maps a Zipf rank to a product ID, scattering hot ranks across the ID space
+     * so the hot set is not one contiguous block.
+     */
+    private long hotId(SplittableRandom pRandom) {
+        long rank = idSampler.sample(pRandom) - 1;
+        return Math.floorMod(rank * ID_SCRAMBLE, catalogSize) + 1;
+    }
+
+    private String searchQuery(SplittableRandom pRandom) {
+        String category = catalog.sampleCategory(pRandom);
+        double shape = pRandom.nextDouble();
+        if (shape < 0.5) {
+            return "category=" + encode(category);
+        }
+        if (shape < 0.75) {
+            double low = Math.floor(pRandom.nextDouble() * 50);
+            return "category=" + encode(category) + String.format(Locale.ROOT, "&minPrice=%.0f&maxPrice=%.0f", low,
+                    low + 10 + pRandom.nextInt(90));
+        }
+        if (shape < 0.9) {
+            String name = catalog.product(hotId(pRandom)).name();
+            return "name=" + encode(name.substring(0, name.indexOf(' ')));
+        }
+        double low = Math.floor(pRandom.nextDouble() * 100);
+        return String.format(Locale.ROOT, "minPrice=%.0f&maxPrice=%.0f", low, low + 5);
+    }
+
+    private static String encode(String pValue) {
+        return URLEncoder.encode(pValue, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.productservice.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distributed sampler over the ranks 1..n using rejection-inversion
+ * (Hörmann and Derflinger). Sampling is O(1) in time and memory, so it can be
+ * used for key spaces of tens of millions of products.
+ */
+public final class ZipfSampler {
+
+    // CHECKSTYLE:OFF - immutable sampler state uses standard naming
+    private final int numberOfElements;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralNumberOfElements;
+    private final double s;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates a sampler.
+     *
+     * @param pNumberOfElements
+     *            number of ranks (must be positive)
+     * @param pExponent
+     *            skew exponent (must be positive; around 1 is typical)
+     */
+    public ZipfSampler(int pNumberOfElements, double pExponent) {
+        if (pNumberOfElements <= 0 || pExponent <= 0) {
+            throw new IllegalArgumentException("Zipf sampler needs a positive size and exponent");
+        }
+        this.numberOfElements = pNumberOfElements;
+        this.exponent = pExponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1d;
+        this.hIntegralNumberOfElements = hIntegral(pNumberOfElements + 0.5);
+        this.s = 2d - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Draws a rank; rank 1 is the most frequent.
+     *
+     * @param pRandom
+     *            the random source
+     * @return a rank between 1 and the number of elements
+     */
+    public int sample(SplittableRandom pRandom) {
+        while (true) {
+            double u = hIntegralNumberOfElements + pRandom.nextDouble() * (hIntegralX1 - hIntegralNumberOfElements);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > numberOfElements) {
+                k = numberOfElements;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double hIntegral(double pX) {
+        double logX = Math.log(pX);
+        return helper2((1d - exponent) * logX) * logX;
+    }
+
+    private double h(double pX) {
+        return Math.exp(-exponent * Math.log(pX));
+    }
+
+    private double hIntegralInverse(double pX) {
+        double t = pX * (1d - exponent);
+        if (t < -1d) {
+            t = -1d;
+        }
+        return Math.exp(helper1(t) * pX);
+    }
+
+    private static double helper1(double pX) {
+        if (Math.abs(pX) > 1e-8) {
+            return Math.log1p(pX) / pX;
+        }
+        return 1 - pX * (0.5 - pX * (1d / 3 - 0.25 * pX));
+    }
+
+    private static double helper2(double pX) {
+        if (Math.abs(pX) > 1e-8) {
+            return Math.expm1(pX) / pX;
+        }
+        return 1 + pX * 0.5 * (1 + pX * (1d / 3) * (1 + 0.25 * pX));
+    }
+}
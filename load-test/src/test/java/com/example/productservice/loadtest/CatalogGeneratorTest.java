@@ -0,0 +1,90 @@
+package com.example.productservice.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for the seeded catalog generator and its samplers.
+ */
+@DisplayName("Catalog Generator Tests")
+class CatalogGeneratorTest {
+
+    @Test
+    @DisplayName("Should generate the same catalog for the same seed")
+    void testReproducible() throws IOException {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        new CatalogGenerator(7L).writeCsv(500, first);
+        new CatalogGenerator(7L).writeCsv(500, second);
+
+        assertEquals(first.toString(), second.toString());
+        assertNotEquals(first.toString(), csv(new CatalogGenerator(8L), 500));
+    }
+
+    @Test
+    @DisplayName("Should skew categories towards the most popular ones")
+    void testCategorySkew() {
+        CatalogGenerator generator = new CatalogGenerator(1L);
+        Map<String, Integer> counts = new HashMap<>();
+        for (long id = 1; id <= 20_000; id++) {
+            counts.merge(generator.product(id).category(), 1, Integer::sum);
+        }
+        int top = counts.get(CatalogGenerator.CATEGORIES[0]);
+        int tail = counts.getOrDefault(CatalogGenerator.CATEGORIES[CatalogGenerator.CATEGORIES.length - 1], 0);
+
+        assertTrue(top > 10 * tail, "top category should dominate the tail");
+    }
+
+    @Test
+    @DisplayName("Should produce valid prices and stock")
+    void testValidValues() {
+        CatalogGenerator generator = new CatalogGenerator(3L);
+        for (long id = 1; id <= 5_000; id++) {
+            CatalogGenerator.GeneratedProduct product = generator.product(id);
+            assertTrue(product.price() >= 0);
+            assertTrue(product.stock() >= 0);
+            assertEquals(id, product.id());
+        }
+    }
+
+    @Test
+    @DisplayName("Should sample Zipf ranks within bounds")
+    void testZipfBounds() {
+        ZipfSampler sampler = new ZipfSampler(50_000_000, 0.99);
+        SplittableRandom random = new SplittableRandom(5L);
+        int ones = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int rank = sampler.sample(random);
+            assertTrue(rank >= 1 && rank <= 50_000_000);
+            if (rank == 1) {
+                ones++;
+            }
+        }
+        assertTrue(ones > 100, "rank 1 should be the most frequent");
+    }
+
+    @Test
+    @DisplayName("Should parse operation mix and sizes")
+    void testMixAndSizes() {
+        OperationMix mix = OperationMix.parse("get=1,delete=0");
+        assertEquals(Operation.GET_BY_ID, mix.next(new SplittableRandom(1L)));
+        assertEquals(50_000_000L, LoadTestConfig.parseSize("50m"));
+        assertEquals(100_000L, LoadTestConfig.parseSize("100k"));
+    }
+
+    private static String csv(CatalogGenerator pGenerator, long pSize) throws IOException {
+        StringWriter writer = new StringWriter();
+        pGenerator.writeCsv(pSize, writer);
+        return writer.toString();
+    }
+}
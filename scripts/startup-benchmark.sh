@@ -0,0 +1,82 @@
+#!/bin/bash
+# Script to measure time-to-first-successful-request for each startup mode.
+#
+# Usage: scripts/startup-benchmark.sh [runs] [port]
+#
+# Build the jar with the fast-start profile first so the AOT modes work:
+#   mvn clean package -Pfast-start -DskipTests
+#
+# Modes:
+#   default   - plain java -jar
+#   lazy      - spring.main.lazy-initialization=true
+#   aot       - AOT-generated bean definitions (spring.aot.enabled=true)
+#   aot-cds   - AOT plus an AppCDS archive created by a training run
+#   aot-cds-lazy - all of the above
+
+set -e
+
+RUNS=${1:-5}
+PORT=${2:-18080}
+JAR=$(ls target/product-service-*.jar 2>/dev/null | grep -v original | head -1)
+WORK_DIR=target/startup-benchmark
+URL="http://localhost:${PORT}/api/products"
+
+if [ -z "$JAR" ]; then
+  echo "❌ No jar found in target/, run: mvn clean package -Pfast-start -DskipTests"
+  exit 1
+fi
+
+# CDS needs an extracted (unpacked) jar layout; the fat jar cannot be archived
+rm -rf "$WORK_DIR"
+mkdir -p "$WORK_DIR"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK_DIR/app" >/dev/null
+APP_JAR="$WORK_DIR/app/$(basename "$JAR")"
+
+echo "Creating CDS archive with a training run..."
+java -XX:ArchiveClassesAtExit="$WORK_DIR/app.jsa" -Dspring.aot.enabled=true \
+  -Dspring.context.exit=onRefresh -jar "$APP_JAR" --server.port="$PORT" >"$WORK_DIR/training.log" 2>&1
+
+now_ms() {
+  date +%s%3N
+}
+
+# Starts the application with the given JVM flags and prints the milliseconds
+# until GET /api/products first returns 200.
+measure() {
+  local start end pid
+  start=$(now_ms)
+  # shellcheck disable=SC2086
+  java $1 -jar "$APP_JAR" --server.port="$PORT" >"$WORK_DIR/run.log" 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "❌ Application exited during startup, see $WORK_DIR/run.log" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  end=$(now_ms)
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo $((end - start))
+}
+
+run_mode() {
+  local name=$1 flags=$2 samples=() i
+  for ((i = 0; i < RUNS; i++)); do
+    samples+=("$(measure "$flags")")
+  done
+  local sorted
+  sorted=$(printf '%s\n' "${samples[@]}" | sort -n)
+  printf '%-14s median %6s ms   min %6s ms   max %6s ms\n' "$name" \
+    "$(echo "$sorted" | sed -n "$(((RUNS + 1) / 2))p")" \
+    "$(echo "$sorted" | head -1)" "$(echo "$sorted" | tail -1)"
+}
+
+echo "Time to first successful request over $RUNS runs:"
+run_mode "default" ""
+run_mode "lazy" "-Dspring.main.lazy-initialization=true"
+run_mode "aot" "-Dspring.aot.enabled=true"
+run_mode "aot-cds" "-XX:SharedArchiveFile=$WORK_DIR/app.jsa -Dspring.aot.enabled=true"
+run_mode "aot-cds-lazy" \
+  "-XX:SharedArchiveFile=$WORK_DIR/app.jsa -Dspring.aot.enabled=true -Dspring.main.lazy-initialization=true"
@@ -0,0 +1,103 @@
+package com.example.productservice.bulkhead;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that gives each workload class its own share of the connection
+ * pool: a thread working for a class must take one of the class's permits
+ * before it gets a connection, and returns it when the connection is closed.
+ * Bulk reads can then hold at most their share, and the rest of the pool stays
+ * available to interactive reads. Threads outside a classified request
+ * (startup, background jobs) are not limited.
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    // CHECKSTYLE:OFF - wrapper fields use standard naming
+    private final Bulkheads bulkheads;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the wrapper.
+     *
+     * @param pTarget
+     *            the shared pool
+     * @param pBulkheads
+     *            the connection permits of each class
+     */
+    public BulkheadDataSource(DataSource pTarget, Bulkheads pBulkheads) {
+        super(pTarget);
+        this.bulkheads = pBulkheads;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        WorkloadClass workload = WorkloadContext.current();
+        if (workload == null) {
+            return super.getConnection();
+        }
+        acquire(workload);
+        try {
+            return wrap(super.getConnection(), workload);
+        } catch (SQLException | RuntimeException e) {
+            bulkheads.releaseConnection(workload);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String pUsername, String pPassword) throws SQLException {
+        WorkloadClass workload = WorkloadContext.current();
+        if (workload == null) {
+            return super.getConnection(pUsername, pPassword);
+        }
+        acquire(workload);
+        try {
+            return wrap(super.getConnection(pUsername, pPassword), workload);
+        } catch (SQLException | RuntimeException e) {
+            bulkheads.releaseConnection(workload);
+            throw e;
+        }
+    }
+
+    private void acquire(WorkloadClass pWorkload) throws SQLException {
+        try {
+            if (!bulkheads.acquireConnection(pWorkload)) {
+                throw new SQLTransientConnectionException("No " + pWorkload.tag() + " connection available within "
+                        + bulkheads.getConnectionTimeoutMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    /**
+     * Wraps a connection so closing it returns the permit, once.
+     */
+    private Connection wrap(Connection pConnection, WorkloadClass pWorkload) {
+        AtomicBoolean released = new AtomicBoolean();
+        Class<?>[] interfaces = new Class<?>[1];
+        interfaces[0] = Connection.class;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(pConnection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    } finally {
+                        if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                            bulkheads.releaseConnection(pWorkload);
+                        }
+                    }
+                });
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.productservice.bulkhead;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs each request on the executor of its endpoint's workload class (see
+ * {@link Workload}) and waits for it. The request is rejected with 503 and a
+ * {@code Retry-After} header when that class's queue is full, so a burst of one
+ * class holds at most its threads plus its queue limit of the container's
+ * threads and never waits behind another class.
+ *
+ * <p>
+ * The filter must run before filters that keep per-request state in thread
+ * locals, since the rest of the chain runs on the executor thread.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    // CHECKSTYLE:OFF - filter state uses standard naming
+    private final Bulkheads bulkheads;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final Map<Method, WorkloadClass> workloads = new ConcurrentHashMap<>();
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the filter.
+     *
+     * @param pBulkheads
+     *            the executors of the workload classes
+     * @param pHandlerMapping
+     *            the mapping used to find the endpoint of a request
+     */
+    public BulkheadFilter(Bulkheads pBulkheads, RequestMappingHandlerMapping pHandlerMapping) {
+        this.bulkheads = pBulkheads;
+        this.handlerMapping = pHandlerMapping;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest pRequest, HttpServletResponse pResponse, FilterChain pChain)
+            throws ServletException, IOException {
+        Future<Void> future;
+        try {
+            future = bulkheads.submit(classify(pRequest), () -> {
+                pChain.doFilter(pRequest, pResponse);
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            pResponse.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            pResponse.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for the request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof ServletException servlet) {
+                throw servlet;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new ServletException(cause);
+        }
+    }
+
+    /**
+     * Finds the workload class of the endpoint a request is mapped to.
+     *
+     * @param pRequest
+     *            the request
+     * @return the class, {@link WorkloadClass#INTERACTIVE} if the endpoint has none
+     *         or the request maps to no endpoint
+     */
+    WorkloadClass classify(HttpServletRequest pRequest) {
+        boolean parsed = ServletRequestPathUtils.hasParsedRequestPath(pRequest);
+        if (!parsed) {
+            ServletRequestPathUtils.parseAndCache(pRequest);
+        }
+        try {
+            HandlerExecutionChain chain = handlerMapping.getHandler(pRequest);
+            if (chain != null && chain.getHandler() instanceof HandlerMethod handler) {
+                return workloads.computeIfAbsent(handler.getMethod(), method -> workloadOf(handler));
+            }
+        } catch (Exception e) {
+            // No endpoint accepts the request; the dispatcher answers it
+        } finally {
+            if (!parsed) {
+                ServletRequestPathUtils.clearParsedRequestPath(pRequest);
+            }
+        }
+        return WorkloadClass.INTERACTIVE;
+    }
+
+    private static WorkloadClass workloadOf(HandlerMethod pHandler) {
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(pHandler.getMethod(), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(pHandler.getBeanType(), Workload.class);
+        }
+        return workload == null ? WorkloadClass.INTERACTIVE : workload.value();
+    }
+}
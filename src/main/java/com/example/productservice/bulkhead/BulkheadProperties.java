@@ -0,0 +1,214 @@
+package com.example.productservice.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the workload bulkheads, bound from
+ * {@code product.bulkheads.*}, with one {@link Compartment} per workload class.
+ */
+@ConfigurationProperties(prefix = "product.bulkheads")
+public class BulkheadProperties {
+
+    /**
+     * Limits of one workload class.
+     */
+    public static class Compartment {
+        // CHECKSTYLE:OFF - configuration property fields use standard naming
+        private int threads;
+        private int queueCapacity;
+        private int connections;
+        // CHECKSTYLE:ON
+
+        /**
+         * Creates limits with defaults.
+         *
+         * @param pThreads
+         *            the default executor size
+         * @param pQueueCapacity
+         *            the default queue limit
+         * @param pConnections
+         *            the default connection share
+         */
+        public Compartment(int pThreads, int pQueueCapacity, int pConnections) {
+            this.threads = pThreads;
+            this.queueCapacity = pQueueCapacity;
+            this.connections = pConnections;
+        }
+
+        /**
+         * Gets the number of threads serving requests of the class.
+         *
+         * @return the executor size
+         */
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * Sets the number of threads serving requests of the class.
+         *
+         * @param pThreads
+         *            the executor size
+         */
+        public void setThreads(int pThreads) {
+            this.threads = pThreads;
+        }
+
+        /**
+         * Gets the number of requests that may wait for a thread before new ones are
+         * rejected.
+         *
+         * @return the queue limit
+         */
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        /**
+         * Sets the number of requests that may wait for a thread.
+         *
+         * @param pQueueCapacity
+         *            the queue limit
+         */
+        public void setQueueCapacity(int pQueueCapacity) {
+            this.queueCapacity = pQueueCapacity;
+        }
+
+        /**
+         * Gets the number of database connections the class may hold at once.
+         *
+         * @return the connection share
+         */
+        public int getConnections() {
+            return connections;
+        }
+
+        /**
+         * Sets the number of database connections the class may hold at once.
+         *
+         * @param pConnections
+         *            the connection share
+         */
+        public void setConnections(int pConnections) {
+            this.connections = pConnections;
+        }
+    }
+
+    // CHECKSTYLE:OFF - configuration property fields use standard naming
+    private boolean enabled;
+    private long connectionTimeoutMillis = 1000;
+    private Compartment interactive = new Compartment(32, 64, 5);
+    private Compartment bulk = new Compartment(4, 8, 3);
+    private Compartment write = new Compartment(8, 32, 2);
+    // CHECKSTYLE:ON
+
+    /**
+     * Indicates whether requests run in bulkheads.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables the bulkheads.
+     *
+     * @param pEnabled
+     *            the flag
+     */
+    public void setEnabled(boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Gets how long a request waits for a connection of its class's share.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    /**
+     * Sets how long a request waits for a connection of its class's share.
+     *
+     * @param pConnectionTimeoutMillis
+     *            the timeout in milliseconds
+     */
+    public void setConnectionTimeoutMillis(long pConnectionTimeoutMillis) {
+        this.connectionTimeoutMillis = pConnectionTimeoutMillis;
+    }
+
+    /**
+     * Gets the limits of interactive reads.
+     *
+     * @return the limits
+     */
+    public Compartment getInteractive() {
+        return interactive;
+    }
+
+    /**
+     * Sets the limits of interactive reads.
+     *
+     * @param pInteractive
+     *            the limits
+     */
+    public void setInteractive(Compartment pInteractive) {
+        this.interactive = pInteractive;
+    }
+
+    /**
+     * Gets the limits of bulk reads.
+     *
+     * @return the limits
+     */
+    public Compartment getBulk() {
+        return bulk;
+    }
+
+    /**
+     * Sets the limits of bulk reads.
+     *
+     * @param pBulk
+     *            the limits
+     */
+    public void setBulk(Compartment pBulk) {
+        this.bulk = pBulk;
+    }
+
+    /**
+     * Gets the limits of writes.
+     *
+     * @return the limits
+     */
+    public Compartment getWrite() {
+        return write;
+    }
+
+    /**
+     * Sets the limits of writes.
+     *
+     * @param pWrite
+     *            the limits
+     */
+    public void setWrite(Compartment pWrite) {
+        this.write = pWrite;
+    }
+
+    /**
+     * Gets the limits of a workload class.
+     *
+     * @param pWorkload
+     *            the class
+     * @return the limits
+     */
+    public Compartment of(WorkloadClass pWorkload) {
+        return switch (pWorkload) {
+            case INTERACTIVE -> interactive;
+            case BULK -> bulk;
+            case WRITE -> write;
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.productservice.bulkhead;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * One compartment per {@link WorkloadClass}: a bounded executor that runs the
+ * class's requests and a permit count that caps the database connections it
+ * holds. A flood of one class fills its own queue and is rejected there, while
+ * the threads and connections of the other classes stay free.
+ */
+public class Bulkheads implements DisposableBean, MeterBinder {
+
+    /**
+     * Executor and connection permits of one workload class.
+     */
+    private static final class Compartment {
+        // CHECKSTYLE:OFF - internal compartment state uses standard naming
+        private final ThreadPoolExecutor executor;
+        private final int capacity;
+        private final Semaphore connections;
+        private final int connectionLimit;
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder connectionTimeouts = new LongAdder();
+        // CHECKSTYLE:ON
+
+        Compartment(WorkloadClass pWorkload, BulkheadProperties.Compartment pLimits) {
+            int threads = Math.max(1, pLimits.getThreads());
+            int queueCapacity = Math.max(1, pLimits.getQueueCapacity());
+            AtomicInteger count = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), r -> {
+                        Thread thread = new Thread(r, "bulkhead-" + pWorkload.tag() + "-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            this.executor.allowCoreThreadTimeOut(true);
+            this.capacity = threads + queueCapacity;
+            this.connectionLimit = Math.max(1, pLimits.getConnections());
+            this.connections = new Semaphore(connectionLimit, true);
+        }
+
+        double saturation() {
+            return (double) (executor.getActiveCount() + executor.getQueue().size()) / capacity;
+        }
+    }
+
+    // CHECKSTYLE:OFF - bean fields use standard naming
+    private final Map<WorkloadClass, Compartment> compartments = new EnumMap<>(WorkloadClass.class);
+    private final long connectionTimeoutMillis;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the compartments.
+     *
+     * @param pProperties
+     *            the limits of each workload class
+     */
+    public Bulkheads(BulkheadProperties pProperties) {
+        for (WorkloadClass workload : WorkloadClass.values()) {
+            compartments.put(workload, new Compartment(workload, pProperties.of(workload)));
+        }
+        this.connectionTimeoutMillis = pProperties.getConnectionTimeoutMillis();
+    }
+
+    /**
+     * Queues a task on the executor of a workload class. The task runs with the
+     * class set in {@link WorkloadContext}.
+     *
+     * @param <T>
+     *            the result type
+     * @param pWorkload
+     *            the workload class
+     * @param pTask
+     *            the task
+     * @return the task's future
+     * @throws RejectedExecutionException
+     *             if the class's queue is full
+     */
+    public <T> Future<T> submit(WorkloadClass pWorkload, Callable<T> pTask) {
+        Compartment compartment = compartments.get(pWorkload);
+        try {
+            return compartment.executor.submit(() -> {
+                WorkloadContext.set(pWorkload);
+                try {
+                    return pTask.call();
+                } finally {
+                    WorkloadContext.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compartment.rejections.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes one of the connection permits of a workload class, waiting up to the
+     * connection timeout.
+     *
+     * @param pWorkload
+     *            the workload class
+     * @return true if a permit was taken, false on timeout
+     * @throws InterruptedException
+     *             if interrupted while waiting
+     */
+    public boolean acquireConnection(WorkloadClass pWorkload) throws InterruptedException {
+        Compartment compartment = compartments.get(pWorkload);
+        if (compartment.connections.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        compartment.connectionTimeouts.increment();
+        return false;
+    }
+
+    /**
+     * Returns a connection permit taken with {@link #acquireConnection}.
+     *
+     * @param pWorkload
+     *            the workload class
+     */
+    public void releaseConnection(WorkloadClass pWorkload) {
+        compartments.get(pWorkload).connections.release();
+    }
+
+    /**
+     * Gets how long a request waits for a connection permit.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getConnectionTimeoutMillis() {
+        return connectionTimeoutMillis;
+    }
+
+    /**
+     * Gets how full a workload class's executor is: running and queued requests
+     * over threads plus queue capacity.
+     *
+     * @param pWorkload
+     *            the workload class
+     * @return the saturation between 0 and 1
+     */
+    public double saturation(WorkloadClass pWorkload) {
+        return compartments.get(pWorkload).saturation();
+    }
+
+    /**
+     * Stops the executor threads.
+     */
+    @Override
+    public void destroy() {
+        for (Compartment compartment : compartments.values()) {
+            compartment.executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        for (Map.Entry<WorkloadClass, Compartment> entry : compartments.entrySet()) {
+            String tag = entry.getKey().tag();
+            Compartment compartment = entry.getValue();
+            Gauge.builder("product.bulkhead.active", compartment.executor, ThreadPoolExecutor::getActiveCount)
+                    .tag("class", tag).description("Requests running on the class's executor").register(pRegistry);
+            Gauge.builder("product.bulkhead.queued", compartment.executor, executor -> executor.getQueue().size())
+                    .tag("class", tag).description("Requests waiting for a thread of the class").register(pRegistry);
+            Gauge.builder("product.bulkhead.saturation", compartment, Compartment::saturation).tag("class", tag)
+                    .description("Running and queued requests over threads plus queue capacity").register(pRegistry);
+            FunctionCounter.builder("product.bulkhead.rejections", compartment.rejections, LongAdder::sum)
+                    .tag("class", tag).description("Requests rejected because the class's queue was full")
+                    .register(pRegistry);
+            Gauge.builder("product.bulkhead.connections.active", compartment,
+                    c -> c.connectionLimit - c.connections.availablePermits()).tag("class", tag)
+                    .description("Database connections held by the class").register(pRegistry);
+            FunctionCounter
+                    .builder("product.bulkhead.connections.timeouts", compartment.connectionTimeouts, LongAdder::sum)
+                    .tag("class", tag).description("Connection requests that timed out on the class's share")
+                    .register(pRegistry);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.productservice.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Assigns the requests of a controller endpoint to a workload class. Endpoints
+ * without it are {@link WorkloadClass#INTERACTIVE}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface Workload {
+
+    /**
+     * Gets the workload class of the endpoint.
+     *
+     * @return the class
+     */
+    WorkloadClass value();
+}
@@ -0,0 +1,28 @@
+package com.example.productservice.bulkhead;
+
+import java.util.Locale;
+
+/**
+ * Classes of request traffic that get their own bulkhead: request executor,
+ * share of database connections and queue limit.
+ */
+public enum WorkloadClass {
+
+    /** Latency-sensitive reads of single or few products. */
+    INTERACTIVE,
+
+    /** Large reads: whole-catalog lists and searches. */
+    BULK,
+
+    /** Creates, updates, deletes and bulk updates. */
+    WRITE;
+
+    /**
+     * Gets the name used in thread names and metric tags.
+     *
+     * @return the lower-case name
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productservice.bulkhead;
+
+/**
+ * Workload class of the request the current thread works for, so
+ * {@link BulkheadDataSource} takes its connections from that class's share.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * Gets the workload class of this thread.
+     *
+     * @return the class, or null outside a classified request
+     */
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the workload class of this thread.
+     *
+     * @param pWorkload
+     *            the class, or null to clear it
+     */
+    public static void set(WorkloadClass pWorkload) {
+        if (pWorkload == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(pWorkload);
+        }
+    }
+
+    /**
+     * Clears the workload class of this thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,628 @@
+package com.example.productservice.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.event.StockFlushedEvent;
+import com.example.productservice.hotkeys.HotKeyTracker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Read-through product cache that keeps products outside the Java heap, so a
+ * large cached catalog adds neither live objects for the GC to trace nor old
+ * generation to collect. Each product is encoded into a compact record (price,
+ * stock, UTF-8 name and category) and materialized as a new {@link Product}
+ * only when it is read.
+ *
+ * <p>
+ * The memory budget is split into segments, each with its own lock, a ring of
+ * fixed-size slabs carved from direct buffers, and an open-addressing index
+ * from product ID to record address, itself held in a direct buffer. Records
+ * are appended to the current slab; a rewritten product leaves its old record
+ * behind as garbage. When the ring is full the oldest slab is reclaimed:
+ * records read since the slab was last reclaimed get a second chance and are
+ * copied back, all others are evicted. The heap holds only the segment
+ * bookkeeping.
+ *
+ * <p>
+ * With hot-key tracking enabled, a new product that would force an eviction is
+ * only admitted if it is read more often than the record that would be evicted
+ * first, so a scan over cold IDs cannot push hot products out.
+ *
+ * <p>
+ * Writes invalidate entries after commit, with the same version check as
+ * {@link ProductJsonCache}, so a load that raced with a write never leaves its
+ * stale copy behind.
+ */
+@Component
+public class OffHeapProductCache implements MeterBinder {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    /** Record header: total length (int), product ID (long), read flag (byte). */
+    private static final int HEADER_BYTES = 13;
+    private static final int KEY_OFFSET = 4;
+    private static final int REFERENCED_OFFSET = 12;
+    private static final int NULL_STRING = -1;
+
+    /** Live records of the oldest slab inspected for an admission victim. */
+    private static final int ADMISSION_SCAN = 8;
+
+    /**
+     * One independently locked part of the cache. Index slots hold two longs, the
+     * product ID (0 for an empty slot) and the record address, which is the slab
+     * number in the high and the offset in the low 32 bits.
+     */
+    private static final class Segment {
+        // CHECKSTYLE:OFF - internal segment state uses standard naming
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ByteBuffer[] slabs;
+        private final int[] slabFill;
+        private final LongBuffer index;
+        private final int indexMask;
+        private final int maxEntries;
+        private int entries;
+        private int head = -1;
+        // CHECKSTYLE:ON
+
+        Segment(int pSlabs, int pMaxEntries) {
+            this.slabs = new ByteBuffer[pSlabs];
+            this.slabFill = new int[pSlabs];
+            int capacity = Integer.highestOneBit(Math.max(2, pMaxEntries * 4 / 3) - 1) << 1;
+            this.index = ByteBuffer.allocateDirect(capacity * 2 * Long.BYTES).asLongBuffer();
+            this.indexMask = capacity - 1;
+            this.maxEntries = Math.min(pMaxEntries, capacity * 3 / 4);
+        }
+
+        int find(long pKey) {
+            for (int slot = slot(pKey, indexMask);; slot = (slot + 1) & indexMask) {
+                long key = index.get(slot * 2);
+                if (key == pKey) {
+                    return slot;
+                }
+                if (key == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        void indexPut(long pKey, long pAddress) {
+            int slot = slot(pKey, indexMask);
+            while (index.get(slot * 2) != 0 && index.get(slot * 2) != pKey) {
+                slot = (slot + 1) & indexMask;
+            }
+            if (index.get(slot * 2) == 0) {
+                entries++;
+            }
+            index.put(slot * 2, pKey);
+            index.put(slot * 2 + 1, pAddress);
+        }
+
+        boolean indexRemove(long pKey) {
+            int gap = find(pKey);
+            if (gap < 0) {
+                return false;
+            }
+            // Backward-shift deletion keeps probe runs unbroken without tombstones
+            for (int j = (gap + 1) & indexMask; index.get(j * 2) != 0; j = (j + 1) & indexMask) {
+                int home = slot(index.get(j * 2), indexMask);
+                boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    index.put(gap * 2, index.get(j * 2));
+                    index.put(gap * 2 + 1, index.get(j * 2 + 1));
+                    gap = j;
+                }
+            }
+            index.put(gap * 2, 0);
+            index.put(gap * 2 + 1, 0);
+            entries--;
+            return true;
+        }
+
+        void clear() {
+            for (int i = 0; i < index.capacity(); i++) {
+                index.put(i, 0);
+            }
+            entries = 0;
+            for (int i = 0; i < slabFill.length; i++) {
+                slabFill[i] = 0;
+            }
+            head = -1;
+        }
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final boolean enabled;
+    private final int slabBytes;
+    private final Segment[] segments;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder admissionRejections = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private HotKeyTracker hotKeys;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with configuration injection. Off-heap memory is only reserved
+     * when the cache is enabled, and slabs are allocated as they fill.
+     *
+     * @param pEnabled
+     *            whether product reads go through the cache
+     * @param pCapacityMegabytes
+     *            memory budget for the slabs, in MiB
+     * @param pSlabKilobytes
+     *            slab size in KiB, which is also the largest record size
+     * @param pSegments
+     *            number of independently locked segments (rounded up to a power of
+     *            two); each gets at least two slabs
+     * @param pMaxEntries
+     *            maximum number of cached products, which sizes the index
+     */
+    public OffHeapProductCache(@Value("${product.offheap-cache.enabled:false}") boolean pEnabled,
+            @Value("${product.offheap-cache.capacity-mb:256}") int pCapacityMegabytes,
+            @Value("${product.offheap-cache.slab-kb:1024}") int pSlabKilobytes,
+            @Value("${product.offheap-cache.segments:16}") int pSegments,
+            @Value("${product.offheap-cache.max-entries:1000000}") int pMaxEntries) {
+        this.enabled = pEnabled;
+        this.slabBytes = pSlabKilobytes * 1024;
+        int segmentCount = pSegments <= 1 ? 1 : Integer.highestOneBit(pSegments - 1) << 1;
+        this.segments = new Segment[pEnabled ? segmentCount : 0];
+        long slabsPerSegment = Math.max(2, (long) pCapacityMegabytes * 1024 * 1024 / slabBytes / segmentCount);
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment((int) slabsPerSegment, Math.max(16, pMaxEntries / segmentCount));
+        }
+    }
+
+    /**
+     * Sets the hot-key tracker whose ID counts decide admission when the cache is
+     * full.
+     *
+     * @param pHotKeys
+     *            the tracker
+     */
+    @Autowired(required = false)
+    public void setHotKeys(HotKeyTracker pHotKeys) {
+        this.hotKeys = pHotKeys;
+    }
+
+    /**
+     * Indicates whether the cache is active.
+     *
+     * @return true if product reads should go through the cache
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up a product and materializes it.
+     *
+     * @param pId
+     *            the product ID
+     * @return a new product instance, or null on a miss
+     */
+    public Product get(Long pId) {
+        if (!enabled || pId == null || pId <= 0) {
+            return null;
+        }
+        Segment segment = segmentFor(pId);
+        byte[] record;
+        segment.lock.lock();
+        try {
+            int slot = segment.find(pId);
+            if (slot < 0) {
+                record = null;
+            } else {
+                long address = segment.index.get(slot * 2 + 1);
+                ByteBuffer slab = segment.slabs[(int) (address >>> 32)];
+                int offset = (int) address;
+                slab.put(offset + REFERENCED_OFFSET, (byte) 1);
+                record = new byte[slab.getInt(offset) - HEADER_BYTES];
+                slab.get(offset + HEADER_BYTES, record);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+        if (record == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return decode(pId, record);
+    }
+
+    /**
+     * Returns the current version of a product's stripe. Callers read it before
+     * loading the product and pass it to {@link #put(Product, long)}.
+     *
+     * @param pId
+     *            the product ID
+     * @return the version
+     */
+    public long version(Long pId) {
+        return versions.get(stripe(pId));
+    }
+
+    /**
+     * Caches a freshly loaded product if it has not been written since the version
+     * was read. Products whose record would not fit in a slab are not cached, nor
+     * are products colder than the record they would evict.
+     *
+     * @param pProduct
+     *            the product
+     * @param pVersion
+     *            the value of {@link #version(Long)} read before loading
+     */
+    public void put(Product pProduct, long pVersion) {
+        Long id = pProduct.getId();
+        if (!enabled || id == null || id <= 0) {
+            return;
+        }
+        byte[] record = encode(pProduct);
+        if (record == null || HEADER_BYTES + record.length > slabBytes) {
+            rejections.increment();
+            return;
+        }
+        HotKeyTracker tracker = hotKeys;
+        boolean admission = tracker != null && tracker.isEnabled();
+        int frequency = admission ? tracker.idFrequency(id) : 0;
+        Segment segment = segmentFor(id);
+        segment.lock.lock();
+        try {
+            if (admission) {
+                long victim = evictionVictim(segment, id, HEADER_BYTES + record.length);
+                if (victim != 0 && frequency <= tracker.idFrequency(victim)) {
+                    admissionRejections.increment();
+                    return;
+                }
+            }
+            long address = append(segment, id, record);
+            segment.indexPut(id, address);
+        } finally {
+            segment.lock.unlock();
+        }
+        if (versions.get(stripe(id)) != pVersion) {
+            remove(id);
+        }
+    }
+
+    /**
+     * Drops the entry of a written product once the write has committed.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (enabled) {
+            invalidate(pEvent.getProductId());
+        }
+    }
+
+    /**
+     * Drops the entries of products whose buffered stock was written, as they may
+     * have been filled from the store before the write.
+     *
+     * @param pEvent
+     *            the written batch
+     */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent pEvent) {
+        if (enabled) {
+            for (Long id : pEvent.getProductIds()) {
+                invalidate(id);
+            }
+        }
+    }
+
+    private void invalidate(Long pId) {
+        // Bump the version before removing so a concurrent fill either sees the new
+        // version and removes its own entry, or is removed here
+        versions.incrementAndGet(stripe(pId));
+        if (remove(pId)) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Drops every entry after a bulk write to a category, whose products are not
+     * known individually.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Drops every entry when changes on other nodes may have been missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Removes every entry; the slabs stay allocated for reuse.
+     */
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                invalidations.add(segment.entries);
+                segment.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cached products.
+     *
+     * @return the entry count
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the off-heap memory allocated so far for slabs and indexes.
+     *
+     * @return the allocated bytes
+     */
+    public long allocatedBytes() {
+        long bytes = allocatedBytes.sum();
+        for (Segment segment : segments) {
+            bytes += (long) segment.index.capacity() * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    private boolean remove(Long pId) {
+        Segment segment = segmentFor(pId);
+        segment.lock.lock();
+        try {
+            return segment.indexRemove(pId);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a record to the current slab, moving on to the next slab (and
+     * reclaiming it) while the current one is full or the index is at its bound.
+     */
+    private long append(Segment pSegment, long pKey, byte[] pRecord) {
+        int length = HEADER_BYTES + pRecord.length;
+        boolean newKey = pSegment.find(pKey) < 0;
+        while (pSegment.head < 0 || pSegment.slabFill[pSegment.head] + length > slabBytes
+                || (newKey && pSegment.entries >= pSegment.maxEntries)) {
+            advance(pSegment);
+            newKey = pSegment.find(pKey) < 0;
+        }
+        return write(pSegment, pSegment.head, pKey, pRecord);
+    }
+
+    /**
+     * Finds the product a new record would evict first: the first unread live
+     * record among the first few of the next slab, when appending needs that slab.
+     *
+     * @return the product ID, or 0 if the append evicts nothing or only read
+     *         records
+     */
+    private long evictionVictim(Segment pSegment, long pKey, int pLength) {
+        if (pSegment.head < 0 || pSegment.find(pKey) >= 0) {
+            return 0;
+        }
+        int next = (pSegment.head + 1) % pSegment.slabs.length;
+        boolean slabFull = pSegment.slabFill[pSegment.head] + pLength > slabBytes;
+        if (pSegment.slabs[next] == null || (!slabFull && pSegment.entries < pSegment.maxEntries)) {
+            return 0;
+        }
+        ByteBuffer slab = pSegment.slabs[next];
+        int live = 0;
+        for (int offset = 0; offset < pSegment.slabFill[next] && live < ADMISSION_SCAN;) {
+            long key = slab.getLong(offset + KEY_OFFSET);
+            int slot = pSegment.find(key);
+            if (slot >= 0 && pSegment.index.get(slot * 2 + 1) == (((long) next << 32) | offset)) {
+                if (slab.get(offset + REFERENCED_OFFSET) == 0) {
+                    return key;
+                }
+                live++;
+            }
+            offset += slab.getInt(offset);
+        }
+        return 0;
+    }
+
+    private void advance(Segment pSegment) {
+        int next = (pSegment.head + 1) % pSegment.slabs.length;
+        if (pSegment.slabs[next] == null) {
+            pSegment.slabs[next] = ByteBuffer.allocateDirect(slabBytes);
+            allocatedBytes.add(slabBytes);
+        } else {
+            reclaim(pSegment, next);
+        }
+        pSegment.head = next;
+    }
+
+    /**
+     * Empties a slab: live records read since the last pass are written back with
+     * their read flag cleared, everything else is evicted or was garbage.
+     */
+    private void reclaim(Segment pSegment, int pSlab) {
+        ByteBuffer slab = pSegment.slabs[pSlab];
+        List<byte[]> survivors = new ArrayList<>();
+        List<Long> survivorKeys = new ArrayList<>();
+        int end = pSegment.slabFill[pSlab];
+        for (int offset = 0; offset < end;) {
+            int length = slab.getInt(offset);
+            long key = slab.getLong(offset + KEY_OFFSET);
+            int slot = pSegment.find(key);
+            long address = ((long) pSlab << 32) | offset;
+            if (slot >= 0 && pSegment.index.get(slot * 2 + 1) == address) {
+                if (slab.get(offset + REFERENCED_OFFSET) != 0) {
+                    byte[] record = new byte[length - HEADER_BYTES];
+                    slab.get(offset + HEADER_BYTES, record);
+                    survivors.add(record);
+                    survivorKeys.add(key);
+                } else {
+                    pSegment.indexRemove(key);
+                    evictions.increment();
+                }
+            }
+            offset += length;
+        }
+        pSegment.slabFill[pSlab] = 0;
+        for (int i = 0; i < survivors.size(); i++) {
+            long key = survivorKeys.get(i);
+            pSegment.indexPut(key, write(pSegment, pSlab, key, survivors.get(i)));
+        }
+    }
+
+    private long write(Segment pSegment, int pSlab, long pKey, byte[] pRecord) {
+        ByteBuffer slab = pSegment.slabs[pSlab];
+        int offset = pSegment.slabFill[pSlab];
+        slab.putInt(offset, HEADER_BYTES + pRecord.length);
+        slab.putLong(offset + KEY_OFFSET, pKey);
+        slab.put(offset + REFERENCED_OFFSET, (byte) 0);
+        slab.put(offset + HEADER_BYTES, pRecord);
+        pSegment.slabFill[pSlab] = offset + HEADER_BYTES + pRecord.length;
+        return ((long) pSlab << 32) | offset;
+    }
+
+    /**
+     * Encodes a product as price (long), stock (int), then name and category as
+     * UTF-8 with a short length prefix (-1 for null).
+     *
+     * @return the record, or null if a string is too long to encode
+     */
+    private static byte[] encode(Product pProduct) {
+        byte[] name = pProduct.getName() == null ? null : pProduct.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] category = pProduct.getCategory() == null
+                ? null
+                : pProduct.getCategory().getBytes(StandardCharsets.UTF_8);
+        if ((name != null && name.length > Short.MAX_VALUE)
+                || (category != null && category.length > Short.MAX_VALUE)) {
+            return null;
+        }
+        ByteBuffer out = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + 2 * Short.BYTES
+                + (name == null ? 0 : name.length) + (category == null ? 0 : category.length));
+        out.putLong(pProduct.getPriceCents());
+        out.putInt(pProduct.getStockCount());
+        putString(out, name);
+        putString(out, category);
+        return out.array();
+    }
+
+    private static Product decode(long pId, byte[] pRecord) {
+        ByteBuffer in = ByteBuffer.wrap(pRecord);
+        Product product = new Product();
+        product.setId(pId);
+        product.setPriceCents(in.getLong());
+        product.setStockCount(in.getInt());
+        product.setName(getString(in));
+        product.setCategory(getString(in));
+        return product;
+    }
+
+    private static void putString(ByteBuffer pOut, byte[] pValue) {
+        if (pValue == null) {
+            pOut.putShort((short) NULL_STRING);
+        } else {
+            pOut.putShort((short) pValue.length);
+            pOut.put(pValue);
+        }
+    }
+
+    private static String getString(ByteBuffer pIn) {
+        int length = pIn.getShort();
+        if (length == NULL_STRING) {
+            return null;
+        }
+        String value = new String(pIn.array(), pIn.position(), length, StandardCharsets.UTF_8);
+        pIn.position(pIn.position() + length);
+        return value;
+    }
+
+    private Segment segmentFor(long pId) {
+        return segments[(int) (mix(pId) >>> 48) & (segments.length - 1)];
+    }
+
+    private static int slot(long pId, int pMask) {
+        return (int) mix(pId) & pMask;
+    }
+
+    private static long mix(long pValue) {
+        long z = pValue * 0x9E3779B97F4A7C15L;
+        return z ^ (z >>> 29);
+    }
+
+    private static int stripe(Long pId) {
+        long h = pId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (VERSION_STRIPES - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.offheap.cache.hits", hits, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.offheap.cache.misses", misses, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.offheap.cache.invalidations", invalidations, LongAdder::sum)
+                .register(pRegistry);
+        FunctionCounter.builder("product.offheap.cache.evictions", evictions, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.offheap.cache.rejections", rejections, LongAdder::sum)
+                .description("Products too large for a slab").register(pRegistry);
+        FunctionCounter.builder("product.offheap.cache.admission.rejections", admissionRejections, LongAdder::sum)
+                .description("Products not cached because they are colder than the eviction victim")
+                .register(pRegistry);
+        Gauge.builder("product.offheap.cache.size", this, OffHeapProductCache::size).register(pRegistry);
+        Gauge.builder("product.offheap.cache.allocated", this, OffHeapProductCache::allocatedBytes).baseUnit("bytes")
+                .description("Direct memory held by slabs and indexes").register(pRegistry);
+    }
+}
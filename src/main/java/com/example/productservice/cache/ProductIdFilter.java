@@ -0,0 +1,372 @@
+package com.example.productservice.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.tiering.ColdProductStore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Bloom filter of existing product IDs, so lookups of IDs that were never
+ * created are answered without a query. A negative answer is definite; a
+ * positive one still goes to the store, and when the store finds nothing it is
+ * counted as a false positive.
+ *
+ * <p>
+ * The filter is built from the store's IDs on startup and new IDs are added
+ * from committed create events. Deleted IDs cannot be removed from a Bloom
+ * filter, so it is rebuilt periodically, and early when the inserts since the
+ * last build exceed its capacity. While a rebuild scans the store, new IDs are
+ * also queued for the new filter so none is lost in the swap.
+ *
+ * <p>
+ * With tiering enabled the IDs of archived products are kept in the filter:
+ * they are still found by ID in the cold tier.
+ *
+ * <p>
+ * Only writes made through this service instance reach the filter before the
+ * next rebuild, so it must not be enabled while other writers (bulk loads,
+ * other instances) create products.
+ */
+@Component
+public class ProductIdFilter implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductIdFilter.class);
+
+    /** Smallest number of IDs a filter is sized for. */
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * Builds size for this many times the current catalog to leave room for growth.
+     */
+    private static final int GROWTH_FACTOR = 2;
+
+    /**
+     * Fixed-size bit set with its sizing parameters.
+     */
+    private static final class Bits {
+        // CHECKSTYLE:OFF - internal filter state uses standard naming
+        private final AtomicLongArray words;
+        private final long size;
+        private final int hashes;
+        private final long capacity;
+        private final LongAdder inserted = new LongAdder();
+        // CHECKSTYLE:ON
+
+        Bits(long pCapacity, double pFalsePositiveRate) {
+            long bits = (long) Math.ceil(-pCapacity * Math.log(pFalsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6);
+            this.words = new AtomicLongArray(wordCount);
+            this.size = (long) wordCount << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) size / pCapacity * Math.log(2)));
+            this.capacity = pCapacity;
+        }
+
+        void add(long pId) {
+            long h1 = mix(pId);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((h1 + i * h2) >>> 1) % size;
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                if ((words.get(word) & mask) == 0) {
+                    words.accumulateAndGet(word, mask, (current, set) -> current | set);
+                }
+            }
+            inserted.increment();
+        }
+
+        boolean mightContain(long pId) {
+            long h1 = mix(pId);
+            long h2 = mix(h1) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = ((h1 + i * h2) >>> 1) % size;
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            long set = 0;
+            for (int i = 0; i < words.length(); i++) {
+                set += Long.bitCount(words.get(i));
+            }
+            return Math.pow((double) set / size, hashes);
+        }
+
+        private static long mix(long pValue) {
+            long z = pValue + 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ProductStore productStore;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMillis;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private volatile Bits current;
+    private volatile Queue<Long> pending;
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+    private ColdProductStore coldStore;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection.
+     *
+     * @param pProductStore
+     *            the store the filter is built from
+     * @param pEnabled
+     *            whether lookups consult the filter
+     * @param pFalsePositiveRate
+     *            target false-positive rate at the filter's capacity
+     * @param pRebuildIntervalMillis
+     *            interval between rebuilds that drop deleted IDs
+     */
+    public ProductIdFilter(ProductStore pProductStore, @Value("${product.id-filter.enabled:false}") boolean pEnabled,
+            @Value("${product.id-filter.false-positive-rate:0.01}") double pFalsePositiveRate,
+            @Value("${product.id-filter.rebuild-interval-ms:300000}") long pRebuildIntervalMillis) {
+        this.productStore = pProductStore;
+        this.enabled = pEnabled;
+        this.falsePositiveRate = Math.min(0.5, Math.max(1e-9, pFalsePositiveRate));
+        this.rebuildIntervalMillis = pRebuildIntervalMillis;
+    }
+
+    /**
+     * Sets the cold tier, present when tiering is enabled.
+     *
+     * @param pColdStore
+     *            the cold tier
+     */
+    @Autowired(required = false)
+    public void setColdStore(ColdProductStore pColdStore) {
+        this.coldStore = pColdStore;
+    }
+
+    /**
+     * Indicates whether lookups should consult the filter.
+     *
+     * @return true if the filter is enabled and built
+     */
+    public boolean isEnabled() {
+        return enabled && current != null;
+    }
+
+    /**
+     * Checks whether a product may exist. A false result is definite and is counted
+     * as a short-circuited lookup.
+     *
+     * @param pId
+     *            the product ID
+     * @return false if the product certainly does not exist
+     */
+    public boolean mightContain(Long pId) {
+        Bits bits = current;
+        if (bits == null || pId == null || bits.mightContain(pId)) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Records that an ID the filter let through was not found in the store.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * Adds the IDs of created products once the insert has committed.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (!enabled || pEvent.getType() != ProductChangedEvent.Type.CREATED || pEvent.getProductId() == null) {
+            return;
+        }
+        add(pEvent.getProductId());
+    }
+
+    /**
+     * Rebuilds the filter when products created on other nodes may have been
+     * missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds an ID to the filter, and queues it for the filter being built if a
+     * rebuild is in progress.
+     *
+     * @param pId
+     *            the product ID
+     */
+    public void add(long pId) {
+        // Queue before reading the filter: an ID queued before the rebuild's last
+        // drain is drained, and one queued later sees the new filter here
+        Queue<Long> queue = pending;
+        if (queue != null) {
+            queue.add(pId);
+        }
+        Bits bits = current;
+        if (bits != null) {
+            bits.add(pId);
+            if (bits.inserted.sum() > bits.capacity && scheduler != null && !rebuilding.get()) {
+                scheduler.execute(this::rebuild);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the filter from the store's IDs, dropping deleted ones. The hot tier
+     * is scanned before the cold one, so a product archived in between is found in
+     * the cold scan and one restored in between is queued by its create event.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long started = System.nanoTime();
+            Queue<Long> queue = new ConcurrentLinkedQueue<>();
+            // Published before scanning: an ID committed after the scan's snapshot is
+            // queued by its create event
+            pending = queue;
+            List<Long> ids = productStore.findAllIds();
+            if (coldStore != null) {
+                ids = new ArrayList<>(ids);
+                ids.addAll(coldStore.findAllIds());
+            }
+            Bits building = new Bits(Math.max(MIN_CAPACITY, (long) ids.size() * GROWTH_FACTOR), falsePositiveRate);
+            for (Long id : ids) {
+                building.add(id);
+            }
+            drain(queue, building);
+            current = building;
+            drain(queue, building);
+            pending = null;
+            rebuilds.increment();
+            LOG.debug("Rebuilt product ID filter with {} IDs in {} ms", ids.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            pending = null;
+            LOG.warn("Product ID filter rebuild failed; keeping the previous filter", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private static void drain(Queue<Long> pQueue, Bits pBits) {
+        for (Long id = pQueue.poll(); id != null; id = pQueue.poll()) {
+            pBits.add(id);
+        }
+    }
+
+    /**
+     * Gets the observed false-positive rate: the share of lookups for missing IDs
+     * that the filter did not catch.
+     *
+     * @return the rate, or 0 before any missing ID was looked up
+     */
+    public double getFalsePositiveRate() {
+        double fp = falsePositives.sum();
+        double misses = fp + negatives.sum();
+        return misses == 0 ? 0 : fp / misses;
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            rebuild();
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "product-id-filter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::rebuild, rebuildIntervalMillis, rebuildIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Builds before the web server starts so the first lookups are filtered.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.id.filter.negatives", negatives, LongAdder::sum)
+                .description("Lookups of missing IDs answered without a query").register(pRegistry);
+        FunctionCounter.builder("product.id.filter.false.positives", falsePositives, LongAdder::sum)
+                .description("Lookups the filter let through that found nothing").register(pRegistry);
+        FunctionCounter.builder("product.id.filter.rebuilds", rebuilds, LongAdder::sum).register(pRegistry);
+        Gauge.builder("product.id.filter.false.positive.rate", this, ProductIdFilter::getFalsePositiveRate)
+                .description("Observed share of missing-ID lookups not caught by the filter").register(pRegistry);
+        Gauge.builder("product.id.filter.expected.false.positive.rate", this,
+                filter -> filter.current == null ? 0 : filter.current.expectedFalsePositiveRate())
+                .description("False-positive rate predicted from the filter's fill").register(pRegistry);
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.productservice.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.event.StockFlushedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cache of each product's serialized JSON document, so unchanged products are
+ * not run through Jackson again. Single-product responses write the cached
+ * bytes as they are; list responses are assembled by concatenating the
+ * documents.
+ *
+ * <p>
+ * Every write bumps a version for the product's stripe and a global epoch. A
+ * document is only kept if the version (or epoch, for lists) read before the
+ * product was loaded is still current after it was stored, so a load that raced
+ * with a write can never leave its stale document behind.
+ */
+@Component
+public class ProductJsonCache implements MeterBinder {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<Long, byte[]> documents = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection.
+     *
+     * @param pObjectMapper
+     *            the mapper used for the HTTP responses
+     * @param pEnabled
+     *            whether product documents are cached at all
+     * @param pMaxEntries
+     *            maximum number of cached documents
+     */
+    public ProductJsonCache(ObjectMapper pObjectMapper, @Value("${product.json-cache.enabled:false}") boolean pEnabled,
+            @Value("${product.json-cache.max-entries:100000}") int pMaxEntries) {
+        this.objectMapper = pObjectMapper;
+        this.enabled = pEnabled;
+        this.maxEntries = pMaxEntries;
+    }
+
+    /**
+     * Indicates whether the cache is active.
+     *
+     * @return true if responses should be built from cached documents
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the cached document of a product.
+     *
+     * @param pId
+     *            the product ID
+     * @return the JSON bytes, or null on a miss
+     */
+    public byte[] get(Long pId) {
+        byte[] document = documents.get(pId);
+        if (document == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return document;
+    }
+
+    /**
+     * Returns the current version of a product's stripe. Callers read it before
+     * loading the product and pass it to {@link #document(Product, long)}.
+     *
+     * @param pId
+     *            the product ID
+     * @return the version
+     */
+    public long version(Long pId) {
+        return versions.get(stripe(pId));
+    }
+
+    /**
+     * Returns the current global epoch. Callers read it before loading a list and
+     * pass it to {@link #array(List, long)}.
+     *
+     * @return the epoch
+     */
+    public long currentEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Serializes a freshly loaded product and caches the document if the product
+     * has not been written since the version was read.
+     *
+     * @param pProduct
+     *            the product
+     * @param pVersion
+     *            the value of {@link #version(Long)} read before loading
+     * @return the JSON bytes
+     */
+    public byte[] document(Product pProduct, long pVersion) {
+        byte[] document = serialize(pProduct);
+        Long id = pProduct.getId();
+        if (id != null) {
+            store(id, document);
+            if (versions.get(stripe(id)) != pVersion) {
+                documents.remove(id, document);
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Builds a JSON array of products from their cached documents, serializing and
+     * caching only the missing ones.
+     *
+     * @param pProducts
+     *            the products, in response order
+     * @param pEpoch
+     *            the value of {@link #currentEpoch()} read before loading
+     * @return the JSON array bytes
+     */
+    public byte[] array(List<Product> pProducts, long pEpoch) {
+        if (pProducts.isEmpty()) {
+            return "[]".getBytes(StandardCharsets.US_ASCII);
+        }
+        byte[][] parts = new byte[pProducts.size()][];
+        int length = 1 + pProducts.size();
+        for (int i = 0; i < parts.length; i++) {
+            Product product = pProducts.get(i);
+            Long id = product.getId();
+            byte[] document = id == null ? null : get(id);
+            if (document == null) {
+                document = serialize(product);
+                if (id != null) {
+                    store(id, document);
+                    if (epoch.get() != pEpoch) {
+                        documents.remove(id, document);
+                    }
+                }
+            }
+            parts[i] = document;
+            length += document.length;
+        }
+        byte[] out = new byte[length];
+        out[0] = '[';
+        int position = 1;
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                out[position++] = ',';
+            }
+            System.arraycopy(parts[i], 0, out, position, parts[i].length);
+            position += parts[i].length;
+        }
+        out[position] = ']';
+        return out;
+    }
+
+    /**
+     * Drops the document of a written product once the write has committed.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (enabled) {
+            invalidate(pEvent.getProductId());
+        }
+    }
+
+    /**
+     * Drops the documents of products whose buffered stock was written, as they
+     * were serialized from the stock the store held before the write.
+     *
+     * @param pEvent
+     *            the written batch
+     */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent pEvent) {
+        if (enabled) {
+            for (Long id : pEvent.getProductIds()) {
+                invalidate(id);
+            }
+        }
+    }
+
+    private void invalidate(Long pId) {
+        // Bump versions before removing so a concurrent fill either sees the new
+        // version and removes its own entry, or is removed here
+        versions.incrementAndGet(stripe(pId));
+        epoch.incrementAndGet();
+        if (documents.remove(pId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Drops every document after a bulk write to a category, whose products are not
+     * known individually.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Drops every document when changes on other nodes may have been missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Removes every cached document.
+     */
+    public void clear() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        epoch.incrementAndGet();
+        invalidations.add(documents.size());
+        documents.clear();
+    }
+
+    /**
+     * Gets the number of cached documents.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    private void store(Long pId, byte[] pDocument) {
+        if (documents.put(pId, pDocument) == null && documents.size() > maxEntries) {
+            // Approximate bound: evict whichever entry iteration reaches first
+            Iterator<Long> it = documents.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private byte[] serialize(Product pProduct) {
+        try {
+            return objectMapper.writeValueAsBytes(pProduct);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product " + pProduct.getId(), e);
+        }
+    }
+
+    private static int stripe(Long pId) {
+        long h = pId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (VERSION_STRIPES - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.json.cache.hits", hits, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.json.cache.misses", misses, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.json.cache.invalidations", invalidations, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.json.cache.evictions", evictions, LongAdder::sum).register(pRegistry);
+        Gauge.builder("product.json.cache.size", this, ProductJsonCache::size).register(pRegistry);
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.productservice.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.entity.Money;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.hotkeys.HotKeyTracker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Bounded LRU cache of search results keyed by the normalized search
+ * parameters. Only the matching product IDs are stored; entities are reloaded
+ * by primary key on a hit. A product write invalidates only the entries whose
+ * category and price range could include the product before or after the write.
+ *
+ * <p>
+ * With hot-key tracking enabled, a full cache admits a new search only if it is
+ * run more often than the least recently used one it would evict.
+ */
+@Component
+public class ProductSearchCache implements MeterBinder {
+
+    /**
+     * Normalized search parameters. The name filter is lower-cased because the
+     * repository query compares names case-insensitively.
+     *
+     * @param name
+     *            lower-cased name pattern, or null
+     * @param category
+     *            exact category, or null
+     * @param minCents
+     *            inclusive lower price bound in minor units, or
+     *            {@code Long.MIN_VALUE} if unbounded
+     * @param maxCents
+     *            inclusive upper price bound in minor units, or
+     *            {@code Long.MAX_VALUE} if unbounded
+     */
+    public record Key(String name, String category, long minCents, long maxCents) {
+
+        /**
+         * Builds a normalized key from raw search parameters.
+         *
+         * @param pName
+         *            the name pattern (optional)
+         * @param pCategory
+         *            the category (optional)
+         * @param pMinPrice
+         *            the minimum price (optional)
+         * @param pMaxPrice
+         *            the maximum price (optional)
+         * @return the normalized key
+         */
+        public static Key of(String pName, String pCategory, Double pMinPrice, Double pMaxPrice) {
+            return new Key(pName == null ? null : pName.toLowerCase(Locale.ROOT), pCategory,
+                    pMinPrice == null ? Long.MIN_VALUE : Money.toMinorUnits(pMinPrice),
+                    pMaxPrice == null ? Long.MAX_VALUE : Money.toMinorUnits(pMaxPrice));
+        }
+
+        /**
+         * Checks whether a product could appear in the results for this key. The name
+         * filter is deliberately ignored so the check never misses a product because of
+         * collation differences with the database.
+         *
+         * @param pProduct
+         *            the product state to test
+         * @return true if the category and price range admit the product
+         */
+        boolean couldInclude(Product pProduct) {
+            if (category != null && !category.equals(pProduct.getCategory())) {
+                return false;
+            }
+            if (!pProduct.hasPrice()) {
+                return minCents == Long.MIN_VALUE && maxCents == Long.MAX_VALUE;
+            }
+            long price = pProduct.getPriceCents();
+            return price >= minCents && price <= maxCents;
+        }
+
+        /**
+         * Renders the key as the query string of the search, e.g.
+         * {@code search?name=lap&category=Books&minPrice=10.0}, to name it in hot-key
+         * tracking.
+         *
+         * @return the normalized query
+         */
+        public String toQuery() {
+            StringBuilder query = new StringBuilder("search");
+            char separator = '?';
+            if (name != null) {
+                query.append(separator).append("name=").append(name);
+                separator = '&';
+            }
+            if (category != null) {
+                query.append(separator).append("category=").append(category);
+                separator = '&';
+            }
+            if (minCents != Long.MIN_VALUE) {
+                query.append(separator).append("minPrice=").append(Money.format(minCents));
+                separator = '&';
+            }
+            if (maxCents != Long.MAX_VALUE) {
+                query.append(separator).append("maxPrice=").append(Money.format(maxCents));
+            }
+            return query.toString();
+        }
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Map<Key, long[]> entries;
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private HotKeyTracker hotKeys;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with configuration injection.
+     *
+     * @param pEnabled
+     *            whether search results are cached at all
+     * @param pMaxEntries
+     *            maximum number of cached searches before LRU eviction
+     */
+    public ProductSearchCache(@Value("${product.search-cache.enabled:false}") boolean pEnabled,
+            @Value("${product.search-cache.max-entries:1024}") int pMaxEntries) {
+        this.enabled = pEnabled;
+        this.maxEntries = pMaxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, long[]> pEldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Sets the hot-key tracker whose query counts decide admission when the cache
+     * is full.
+     *
+     * @param pHotKeys
+     *            the tracker
+     */
+    @Autowired(required = false)
+    public void setHotKeys(HotKeyTracker pHotKeys) {
+        this.hotKeys = pHotKeys;
+    }
+
+    /**
+     * Indicates whether the cache is active.
+     *
+     * @return true if searches should go through the cache
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current invalidation epoch. Callers read it before running a
+     * search and pass it to {@link #put} so results computed concurrently with a
+     * write are not cached.
+     *
+     * @return the current epoch
+     */
+    public long currentEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Looks up the cached result IDs for a search.
+     *
+     * @param pKey
+     *            the normalized search key
+     * @return the ordered product IDs, or null on a miss
+     */
+    public List<Long> get(Key pKey) {
+        long[] ids;
+        synchronized (entries) {
+            ids = entries.get(pKey);
+        }
+        if (ids == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    /**
+     * Stores the IDs of a search result, unless a write has happened since the
+     * given epoch, or the cache is full and the search is run no more often than
+     * the one it would evict.
+     *
+     * @param pKey
+     *            the normalized search key
+     * @param pProducts
+     *            the search result
+     * @param pEpoch
+     *            the epoch read before the search was executed
+     */
+    public void put(Key pKey, List<Product> pProducts, long pEpoch) {
+        long[] ids = new long[pProducts.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = pProducts.get(i).getId();
+        }
+        HotKeyTracker tracker = hotKeys;
+        boolean admission = tracker != null && tracker.isEnabled();
+        int frequency = admission ? tracker.queryFrequency(pKey.toQuery()) : 0;
+        synchronized (entries) {
+            if (epoch.get() != pEpoch) {
+                return;
+            }
+            if (admission && entries.size() >= maxEntries && !entries.containsKey(pKey)) {
+                // The eldest entry of the access-ordered map is the LRU victim
+                Key victim = entries.keySet().iterator().next();
+                if (frequency <= tracker.queryFrequency(victim.toQuery())) {
+                    rejections.increment();
+                    return;
+                }
+            }
+            entries.put(pKey, ids);
+        }
+    }
+
+    /**
+     * Invalidates the cached searches affected by a product write, once the write
+     * has committed so a concurrent search cannot re-cache the old state.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (!enabled) {
+            return;
+        }
+        Product before = pEvent.getBefore();
+        Product after = pEvent.getAfter();
+        if (before != null && after != null && !affectsMatching(before, after)) {
+            // e.g. stock-only changes: membership of every cached search is unchanged
+            return;
+        }
+        long id = pEvent.getProductId();
+        // Unloaded deletes and remote writes do not say where the product matched
+        // before, so every search that returned it is dropped
+        boolean beforeUnknown = before == null && pEvent.getType() != ProductChangedEvent.Type.CREATED;
+        synchronized (entries) {
+            epoch.incrementAndGet();
+            Iterator<Map.Entry<Key, long[]>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<Key, long[]> entry = it.next();
+                Key key = entry.getKey();
+                boolean affected = (before != null && key.couldInclude(before))
+                        || (after != null && key.couldInclude(after))
+                        || (beforeUnknown && contains(entry.getValue(), id));
+                if (affected) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached searches after a bulk write to a category. The written
+     * products are not known individually, so every search is dropped.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Drops every cached search when changes on other nodes may have been missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        if (enabled) {
+            clear();
+        }
+    }
+
+    /**
+     * Removes every cached search.
+     */
+    public void clear() {
+        synchronized (entries) {
+            epoch.incrementAndGet();
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached searches.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the fraction of lookups served from the cache.
+     *
+     * @return the hit ratio between 0 and 1
+     */
+    public double hitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Gets the number of entries removed because of product writes.
+     *
+     * @return the invalidation count
+     */
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.search.cache.hits", hits, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.search.cache.misses", misses, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.search.cache.invalidations", invalidations, LongAdder::sum)
+                .register(pRegistry);
+        FunctionCounter.builder("product.search.cache.evictions", evictions, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.search.cache.rejections", rejections, LongAdder::sum)
+                .description("Searches not cached because they are colder than the eviction victim")
+                .register(pRegistry);
+        Gauge.builder("product.search.cache.size", this, ProductSearchCache::size).register(pRegistry);
+        Gauge.builder("product.search.cache.hit.ratio", this, ProductSearchCache::hitRatio).register(pRegistry);
+    }
+
+    private static boolean affectsMatching(Product pBefore, Product pAfter) {
+        return !Objects.equals(pBefore.getName(), pAfter.getName())
+                || !Objects.equals(pBefore.getCategory(), pAfter.getCategory())
+                || pBefore.getPriceCents() != pAfter.getPriceCents();
+    }
+
+    private static boolean contains(long[] pIds, long pId) {
+        for (long id : pIds) {
+            if (id == pId) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
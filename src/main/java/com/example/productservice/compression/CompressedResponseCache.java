@@ -0,0 +1,232 @@
+package com.example.productservice.compression;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.event.StockFlushedEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Cache of large list and search responses in their compressed form, keyed by
+ * request and encoding, so a repeated request costs neither the query nor the
+ * compression until the catalog changes.
+ *
+ * <p>
+ * Any product write empties the cache and bumps the catalog epoch. A response
+ * is only stored if the epoch read before the request was handled is still
+ * current, so a response built from data older than a write is never kept.
+ * Within the byte budget, the least recently used responses are evicted first.
+ */
+public class CompressedResponseCache implements MeterBinder {
+
+    /**
+     * Cache key: the request path and query, and the encoding of the body.
+     *
+     * @param request
+     *            the path and query string
+     * @param encoding
+     *            the content encoding
+     */
+    public record Key(String request, ContentEncoding encoding) {
+    }
+
+    /**
+     * A cached response.
+     *
+     * @param body
+     *            the compressed body
+     * @param contentType
+     *            the content type of the uncompressed body
+     */
+    public record Entry(byte[] body, String contentType) {
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final long maxBytes;
+    private final int minSize;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long epoch;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the cache.
+     *
+     * @param pMaxBytes
+     *            total size of the cached bodies, 0 to cache nothing
+     * @param pMinSize
+     *            uncompressed size from which responses are cached
+     */
+    public CompressedResponseCache(long pMaxBytes, int pMinSize) {
+        this.maxBytes = pMaxBytes;
+        this.minSize = pMinSize;
+    }
+
+    /**
+     * Indicates whether responses are cached at all.
+     *
+     * @return true if the budget is positive
+     */
+    public boolean isEnabled() {
+        return maxBytes > 0;
+    }
+
+    /**
+     * Gets the uncompressed size from which responses are cached.
+     *
+     * @return the threshold in bytes
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Returns the current catalog epoch. Callers read it before handling the
+     * request and pass it to {@link #put(Key, Entry, long)}.
+     *
+     * @return the epoch
+     */
+    public synchronized long currentEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param pKey
+     *            the request and encoding
+     * @return the response, or null on a miss
+     */
+    public Entry get(Key pKey) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(pKey);
+        }
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Caches a compressed response unless the catalog changed since the epoch was
+     * read or the body alone exceeds the budget.
+     *
+     * @param pKey
+     *            the request and encoding
+     * @param pEntry
+     *            the response
+     * @param pEpoch
+     *            the value of {@link #currentEpoch()} read before handling the
+     *            request
+     */
+    public synchronized void put(Key pKey, Entry pEntry, long pEpoch) {
+        if (epoch != pEpoch || pEntry.body().length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(pKey, pEntry);
+        if (previous != null) {
+            bytes -= previous.body().length;
+        }
+        bytes += pEntry.body().length;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().body().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Empties the cache once a product write has committed.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        clear();
+    }
+
+    /**
+     * Empties the cache once a bulk write has committed.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        clear();
+    }
+
+    /**
+     * Empties the cache once buffered stock has been written, as responses rendered
+     * before the write carry the old stock.
+     *
+     * @param pEvent
+     *            the written batch
+     */
+    @EventListener
+    public void onStockFlushed(StockFlushedEvent pEvent) {
+        clear();
+    }
+
+    /**
+     * Empties the cache when changes on other nodes may have been missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        clear();
+    }
+
+    /**
+     * Removes every cached response and starts a new epoch.
+     */
+    public synchronized void clear() {
+        epoch++;
+        invalidations.add(entries.size());
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Gets the total size of the cached bodies.
+     *
+     * @return the size in bytes
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.compression.cache.hits", hits, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.compression.cache.misses", misses, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.compression.cache.evictions", evictions, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.compression.cache.invalidations", invalidations, LongAdder::sum)
+                .register(pRegistry);
+        Gauge.builder("product.compression.cache.bytes", this, CompressedResponseCache::bytes).baseUnit("bytes")
+                .register(pRegistry);
+    }
+}
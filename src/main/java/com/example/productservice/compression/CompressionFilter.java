@@ -0,0 +1,170 @@
+package com.example.productservice.compression;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compresses JSON and text responses at or above the size threshold with the
+ * best encoding the client accepts. Large product list and search responses are
+ * kept compressed in the {@link CompressedResponseCache}, and a repeated
+ * request is answered from it without running the rest of the chain.
+ *
+ * <p>
+ * Bodies are buffered to measure them, so event streams, whose responses never
+ * end, are passed through untouched: requests accepting only
+ * {@code text/event-stream}, and every request to an endpoint returning a
+ * {@link ResponseBodyEmitter} such as an {@code SseEmitter}, whatever its
+ * {@code Accept} header.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private static final Set<String> CACHED_PATHS = Set.of("/api/products", "/api/products/search");
+
+    // CHECKSTYLE:OFF - filter state uses standard naming
+    private final ResponseCompressor compressor;
+    private final CompressedResponseCache cache;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final Map<Method, Boolean> streaming = new ConcurrentHashMap<>();
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the filter.
+     *
+     * @param pCompressor
+     *            the encoder of response bodies
+     * @param pCache
+     *            the cache of compressed list and search responses
+     * @param pHandlerMapping
+     *            the mapping used to find the endpoint of a request
+     */
+    public CompressionFilter(ResponseCompressor pCompressor, CompressedResponseCache pCache,
+            RequestMappingHandlerMapping pHandlerMapping) {
+        this.compressor = pCompressor;
+        this.cache = pCache;
+        this.handlerMapping = pHandlerMapping;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest pRequest) {
+        String accept = pRequest.getHeader(HttpHeaders.ACCEPT);
+        return (accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) || isStreaming(pRequest);
+    }
+
+    /**
+     * Checks whether a request maps to an endpoint that streams its response.
+     *
+     * @param pRequest
+     *            the request
+     * @return true if the endpoint returns a response body emitter
+     */
+    boolean isStreaming(HttpServletRequest pRequest) {
+        boolean parsed = ServletRequestPathUtils.hasParsedRequestPath(pRequest);
+        if (!parsed) {
+            ServletRequestPathUtils.parseAndCache(pRequest);
+        }
+        try {
+            HandlerExecutionChain chain = handlerMapping.getHandler(pRequest);
+            if (chain != null && chain.getHandler() instanceof HandlerMethod handler) {
+                return streaming.computeIfAbsent(handler.getMethod(), CompressionFilter::returnsEmitter);
+            }
+        } catch (Exception e) {
+            // No endpoint accepts the request; the dispatcher answers it
+        } finally {
+            if (!parsed) {
+                ServletRequestPathUtils.clearParsedRequestPath(pRequest);
+            }
+        }
+        return false;
+    }
+
+    private static boolean returnsEmitter(Method pMethod) {
+        ResolvableType type = ResolvableType.forMethodReturnType(pMethod);
+        if (ResponseEntity.class.equals(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        return ResponseBodyEmitter.class.isAssignableFrom(type.toClass());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest pRequest, HttpServletResponse pResponse, FilterChain pChain)
+            throws ServletException, IOException {
+        ContentEncoding encoding = compressor.negotiate(pRequest.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        CompressedResponseCache.Key key = null;
+        long epoch = 0;
+        if (encoding != null && cache.isEnabled() && isCacheable(pRequest)) {
+            key = new CompressedResponseCache.Key(requestOf(pRequest), encoding);
+            CompressedResponseCache.Entry cached = cache.get(key);
+            if (cached != null) {
+                pResponse.setStatus(HttpStatus.OK.value());
+                pResponse.setContentType(cached.contentType());
+                pResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                write(pResponse, encoding, cached.body());
+                return;
+            }
+            epoch = cache.currentEpoch();
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(pResponse);
+        pChain.doFilter(pRequest, wrapper);
+
+        String contentType = wrapper.getContentType();
+        if (!isCompressible(contentType) || pResponse.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        pResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        byte[] body = wrapper.getContentAsByteArray();
+        if (encoding == null || body.length < compressor.getMinSize()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        byte[] compressed = compressor.compress(encoding, body);
+        if (key != null && wrapper.getStatus() == HttpStatus.OK.value() && body.length >= cache.getMinSize()) {
+            cache.put(key, new CompressedResponseCache.Entry(compressed, contentType), epoch);
+        }
+        write(pResponse, encoding, compressed);
+    }
+
+    private static void write(HttpServletResponse pResponse, ContentEncoding pEncoding, byte[] pBody)
+            throws IOException {
+        pResponse.setHeader(HttpHeaders.CONTENT_ENCODING, pEncoding.getToken());
+        pResponse.setContentLength(pBody.length);
+        pResponse.getOutputStream().write(pBody);
+        pResponse.flushBuffer();
+    }
+
+    private static boolean isCacheable(HttpServletRequest pRequest) {
+        return "GET".equals(pRequest.getMethod()) && pRequest.getParameter("ids") == null
+                && CACHED_PATHS.contains(pRequest.getRequestURI().substring(pRequest.getContextPath().length()));
+    }
+
+    private static String requestOf(HttpServletRequest pRequest) {
+        String query = pRequest.getQueryString();
+        return query == null ? pRequest.getRequestURI() : pRequest.getRequestURI() + '?' + query;
+    }
+
+    private static boolean isCompressible(String pContentType) {
+        return pContentType != null && (pContentType.contains("json") || pContentType.startsWith("text/"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.productservice.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of response compression, bound from
+ * {@code product.compression.*}.
+ */
+@ConfigurationProperties(prefix = "product.compression")
+public class CompressionProperties {
+
+    // CHECKSTYLE:OFF - configuration property fields use standard naming
+    private boolean enabled;
+    private List<ContentEncoding> encodings = new ArrayList<>(List.of(ContentEncoding.ZSTD, ContentEncoding.GZIP));
+    private int minSize = 2048;
+    private int gzipLevel = 6;
+    private int zstdLevel = 3;
+    private int cacheMinSize = 65_536;
+    private long cacheMaxBytes = 64L << 20;
+    // CHECKSTYLE:ON
+
+    /**
+     * Indicates whether responses are compressed.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether responses are compressed.
+     *
+     * @param pEnabled
+     *            true to enable
+     */
+    public void setEnabled(boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Gets the encodings offered, preferred first.
+     *
+     * @return the encodings
+     */
+    public List<ContentEncoding> getEncodings() {
+        return encodings;
+    }
+
+    /**
+     * Sets the encodings offered, preferred first, e.g. {@code zstd,gzip}.
+     *
+     * @param pEncodings
+     *            the encodings
+     */
+    public void setEncodings(List<ContentEncoding> pEncodings) {
+        this.encodings = pEncodings;
+    }
+
+    /**
+     * Gets the body size below which responses are sent uncompressed.
+     *
+     * @return the threshold in bytes
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Sets the body size below which responses are sent uncompressed.
+     *
+     * @param pMinSize
+     *            the threshold in bytes
+     */
+    public void setMinSize(int pMinSize) {
+        this.minSize = pMinSize;
+    }
+
+    /**
+     * Gets the gzip level, 1 (fastest) to 9 (smallest).
+     *
+     * @return the level
+     */
+    public int getGzipLevel() {
+        return gzipLevel;
+    }
+
+    /**
+     * Sets the gzip level, 1 (fastest) to 9 (smallest).
+     *
+     * @param pGzipLevel
+     *            the level
+     */
+    public void setGzipLevel(int pGzipLevel) {
+        this.gzipLevel = pGzipLevel;
+    }
+
+    /**
+     * Gets the zstd level, 1 (fastest) to 22 (smallest).
+     *
+     * @return the level
+     */
+    public int getZstdLevel() {
+        return zstdLevel;
+    }
+
+    /**
+     * Sets the zstd level, 1 (fastest) to 22 (smallest).
+     *
+     * @param pZstdLevel
+     *            the level
+     */
+    public void setZstdLevel(int pZstdLevel) {
+        this.zstdLevel = pZstdLevel;
+    }
+
+    /**
+     * Gets the body size from which compressed list and search responses are
+     * cached.
+     *
+     * @return the threshold in bytes
+     */
+    public int getCacheMinSize() {
+        return cacheMinSize;
+    }
+
+    /**
+     * Sets the body size from which compressed list and search responses are
+     * cached.
+     *
+     * @param pCacheMinSize
+     *            the threshold in bytes
+     */
+    public void setCacheMinSize(int pCacheMinSize) {
+        this.cacheMinSize = pCacheMinSize;
+    }
+
+    /**
+     * Gets the total size of the compressed response cache.
+     *
+     * @return the budget in bytes, 0 to disable the cache
+     */
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    /**
+     * Sets the total size of the compressed response cache.
+     *
+     * @param pCacheMaxBytes
+     *            the budget in bytes, 0 to disable the cache
+     */
+    public void setCacheMaxBytes(long pCacheMaxBytes) {
+        this.cacheMaxBytes = pCacheMaxBytes;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.productservice.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * HTTP content encodings the service can compress responses with, in the
+ * service's order of preference.
+ */
+public enum ContentEncoding {
+
+    /** Zstandard, through the zstd-jni native library. */
+    ZSTD("zstd") {
+        @Override
+        byte[] compress(byte[] pBody, int pLevel) {
+            return Zstd.compress(pBody, pLevel);
+        }
+
+        @Override
+        boolean probe() {
+            try {
+                return Zstd.compress(new byte[1], 1).length > 0;
+            } catch (LinkageError e) {
+                // No native library for this platform
+                return false;
+            }
+        }
+    },
+
+    /** Gzip, from the JDK. */
+    GZIP("gzip") {
+        @Override
+        byte[] compress(byte[] pBody, int pLevel) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(pBody.length / 4 + 64);
+            try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, pLevel)) {
+                gzip.write(pBody);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        }
+
+        @Override
+        boolean probe() {
+            return true;
+        }
+    };
+
+    // CHECKSTYLE:OFF - enum constants use standard naming
+    private final String token;
+    private volatile Boolean available;
+    // CHECKSTYLE:ON
+
+    ContentEncoding(String pToken) {
+        this.token = pToken;
+    }
+
+    /**
+     * Gets the token of the encoding in {@code Accept-Encoding} and
+     * {@code Content-Encoding} headers.
+     *
+     * @return the token
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Checks whether the encoding works on this platform; checked once.
+     *
+     * @return true if responses can be compressed with it
+     */
+    public boolean isAvailable() {
+        Boolean result = available;
+        if (result == null) {
+            result = probe();
+            available = result;
+        }
+        return result;
+    }
+
+    /**
+     * Compresses a response body.
+     *
+     * @param pBody
+     *            the body
+     * @param pLevel
+     *            the compression level of the encoding
+     * @return the encoded body
+     */
+    abstract byte[] compress(byte[] pBody, int pLevel);
+
+    abstract boolean probe();
+
+    /**
+     * Gzip stream with a configurable deflate level.
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(ByteArrayOutputStream pOut, int pLevel) throws IOException {
+            super(pOut, 8192);
+            def.setLevel(Math.max(Deflater.BEST_SPEED, Math.min(Deflater.BEST_COMPRESSION, pLevel)));
+        }
+    }
+}
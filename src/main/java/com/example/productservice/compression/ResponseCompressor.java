@@ -0,0 +1,157 @@
+package com.example.productservice.compression;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Chooses the encoding of a response from the client's {@code Accept-Encoding}
+ * and compresses the body, counting bytes and CPU time per encoding.
+ */
+public class ResponseCompressor implements MeterBinder {
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final List<ContentEncoding> encodings;
+    private final int minSize;
+    private final Map<ContentEncoding, Integer> levels = new EnumMap<>(ContentEncoding.class);
+    private final Map<ContentEncoding, Stats> stats = new EnumMap<>(ContentEncoding.class);
+    // CHECKSTYLE:ON
+
+    /**
+     * Counters of one encoding.
+     */
+    private static final class Stats {
+        // CHECKSTYLE:OFF - counters use standard naming
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        // CHECKSTYLE:ON
+    }
+
+    /**
+     * Creates the compressor for the configured encodings that work on this
+     * platform.
+     *
+     * @param pProperties
+     *            the compression settings
+     */
+    public ResponseCompressor(CompressionProperties pProperties) {
+        this.encodings = pProperties.getEncodings().stream().distinct().filter(ContentEncoding::isAvailable).toList();
+        this.minSize = pProperties.getMinSize();
+        levels.put(ContentEncoding.GZIP, pProperties.getGzipLevel());
+        levels.put(ContentEncoding.ZSTD, pProperties.getZstdLevel());
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            stats.put(encoding, new Stats());
+        }
+    }
+
+    /**
+     * Gets the encodings offered to clients, preferred first.
+     *
+     * @return the available configured encodings
+     */
+    public List<ContentEncoding> getEncodings() {
+        return encodings;
+    }
+
+    /**
+     * Gets the body size below which responses are sent uncompressed.
+     *
+     * @return the threshold in bytes
+     */
+    public int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Picks the encoding with the highest weight in an {@code Accept-Encoding}
+     * header, e.g. {@code gzip, deflate, br, zstd}, breaking ties by the service's
+     * preference.
+     *
+     * @param pAcceptEncoding
+     *            the header value, or null
+     * @return the encoding, or null to send the body as it is
+     */
+    public ContentEncoding negotiate(String pAcceptEncoding) {
+        if (pAcceptEncoding == null || pAcceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Double> weights = new HashMap<>();
+        for (String part : pAcceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].strip().toLowerCase(Locale.ROOT);
+            double weight = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String parameter = tokens[i].strip();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        weight = Double.parseDouble(parameter.substring(2));
+                    } catch (NumberFormatException e) {
+                        weight = 0;
+                    }
+                }
+            }
+            weights.put(name, weight);
+        }
+        double wildcard = weights.getOrDefault("*", 0.0);
+        ContentEncoding best = null;
+        double bestWeight = 0;
+        for (ContentEncoding encoding : encodings) {
+            double weight = weights.getOrDefault(encoding.getToken(), wildcard);
+            if (weight > bestWeight) {
+                best = encoding;
+                bestWeight = weight;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Compresses a response body.
+     *
+     * @param pEncoding
+     *            the encoding
+     * @param pBody
+     *            the body
+     * @return the encoded body
+     */
+    public byte[] compress(ContentEncoding pEncoding, byte[] pBody) {
+        long started = System.nanoTime();
+        byte[] compressed = pEncoding.compress(pBody, levels.get(pEncoding));
+        Stats encodingStats = stats.get(pEncoding);
+        encodingStats.nanos.add(System.nanoTime() - started);
+        encodingStats.responses.increment();
+        encodingStats.bytesIn.add(pBody.length);
+        encodingStats.bytesOut.add(compressed.length);
+        return compressed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        for (Map.Entry<ContentEncoding, Stats> entry : stats.entrySet()) {
+            String encoding = entry.getKey().getToken();
+            Stats encodingStats = entry.getValue();
+            FunctionTimer
+                    .builder("product.compression.time", encodingStats, s -> s.responses.sum(), s -> s.nanos.sum(),
+                            TimeUnit.NANOSECONDS)
+                    .tag("encoding", encoding).description("Time spent compressing response bodies")
+                    .register(pRegistry);
+            FunctionCounter.builder("product.compression.bytes.in", encodingStats, s -> s.bytesIn.sum())
+                    .tag("encoding", encoding).baseUnit("bytes").description("Response bytes before compression")
+                    .register(pRegistry);
+            FunctionCounter.builder("product.compression.bytes.out", encodingStats, s -> s.bytesOut.sum())
+                    .tag("encoding", encoding).baseUnit("bytes").description("Response bytes after compression")
+                    .register(pRegistry);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.productservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.example.productservice.bulkhead.BulkheadDataSource;
+import com.example.productservice.bulkhead.BulkheadFilter;
+import com.example.productservice.bulkhead.BulkheadProperties;
+import com.example.productservice.bulkhead.Bulkheads;
+
+/**
+ * Workload bulkheads, active when {@code product.bulkheads.enabled=true}: API
+ * requests run on the executor of their endpoint's workload class, and the
+ * application data source hands out connections within each class's share.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.bulkheads.enabled", havingValue = "true")
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    /**
+     * Creates the executors and connection permits of the workload classes.
+     *
+     * @param pProperties
+     *            the limits of each class
+     * @return the bulkheads
+     */
+    @Bean
+    public Bulkheads bulkheads(BulkheadProperties pProperties) {
+        return new Bulkheads(pProperties);
+    }
+
+    /**
+     * Wraps the application data source so each class holds at most its share of
+     * connections.
+     *
+     * @param pBulkheads
+     *            the bulkheads, resolved when the data source is created
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<Bulkheads> pBulkheads) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object pBean, String pBeanName) {
+                if ("dataSource".equals(pBeanName) && pBean instanceof DataSource dataSource
+                        && !(pBean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, pBulkheads.getObject());
+                }
+                return pBean;
+            }
+        };
+    }
+
+    /**
+     * Registers the bulkhead filter after the request event filter, so events
+     * include the queueing time, and before the filters that keep request state in
+     * thread locals.
+     *
+     * @param pBulkheads
+     *            the bulkheads
+     * @param pHandlerMapping
+     *            the mapping of the controllers' endpoints
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(Bulkheads pBulkheads,
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping pHandlerMapping) {
+        FilterRegistrationBean<BulkheadFilter> registration = new FilterRegistrationBean<>(
+                new BulkheadFilter(pBulkheads, pHandlerMapping));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
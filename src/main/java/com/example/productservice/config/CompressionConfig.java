@@ -0,0 +1,75 @@
+package com.example.productservice.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.example.productservice.compression.CompressedResponseCache;
+import com.example.productservice.compression.CompressionFilter;
+import com.example.productservice.compression.CompressionProperties;
+import com.example.productservice.compression.ResponseCompressor;
+
+/**
+ * Response compression, active when {@code product.compression.enabled=true}:
+ * API responses above the size threshold are encoded with zstd or gzip, and
+ * large list and search responses are cached compressed until the catalog
+ * changes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.compression.enabled", havingValue = "true")
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    /**
+     * Creates the encoder of response bodies.
+     *
+     * @param pProperties
+     *            the compression settings
+     * @return the compressor
+     */
+    @Bean
+    public ResponseCompressor responseCompressor(CompressionProperties pProperties) {
+        return new ResponseCompressor(pProperties);
+    }
+
+    /**
+     * Creates the cache of compressed list and search responses.
+     *
+     * @param pProperties
+     *            the compression settings
+     * @return the cache
+     */
+    @Bean
+    public CompressedResponseCache compressedResponseCache(CompressionProperties pProperties) {
+        return new CompressedResponseCache(pProperties.getCacheMaxBytes(), pProperties.getCacheMinSize());
+    }
+
+    /**
+     * Registers the compression filter after the bulkhead filter, so compressing a
+     * large response counts against its endpoint's workload class.
+     *
+     * @param pCompressor
+     *            the encoder of response bodies
+     * @param pCache
+     *            the cache of compressed responses
+     * @param pHandlerMapping
+     *            the mapping used to find streaming endpoints, which are not
+     *            compressed
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(ResponseCompressor pCompressor,
+            CompressedResponseCache pCache,
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping pHandlerMapping) {
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(
+                new CompressionFilter(pCompressor, pCache, pHandlerMapping));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 7);
+        return registration;
+    }
+}
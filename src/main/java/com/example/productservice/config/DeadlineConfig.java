@@ -0,0 +1,116 @@
+package com.example.productservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.productservice.deadline.DeadlineDataSource;
+import com.example.productservice.deadline.DeadlineFilter;
+import com.example.productservice.deadline.DeadlineInterceptor;
+import com.example.productservice.deadline.DeadlineStoreInterceptor;
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Request deadlines, active when {@code product.deadlines.enabled=true}: each
+ * API request gets a deadline from the client's timeout header or the
+ * endpoint's default, counted from its arrival, product store calls are refused
+ * once it has passed, and SQL statements run with a query timeout of the time
+ * left.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.deadlines.enabled", havingValue = "true")
+public class DeadlineConfig {
+
+    /**
+     * Creates the interceptor that sets each request's deadline.
+     *
+     * @param pDefaultMillis
+     *            the budget of endpoints without their own
+     * @return the interceptor
+     */
+    @Bean
+    public DeadlineInterceptor deadlineInterceptor(@Value("${product.deadlines.default-ms:5000}") long pDefaultMillis) {
+        return new DeadlineInterceptor(pDefaultMillis);
+    }
+
+    /**
+     * Registers the filter that records each request's arrival after the request
+     * event filter and before the bulkhead filter, so the deadline includes the
+     * time a request waits in its bulkhead's queue.
+     *
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter() {
+        FilterRegistrationBean<DeadlineFilter> registration = new FilterRegistrationBean<>(new DeadlineFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+        return registration;
+    }
+
+    /**
+     * Registers the deadline interceptor for the API.
+     *
+     * @param pInterceptor
+     *            the deadline interceptor
+     * @return the MVC configurer
+     */
+    @Bean
+    public WebMvcConfigurer deadlineWebMvcConfigurer(DeadlineInterceptor pInterceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry pRegistry) {
+                pRegistry.addInterceptor(pInterceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    /**
+     * Wraps the application data source so statements time out at the deadline.
+     *
+     * @return the post-processor
+     */
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object pBean, String pBeanName) {
+                if ("dataSource".equals(pBeanName) && pBean instanceof DataSource dataSource
+                        && !(pBean instanceof DeadlineDataSource)) {
+                    return new DeadlineDataSource(dataSource);
+                }
+                return pBean;
+            }
+        };
+    }
+
+    /**
+     * Checks the deadline around each product store call, whichever engine backs
+     * it.
+     *
+     * @return the advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor deadlineStoreAdvisor() {
+        ClassFilter stores = ProductStore.class::isAssignableFrom;
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ComposablePointcut(stores),
+                new DeadlineStoreInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.productservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+
+import com.example.productservice.diagnostics.JfrRequestFilter;
+import com.example.productservice.diagnostics.MethodCallInterceptor;
+import com.example.productservice.diagnostics.SlowQueryDataSource;
+import com.example.productservice.diagnostics.SlowQueryLog;
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Production diagnostics: JDK Flight Recorder events for requests, service
+ * methods and product store calls, and the JDBC slow-query log. The events cost
+ * a flag check unless a recording has them enabled, so they stay on by default.
+ * The slow-query log wraps every connection and statement in a proxy and times
+ * each execution, so it is enabled with
+ * {@code product.diagnostics.slow-query.enabled=true}.
+ */
+@Configuration
+public class DiagnosticsConfig {
+
+    /**
+     * Wraps the application data source so statement times are checked against the
+     * slow-query threshold.
+     *
+     * @param pSlowQueryLog
+     *            the slow-query log, resolved when the data source is created
+     * @return the post-processor
+     */
+    @Bean
+    @ConditionalOnProperty(name = "product.diagnostics.slow-query.enabled", havingValue = "true")
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> pSlowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object pBean, String pBeanName) {
+                if ("dataSource".equals(pBeanName) && pBean instanceof DataSource dataSource
+                        && !(pBean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, pSlowQueryLog.getObject());
+                }
+                return pBean;
+            }
+        };
+    }
+
+    /**
+     * Records a JFR event for each service method call, outside the transaction.
+     *
+     * @return the advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = "product.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+    public static Advisor serviceCallEventAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true),
+                new MethodCallInterceptor("service"));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Records a JFR event for each product store call, whichever engine backs it.
+     *
+     * @return the advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = "product.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+    public static Advisor repositoryCallEventAdvisor() {
+        ClassFilter stores = ProductStore.class::isAssignableFrom;
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new ComposablePointcut(stores),
+                new MethodCallInterceptor("repository"));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Registers the request event filter ahead of the other filters so the event
+     * covers the whole request.
+     *
+     * @return the filter registration
+     */
+    @Bean
+    @ConditionalOnProperty(name = "product.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<JfrRequestFilter> jfrRequestFilter() {
+        FilterRegistrationBean<JfrRequestFilter> registration = new FilterRegistrationBean<>(new JfrRequestFilter());
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.productservice.config;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.productservice.invalidation.DatagramTransport;
+import com.example.productservice.invalidation.InvalidationBus;
+import com.example.productservice.invalidation.InvalidationProperties;
+import com.example.productservice.invalidation.InvalidationTransport;
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Cross-node invalidation, active when
+ * {@code product.invalidation.enabled=true}: committed product writes are
+ * broadcast over UDP and applied to the local caches of every other node.
+ * Buffered write-behind stock updates are committed before they reach the
+ * database, so other nodes would re-read and cache the old stock; the two
+ * cannot be combined.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.invalidation.enabled", havingValue = "true")
+@EnableConfigurationProperties(InvalidationProperties.class)
+public class InvalidationConfig {
+
+    /**
+     * Opens the transport to the other nodes: the multicast group, or the
+     * configured peers.
+     *
+     * @param pProperties
+     *            the bus settings
+     * @return the transport
+     * @throws IOException
+     *             if the socket cannot be opened
+     */
+    @Bean
+    public InvalidationTransport invalidationTransport(InvalidationProperties pProperties) throws IOException {
+        if (pProperties.getTransport() == InvalidationProperties.Transport.MULTICAST) {
+            return DatagramTransport.multicast(pProperties.getGroup(), pProperties.getPort(), pProperties.getTtl());
+        }
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (String peer : pProperties.getPeers()) {
+            peers.add(DatagramTransport.parsePeer(peer));
+        }
+        return DatagramTransport.unicast(pProperties.getPort(), peers);
+    }
+
+    /**
+     * Creates the bus that sends local writes and applies remote ones.
+     *
+     * @param pTransport
+     *            the transport to the other nodes
+     * @param pProductStore
+     *            the store remote changes are re-read from
+     * @param pEventPublisher
+     *            publishes remote changes to the local caches
+     * @param pProperties
+     *            the bus settings
+     * @param pWriteBehind
+     *            whether stock-only updates are buffered
+     * @return the bus
+     * @throws IllegalStateException
+     *             if write-behind is enabled too
+     */
+    @Bean
+    public InvalidationBus invalidationBus(InvalidationTransport pTransport, ProductStore pProductStore,
+            ApplicationEventPublisher pEventPublisher, InvalidationProperties pProperties,
+            @Value("${product.write-behind.enabled:false}") boolean pWriteBehind) {
+        if (pWriteBehind) {
+            throw new IllegalStateException(
+                    "product.invalidation.enabled does not support product.write-behind.enabled");
+        }
+        return new InvalidationBus(pTransport, pProductStore, pEventPublisher, pProperties);
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.productservice.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.productservice.memory.MemoryProductStore;
+import com.example.productservice.memory.MemoryTransactionManager;
+
+/**
+ * In-memory engine configuration, active with the {@code memory} profile. The
+ * profile's properties turn off the data source and JPA, and the in-memory
+ * store becomes the service's product store, with its data directory holding
+ * the write-ahead log and snapshots.
+ */
+@Configuration
+@Profile("memory")
+public class MemoryEngineConfig {
+
+    /**
+     * Creates the in-memory store, recovering its products from the data directory.
+     *
+     * @param pDataDir
+     *            directory of the write-ahead log and snapshots
+     * @param pStripes
+     *            number of lock stripes
+     * @param pFsync
+     *            whether writes wait for the log to reach the device
+     * @param pCompactBytes
+     *            log segment size that triggers a snapshot
+     * @param pSnapshotIntervalMillis
+     *            maximum time between snapshots while there are writes
+     * @return the in-memory store
+     */
+    @Bean
+    @Primary
+    public MemoryProductStore memoryProductStore(@Value("${product.memory.data-dir:data}") String pDataDir,
+            @Value("${product.memory.stripes:64}") int pStripes, @Value("${product.memory.fsync:true}") boolean pFsync,
+            @Value("${product.memory.compact-bytes:67108864}") long pCompactBytes,
+            @Value("${product.memory.snapshot-interval-ms:300000}") long pSnapshotIntervalMillis) {
+        return new MemoryProductStore(Path.of(pDataDir), pStripes, pFsync, pCompactBytes, pSnapshotIntervalMillis);
+    }
+
+    /**
+     * Creates the transaction manager used by {@code @Transactional} in place of
+     * the JPA one.
+     *
+     * @return the transaction manager
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new MemoryTransactionManager();
+    }
+}
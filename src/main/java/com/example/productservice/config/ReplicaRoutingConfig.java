@@ -0,0 +1,105 @@
+package com.example.productservice.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.example.productservice.datasource.ReadYourWritesFilter;
+import com.example.productservice.datasource.ReplicaRoutingDataSource;
+import com.example.productservice.datasource.ReplicaRoutingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Read/write splitting configuration, active when
+ * {@code product.datasource.routing.enabled=true}. The primary is built from
+ * the standard {@code spring.datasource.*} settings and each entry of
+ * {@code product.datasource.routing.replicas} becomes a replica pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.datasource.routing.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+public class ReplicaRoutingConfig {
+
+    /**
+     * Creates the primary connection pool.
+     *
+     * @param pProperties
+     *            the standard data source properties
+     * @return the primary pool
+     */
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties pProperties) {
+        HikariDataSource dataSource = pProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    /**
+     * Creates the routing data source over the primary and replica pools.
+     *
+     * @param pPrimary
+     *            the primary pool
+     * @param pProperties
+     *            the routing properties
+     * @return the routing data source
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource pPrimary,
+            ReplicaRoutingProperties pProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaRoutingProperties.Replica> configured = pProperties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).url(replica.getUrl())
+                    .username(replica.getUsername()).password(replica.getPassword()).build();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setReadOnly(true);
+            replicas.put("replica-" + i, dataSource);
+        }
+        return new ReplicaRoutingDataSource(pPrimary, replicas, pProperties);
+    }
+
+    /**
+     * Exposes the routing data source to JPA and JDBC. The lazy proxy defers
+     * connection lookup until the first statement, when the transaction's read-only
+     * flag is known.
+     *
+     * @param pRouting
+     *            the routing data source
+     * @return the application data source
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource pRouting) {
+        return new LazyConnectionDataSourceProxy(pRouting);
+    }
+
+    /**
+     * Registers the read-your-writes filter ahead of the other filters.
+     *
+     * @param pProperties
+     *            the routing properties
+     * @return the filter registration
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties pProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(pProperties.getStickinessMillis()));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.productservice.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.example.productservice.sharding.ShardedProductStore;
+import com.example.productservice.sharding.ShardingProperties;
+import com.example.productservice.deadline.DeadlineDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Category sharding configuration, active when
+ * {@code product.sharding.enabled=true}. Each entry of
+ * {@code product.sharding.shards} becomes a connection pool, and the sharded
+ * store replaces the JPA repository as the service's product store. The
+ * write-behind stock buffer flushes to the main database, which holds no
+ * products here, so it cannot be combined with sharding. With request deadlines
+ * enabled, the shard pools give statements a query timeout of the time left,
+ * like the main data source.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    /**
+     * Creates the sharded product store over one pool per configured shard.
+     *
+     * @param pProperties
+     *            the sharding properties
+     * @param pWriteBehind
+     *            whether stock-only updates are buffered
+     * @param pDeadlines
+     *            whether shard statements time out at the request deadline
+     * @return the sharded store
+     * @throws IllegalStateException
+     *             if write-behind is enabled too
+     */
+    @Bean
+    @Primary
+    public ShardedProductStore shardedProductStore(ShardingProperties pProperties,
+            @Value("${product.write-behind.enabled:false}") boolean pWriteBehind,
+            @Value("${product.deadlines.enabled:false}") boolean pDeadlines) {
+        if (pWriteBehind) {
+            throw new IllegalStateException("product.sharding.enabled does not support product.write-behind.enabled");
+        }
+        List<DataSource> shards = new ArrayList<>();
+        List<ShardingProperties.Shard> configured = pProperties.getShards();
+        for (int i = 0; i < configured.size(); i++) {
+            ShardingProperties.Shard shard = configured.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).url(shard.getUrl())
+                    .username(shard.getUsername()).password(shard.getPassword()).build();
+            dataSource.setPoolName("shard-" + i);
+            shards.add(pDeadlines ? new DeadlineDataSource(dataSource) : dataSource);
+        }
+        return new ShardedProductStore(shards, pProperties.getParallelism(), pProperties.getTimeoutMillis());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.productservice.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import com.example.productservice.cache.ProductSearchCache;
+import com.example.productservice.repository.ProductStore;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Startup tuning. With {@code spring.main.lazy-initialization=true} beans are
+ * created on first use, which shortens startup; the beans excluded here stay
+ * eager because the first request would otherwise pay for them (connection
+ * pool, JPA, product store), because they must observe every change from the
+ * start (search cache listener), or because they own background work (lifecycle
+ * beans).
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * Keeps the critical path beans eager when lazy initialization is enabled.
+     *
+     * @return the exclude filter
+     */
+    @Bean
+    public LazyInitializationExcludeFilter eagerCriticalBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class, ProductStore.class, ProductSearchCache.class,
+                SmartLifecycle.class);
+    }
+}
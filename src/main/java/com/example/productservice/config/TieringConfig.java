@@ -0,0 +1,74 @@
+package com.example.productservice.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.tiering.ColdProductStore;
+import com.example.productservice.tiering.ProductActivityTracker;
+import com.example.productservice.tiering.ProductTieringJob;
+import com.example.productservice.tiering.TieringProperties;
+import com.example.productservice.writebehind.StockWriteBuffer;
+
+/**
+ * Hot/cold tiering, active when {@code product.tiering.enabled=true}: inactive
+ * products are moved from the {@code products} table to an archive table, where
+ * reads by ID still find them. Needs the JPA store; the sharded and in-memory
+ * engines keep no {@code products} table in the main database.
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.tiering.enabled", havingValue = "true")
+@EnableConfigurationProperties(TieringProperties.class)
+public class TieringConfig {
+
+    /**
+     * Creates the cold tier in the database of the {@code products} table.
+     *
+     * @param pJdbcTemplate
+     *            JDBC template of the main database, if there is one
+     * @param pTransactionManager
+     *            transaction manager of the main database
+     * @param pProductStore
+     *            the product store, which must be the JPA repository
+     * @return the cold tier
+     * @throws IllegalStateException
+     *             if products are not stored in the main database
+     */
+    @Bean
+    public ColdProductStore coldProductStore(ObjectProvider<JdbcTemplate> pJdbcTemplate,
+            PlatformTransactionManager pTransactionManager, ProductStore pProductStore) {
+        JdbcTemplate jdbcTemplate = pJdbcTemplate.getIfAvailable();
+        if (jdbcTemplate == null || !(pProductStore instanceof ProductRepository)) {
+            throw new IllegalStateException("product.tiering.enabled requires the JPA product store");
+        }
+        return new ColdProductStore(jdbcTemplate, pTransactionManager);
+    }
+
+    /**
+     * Creates the job that moves inactive products to the cold tier.
+     *
+     * @param pColdStore
+     *            the cold tier
+     * @param pActivityTracker
+     *            the recorded reads and writes
+     * @param pStockBuffer
+     *            write-behind buffer whose pending products are not moved
+     * @param pEventPublisher
+     *            publishes the moves to the hot tier's caches
+     * @param pProperties
+     *            the tiering policy and schedule
+     * @return the job
+     */
+    @Bean
+    public ProductTieringJob productTieringJob(ColdProductStore pColdStore, ProductActivityTracker pActivityTracker,
+            StockWriteBuffer pStockBuffer, ApplicationEventPublisher pEventPublisher, TieringProperties pProperties) {
+        return new ProductTieringJob(pColdStore, pActivityTracker, pStockBuffer, pEventPublisher, pProperties);
+    }
+}
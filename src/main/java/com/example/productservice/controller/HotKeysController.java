@@ -0,0 +1,48 @@
+package com.example.productservice.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.productservice.dto.HotKeysResponse;
+import com.example.productservice.hotkeys.HotKeyTracker;
+
+/**
+ * Internal endpoint listing the hottest product IDs and queries, for deciding
+ * what to pre-warm, replicate or rate-limit. Exposes {@code /internal/hotkeys}.
+ */
+@RestController
+@RequestMapping("/internal/hotkeys")
+public class HotKeysController {
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final HotKeyTracker hotKeys;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency injection.
+     *
+     * @param pHotKeys
+     *            the hot-key tracker
+     */
+    @Autowired
+    public HotKeysController(HotKeyTracker pHotKeys) {
+        this.hotKeys = pHotKeys;
+    }
+
+    /**
+     * GET endpoint listing the top IDs and queries with their estimated request
+     * counts and rates, hottest first.
+     *
+     * @return the hot keys, 404 if hot-key tracking is disabled
+     */
+    @GetMapping
+    public ResponseEntity<HotKeysResponse> getHotKeys() {
+        if (!hotKeys.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(hotKeys.snapshot());
+    }
+}
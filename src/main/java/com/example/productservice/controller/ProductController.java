@@ -1,9 +1,13 @@
 package com.example.productservice.controller;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,15 +18,45 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.example.productservice.bulkhead.Workload;
+import com.example.productservice.bulkhead.WorkloadClass;
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.cache.ProductSearchCache;
+import com.example.productservice.deadline.RequestTimeout;
+import com.example.productservice.dto.PriceAdjustmentJob;
+import com.example.productservice.dto.PriceAdjustmentRequest;
+import com.example.productservice.dto.ProductBatchResponse;
+import com.example.productservice.dto.ProductBatchSearchRequest;
+import com.example.productservice.dto.ProductBatchSearchResponse;
+import com.example.productservice.dto.ProductIdsRequest;
+import com.example.productservice.dto.ProductSearchRequest;
+import com.example.productservice.dto.ProductSuggestion;
+import com.example.productservice.dto.SparseProductList;
 import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+import com.example.productservice.hotkeys.HotKeyTracker;
+import com.example.productservice.lowstock.LowStockStream;
+import com.example.productservice.service.PriceAdjustmentService;
+import com.example.productservice.service.ProductBatchSearchService;
 import com.example.productservice.service.ProductService;
+import com.example.productservice.tiering.ProductActivityTracker;
 
 import jakarta.validation.Valid;
 
 /**
  * REST Controller for Product operations. Exposes endpoints under
- * /api/products.
+ * /api/products. When the JSON cache is enabled, product and list reads are
+ * answered with pre-serialized bytes instead of running Jackson per request.
+ * Reads by ID, searches and suggestions are counted for hot-key tracking. List
+ * and search endpoints are bulk workload and writes their own workload class,
+ * so with bulkheads enabled they cannot take the threads and connections of
+ * reads by ID. With deadlines enabled, {@link RequestTimeout} sets the time
+ * budget of endpoints that differ from the default. List and search endpoints
+ * take a sparse fieldset, e.g. {@code fields=id,name,price}, which is read and
+ * written without the other columns. Reads by ID are also recorded as activity
+ * for hot/cold tiering.
  */
 @RestController
 @RequestMapping("/api/products")
@@ -30,30 +64,130 @@ public class ProductController {
 
     // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
     private final ProductService productService;
+    private final ProductJsonCache jsonCache;
+    private final ProductBatchSearchService batchSearchService;
+    private final PriceAdjustmentService priceAdjustmentService;
+    private final HotKeyTracker hotKeys;
+    private final ProductActivityTracker activityTracker;
+    private final int multiGetMaxIds;
+    private final LowStockStream lowStockStream;
+    private final int lowStockThreshold;
     // CHECKSTYLE:ON
 
+    // CHECKSTYLE:OFF - ParameterNumber: one collaborator per endpoint family
     /**
      * Constructor with dependency injection.
      *
      * @param pProductService
      *            the product service
+     * @param pJsonCache
+     *            the pre-serialized product document cache
+     * @param pBatchSearchService
+     *            runner of batch searches
+     * @param pPriceAdjustmentService
+     *            runner of bulk price adjustments
+     * @param pHotKeys
+     *            counter of hot product IDs and queries
+     * @param pActivityTracker
+     *            recorder of product reads for tiering
+     * @param pLowStockStream
+     *            the streams of low-stock alerts
+     * @param pMultiGetMaxIds
+     *            maximum number of IDs accepted by one multi-get request
+     * @param pLowStockThreshold
+     *            stock level of low-stock requests that do not give one
      */
     @Autowired
-    public ProductController(ProductService pProductService) {
+    public ProductController(ProductService pProductService, ProductJsonCache pJsonCache,
+            ProductBatchSearchService pBatchSearchService, PriceAdjustmentService pPriceAdjustmentService,
+            HotKeyTracker pHotKeys, ProductActivityTracker pActivityTracker, LowStockStream pLowStockStream,
+            @Value("${product.multi-get.max-ids:1000}") int pMultiGetMaxIds,
+            @Value("${product.low-stock.default-threshold:5}") int pLowStockThreshold) {
         this.productService = pProductService;
+        this.jsonCache = pJsonCache;
+        this.batchSearchService = pBatchSearchService;
+        this.priceAdjustmentService = pPriceAdjustmentService;
+        this.hotKeys = pHotKeys;
+        this.activityTracker = pActivityTracker;
+        this.multiGetMaxIds = pMultiGetMaxIds;
+        this.lowStockStream = pLowStockStream;
+        this.lowStockThreshold = pLowStockThreshold;
     }
+    // CHECKSTYLE:ON
 
     /**
      * GET endpoint to retrieve all products.
      *
-     * @return list of all products
+     * @param pFields
+     *            optional comma-separated fields to return, e.g.
+     *            {@code id,name,price}
+     * @return list of all products, 400 if a field is unknown
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
+    @Workload(WorkloadClass.BULK)
+    @RequestTimeout(10_000)
+    public ResponseEntity<?> getAllProducts(@RequestParam(value = "fields", required = false) String pFields) {
+        Set<ProductField> fields = parseFields(pFields);
+        if (fields == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (fields != ProductField.ALL) {
+            return ResponseEntity.ok(new SparseProductList(productService.getAllProducts(fields), fields));
+        }
+        if (jsonCache.isEnabled()) {
+            long epoch = jsonCache.currentEpoch();
+            return json(jsonCache.array(productService.getAllProducts(), epoch));
+        }
         List<Product> products = productService.getAllProducts();
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * GET endpoint to retrieve many products by ID in one request, e.g.
+     * {@code /api/products?ids=1,2,3}.
+     *
+     * @param pIds
+     *            the product IDs
+     * @return the products found and the missing IDs, 400 if an ID is invalid or
+     *         too many IDs are requested
+     */
+    @GetMapping(params = "ids")
+    @RequestTimeout(2000)
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam("ids") List<Long> pIds) {
+        return multiGet(pIds);
+    }
+
+    /**
+     * POST endpoint to retrieve many products by ID, for ID lists too long for a
+     * query string.
+     *
+     * @param pRequest
+     *            the requested IDs
+     * @return the products found and the missing IDs, 400 if an ID is invalid or
+     *         too many IDs are requested
+     */
+    @PostMapping("/lookup")
+    @RequestTimeout(2000)
+    public ResponseEntity<ProductBatchResponse> lookupProducts(@Valid @RequestBody ProductIdsRequest pRequest) {
+        return multiGet(pRequest.getIds());
+    }
+
+    private ResponseEntity<ProductBatchResponse> multiGet(List<Long> pIds) {
+        if (pIds == null || pIds.size() > multiGetMaxIds) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (Long id : pIds) {
+            if (id == null || id <= 0) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        for (Long id : pIds) {
+            hotKeys.recordId(id);
+            activityTracker.record(id);
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(pIds));
+    }
+
     /**
      * GET endpoint to retrieve a product by ID.
      *
@@ -62,10 +196,22 @@ public class ProductController {
      * @return the product if found, 404 if not found, 400 if invalid ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable("id") Long pId) {
+    @RequestTimeout(1000)
+    public ResponseEntity<?> getProductById(@PathVariable("id") Long pId) {
         if (pId == null || pId <= 0) {
             return ResponseEntity.badRequest().build();
         }
+        hotKeys.recordId(pId);
+        activityTracker.record(pId);
+        if (jsonCache.isEnabled()) {
+            byte[] cached = jsonCache.get(pId);
+            if (cached != null) {
+                return json(cached);
+            }
+            long version = jsonCache.version(pId);
+            return productService.getProductById(pId).map(product -> json(jsonCache.document(product, version)))
+                    .orElse(ResponseEntity.notFound().build());
+        }
         return productService.getProductById(pId).map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
@@ -77,6 +223,7 @@ public class ProductController {
      * @return the created product with 201 status
      */
     @PostMapping
+    @Workload(WorkloadClass.WRITE)
     public ResponseEntity<Product> createProduct(@Valid @RequestBody Product pProduct) {
         Product savedProduct = productService.addProduct(pProduct);
         return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
@@ -92,6 +239,7 @@ public class ProductController {
      * @return the updated product if found, 404 if not found, 400 if invalid ID
      */
     @PutMapping("/{id}")
+    @Workload(WorkloadClass.WRITE)
     public ResponseEntity<Product> updateProduct(@PathVariable("id") Long pId, @Valid @RequestBody Product pProduct) {
         if (pId == null || pId <= 0) {
             return ResponseEntity.badRequest().build();
@@ -108,6 +256,7 @@ public class ProductController {
      * @return 204 if deleted successfully, 404 if not found, 400 if invalid ID
      */
     @DeleteMapping("/{id}")
+    @Workload(WorkloadClass.WRITE)
     public ResponseEntity<Void> deleteProduct(@PathVariable("id") Long pId) {
         if (pId == null || pId <= 0) {
             return ResponseEntity.badRequest().build();
@@ -129,25 +278,219 @@ public class ProductController {
      *            optional minimum price (inclusive)
      * @param pMaxPrice
      *            optional maximum price (inclusive)
+     * @param pFields
+     *            optional comma-separated fields to return, e.g.
+     *            {@code id,name,price}
+     * @param pArchived
+     *            whether products moved to the cold tier are searched too
      * @return list of products matching the search criteria, 400 if invalid price
-     *         range
+     *         range or a field is unknown
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam(value = "name", required = false) String pName,
+    @Workload(WorkloadClass.BULK)
+    public ResponseEntity<?> searchProducts(@RequestParam(value = "name", required = false) String pName,
             @RequestParam(value = "category", required = false) String pCategory,
             @RequestParam(value = "minPrice", required = false) Double pMinPrice,
-            @RequestParam(value = "maxPrice", required = false) Double pMaxPrice) {
-        // Validate price range
-        if (pMinPrice != null && pMinPrice < 0) {
+            @RequestParam(value = "maxPrice", required = false) Double pMaxPrice,
+            @RequestParam(value = "fields", required = false) String pFields,
+            @RequestParam(value = "archived", defaultValue = "false") boolean pArchived) {
+        Set<ProductField> fields = parseFields(pFields);
+        if (!isValidPriceRange(pMinPrice, pMaxPrice) || fields == null) {
             return ResponseEntity.badRequest().build();
         }
-        if (pMaxPrice != null && pMaxPrice < 0) {
-            return ResponseEntity.badRequest().build();
+        recordSearch(pName, pCategory, pMinPrice, pMaxPrice);
+        if (pArchived) {
+            List<Product> products = productService.searchAllTiers(pName, pCategory, pMinPrice, pMaxPrice);
+            if (fields != ProductField.ALL) {
+                return ResponseEntity.ok(new SparseProductList(products, fields));
+            }
+            return ResponseEntity.ok(products);
         }
-        if (pMinPrice != null && pMaxPrice != null && pMinPrice > pMaxPrice) {
-            return ResponseEntity.badRequest().build();
+        if (fields != ProductField.ALL) {
+            return ResponseEntity.ok(new SparseProductList(
+                    productService.searchProducts(pName, pCategory, pMinPrice, pMaxPrice, fields), fields));
+        }
+        if (jsonCache.isEnabled()) {
+            long epoch = jsonCache.currentEpoch();
+            return json(jsonCache.array(productService.searchProducts(pName, pCategory, pMinPrice, pMaxPrice), epoch));
         }
         List<Product> products = productService.searchProducts(pName, pCategory, pMinPrice, pMaxPrice);
         return ResponseEntity.ok(products);
     }
+
+    /**
+     * POST endpoint running several searches in one request, e.g. one per shelf of
+     * a listing page. The searches run concurrently under a shared deadline; the
+     * results come back in request order, each with its status and timing.
+     *
+     * @param pRequest
+     *            the searches, each with the filters of {@code GET /search} and an
+     *            optional limit
+     * @return the results, 400 if there are no or too many searches, a price range
+     *         is invalid, a limit is not positive or the timeout is not positive
+     */
+    @PostMapping("/search/batch")
+    @Workload(WorkloadClass.BULK)
+    public ResponseEntity<ProductBatchSearchResponse> searchProductsBatch(
+            @Valid @RequestBody ProductBatchSearchRequest pRequest) {
+        List<ProductSearchRequest> searches = pRequest.getSearches();
+        if (searches.size() > batchSearchService.getMaxSearches()
+                || (pRequest.getTimeoutMillis() != null && pRequest.getTimeoutMillis() <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (ProductSearchRequest search : searches) {
+            if (search == null || !isValidPriceRange(search.getMinPrice(), search.getMaxPrice())
+                    || (search.getLimit() != null && search.getLimit() < 1)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        for (ProductSearchRequest search : searches) {
+            recordSearch(search.getName(), search.getCategory(), search.getMinPrice(), search.getMaxPrice());
+        }
+        return ResponseEntity.ok(batchSearchService.search(searches, pRequest.getTimeoutMillis()));
+    }
+
+    /**
+     * POST endpoint starting a bulk price adjustment of a category, e.g.
+     * {@code {"category": "Books", "percent": 5}}. The prices are updated in the
+     * background in chunks; poll the returned job for progress.
+     *
+     * @param pRequest
+     *            the category, percentage and optional current price range
+     * @return the queued job with 202 status, 400 if the price range is invalid,
+     *         429 if too many adjustments are already queued
+     */
+    @PostMapping("/price-adjustments")
+    @Workload(WorkloadClass.WRITE)
+    public ResponseEntity<PriceAdjustmentJob> adjustPrices(@Valid @RequestBody PriceAdjustmentRequest pRequest) {
+        if (!isValidPriceRange(pRequest.getMinPrice(), pRequest.getMaxPrice())) {
+            return ResponseEntity.badRequest().build();
+        }
+        PriceAdjustmentJob job = priceAdjustmentService.submit(pRequest);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.accepted().header("Location", "/api/products/price-adjustments/" + job.getId()).body(job);
+    }
+
+    /**
+     * GET endpoint reporting the progress of a bulk price adjustment.
+     *
+     * @param pJobId
+     *            the job ID
+     * @return the job, 404 if it is unknown
+     */
+    @GetMapping("/price-adjustments/{jobId}")
+    public ResponseEntity<PriceAdjustmentJob> getPriceAdjustment(@PathVariable("jobId") long pJobId) {
+        PriceAdjustmentJob job = priceAdjustmentService.getJob(pJobId);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job);
+    }
+
+    /**
+     * GET endpoint for typeahead suggestions, e.g.
+     * {@code /api/products/suggest?prefix=lap&limit=5}. Matches the start of the
+     * name or of any word in it, ignoring case and accents.
+     *
+     * @param pPrefix
+     *            the typed prefix
+     * @param pLimit
+     *            maximum number of suggestions (capped by
+     *            {@code product.suggest.max-results})
+     * @return the suggestions, best first, 400 if the limit is not positive
+     */
+    @GetMapping("/suggest")
+    @RequestTimeout(500)
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(@RequestParam("prefix") String pPrefix,
+            @RequestParam(value = "limit", defaultValue = "10") int pLimit) {
+        if (pLimit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (hotKeys.isEnabled()) {
+            hotKeys.recordQuery("suggest?prefix=" + pPrefix.toLowerCase(Locale.ROOT));
+        }
+        return ResponseEntity.ok(productService.suggestProducts(pPrefix, pLimit));
+    }
+
+    /**
+     * GET endpoint for the low-stock watch list, e.g.
+     * {@code /api/products/low-stock?threshold=5&category=Books}.
+     *
+     * @param pThreshold
+     *            the highest stock level to return (defaults to
+     *            {@code product.low-stock.default-threshold})
+     * @param pCategory
+     *            optional category to filter by
+     * @return the products, lowest stock first, 400 if the threshold is negative
+     */
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<Product>> getLowStockProducts(
+            @RequestParam(value = "threshold", required = false) Integer pThreshold,
+            @RequestParam(value = "category", required = false) String pCategory) {
+        int threshold = pThreshold == null ? lowStockThreshold : pThreshold;
+        if (threshold < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getLowStockProducts(threshold, pCategory));
+    }
+
+    /**
+     * GET endpoint streaming low-stock alerts as server-sent events: a
+     * {@code low-stock} event when a product's stock drops to the threshold or
+     * below, a {@code restocked} event when it rises above it. Needs the low-stock
+     * index.
+     *
+     * @param pThreshold
+     *            the stock level to watch (defaults to
+     *            {@code product.low-stock.default-threshold})
+     * @param pCategory
+     *            optional category to watch
+     * @return the event stream, 400 if the threshold is negative, 404 if the index
+     *         is disabled, 503 if too many streams are open
+     */
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamLowStock(
+            @RequestParam(value = "threshold", required = false) Integer pThreshold,
+            @RequestParam(value = "category", required = false) String pCategory) {
+        int threshold = pThreshold == null ? lowStockThreshold : pThreshold;
+        if (threshold < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!productService.isLowStockIndexEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = lowStockStream.subscribe(threshold, pCategory);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    private void recordSearch(String pName, String pCategory, Double pMinPrice, Double pMaxPrice) {
+        if (hotKeys.isEnabled()) {
+            hotKeys.recordQuery(ProductSearchCache.Key.of(pName, pCategory, pMinPrice, pMaxPrice).toQuery());
+        }
+    }
+
+    private static Set<ProductField> parseFields(String pFields) {
+        try {
+            return ProductField.parse(pFields);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isValidPriceRange(Double pMinPrice, Double pMaxPrice) {
+        // Infinite bounds are open-ended; NaN is no bound at all
+        if (pMinPrice != null && (pMinPrice < 0 || pMinPrice.isNaN())) {
+            return false;
+        }
+        if (pMaxPrice != null && (pMaxPrice < 0 || pMaxPrice.isNaN())) {
+            return false;
+        }
+        return pMinPrice == null || pMaxPrice == null || pMinPrice <= pMaxPrice;
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] pBody) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(pBody);
+    }
 }
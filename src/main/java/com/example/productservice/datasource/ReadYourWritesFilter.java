@@ -0,0 +1,79 @@
+package com.example.productservice.datasource;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Gives each client read-your-writes consistency under replica routing. After a
+ * request of a client used a read-write connection, that client's reads are
+ * sent to the primary for the stickiness window, which should cover the
+ * replicas' maximum lag. Clients are identified by the {@code X-Client-Id}
+ * header, or by remote address if the header is absent.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /** Request header identifying the client for stickiness. */
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final int PRUNE_THRESHOLD = 100_000;
+
+    // CHECKSTYLE:OFF - filter state uses standard naming
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long stickinessNanos;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the filter.
+     *
+     * @param pStickinessMillis
+     *            how long reads stay on the primary after a client's write
+     */
+    public ReadYourWritesFilter(long pStickinessMillis) {
+        this.stickinessNanos = TimeUnit.MILLISECONDS.toNanos(pStickinessMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest pRequest, HttpServletResponse pResponse, FilterChain pChain)
+            throws ServletException, IOException {
+        String client = clientKey(pRequest);
+        long now = System.nanoTime();
+        Long lastWrite = lastWriteNanos.get(client);
+        if (lastWrite != null) {
+            if (now - lastWrite < stickinessNanos) {
+                ReplicaRoutingContext.forcePrimary();
+            } else {
+                lastWriteNanos.remove(client, lastWrite);
+            }
+        }
+        try {
+            pChain.doFilter(pRequest, pResponse);
+        } finally {
+            if (ReplicaRoutingContext.hasWritten()) {
+                lastWriteNanos.put(client, System.nanoTime());
+                if (lastWriteNanos.size() > PRUNE_THRESHOLD) {
+                    prune();
+                }
+            }
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    private void prune() {
+        long now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writeTime -> now - writeTime >= stickinessNanos);
+    }
+
+    private static String clientKey(HttpServletRequest pRequest) {
+        String clientId = pRequest.getHeader(CLIENT_ID_HEADER);
+        return clientId != null && !clientId.isBlank() ? clientId : pRequest.getRemoteAddr();
+    }
+}
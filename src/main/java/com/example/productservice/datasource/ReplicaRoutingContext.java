@@ -0,0 +1,64 @@
+package com.example.productservice.datasource;
+
+/**
+ * Per-thread routing hints for {@link ReplicaRoutingDataSource}. A request can
+ * force all its reads to the primary (read-your-writes stickiness), and the
+ * data source records whether the current request opened a read-write
+ * connection so the caller can be made sticky afterwards.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Routes every following connection of this thread to the primary.
+     */
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(Boolean.TRUE);
+    }
+
+    /**
+     * Lets reads of this thread use replicas again, keeping the other hints.
+     */
+    public static void releasePrimary() {
+        PRIMARY_FORCED.remove();
+    }
+
+    /**
+     * Indicates whether reads of this thread must go to the primary.
+     *
+     * @return true if the primary is forced
+     */
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() != null;
+    }
+
+    /**
+     * Records that this thread used a read-write connection.
+     */
+    static void markWrite() {
+        WROTE.set(Boolean.TRUE);
+    }
+
+    /**
+     * Indicates whether this thread used a read-write connection since the last
+     * {@link #clear()}.
+     *
+     * @return true if a write connection was used
+     */
+    public static boolean hasWritten() {
+        return WROTE.get() != null;
+    }
+
+    /**
+     * Clears all hints of this thread.
+     */
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+        WROTE.remove();
+    }
+}
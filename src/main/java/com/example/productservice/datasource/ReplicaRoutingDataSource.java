@@ -0,0 +1,262 @@
+package com.example.productservice.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Data source that sends read-only transactions to a pool of read replicas and
+ * everything else to the primary. Replicas are picked round-robin among those
+ * that passed the last health and lag check; if none qualifies, reads fall back
+ * to the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so
+ * the transaction's read-only flag is known when the connection is obtained.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource
+        implements
+            SmartLifecycle,
+            MeterBinder,
+            DisposableBean {
+
+    /** Lookup key of the primary. */
+    public static final String PRIMARY = "primary";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /**
+     * Health state of one replica, updated by the periodic check.
+     */
+    public static final class ReplicaState {
+        // CHECKSTYLE:OFF - internal state uses standard naming
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagMillis;
+        // CHECKSTYLE:ON
+
+        ReplicaState(String pName, DataSource pDataSource) {
+            this.name = pName;
+            this.dataSource = pDataSource;
+        }
+
+        /**
+         * Gets the replica lookup key.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Indicates whether the last check succeeded.
+         *
+         * @return true if healthy
+         */
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /**
+         * Gets the lag measured by the last check.
+         *
+         * @return the lag in milliseconds
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final List<ReplicaState> replicas = new ArrayList<>();
+    private final ReplicaRoutingProperties properties;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the routing data source.
+     *
+     * @param pPrimary
+     *            the primary data source
+     * @param pReplicas
+     *            replica data sources by name
+     * @param pProperties
+     *            routing configuration
+     */
+    public ReplicaRoutingDataSource(DataSource pPrimary, Map<String, DataSource> pReplicas,
+            ReplicaRoutingProperties pProperties) {
+        this.properties = pProperties;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, pPrimary);
+        for (Map.Entry<String, DataSource> replica : pReplicas.entrySet()) {
+            targets.put(replica.getKey(), replica.getValue());
+            replicas.add(new ReplicaState(replica.getKey(), replica.getValue()));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(pPrimary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                writes.increment();
+                ReplicaRoutingContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReplicaRoutingContext.isPrimaryForced()) {
+            primaryReads.increment();
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            ReplicaState replica = replicas.get((start + i) % size);
+            if (replica.healthy && replica.lagMillis <= properties.getMaxLagMillis()) {
+                replicaReads.increment();
+                return replica.name;
+            }
+        }
+        fallbacks.increment();
+        return PRIMARY;
+    }
+
+    /**
+     * Checks connectivity and, if a lag query is configured, replication lag of
+     * every replica.
+     */
+    public void checkReplicas() {
+        for (ReplicaState replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    markUnhealthy(replica, null);
+                    continue;
+                }
+                replica.lagMillis = measureLag(connection);
+                if (!replica.healthy) {
+                    LOG.info("Replica {} is healthy again", replica.name);
+                }
+                replica.healthy = true;
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(replica, e);
+            }
+        }
+    }
+
+    private long measureLag(Connection pConnection) throws SQLException {
+        String lagQuery = properties.getLagQuery();
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return 0;
+        }
+        try (Statement statement = pConnection.createStatement(); ResultSet rs = statement.executeQuery(lagQuery)) {
+            return rs.next() ? rs.getLong(1) : Long.MAX_VALUE;
+        }
+    }
+
+    private void markUnhealthy(ReplicaState pReplica, Exception pCause) {
+        if (pReplica.healthy) {
+            LOG.warn("Replica {} failed its health check, routing its reads elsewhere", pReplica.name, pCause);
+        }
+        pReplica.healthy = false;
+    }
+
+    /**
+     * Gets the replica states, mainly for diagnostics and tests.
+     *
+     * @return the replicas
+     */
+    public List<ReplicaState> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void start() {
+        checkReplicas();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getHealthCheckIntervalMillis();
+        scheduler.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Closes the replica pools, which are owned by this data source.
+     *
+     * @throws Exception
+     *             if a pool cannot be closed
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (ReplicaState replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.datasource.reads", replicaReads, LongAdder::sum).tag("target", "replica")
+                .register(pRegistry);
+        FunctionCounter.builder("product.datasource.reads", primaryReads, LongAdder::sum).tag("target", "primary")
+                .register(pRegistry);
+        FunctionCounter.builder("product.datasource.reads", fallbacks, LongAdder::sum).tag("target", "fallback")
+                .register(pRegistry);
+        FunctionCounter.builder("product.datasource.writes", writes, LongAdder::sum).register(pRegistry);
+        for (ReplicaState replica : replicas) {
+            Gauge.builder("product.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", replica.name).register(pRegistry);
+            Gauge.builder("product.datasource.replica.lag", replica, r -> r.lagMillis).tag("replica", replica.name)
+                    .baseUnit("milliseconds").register(pRegistry);
+        }
+    }
+}
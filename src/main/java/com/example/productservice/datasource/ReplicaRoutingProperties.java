@@ -0,0 +1,207 @@
+package com.example.productservice.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of read replica routing, bound from
+ * {@code product.datasource.routing.*}. The primary is the regular
+ * {@code spring.datasource.*} data source.
+ */
+@ConfigurationProperties(prefix = "product.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    /**
+     * Connection settings of one read replica.
+     */
+    public static class Replica {
+        // CHECKSTYLE:OFF - configuration property fields use standard naming
+        private String url;
+        private String username;
+        private String password;
+        // CHECKSTYLE:ON
+
+        /**
+         * Gets the JDBC URL.
+         *
+         * @return the URL
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Sets the JDBC URL.
+         *
+         * @param pUrl
+         *            the URL
+         */
+        public void setUrl(String pUrl) {
+            this.url = pUrl;
+        }
+
+        /**
+         * Gets the user name.
+         *
+         * @return the user name
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Sets the user name.
+         *
+         * @param pUsername
+         *            the user name
+         */
+        public void setUsername(String pUsername) {
+            this.username = pUsername;
+        }
+
+        /**
+         * Gets the password.
+         *
+         * @return the password
+         */
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * Sets the password.
+         *
+         * @param pPassword
+         *            the password
+         */
+        public void setPassword(String pPassword) {
+            this.password = pPassword;
+        }
+    }
+
+    // CHECKSTYLE:OFF - configuration property fields use standard naming
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private long stickinessMillis = 2000;
+    private long maxLagMillis = 1000;
+    private long healthCheckIntervalMillis = 5000;
+    private String lagQuery;
+    // CHECKSTYLE:ON
+
+    /**
+     * Indicates whether routing is enabled.
+     *
+     * @return true if reads are routed to replicas
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables routing.
+     *
+     * @param pEnabled
+     *            the flag
+     */
+    public void setEnabled(boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Gets the read replicas.
+     *
+     * @return the replicas
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Sets the read replicas.
+     *
+     * @param pReplicas
+     *            the replicas
+     */
+    public void setReplicas(List<Replica> pReplicas) {
+        this.replicas = pReplicas;
+    }
+
+    /**
+     * Gets how long a client's reads stay on the primary after its own write.
+     *
+     * @return the stickiness window in milliseconds
+     */
+    public long getStickinessMillis() {
+        return stickinessMillis;
+    }
+
+    /**
+     * Sets the read-your-writes stickiness window.
+     *
+     * @param pStickinessMillis
+     *            the window in milliseconds
+     */
+    public void setStickinessMillis(long pStickinessMillis) {
+        this.stickinessMillis = pStickinessMillis;
+    }
+
+    /**
+     * Gets the replication lag above which a replica stops receiving reads.
+     *
+     * @return the maximum lag in milliseconds
+     */
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    /**
+     * Sets the maximum tolerated replication lag.
+     *
+     * @param pMaxLagMillis
+     *            the lag in milliseconds
+     */
+    public void setMaxLagMillis(long pMaxLagMillis) {
+        this.maxLagMillis = pMaxLagMillis;
+    }
+
+    /**
+     * Gets the interval between replica health and lag checks.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getHealthCheckIntervalMillis() {
+        return healthCheckIntervalMillis;
+    }
+
+    /**
+     * Sets the interval between replica health and lag checks.
+     *
+     * @param pHealthCheckIntervalMillis
+     *            the interval in milliseconds
+     */
+    public void setHealthCheckIntervalMillis(long pHealthCheckIntervalMillis) {
+        this.healthCheckIntervalMillis = pHealthCheckIntervalMillis;
+    }
+
+    /**
+     * Gets the SQL run on each replica that returns its lag in milliseconds as a
+     * single number, or null to check connectivity only.
+     *
+     * @return the lag query
+     */
+    public String getLagQuery() {
+        return lagQuery;
+    }
+
+    /**
+     * Sets the replica lag query.
+     *
+     * @param pLagQuery
+     *            the query
+     */
+    public void setLagQuery(String pLagQuery) {
+        this.lagQuery = pLagQuery;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.productservice.deadline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which nobody waits for a request's answer any more.
+ */
+public final class Deadline {
+
+    // CHECKSTYLE:OFF - value fields use standard naming
+    private final long expiresAtNanos;
+    // CHECKSTYLE:ON
+
+    private Deadline(long pExpiresAtNanos) {
+        this.expiresAtNanos = pExpiresAtNanos;
+    }
+
+    /**
+     * Creates a deadline a given time from now.
+     *
+     * @param pMillis
+     *            the time budget in milliseconds
+     * @return the deadline
+     */
+    public static Deadline after(long pMillis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pMillis));
+    }
+
+    /**
+     * Creates a deadline a given time after an earlier point in time, such as the
+     * arrival of a request that then waited in a queue.
+     *
+     * @param pStartNanos
+     *            the start, as a {@link System#nanoTime()} value
+     * @param pMillis
+     *            the time budget in milliseconds
+     * @return the deadline
+     */
+    public static Deadline afterStart(long pStartNanos, long pMillis) {
+        return new Deadline(pStartNanos + TimeUnit.MILLISECONDS.toNanos(pMillis));
+    }
+
+    /**
+     * Gets the time left.
+     *
+     * @return the remaining milliseconds, 0 once expired
+     */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAtNanos - System.nanoTime()));
+    }
+
+    /**
+     * Indicates whether the deadline has passed.
+     *
+     * @return true if expired
+     */
+    public boolean isExpired() {
+        return System.nanoTime() - expiresAtNanos >= 0;
+    }
+}
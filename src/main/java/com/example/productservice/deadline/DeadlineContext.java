@@ -0,0 +1,43 @@
+package com.example.productservice.deadline;
+
+/**
+ * Deadline of the request the current thread works for, read by the product
+ * store calls and statements it makes.
+ */
+public final class DeadlineContext {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private DeadlineContext() {
+    }
+
+    /**
+     * Gets the deadline of this thread.
+     *
+     * @return the deadline, or null outside a request with one
+     */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Sets the deadline of this thread.
+     *
+     * @param pDeadline
+     *            the deadline, or null to clear it
+     */
+    public static void set(Deadline pDeadline) {
+        if (pDeadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(pDeadline);
+        }
+    }
+
+    /**
+     * Clears the deadline of this thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
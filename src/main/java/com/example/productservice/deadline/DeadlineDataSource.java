@@ -0,0 +1,69 @@
+package com.example.productservice.deadline;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that gives every statement created for a request with a deadline
+ * a query timeout of the time left, so the database abandons work nobody waits
+ * for. JDBC timeouts are whole seconds, so the time left is rounded up and a
+ * query may overrun the deadline by less than a second.
+ */
+public class DeadlineDataSource extends DelegatingDataSource {
+
+    /**
+     * Creates the wrapper.
+     *
+     * @param pTarget
+     *            the data source to wrap
+     */
+    public DeadlineDataSource(DataSource pTarget) {
+        super(pTarget);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String pUsername, String pPassword) throws SQLException {
+        return wrap(super.getConnection(pUsername, pPassword));
+    }
+
+    private static Connection wrap(Connection pConnection) {
+        Class<?>[] interfaces = new Class<?>[1];
+        interfaces[0] = Connection.class;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), interfaces,
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(pConnection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    Deadline deadline = DeadlineContext.current();
+                    if (deadline != null && result instanceof Statement statement) {
+                        applyTimeout(statement, deadline);
+                    }
+                    return result;
+                });
+    }
+
+    private static void applyTimeout(Statement pStatement, Deadline pDeadline) throws SQLException {
+        long remaining = pDeadline.remainingMillis();
+        if (remaining == 0) {
+            pStatement.close();
+            throw new SQLTimeoutException("Request deadline passed before the statement was prepared");
+        }
+        pStatement.setQueryTimeout((int) Math.min(Integer.MAX_VALUE, (remaining + 999) / 1000));
+    }
+}
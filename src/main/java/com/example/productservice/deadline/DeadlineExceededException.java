@@ -0,0 +1,26 @@
+package com.example.productservice.deadline;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request's deadline passes before or during a product store
+ * call. Answered with 504, although the client has usually stopped listening.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception.
+     *
+     * @param pMessage
+     *            what was cut short
+     * @param pCause
+     *            the failure of the cancelled call, or null
+     */
+    public DeadlineExceededException(String pMessage, Throwable pCause) {
+        super(pMessage, pCause);
+    }
+}
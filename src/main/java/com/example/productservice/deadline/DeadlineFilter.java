@@ -0,0 +1,28 @@
+package com.example.productservice.deadline;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records when a request arrived, ahead of the filters that can make it wait
+ * such as the bulkhead queue, so the {@link DeadlineInterceptor} counts that
+ * wait against the request's budget.
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    /** Request attribute with the {@link System#nanoTime()} of arrival. */
+    public static final String ARRIVED_AT_ATTRIBUTE = DeadlineFilter.class.getName() + ".arrivedAt";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest pRequest, HttpServletResponse pResponse, FilterChain pChain)
+            throws ServletException, IOException {
+        pRequest.setAttribute(ARRIVED_AT_ATTRIBUTE, System.nanoTime());
+        pChain.doFilter(pRequest, pResponse);
+    }
+}
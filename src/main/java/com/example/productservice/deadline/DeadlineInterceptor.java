@@ -0,0 +1,96 @@
+package com.example.productservice.deadline;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sets the deadline of each controller request: the client's timeout from the
+ * {@value #TIMEOUT_HEADER} header (milliseconds), capped by the endpoint's
+ * {@link RequestTimeout} or the default, counted from the request's arrival as
+ * recorded by the {@link DeadlineFilter}. The deadline holds for the thread
+ * running the handler and is counted as expired if the request outlives it.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor, MeterBinder {
+
+    /** Request header with the client's timeout in milliseconds. */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    // CHECKSTYLE:OFF - interceptor state uses standard naming
+    private final long defaultMillis;
+    private final Map<Method, Long> budgets = new ConcurrentHashMap<>();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the interceptor.
+     *
+     * @param pDefaultMillis
+     *            the budget of endpoints without {@link RequestTimeout}
+     */
+    public DeadlineInterceptor(long pDefaultMillis) {
+        this.defaultMillis = pDefaultMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest pRequest, HttpServletResponse pResponse, Object pHandler) {
+        if (!(pHandler instanceof HandlerMethod handler)) {
+            return true;
+        }
+        long budget = budgets.computeIfAbsent(handler.getMethod(), method -> {
+            RequestTimeout timeout = handler.getMethodAnnotation(RequestTimeout.class);
+            return timeout == null ? defaultMillis : timeout.value();
+        });
+        String header = pRequest.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                budget = Math.min(budget, Math.max(0, Long.parseLong(header.trim())));
+            } catch (NumberFormatException e) {
+                // A malformed timeout leaves the endpoint's budget
+            }
+        }
+        // The budget runs from the request's arrival, so time queued in a bulkhead
+        // counts; an async redispatch starts afresh
+        Object arrivedAt = pRequest.getAttribute(DeadlineFilter.ARRIVED_AT_ATTRIBUTE);
+        if (pRequest.getDispatcherType() == DispatcherType.REQUEST && arrivedAt instanceof Long arrivedAtNanos) {
+            DeadlineContext.set(Deadline.afterStart(arrivedAtNanos, budget));
+        } else {
+            DeadlineContext.set(Deadline.after(budget));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest pRequest, HttpServletResponse pResponse, Object pHandler,
+            Exception pException) {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline != null && deadline.isExpired()) {
+            expired.increment();
+            if (pResponse.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value()) {
+                cancelled.increment();
+            }
+        }
+        DeadlineContext.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.deadline.expired", expired, LongAdder::sum)
+                .description("Requests that ran past their deadline").register(pRegistry);
+        FunctionCounter.builder("product.deadline.cancelled", cancelled, LongAdder::sum)
+                .description("Expired requests whose product store work was cut short").register(pRegistry);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.productservice.deadline;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Refuses product store calls once the current request's deadline has passed,
+ * and reports a call that fails after the deadline, typically because its query
+ * timed out, as {@link DeadlineExceededException}.
+ */
+public class DeadlineStoreInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation pInvocation) throws Throwable {
+        Deadline deadline = DeadlineContext.current();
+        if (deadline == null) {
+            return pInvocation.proceed();
+        }
+        if (deadline.isExpired()) {
+            throw new DeadlineExceededException(
+                    "Deadline passed before ProductStore." + pInvocation.getMethod().getName(), null);
+        }
+        try {
+            return pInvocation.proceed();
+        } catch (RuntimeException e) {
+            if (deadline.isExpired() && !(e instanceof DeadlineExceededException)) {
+                throw new DeadlineExceededException(
+                        "Deadline passed during ProductStore." + pInvocation.getMethod().getName(), e);
+            }
+            throw e;
+        }
+    }
+}
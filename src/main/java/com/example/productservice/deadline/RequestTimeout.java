@@ -0,0 +1,25 @@
+package com.example.productservice.deadline;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Sets the deadline of a controller endpoint's requests when the client sends
+ * none, and caps the one it sends. Endpoints without it use
+ * {@code product.deadlines.default-ms}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RequestTimeout {
+
+    /**
+     * Gets the time budget of the endpoint.
+     *
+     * @return the budget in milliseconds
+     */
+    long value();
+}
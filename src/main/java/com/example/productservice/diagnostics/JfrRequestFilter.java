@@ -0,0 +1,42 @@
+package com.example.productservice.diagnostics;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records a {@link RequestEvent} for each HTTP request. The route is the
+ * matched URL pattern (e.g. {@code /api/products/{id}}) so events group by
+ * endpoint rather than by product ID.
+ */
+public class JfrRequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest pRequest, HttpServletResponse pResponse,
+            FilterChain pFilterChain) throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            pFilterChain.doFilter(pRequest, pResponse);
+            return;
+        }
+        event.begin();
+        try {
+            pFilterChain.doFilter(pRequest, pResponse);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = pRequest.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = pRequest.getMethod();
+                event.route = pattern != null ? pattern.toString() : pRequest.getRequestURI();
+                event.status = pResponse.getStatus();
+                event.commit();
+            }
+        }
+    }
+}
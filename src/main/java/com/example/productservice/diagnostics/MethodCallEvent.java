@@ -0,0 +1,42 @@
+package com.example.productservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one call into the service layer or the product
+ * store. Only the shape of the arguments is recorded, never their values.
+ */
+@Name("com.example.productservice.MethodCall")
+@Label("Product Service Call")
+@Category({ "Product Service", "Calls" })
+@Description("A service method or product store call")
+@StackTrace(false)
+@Threshold("5 ms")
+public class MethodCallEvent extends Event {
+
+    // CHECKSTYLE:OFF - JFR event fields are the recorded attribute names
+    @Label("Layer")
+    @Description("service or repository")
+    String layer;
+
+    @Label("Method")
+    String method;
+
+    @Label("Arguments")
+    @Description("Argument types, with sizes for collections and null for absent values")
+    String arguments;
+
+    @Label("Rows")
+    @Description("Number of products returned, or -1 if the result is not a row set")
+    int rows;
+
+    @Label("Failed")
+    boolean failed;
+    // CHECKSTYLE:ON
+}
@@ -0,0 +1,114 @@
+package com.example.productservice.diagnostics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Records a {@link MethodCallEvent} around each intercepted call. When the
+ * event is not enabled in the running recording the only cost is one flag
+ * check; the argument shape and row count are only computed for events that
+ * will be committed.
+ */
+public class MethodCallInterceptor implements MethodInterceptor {
+
+    // CHECKSTYLE:OFF - configuration fields use standard naming
+    private final String layer;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates an interceptor for one application layer.
+     *
+     * @param pLayer
+     *            the layer name recorded with each event
+     */
+    public MethodCallInterceptor(String pLayer) {
+        this.layer = pLayer;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation pInvocation) throws Throwable {
+        MethodCallEvent event = new MethodCallEvent();
+        if (!event.isEnabled()) {
+            return pInvocation.proceed();
+        }
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = pInvocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.layer = layer;
+                event.method = pInvocation.getMethod().getDeclaringClass().getSimpleName() + "."
+                        + pInvocation.getMethod().getName();
+                event.arguments = shapeOf(pInvocation.getArguments());
+                event.rows = failed ? -1 : rowsOf(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Describes arguments by type, e.g. {@code Long,String,null,List[3]}, without
+     * recording any values.
+     *
+     * @param pArguments
+     *            the call arguments
+     * @return the argument shape
+     */
+    static String shapeOf(Object[] pArguments) {
+        StringBuilder shape = new StringBuilder();
+        for (int i = 0; i < pArguments.length; i++) {
+            if (i > 0) {
+                shape.append(',');
+            }
+            Object argument = pArguments[i];
+            if (argument == null) {
+                shape.append("null");
+                continue;
+            }
+            shape.append(argument.getClass().getSimpleName());
+            if (argument instanceof Collection<?> collection) {
+                shape.append('[').append(collection.size()).append(']');
+            } else if (argument instanceof Map<?, ?> map) {
+                shape.append('[').append(map.size()).append(']');
+            }
+        }
+        return shape.toString();
+    }
+
+    /**
+     * Counts the rows in a call result.
+     *
+     * @param pResult
+     *            the value returned by the call
+     * @return the number of products, or -1 if the result is not a row set
+     */
+    static int rowsOf(Object pResult) {
+        if (pResult instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (pResult instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (pResult instanceof Iterable<?> iterable) {
+            int rows = 0;
+            for (Object ignored : iterable) {
+                rows++;
+            }
+            return rows;
+        }
+        if (pResult != null && pResult.getClass().getPackageName().endsWith(".entity")) {
+            return 1;
+        }
+        return -1;
+    }
+}
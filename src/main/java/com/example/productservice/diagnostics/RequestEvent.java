@@ -0,0 +1,35 @@
+package com.example.productservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for one HTTP request to the product API. Requests
+ * faster than the threshold are dropped; lower it in the recording settings to
+ * capture every request.
+ */
+@Name("com.example.productservice.Request")
+@Label("Product API Request")
+@Category({ "Product Service", "HTTP" })
+@Description("An HTTP request handled by the product API")
+@StackTrace(false)
+@Threshold("10 ms")
+public class RequestEvent extends Event {
+
+    // CHECKSTYLE:OFF - JFR event fields are the recorded attribute names
+    @Label("Method")
+    String method;
+
+    @Label("Route")
+    @Description("Matched URL pattern, or the raw path if no handler matched")
+    String route;
+
+    @Label("Status")
+    int status;
+    // CHECKSTYLE:ON
+}
@@ -0,0 +1,167 @@
+package com.example.productservice.diagnostics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Data source that times every statement execution and hands the ones over the
+ * threshold to the {@link SlowQueryLog}. Bind parameters are remembered per
+ * prepared statement so a slow query can be explained with the same values.
+ * Callable statements are passed through untouched.
+ */
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    // CHECKSTYLE:OFF - wrapper fields use standard naming
+    private final SlowQueryLog slowQueryLog;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the wrapper.
+     *
+     * @param pTarget
+     *            the data source to time
+     * @param pSlowQueryLog
+     *            where slow statements are reported
+     */
+    public SlowQueryDataSource(DataSource pTarget, SlowQueryLog pSlowQueryLog) {
+        super(pTarget);
+        this.slowQueryLog = pSlowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String pUsername, String pPassword) throws SQLException {
+        return wrap(super.getConnection(pUsername, pPassword));
+    }
+
+    private Connection wrap(Connection pConnection) {
+        return proxy(Connection.class, new ConnectionHandler(pConnection));
+    }
+
+    private static <T> T proxy(Class<T> pType, InvocationHandler pHandler) {
+        Class<?>[] interfaces = new Class<?>[1];
+        interfaces[0] = pType;
+        return pType.cast(Proxy.newProxyInstance(pType.getClassLoader(), interfaces, pHandler));
+    }
+
+    private static Object call(Object pTarget, Method pMethod, Object[] pArgs) throws Throwable {
+        try {
+            return pMethod.invoke(pTarget, pArgs);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Wraps the statements a connection creates.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        // CHECKSTYLE:OFF - handler fields use standard naming
+        private final Connection target;
+        // CHECKSTYLE:ON
+
+        ConnectionHandler(Connection pTarget) {
+            this.target = pTarget;
+        }
+
+        @Override
+        public Object invoke(Object pProxy, Method pMethod, Object[] pArgs) throws Throwable {
+            Object result = call(target, pMethod, pArgs);
+            if (result instanceof Statement statement && !(result instanceof CallableStatement)) {
+                String sql = "prepareStatement".equals(pMethod.getName()) ? (String) pArgs[0] : null;
+                StatementHandler handler = new StatementHandler(target, statement, sql);
+                return result instanceof PreparedStatement
+                        ? proxy(PreparedStatement.class, handler)
+                        : proxy(Statement.class, handler);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records bind parameters and times executions of one statement.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        // CHECKSTYLE:OFF - handler fields use standard naming
+        private final Connection connection;
+        private final Statement target;
+        private final String sql;
+        private Object[] parameters = new Object[8];
+        private int parameterCount;
+        private boolean batched;
+        // CHECKSTYLE:ON
+
+        StatementHandler(Connection pConnection, Statement pTarget, String pSql) {
+            this.connection = pConnection;
+            this.target = pTarget;
+            this.sql = pSql;
+        }
+
+        @Override
+        public Object invoke(Object pProxy, Method pMethod, Object[] pArgs) throws Throwable {
+            String name = pMethod.getName();
+            if (name.startsWith("execute")) {
+                return execute(pMethod, pArgs);
+            }
+            if (sql != null && name.startsWith("set") && pArgs != null && pArgs.length >= 2
+                    && pArgs[0] instanceof Integer index) {
+                bind(index, "setNull".equals(name) ? null : pArgs[1]);
+            } else if ("clearParameters".equals(name)) {
+                Arrays.fill(parameters, 0, parameterCount, null);
+                parameterCount = 0;
+            } else if ("addBatch".equals(name)) {
+                batched = true;
+            } else if ("clearBatch".equals(name)) {
+                batched = false;
+            }
+            return call(target, pMethod, pArgs);
+        }
+
+        private Object execute(Method pMethod, Object[] pArgs) throws Throwable {
+            SlowQueryEvent event = new SlowQueryEvent();
+            event.begin();
+            long start = System.nanoTime();
+            try {
+                return call(target, pMethod, pArgs);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (slowQueryLog.isSlow(elapsed)) {
+                    event.end();
+                    boolean direct = pArgs != null && pArgs.length > 0 && pArgs[0] instanceof String;
+                    String executed = direct ? (String) pArgs[0] : sql;
+                    slowQueryLog.report(event, connection, executed, parameters, direct ? 0 : parameterCount,
+                            batched || "executeBatch".equals(pMethod.getName()), elapsed);
+                }
+            }
+        }
+
+        private void bind(int pIndex, Object pValue) {
+            if (pIndex < 1) {
+                return;
+            }
+            if (pIndex > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(pIndex, parameters.length * 2));
+            }
+            parameters[pIndex - 1] = pValue;
+            parameterCount = Math.max(parameterCount, pIndex);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.productservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a JDBC statement that exceeded the slow-query
+ * threshold. The stack trace shows which code issued it.
+ */
+@Name("com.example.productservice.SlowQuery")
+@Label("Slow Query")
+@Category({ "Product Service", "JDBC" })
+@StackTrace(true)
+public class SlowQueryEvent extends Event {
+
+    // CHECKSTYLE:OFF - JFR event fields are the recorded attribute names
+    @Label("SQL")
+    String sql;
+
+    @Label("Parameter Types")
+    String parameterTypes;
+
+    @Label("Plan")
+    String plan;
+    // CHECKSTYLE:ON
+}
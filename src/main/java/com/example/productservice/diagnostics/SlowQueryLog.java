@@ -0,0 +1,213 @@
+package com.example.productservice.diagnostics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Threshold-based slow-query log. Statements timed by
+ * {@link SlowQueryDataSource} that take longer than the threshold are logged
+ * with their SQL and bind parameter types (never the values), counted, and
+ * recorded as a {@link SlowQueryEvent}. On H2 the plan is captured by running
+ * {@code EXPLAIN} with the same parameters on the same connection; plans are
+ * limited per minute so a burst of slow queries does not double the load.
+ */
+@Component
+public class SlowQueryLog implements MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final long PLAN_WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int maxPlansPerMinute;
+    private final LongAdder slowQueries = new LongAdder();
+    private long planWindowStart = System.nanoTime();
+    private int plansInWindow;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with configuration injection.
+     *
+     * @param pEnabled
+     *            whether statements are timed at all
+     * @param pThresholdMillis
+     *            execution time above which a statement is reported
+     * @param pMaxPlansPerMinute
+     *            maximum number of plans captured per minute
+     */
+    public SlowQueryLog(@Value("${product.diagnostics.slow-query.enabled:false}") boolean pEnabled,
+            @Value("${product.diagnostics.slow-query.threshold-ms:200}") long pThresholdMillis,
+            @Value("${product.diagnostics.slow-query.max-plans-per-minute:30}") int pMaxPlansPerMinute) {
+        this.enabled = pEnabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(pThresholdMillis);
+        this.maxPlansPerMinute = pMaxPlansPerMinute;
+    }
+
+    /**
+     * Indicates whether statements should be timed.
+     *
+     * @return true if the log is active
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks whether an execution time is over the threshold.
+     *
+     * @param pNanos
+     *            the execution time
+     * @return true if the statement must be reported
+     */
+    boolean isSlow(long pNanos) {
+        return pNanos >= thresholdNanos;
+    }
+
+    /**
+     * Reports a slow statement.
+     *
+     * @param pEvent
+     *            the event begun when the statement started
+     * @param pConnection
+     *            the connection the statement ran on, used for the plan
+     * @param pSql
+     *            the SQL text
+     * @param pParameters
+     *            the bind parameters by position (index 0 is parameter 1)
+     * @param pParameterCount
+     *            number of bound parameter positions
+     * @param pBatched
+     *            whether the statement was a batch, which is never explained
+     * @param pNanos
+     *            the execution time
+     */
+    void report(SlowQueryEvent pEvent, Connection pConnection, String pSql, Object[] pParameters, int pParameterCount,
+            boolean pBatched, long pNanos) {
+        slowQueries.increment();
+        String types = parameterTypes(pParameters, pParameterCount);
+        String plan = !pBatched && isExplainable(pSql) && tryAcquirePlan()
+                ? plan(pConnection, pSql, pParameters, pParameterCount)
+                : null;
+        if (plan != null) {
+            LOG.warn("Slow query ({} ms): {} parameters=[{}]\n{}", TimeUnit.NANOSECONDS.toMillis(pNanos), pSql, types,
+                    plan);
+        } else {
+            LOG.warn("Slow query ({} ms): {} parameters=[{}]", TimeUnit.NANOSECONDS.toMillis(pNanos), pSql, types);
+        }
+        if (pEvent.shouldCommit()) {
+            pEvent.sql = pSql;
+            pEvent.parameterTypes = types;
+            pEvent.plan = plan;
+            pEvent.commit();
+        }
+    }
+
+    /**
+     * Gets the number of statements reported as slow.
+     *
+     * @return the count
+     */
+    public long getSlowQueryCount() {
+        return slowQueries.sum();
+    }
+
+    /**
+     * Captures the plan of a statement with H2's {@code EXPLAIN}.
+     *
+     * @param pConnection
+     *            the connection the statement ran on
+     * @param pSql
+     *            the SQL text
+     * @param pParameters
+     *            the bind parameters by position
+     * @param pParameterCount
+     *            number of bound parameter positions
+     * @return the plan, or null if the database is not H2 or the plan failed
+     */
+    static String plan(Connection pConnection, String pSql, Object[] pParameters, int pParameterCount) {
+        try {
+            // Other databases may abort the surrounding transaction if EXPLAIN fails
+            if (!"H2".equals(pConnection.getMetaData().getDatabaseProductName())) {
+                return null;
+            }
+            try (PreparedStatement explain = pConnection.prepareStatement("EXPLAIN " + pSql)) {
+                for (int i = 0; i < pParameterCount; i++) {
+                    explain.setObject(i + 1, pParameters[i]);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        if (plan.length() > 0) {
+                            plan.append('\n');
+                        }
+                        plan.append(rows.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        } catch (SQLException e) {
+            LOG.debug("Could not capture plan for {}", pSql, e);
+            return null;
+        }
+    }
+
+    private static boolean isExplainable(String pSql) {
+        if (pSql == null) {
+            return false;
+        }
+        String verb = pSql.stripLeading();
+        int end = 0;
+        while (end < verb.length() && Character.isLetter(verb.charAt(end))) {
+            end++;
+        }
+        return switch (verb.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "SELECT", "INSERT", "UPDATE", "DELETE", "MERGE" -> true;
+            default -> false;
+        };
+    }
+
+    private static String parameterTypes(Object[] pParameters, int pParameterCount) {
+        StringBuilder types = new StringBuilder();
+        for (int i = 0; i < pParameterCount; i++) {
+            if (i > 0) {
+                types.append(',');
+            }
+            types.append(pParameters[i] == null ? "null" : pParameters[i].getClass().getSimpleName());
+        }
+        return types.toString();
+    }
+
+    private synchronized boolean tryAcquirePlan() {
+        long now = System.nanoTime();
+        if (now - planWindowStart >= PLAN_WINDOW_NANOS) {
+            planWindowStart = now;
+            plansInWindow = 0;
+        }
+        if (plansInWindow >= maxPlansPerMinute) {
+            return false;
+        }
+        plansInWindow++;
+        return true;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.jdbc.slow.queries", slowQueries, LongAdder::sum).register(pRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.productservice.dto;
+
+/**
+ * One frequently requested product ID or query, with its estimated traffic.
+ */
+public class HotKey {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final String key;
+    private final long estimatedCount;
+    private final double estimatedRate;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pKey
+     *            the product ID or normalized query
+     * @param pEstimatedCount
+     *            the aged request count
+     * @param pEstimatedRate
+     *            the estimated requests per second
+     */
+    public HotKey(String pKey, long pEstimatedCount, double pEstimatedRate) {
+        this.key = pKey;
+        this.estimatedCount = pEstimatedCount;
+        this.estimatedRate = pEstimatedRate;
+    }
+
+    /**
+     * Gets the product ID or normalized query.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the aged request count: recent requests weigh fully, older ones halve
+     * every half-life.
+     *
+     * @return the count
+     */
+    public long getEstimatedCount() {
+        return estimatedCount;
+    }
+
+    /**
+     * Gets the estimated requests per second.
+     *
+     * @return the rate
+     */
+    public double getEstimatedRate() {
+        return estimatedRate;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+/**
+ * The currently hottest product IDs and queries, hottest first.
+ */
+public class HotKeysResponse {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final List<HotKey> ids;
+    private final List<HotKey> queries;
+    private final long halfLifeMillis;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pIds
+     *            the hottest product IDs
+     * @param pQueries
+     *            the hottest normalized queries
+     * @param pHalfLifeMillis
+     *            how fast the counts age
+     */
+    public HotKeysResponse(List<HotKey> pIds, List<HotKey> pQueries, long pHalfLifeMillis) {
+        this.ids = pIds;
+        this.queries = pQueries;
+        this.halfLifeMillis = pHalfLifeMillis;
+    }
+
+    /**
+     * Gets the hottest product IDs.
+     *
+     * @return the IDs, hottest first
+     */
+    public List<HotKey> getIds() {
+        return ids;
+    }
+
+    /**
+     * Gets the hottest queries, as {@code search?...} or {@code suggest?...}.
+     *
+     * @return the queries, hottest first
+     */
+    public List<HotKey> getQueries() {
+        return queries;
+    }
+
+    /**
+     * Gets the interval after which counts are halved.
+     *
+     * @return the half-life in milliseconds
+     */
+    public long getHalfLifeMillis() {
+        return halfLifeMillis;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.productservice.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * State of an asynchronous bulk price adjustment, as reported by the job status
+ * endpoint. Written by the worker running the job and read by status requests,
+ * so every mutable field is volatile.
+ */
+public class PriceAdjustmentJob {
+
+    /**
+     * Lifecycle of a job.
+     */
+    public enum Status {
+        /** Waiting for the worker. */
+        QUEUED,
+        /** Updating chunks. */
+        RUNNING,
+        /** All chunks were updated. */
+        COMPLETED,
+        /** A chunk failed; the chunks before it stay updated. */
+        FAILED
+    }
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final long id;
+    private final String category;
+    private final BigDecimal percent;
+    private volatile Status status = Status.QUEUED;
+    private volatile long firstId;
+    private volatile long lastId;
+    private volatile long processedThroughId;
+    private volatile long updatedCount;
+    private volatile int chunks;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates a queued job.
+     *
+     * @param pId
+     *            the job ID
+     * @param pCategory
+     *            the category being repriced
+     * @param pPercent
+     *            the change in percent
+     */
+    public PriceAdjustmentJob(long pId, String pCategory, BigDecimal pPercent) {
+        this.id = pId;
+        this.category = pCategory;
+        this.percent = pPercent;
+    }
+
+    /**
+     * Marks the job as running over an ID range.
+     *
+     * @param pFirstId
+     *            the lowest ID of the category
+     * @param pLastId
+     *            the highest ID of the category
+     */
+    public void start(long pFirstId, long pLastId) {
+        this.firstId = pFirstId;
+        this.lastId = pLastId;
+        this.processedThroughId = pFirstId - 1;
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    /**
+     * Records a committed chunk.
+     *
+     * @param pThroughId
+     *            the highest ID of the chunk
+     * @param pUpdated
+     *            the number of products the chunk updated
+     */
+    public void chunkDone(long pThroughId, int pUpdated) {
+        this.updatedCount += pUpdated;
+        this.chunks++;
+        this.processedThroughId = pThroughId;
+    }
+
+    /**
+     * Marks the job as finished.
+     *
+     * @param pError
+     *            the failure message, or null on success
+     */
+    public void finish(String pError) {
+        if (startedAt == null) {
+            startedAt = Instant.now();
+        }
+        this.error = pError;
+        this.finishedAt = Instant.now();
+        this.status = pError == null ? Status.COMPLETED : Status.FAILED;
+    }
+
+    /**
+     * Gets the job ID.
+     *
+     * @return the ID
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the category being repriced.
+     *
+     * @return the category
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the change in percent.
+     *
+     * @return the percent
+     */
+    public BigDecimal getPercent() {
+        return percent;
+    }
+
+    /**
+     * Gets the job status.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the share of the category's ID range processed so far.
+     *
+     * @return the progress between 0 and 1
+     */
+    public double getProgress() {
+        if (status == Status.COMPLETED) {
+            return 1;
+        }
+        if (status == Status.QUEUED || lastId < firstId) {
+            return 0;
+        }
+        return (double) (processedThroughId - firstId + 1) / (lastId - firstId + 1);
+    }
+
+    /**
+     * Gets the number of products updated so far.
+     *
+     * @return the count
+     */
+    public long getUpdatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * Gets the number of chunks committed so far.
+     *
+     * @return the chunk count
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Gets when the worker started the job.
+     *
+     * @return the start time, or null while queued
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Gets when the job finished.
+     *
+     * @return the finish time, or null while queued or running
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Gets the failure message.
+     *
+     * @return the message, or null unless the job failed
+     */
+    public String getError() {
+        return error;
+    }
+}
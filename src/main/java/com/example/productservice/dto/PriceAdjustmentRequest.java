@@ -0,0 +1,134 @@
+package com.example.productservice.dto;
+
+import java.math.BigDecimal;
+
+import com.example.productservice.entity.Money;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request body of a bulk price adjustment: a percentage change applied to the
+ * products of a category, optionally only to those within a price range.
+ */
+public class PriceAdjustmentRequest {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    @NotNull(message = "Percent is required")
+    @DecimalMin(value = "-99.99", message = "Percent must be above -100")
+    @DecimalMax(value = "1000", message = "Percent must be at most 1000")
+    private BigDecimal percent;
+
+    @DecimalMax(value = Money.MAX_AMOUNT, message = "Minimum price must be at most " + Money.MAX_AMOUNT)
+    private Double minPrice;
+
+    @DecimalMax(value = Money.MAX_AMOUNT, message = "Maximum price must be at most " + Money.MAX_AMOUNT)
+    private Double maxPrice;
+    // CHECKSTYLE:ON
+
+    /**
+     * Default constructor.
+     */
+    public PriceAdjustmentRequest() {
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pCategory
+     *            the category to reprice
+     * @param pPercent
+     *            the change in percent, e.g. 5 or -10
+     * @param pMinPrice
+     *            the minimum current price to adjust (inclusive, optional)
+     * @param pMaxPrice
+     *            the maximum current price to adjust (inclusive, optional)
+     */
+    public PriceAdjustmentRequest(String pCategory, BigDecimal pPercent, Double pMinPrice, Double pMaxPrice) {
+        this.category = pCategory;
+        this.percent = pPercent;
+        this.minPrice = pMinPrice;
+        this.maxPrice = pMaxPrice;
+    }
+
+    /**
+     * Gets the category to reprice.
+     *
+     * @return the category
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Sets the category to reprice.
+     *
+     * @param pCategory
+     *            the category
+     */
+    public void setCategory(String pCategory) {
+        this.category = pCategory;
+    }
+
+    /**
+     * Gets the change in percent.
+     *
+     * @return the percent
+     */
+    public BigDecimal getPercent() {
+        return percent;
+    }
+
+    /**
+     * Sets the change in percent.
+     *
+     * @param pPercent
+     *            the percent
+     */
+    public void setPercent(BigDecimal pPercent) {
+        this.percent = pPercent;
+    }
+
+    /**
+     * Gets the minimum current price to adjust.
+     *
+     * @return the minimum price, or null
+     */
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Sets the minimum current price to adjust.
+     *
+     * @param pMinPrice
+     *            the minimum price
+     */
+    public void setMinPrice(Double pMinPrice) {
+        this.minPrice = pMinPrice;
+    }
+
+    /**
+     * Gets the maximum current price to adjust.
+     *
+     * @return the maximum price, or null
+     */
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Sets the maximum current price to adjust.
+     *
+     * @param pMaxPrice
+     *            the maximum price
+     */
+    public void setMaxPrice(Double pMaxPrice) {
+        this.maxPrice = pMaxPrice;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+import com.example.productservice.entity.Product;
+
+/**
+ * Response body of a multi-get request: the products that were found, in
+ * request order, and the requested IDs that do not exist.
+ */
+public class ProductBatchResponse {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final List<Product> products;
+    private final List<Long> missingIds;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pProducts
+     *            the products found
+     * @param pMissingIds
+     *            the IDs that were not found
+     */
+    public ProductBatchResponse(List<Product> pProducts, List<Long> pMissingIds) {
+        this.products = pProducts;
+        this.missingIds = pMissingIds;
+    }
+
+    /**
+     * Gets the products found.
+     *
+     * @return the products in request order
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Gets the requested IDs that were not found.
+     *
+     * @return the missing IDs in request order
+     */
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+
+/**
+ * Request body of the batch search endpoint: several searches answered in one
+ * round trip, e.g. one per shelf of a listing page.
+ */
+public class ProductBatchSearchRequest {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    @NotEmpty(message = "At least one search is required")
+    private List<ProductSearchRequest> searches;
+    private Long timeoutMillis;
+    // CHECKSTYLE:ON
+
+    /**
+     * Default constructor.
+     */
+    public ProductBatchSearchRequest() {
+    }
+
+    /**
+     * Constructor with searches.
+     *
+     * @param pSearches
+     *            the searches, in response order
+     */
+    public ProductBatchSearchRequest(List<ProductSearchRequest> pSearches) {
+        this.searches = pSearches;
+    }
+
+    /**
+     * Gets the searches.
+     *
+     * @return the searches
+     */
+    public List<ProductSearchRequest> getSearches() {
+        return searches;
+    }
+
+    /**
+     * Sets the searches.
+     *
+     * @param pSearches
+     *            the searches
+     */
+    public void setSearches(List<ProductSearchRequest> pSearches) {
+        this.searches = pSearches;
+    }
+
+    /**
+     * Gets the deadline requested by the client.
+     *
+     * @return the timeout in milliseconds, or null for the configured one
+     */
+    public Long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Sets the deadline for the whole batch; it cannot exceed the configured one.
+     *
+     * @param pTimeoutMillis
+     *            the timeout in milliseconds
+     */
+    public void setTimeoutMillis(Long pTimeoutMillis) {
+        this.timeoutMillis = pTimeoutMillis;
+    }
+}
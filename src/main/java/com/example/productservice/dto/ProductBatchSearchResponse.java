@@ -0,0 +1,46 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+/**
+ * Response body of the batch search endpoint: one result per search, in request
+ * order, and the time the whole batch took.
+ */
+public class ProductBatchSearchResponse {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final List<ProductSearchResult> results;
+    private final long elapsedMicros;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pResults
+     *            the results in request order
+     * @param pElapsedMicros
+     *            time the batch took
+     */
+    public ProductBatchSearchResponse(List<ProductSearchResult> pResults, long pElapsedMicros) {
+        this.results = pResults;
+        this.elapsedMicros = pElapsedMicros;
+    }
+
+    /**
+     * Gets the results.
+     *
+     * @return the results in request order
+     */
+    public List<ProductSearchResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the time the batch took.
+     *
+     * @return the time in microseconds
+     */
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Request body of the POST variant of the multi-get endpoint, for ID lists too
+ * long for a query string.
+ */
+public class ProductIdsRequest {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    @NotNull(message = "Product IDs are required")
+    private List<Long> ids;
+    // CHECKSTYLE:ON
+
+    /**
+     * Default constructor.
+     */
+    public ProductIdsRequest() {
+    }
+
+    /**
+     * Constructor with IDs.
+     *
+     * @param pIds
+     *            the product IDs
+     */
+    public ProductIdsRequest(List<Long> pIds) {
+        this.ids = pIds;
+    }
+
+    /**
+     * Gets the requested product IDs.
+     *
+     * @return the IDs
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * Sets the requested product IDs.
+     *
+     * @param pIds
+     *            the IDs to set
+     */
+    public void setIds(List<Long> pIds) {
+        this.ids = pIds;
+    }
+}
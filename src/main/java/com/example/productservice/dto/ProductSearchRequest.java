@@ -0,0 +1,139 @@
+package com.example.productservice.dto;
+
+/**
+ * One search of a batch search request. The filters are those of
+ * {@code GET /api/products/search}; all are optional.
+ */
+public class ProductSearchRequest {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private String name;
+    private String category;
+    private Double minPrice;
+    private Double maxPrice;
+    private Integer limit;
+    // CHECKSTYLE:ON
+
+    /**
+     * Default constructor.
+     */
+    public ProductSearchRequest() {
+    }
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pName
+     *            name pattern (case-insensitive partial match)
+     * @param pCategory
+     *            category
+     * @param pMinPrice
+     *            minimum price (inclusive)
+     * @param pMaxPrice
+     *            maximum price (inclusive)
+     * @param pLimit
+     *            maximum number of results
+     */
+    public ProductSearchRequest(String pName, String pCategory, Double pMinPrice, Double pMaxPrice, Integer pLimit) {
+        this.name = pName;
+        this.category = pCategory;
+        this.minPrice = pMinPrice;
+        this.maxPrice = pMaxPrice;
+        this.limit = pLimit;
+    }
+
+    /**
+     * Gets the name pattern.
+     *
+     * @return the name pattern, or null
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name pattern.
+     *
+     * @param pName
+     *            the name pattern
+     */
+    public void setName(String pName) {
+        this.name = pName;
+    }
+
+    /**
+     * Gets the category.
+     *
+     * @return the category, or null
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Sets the category.
+     *
+     * @param pCategory
+     *            the category
+     */
+    public void setCategory(String pCategory) {
+        this.category = pCategory;
+    }
+
+    /**
+     * Gets the minimum price.
+     *
+     * @return the minimum price, or null
+     */
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Sets the minimum price.
+     *
+     * @param pMinPrice
+     *            the minimum price
+     */
+    public void setMinPrice(Double pMinPrice) {
+        this.minPrice = pMinPrice;
+    }
+
+    /**
+     * Gets the maximum price.
+     *
+     * @return the maximum price, or null
+     */
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Sets the maximum price.
+     *
+     * @param pMaxPrice
+     *            the maximum price
+     */
+    public void setMaxPrice(Double pMaxPrice) {
+        this.maxPrice = pMaxPrice;
+    }
+
+    /**
+     * Gets the maximum number of results.
+     *
+     * @return the limit, or null for the default
+     */
+    public Integer getLimit() {
+        return limit;
+    }
+
+    /**
+     * Sets the maximum number of results.
+     *
+     * @param pLimit
+     *            the limit
+     */
+    public void setLimit(Integer pLimit) {
+        this.limit = pLimit;
+    }
+}
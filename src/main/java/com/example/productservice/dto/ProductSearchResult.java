@@ -0,0 +1,76 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+
+import com.example.productservice.entity.Product;
+
+/**
+ * Result of one search of a batch: its outcome, how long it took and the
+ * products it found.
+ */
+public class ProductSearchResult {
+
+    /**
+     * Outcome of a search.
+     */
+    public enum Status {
+        /** The search completed. */
+        OK,
+        /** The batch deadline passed before the search completed. */
+        TIMEOUT,
+        /** The search could not be queued because the executor was saturated. */
+        REJECTED,
+        /** The search failed with an error. */
+        FAILED
+    }
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final Status status;
+    private final long elapsedMicros;
+    private final List<Product> products;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pStatus
+     *            the outcome
+     * @param pElapsedMicros
+     *            execution time of the search, or time waited for it if it did not
+     *            complete
+     * @param pProducts
+     *            the products found, empty unless the search completed
+     */
+    public ProductSearchResult(Status pStatus, long pElapsedMicros, List<Product> pProducts) {
+        this.status = pStatus;
+        this.elapsedMicros = pElapsedMicros;
+        this.products = pProducts;
+    }
+
+    /**
+     * Gets the outcome.
+     *
+     * @return the status
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets how long the search took.
+     *
+     * @return the time in microseconds
+     */
+    public long getElapsedMicros() {
+        return elapsedMicros;
+    }
+
+    /**
+     * Gets the products found.
+     *
+     * @return the products ordered by ID
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.productservice.dto;
+
+/**
+ * One typeahead suggestion: just enough of a product to render the suggestion
+ * list and link to the product.
+ */
+public class ProductSuggestion {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final Long id;
+    private final String name;
+    private final String category;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pId
+     *            the product ID
+     * @param pName
+     *            the product name
+     * @param pCategory
+     *            the product category
+     */
+    public ProductSuggestion(Long pId, String pName, String pCategory) {
+        this.id = pId;
+        this.name = pName;
+        this.category = pCategory;
+    }
+
+    /**
+     * Gets the product ID.
+     *
+     * @return the ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the product name.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the product category.
+     *
+     * @return the category
+     */
+    public String getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.productservice.dto;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+import com.example.productservice.entity.ProductJsonSerializer;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * Response body of a list or search request with a sparse fieldset: a JSON
+ * array of the products, each with only the selected fields.
+ */
+public class SparseProductList extends JsonSerializable.Base {
+
+    // CHECKSTYLE:OFF - DTO fields use standard naming for JSON mapping
+    private final List<Product> products;
+    private final Set<ProductField> fields;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pProducts
+     *            the products, with at least the selected fields set
+     * @param pFields
+     *            the fields to write
+     */
+    public SparseProductList(List<Product> pProducts, Set<ProductField> pFields) {
+        this.products = pProducts;
+        this.fields = pFields;
+    }
+
+    /**
+     * Gets the products.
+     *
+     * @return the products
+     */
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    /**
+     * Gets the fields written for each product.
+     *
+     * @return the selected fields
+     */
+    public Set<ProductField> getFields() {
+        return fields;
+    }
+
+    @Override
+    public void serialize(JsonGenerator pGenerator, SerializerProvider pProvider) throws IOException {
+        pGenerator.writeStartArray(products, products.size());
+        for (Product product : products) {
+            ProductJsonSerializer.writeFields(product, fields, pGenerator);
+        }
+        pGenerator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator pGenerator, SerializerProvider pProvider, TypeSerializer pTypeSer)
+            throws IOException {
+        serialize(pGenerator, pProvider);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.productservice.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal prices and the fixed-scale minor units (cents)
+ * products are stored in. Amounts are rounded half-up to {@value #SCALE}
+ * decimal places; comparisons on minor units are exact, unlike comparisons on
+ * doubles.
+ */
+public final class Money {
+
+    /** Number of decimal places of the currency. */
+    public static final int SCALE = 2;
+
+    /** Minor units per major unit. */
+    public static final long MINOR_UNITS = 100;
+
+    /**
+     * Largest price accepted, in major units. Its minor units stay exact in a
+     * double, and a bulk adjustment of up to +1000% cannot overflow them.
+     */
+    public static final String MAX_AMOUNT = "10000000000000";
+
+    private static final double ROUNDING_TOLERANCE = 1e-6;
+
+    /** Amounts at or beyond this magnitude saturate to the {@code long} range. */
+    private static final double SATURATION = (double) (Long.MAX_VALUE / MINOR_UNITS);
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount to minor units. Amounts whose minor units do not fit a
+     * {@code long}, infinities included, saturate to {@link Long#MAX_VALUE} or
+     * {@link Long#MIN_VALUE}, so they still work as open-ended range bounds; prices
+     * are kept far below that by validation.
+     *
+     * @param pAmount
+     *            the amount in major units
+     * @return the amount in minor units, rounded half-up
+     * @throws IllegalArgumentException
+     *             if the amount is NaN
+     */
+    public static long toMinorUnits(double pAmount) {
+        if (Double.isNaN(pAmount)) {
+            throw new IllegalArgumentException("Amount is not a number");
+        }
+        if (Math.abs(pAmount) >= SATURATION) {
+            return pAmount > 0 ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+        double scaled = pAmount * MINOR_UNITS;
+        long rounded = Math.round(scaled);
+        if (Math.abs(scaled - rounded) < ROUNDING_TOLERANCE) {
+            // Fast path: the amount already has at most SCALE decimals
+            return rounded;
+        }
+        return BigDecimal.valueOf(pAmount).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Converts an optional amount to minor units, saturating like
+     * {@link #toMinorUnits(double)}.
+     *
+     * @param pAmount
+     *            the amount in major units, or null
+     * @return the amount in minor units, or null
+     */
+    public static Long toMinorUnitsOrNull(Double pAmount) {
+        return pAmount == null ? null : toMinorUnits(pAmount);
+    }
+
+    /**
+     * Converts minor units to the nearest double amount.
+     *
+     * @param pMinorUnits
+     *            the amount in minor units
+     * @return the amount in major units
+     */
+    public static double toAmount(long pMinorUnits) {
+        return pMinorUnits / (double) MINOR_UNITS;
+    }
+
+    /** Capacity that fits any formatted {@code long} amount. */
+    public static final int MAX_FORMATTED_LENGTH = 24;
+
+    /**
+     * Formats minor units as a plain decimal number with at least one fractional
+     * digit, e.g. {@code 1999} as {@code 19.99} and {@code 1000} as {@code 10.0},
+     * which is what {@link Double#toString} prints for such amounts below ten
+     * million.
+     *
+     * @param pMinorUnits
+     *            the amount in minor units
+     * @return the formatted amount
+     */
+    public static String format(long pMinorUnits) {
+        char[] buffer = new char[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, format(pMinorUnits, buffer));
+    }
+
+    /**
+     * Formats minor units like {@link #format(long)} into a caller-supplied buffer,
+     * so hot serialization paths can reuse one buffer.
+     *
+     * @param pMinorUnits
+     *            the amount in minor units
+     * @param pBuffer
+     *            destination of at least {@link #MAX_FORMATTED_LENGTH} chars
+     * @return the number of chars written
+     */
+    public static int format(long pMinorUnits, char[] pBuffer) {
+        long major = Math.abs(pMinorUnits / MINOR_UNITS);
+        int minor = (int) Math.abs(pMinorUnits % MINOR_UNITS);
+        int length = 0;
+        if (pMinorUnits < 0) {
+            pBuffer[length++] = '-';
+        }
+        int digits = 1;
+        for (long rest = major / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            pBuffer[i] = (char) ('0' + major % 10);
+            major /= 10;
+        }
+        length += digits;
+        pBuffer[length++] = '.';
+        pBuffer[length++] = (char) ('0' + minor / 10);
+        if (minor % 10 != 0) {
+            pBuffer[length++] = (char) ('0' + minor % 10);
+        }
+        return length;
+    }
+}
@@ -1,39 +1,59 @@
 package com.example.productservice.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 /**
  * Product entity representing a product in the database.
+ *
+ * <p>
+ * The price is stored as a {@code long} number of minor units (see
+ * {@link Money}) and the stock as an {@code int}, so range checks and copies
+ * work on primitives. The boxed {@link #getPrice()} and {@link #getStock()}
+ * accessors keep the JSON API unchanged and return null for a field that was
+ * never set, which partial updates and validation rely on.
  */
 @Entity
 @Table(name = "products")
+@JsonSerialize(using = ProductJsonSerializer.class)
 public class Product {
 
+    /** Stored price of a product whose price was never set. */
+    public static final long NO_PRICE = Long.MIN_VALUE;
+
+    /** Stored stock of a product whose stock was never set. */
+    public static final int NO_STOCK = Integer.MIN_VALUE;
+
+    /** Longest name or category, the length of their columns. */
+    public static final int MAX_TEXT_LENGTH = 255;
+
     // CHECKSTYLE:OFF - JPA entity fields use standard naming conventions
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Product name is required")
+    @Size(max = MAX_TEXT_LENGTH, message = "Product name is too long")
     private String name;
 
     @NotBlank(message = "Product category is required")
+    @Size(max = MAX_TEXT_LENGTH, message = "Product category is too long")
     private String category;
 
-    @NotNull(message = "Product price is required")
-    @Min(value = 0, message = "Price must be greater than or equal to 0")
-    private Double price;
+    private long priceCents = NO_PRICE;
 
-    @NotNull(message = "Product stock is required")
-    @Min(value = 0, message = "Stock must be greater than or equal to 0")
-    private Integer stock;
+    private int stock = NO_STOCK;
     // CHECKSTYLE:ON
 
     /**
@@ -60,8 +80,22 @@ public class Product {
         this.id = pId;
         this.name = pName;
         this.category = pCategory;
-        this.price = pPrice;
-        this.stock = pStock;
+        setPrice(pPrice);
+        setStock(pStock);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param pOther
+     *            the product to copy
+     */
+    public Product(Product pOther) {
+        this.id = pOther.id;
+        this.name = pOther.name;
+        this.category = pOther.category;
+        this.priceCents = pOther.priceCents;
+        this.stock = pOther.stock;
     }
 
     /**
@@ -77,10 +111,7 @@ public class Product {
      *            the product stock
      */
     public Product(String pName, String pCategory, Double pPrice, Integer pStock) {
-        this.name = pName;
-        this.category = pCategory;
-        this.price = pPrice;
-        this.stock = pStock;
+        this(null, pName, pCategory, pPrice, pStock);
     }
 
     /**
@@ -143,38 +174,101 @@ public class Product {
     /**
      * Gets the product price.
      *
-     * @return the product price
+     * @return the product price, or null if not set
      */
+    @NotNull(message = "Product price is required")
+    @Min(value = 0, message = "Price must be greater than or equal to 0")
+    @DecimalMax(value = Money.MAX_AMOUNT, message = "Price must be at most " + Money.MAX_AMOUNT)
     public Double getPrice() {
-        return price;
+        return hasPrice() ? Money.toAmount(priceCents) : null;
     }
 
     /**
-     * Sets the product price.
+     * Sets the product price, rounded half-up to whole minor units.
      *
      * @param pPrice
-     *            the product price to set
+     *            the product price to set, or null to clear it
      */
     public void setPrice(Double pPrice) {
-        this.price = pPrice;
+        this.priceCents = pPrice == null ? NO_PRICE : Money.toMinorUnits(pPrice);
+    }
+
+    /**
+     * Gets the product price in minor units.
+     *
+     * @return the price in minor units, or {@link #NO_PRICE} if not set
+     */
+    @JsonIgnore
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    /**
+     * Sets the product price in minor units.
+     *
+     * @param pPriceCents
+     *            the price in minor units
+     */
+    public void setPriceCents(long pPriceCents) {
+        this.priceCents = pPriceCents;
+    }
+
+    /**
+     * Indicates whether the price is set.
+     *
+     * @return true if the product has a price
+     */
+    public boolean hasPrice() {
+        return priceCents != NO_PRICE;
     }
 
     /**
      * Gets the product stock.
      *
-     * @return the product stock
+     * @return the product stock, or null if not set
      */
+    @NotNull(message = "Product stock is required")
+    @Min(value = 0, message = "Stock must be greater than or equal to 0")
     public Integer getStock() {
-        return stock;
+        return hasStock() ? stock : null;
     }
 
     /**
      * Sets the product stock.
      *
      * @param pStock
-     *            the product stock to set
+     *            the product stock to set, or null to clear it
      */
     public void setStock(Integer pStock) {
+        this.stock = pStock == null ? NO_STOCK : pStock;
+    }
+
+    /**
+     * Gets the product stock as a primitive.
+     *
+     * @return the stock, or {@link #NO_STOCK} if not set
+     */
+    @JsonIgnore
+    public int getStockCount() {
+        return stock;
+    }
+
+    /**
+     * Sets the product stock from a primitive.
+     *
+     * @param pStock
+     *            the stock
+     */
+    public void setStockCount(int pStock) {
         this.stock = pStock;
     }
+
+    /**
+     * Indicates whether the stock is set.
+     *
+     * @return true if the product has a stock level
+     */
+    public boolean hasStock() {
+        return stock != NO_STOCK;
+    }
 }
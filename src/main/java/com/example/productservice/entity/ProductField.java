@@ -0,0 +1,175 @@
+package com.example.productservice.entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The fields of a {@link Product} a client can select with a sparse fieldset,
+ * e.g. {@code fields=id,name,price}, with the JSON name, entity attribute and
+ * column of each.
+ */
+public enum ProductField {
+
+    /** The product ID. */
+    ID("id", "id", "id"),
+
+    /** The product name. */
+    NAME("name", "name", "name"),
+
+    /** The product category. */
+    CATEGORY("category", "category", "category"),
+
+    /** The price, stored in minor units. */
+    PRICE("price", "priceCents", "price_cents"),
+
+    /** The stock level. */
+    STOCK("stock", "stock", "stock");
+
+    /** All fields, the selection of a request without a fieldset. */
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    // CHECKSTYLE:OFF - enum constants use standard naming
+    private final String jsonName;
+    private final String attribute;
+    private final String column;
+    // CHECKSTYLE:ON
+
+    ProductField(String pJsonName, String pAttribute, String pColumn) {
+        this.jsonName = pJsonName;
+        this.attribute = pAttribute;
+        this.column = pColumn;
+    }
+
+    /**
+     * Gets the name of the field in product JSON.
+     *
+     * @return the JSON name
+     */
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    /**
+     * Gets the entity attribute holding the field.
+     *
+     * @return the attribute name
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Gets the database column holding the field.
+     *
+     * @return the column name
+     */
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Sets this field of a product from a value read from the store: a {@link Long}
+     * ID, a {@link String} name or category, a {@link Number} of minor units for
+     * the price or a {@link Number} for the stock.
+     *
+     * @param pProduct
+     *            the product to set
+     * @param pValue
+     *            the stored value, or null to leave the field unset
+     */
+    public void set(Product pProduct, Object pValue) {
+        if (pValue == null) {
+            return;
+        }
+        switch (this) {
+            case ID -> pProduct.setId(((Number) pValue).longValue());
+            case NAME -> pProduct.setName((String) pValue);
+            case CATEGORY -> pProduct.setCategory((String) pValue);
+            case PRICE -> pProduct.setPriceCents(((Number) pValue).longValue());
+            case STOCK -> pProduct.setStockCount(((Number) pValue).intValue());
+            default -> throw new IllegalStateException("Unknown field " + this);
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of JSON field names, e.g.
+     * {@code "id,name,price"}.
+     *
+     * @param pFields
+     *            the field names, or null
+     * @return the selected fields, or {@link #ALL} if none are given
+     * @throws IllegalArgumentException
+     *             if a name is not a product field
+     */
+    public static Set<ProductField> parse(String pFields) {
+        if (pFields == null || pFields.isBlank()) {
+            return ALL;
+        }
+        Set<ProductField> fields = EnumSet.noneOf(ProductField.class);
+        for (String name : pFields.split(",")) {
+            fields.add(of(name.strip()));
+        }
+        return fields.size() == ALL.size() ? ALL : fields;
+    }
+
+    /**
+     * Gets the fields a store has to read for a selection: the selected fields plus
+     * the ID, which results are ordered and merged by.
+     *
+     * @param pFields
+     *            the selected fields
+     * @return the fields to read
+     */
+    public static Set<ProductField> withId(Set<ProductField> pFields) {
+        if (pFields.contains(ID)) {
+            return pFields;
+        }
+        Set<ProductField> fields = EnumSet.copyOf(pFields);
+        fields.add(ID);
+        return fields;
+    }
+
+    /**
+     * Copies products with only the selected fields set, for stores that hold whole
+     * products anyway.
+     *
+     * @param pProducts
+     *            the products
+     * @param pFields
+     *            the selected fields
+     * @return the projected copies, in the same order
+     */
+    public static List<Product> project(List<Product> pProducts, Set<ProductField> pFields) {
+        List<Product> projected = new ArrayList<>(pProducts.size());
+        for (Product product : pProducts) {
+            Product copy = new Product();
+            copy.setId(product.getId());
+            if (pFields.contains(NAME)) {
+                copy.setName(product.getName());
+            }
+            if (pFields.contains(CATEGORY)) {
+                copy.setCategory(product.getCategory());
+            }
+            if (pFields.contains(PRICE)) {
+                copy.setPriceCents(product.getPriceCents());
+            }
+            if (pFields.contains(STOCK)) {
+                copy.setStockCount(product.getStockCount());
+            }
+            projected.add(copy);
+        }
+        return projected;
+    }
+
+    private static ProductField of(String pJsonName) {
+        for (ProductField field : values()) {
+            if (field.jsonName.equals(pJsonName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown product field: " + pJsonName);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.productservice.entity;
+
+import java.io.IOException;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link Product} straight from its primitive fields, in the same
+ * shape the default bean serializer produced for the boxed fields. The price is
+ * formatted from minor units, which avoids boxing it and converting a double to
+ * text. {@link #writeFields} writes a sparse fieldset of the same shape.
+ */
+public class ProductJsonSerializer extends StdSerializer<Product> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<char[]> PRICE_BUFFER = ThreadLocal
+            .withInitial(() -> new char[Money.MAX_FORMATTED_LENGTH]);
+
+    /**
+     * Creates the serializer.
+     */
+    public ProductJsonSerializer() {
+        super(Product.class);
+    }
+
+    @Override
+    public void serialize(Product pProduct, JsonGenerator pGenerator, SerializerProvider pProvider) throws IOException {
+        writeFields(pProduct, ProductField.ALL, pGenerator);
+    }
+
+    /**
+     * Writes a product with only the selected fields.
+     *
+     * @param pProduct
+     *            the product
+     * @param pFields
+     *            the fields to write
+     * @param pGenerator
+     *            the JSON generator
+     * @throws IOException
+     *             if writing fails
+     */
+    public static void writeFields(Product pProduct, Set<ProductField> pFields, JsonGenerator pGenerator)
+            throws IOException {
+        pGenerator.writeStartObject(pProduct);
+        if (pFields.contains(ProductField.ID)) {
+            if (pProduct.getId() == null) {
+                pGenerator.writeNullField("id");
+            } else {
+                pGenerator.writeNumberField("id", pProduct.getId().longValue());
+            }
+        }
+        if (pFields.contains(ProductField.NAME)) {
+            pGenerator.writeStringField("name", pProduct.getName());
+        }
+        if (pFields.contains(ProductField.CATEGORY)) {
+            pGenerator.writeStringField("category", pProduct.getCategory());
+        }
+        if (pFields.contains(ProductField.PRICE)) {
+            pGenerator.writeFieldName("price");
+            if (pProduct.hasPrice()) {
+                char[] buffer = PRICE_BUFFER.get();
+                pGenerator.writeNumber(buffer, 0, Money.format(pProduct.getPriceCents(), buffer));
+            } else {
+                pGenerator.writeNull();
+            }
+        }
+        if (pFields.contains(ProductField.STOCK)) {
+            if (pProduct.hasStock()) {
+                pGenerator.writeNumberField("stock", pProduct.getStockCount());
+            } else {
+                pGenerator.writeNullField("stock");
+            }
+        }
+        pGenerator.writeEndObject();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.productservice.event;
+
+/**
+ * Event published when this node may have missed product changes committed on
+ * other nodes, e.g. after a lost invalidation batch. Listeners drop or reload
+ * all state derived from the catalog.
+ */
+public final class ProductCatalogResyncEvent {
+
+    // CHECKSTYLE:OFF - immutable event fields use standard naming
+    private final String reason;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with all fields.
+     *
+     * @param pReason
+     *            why local state is resynchronized, for logging
+     */
+    public ProductCatalogResyncEvent(String pReason) {
+        this.reason = pReason;
+    }
+
+    /**
+     * Gets why local state is resynchronized.
+     *
+     * @return the reason
+     */
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.productservice.event;
+
+import com.example.productservice.entity.Product;
+
+/**
+ * Event published by the service layer after a product has been created,
+ * updated or deleted. Carries detached snapshots of the product state before
+ * and after the write so that listeners can decide what derived state is
+ * affected.
+ *
+ * <p>
+ * Writes committed on another node arrive through the invalidation bus as
+ * remote events, which carry the current state of the product but not the state
+ * before the write.
+ */
+public final class ProductChangedEvent {
+
+    /**
+     * Kind of write that produced the event.
+     */
+    public enum Type {
+        /** A new product was inserted. */
+        CREATED,
+        /** An existing product was modified. */
+        UPDATED,
+        /** A product was removed. */
+        DELETED
+    }
+
+    // CHECKSTYLE:OFF - immutable event fields use standard naming
+    private final Type type;
+    private final Long productId;
+    private final Product before;
+    private final Product after;
+    private final boolean remote;
+    // CHECKSTYLE:ON
+
+    private ProductChangedEvent(Type pType, Long pProductId, Product pBefore, Product pAfter, boolean pRemote) {
+        this.type = pType;
+        this.productId = pProductId;
+        this.before = pBefore;
+        this.after = pAfter;
+        this.remote = pRemote;
+    }
+
+    /**
+     * Creates an event for a newly inserted product.
+     *
+     * @param pAfter
+     *            the saved product
+     * @return the event
+     */
+    public static ProductChangedEvent created(Product pAfter) {
+        return new ProductChangedEvent(Type.CREATED, pAfter.getId(), null, snapshot(pAfter), false);
+    }
+
+    /**
+     * Creates an event for a modified product.
+     *
+     * @param pBefore
+     *            snapshot of the product before the update
+     * @param pAfter
+     *            the saved product
+     * @return the event
+     */
+    public static ProductChangedEvent updated(Product pBefore, Product pAfter) {
+        return new ProductChangedEvent(Type.UPDATED, pAfter.getId(), snapshot(pBefore), snapshot(pAfter), false);
+    }
+
+    /**
+     * Creates an event for a deleted product.
+     *
+     * @param pProductId
+     *            the deleted product ID
+     * @param pBefore
+     *            snapshot of the product before deletion, or null if it was not
+     *            loaded
+     * @return the event
+     */
+    public static ProductChangedEvent deleted(Long pProductId, Product pBefore) {
+        return new ProductChangedEvent(Type.DELETED, pProductId, snapshot(pBefore), null, false);
+    }
+
+    /**
+     * Creates an event for a write committed on another node.
+     *
+     * @param pType
+     *            the kind of write
+     * @param pProductId
+     *            the product ID
+     * @param pAfter
+     *            the product as now stored, or null for deletions
+     * @return the event
+     */
+    public static ProductChangedEvent remote(Type pType, Long pProductId, Product pAfter) {
+        return new ProductChangedEvent(pType, pProductId, null, snapshot(pAfter), true);
+    }
+
+    /**
+     * Copies the persistent fields of a product so the event is not affected by
+     * later changes to a managed entity.
+     *
+     * @param pProduct
+     *            the product to copy (may be null)
+     * @return a detached copy, or null
+     */
+    public static Product snapshot(Product pProduct) {
+        if (pProduct == null) {
+            return null;
+        }
+        return new Product(pProduct);
+    }
+
+    /**
+     * Gets the kind of write.
+     *
+     * @return the event type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the ID of the affected product.
+     *
+     * @return the product ID
+     */
+    public Long getProductId() {
+        return productId;
+    }
+
+    /**
+     * Gets the product state before the write.
+     *
+     * @return the previous state, or null for creations and unloaded deletes
+     */
+    public Product getBefore() {
+        return before;
+    }
+
+    /**
+     * Gets the product state after the write.
+     *
+     * @return the new state, or null for deletions
+     */
+    public Product getAfter() {
+        return after;
+    }
+
+    /**
+     * Indicates whether the write was committed on another node.
+     *
+     * @return true for events received from the invalidation bus
+     */
+    public boolean isRemote() {
+        return remote;
+    }
+}
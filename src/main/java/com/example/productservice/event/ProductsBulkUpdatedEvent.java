@@ -0,0 +1,46 @@
+package com.example.productservice.event;
+
+/**
+ * Event published after a set-based write changed many products of a category
+ * without loading them, such as a bulk price adjustment. Carries no product
+ * snapshots; listeners drop or reload whatever derived state the category may
+ * affect.
+ */
+public final class ProductsBulkUpdatedEvent {
+
+    // CHECKSTYLE:OFF - immutable event fields use standard naming
+    private final String category;
+    private final int updatedCount;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the event.
+     *
+     * @param pCategory
+     *            the category whose products were written
+     * @param pUpdatedCount
+     *            the number of products written
+     */
+    public ProductsBulkUpdatedEvent(String pCategory, int pUpdatedCount) {
+        this.category = pCategory;
+        this.updatedCount = pUpdatedCount;
+    }
+
+    /**
+     * Gets the category whose products were written.
+     *
+     * @return the category
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Gets the number of products written.
+     *
+     * @return the count
+     */
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.productservice.event;
+
+import java.util.List;
+
+/**
+ * Event published after the write-behind buffer wrote a batch of stock levels
+ * to the database. Reads between the buffered update and this write saw the old
+ * stock in the store, so listeners drop whatever derived state they filled from
+ * it for these products.
+ */
+public final class StockFlushedEvent {
+
+    // CHECKSTYLE:OFF - immutable event fields use standard naming
+    private final List<Long> productIds;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the event.
+     *
+     * @param pProductIds
+     *            the products whose stock was written
+     */
+    public StockFlushedEvent(List<Long> pProductIds) {
+        this.productIds = List.copyOf(pProductIds);
+    }
+
+    /**
+     * Gets the products whose stock was written.
+     *
+     * @return the product IDs
+     */
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.productservice.hotkeys;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-min sketch of key frequencies: four rows of counters, each key hashed
+ * to one counter per row, with the smallest of its counters as the estimate.
+ * Increments are conservative (only the counters at the minimum are raised),
+ * which keeps overestimates from colliding keys low. Memory is fixed by the
+ * width, whatever the number of distinct keys.
+ *
+ * <p>
+ * {@link #halve()} ages the counts so they follow recent traffic; it races with
+ * concurrent increments and may drop a few of them, which an estimate
+ * tolerates.
+ */
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+
+    // CHECKSTYLE:OFF - sketch state uses standard naming
+    private final AtomicIntegerArray counters;
+    private final int width;
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param pWidth
+     *            counters per row (rounded up to a power of two)
+     */
+    public FrequencySketch(int pWidth) {
+        this.width = Integer.highestOneBit(Math.max(2, pWidth) - 1) << 1;
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param pHash
+     *            64-bit hash of the key
+     * @return the key's estimated count including this occurrence
+     */
+    public int increment(long pHash) {
+        int min = estimate(pHash);
+        if (min == Integer.MAX_VALUE) {
+            return min;
+        }
+        for (int row = 0; row < DEPTH; row++) {
+            counters.compareAndSet(index(pHash, row), min, min + 1);
+        }
+        return min + 1;
+    }
+
+    /**
+     * Estimates how often a key was counted. The estimate never undercounts except
+     * for aging, and overcounts only through hash collisions.
+     *
+     * @param pHash
+     *            64-bit hash of the key
+     * @return the estimated count
+     */
+    public int estimate(long pHash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counters.get(index(pHash, row)));
+        }
+        return min;
+    }
+
+    /**
+     * Halves every counter.
+     */
+    public void halve() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, counters.get(i) >>> 1);
+        }
+    }
+
+    /**
+     * Gets the memory held by the counters.
+     *
+     * @return the size in bytes
+     */
+    public long memoryBytes() {
+        return (long) counters.length() * Integer.BYTES;
+    }
+
+    private int index(long pHash, int pRow) {
+        // Re-mixed per row: a purely linear step would make keys that collide in one
+        // row collide in all of them
+        long h = pHash + pRow * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return pRow * width + ((int) (h >>> 32) & (width - 1));
+    }
+}
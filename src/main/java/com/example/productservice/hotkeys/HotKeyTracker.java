@@ -0,0 +1,279 @@
+package com.example.productservice.hotkeys;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.productservice.dto.HotKey;
+import com.example.productservice.dto.HotKeysResponse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Tracks how often product IDs and queries are read, in two count-min sketches
+ * of fixed size, and keeps the top K of each for {@code /internal/hotkeys}.
+ * Every half-life all counts are halved, so they follow current traffic rather
+ * than the totals since startup.
+ *
+ * <p>
+ * The caches use the same counts for frequency-aware admission (TinyLFU): when
+ * full, a cache only admits a new entry whose key is read more often than the
+ * entry it would evict, so a scan of one-off reads cannot flush the hot set.
+ */
+@Component
+public class HotKeyTracker implements SmartLifecycle, MeterBinder {
+
+    /**
+     * Sketch of one kind of key with its current top K. Keys enter the top K only
+     * when their estimate exceeds its smallest count, which is read without a lock.
+     *
+     * @param <K>
+     *            the key type
+     */
+    private static final class Tracker<K> {
+        // CHECKSTYLE:OFF - internal tracker state uses standard naming
+        private final FrequencySketch sketch;
+        private final ToLongFunction<K> hash;
+        private final int topK;
+        private final Map<K, Integer> top = new ConcurrentHashMap<>();
+        private final LongAdder recorded = new LongAdder();
+        private volatile int floor;
+        // CHECKSTYLE:ON
+
+        Tracker(int pWidth, int pTopK, ToLongFunction<K> pHash) {
+            this.sketch = new FrequencySketch(pWidth);
+            this.hash = pHash;
+            this.topK = pTopK;
+        }
+
+        void record(K pKey) {
+            recorded.increment();
+            int estimate = sketch.increment(hash.applyAsLong(pKey));
+            if (top.replace(pKey, estimate) != null || estimate <= floor) {
+                return;
+            }
+            synchronized (this) {
+                top.put(pKey, estimate);
+                if (top.size() > topK) {
+                    top.entrySet().stream().min(Map.Entry.comparingByValue())
+                            .ifPresent(coldest -> top.remove(coldest.getKey()));
+                }
+                updateFloor();
+            }
+        }
+
+        int frequency(K pKey) {
+            return sketch.estimate(hash.applyAsLong(pKey));
+        }
+
+        synchronized void halve() {
+            sketch.halve();
+            top.replaceAll((key, count) -> count >>> 1);
+            top.values().removeIf(count -> count == 0);
+            updateFloor();
+        }
+
+        private void updateFloor() {
+            floor = top.size() < topK ? 0 : top.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+        }
+
+        List<HotKey> snapshot(double pWindowSeconds) {
+            List<HotKey> keys = new ArrayList<>(topK);
+            for (K key : top.keySet()) {
+                int count = frequency(key);
+                keys.add(new HotKey(String.valueOf(key), count, count / pWindowSeconds));
+            }
+            keys.sort(Comparator.comparingLong(HotKey::getEstimatedCount).reversed());
+            return keys;
+        }
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final boolean enabled;
+    private final long halfLifeMillis;
+    private final Tracker<Long> ids;
+    private final Tracker<String> queries;
+    private volatile long lastHalvedNanos = System.nanoTime();
+    private volatile boolean running;
+    private ScheduledExecutorService scheduler;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with configuration injection.
+     *
+     * @param pEnabled
+     *            whether reads are counted
+     * @param pWidth
+     *            counters per sketch row; each sketch holds 16 bytes per counter of
+     *            width
+     * @param pTopK
+     *            how many hottest IDs and queries are listed
+     * @param pHalfLifeMillis
+     *            interval after which all counts are halved
+     */
+    public HotKeyTracker(@Value("${product.hotkeys.enabled:false}") boolean pEnabled,
+            @Value("${product.hotkeys.width:65536}") int pWidth, @Value("${product.hotkeys.top-k:20}") int pTopK,
+            @Value("${product.hotkeys.half-life-ms:10000}") long pHalfLifeMillis) {
+        this.enabled = pEnabled;
+        this.halfLifeMillis = Math.max(1, pHalfLifeMillis);
+        this.ids = new Tracker<>(pEnabled ? pWidth : 2, Math.max(1, pTopK), HotKeyTracker::hashId);
+        this.queries = new Tracker<>(pEnabled ? pWidth : 2, Math.max(1, pTopK), HotKeyTracker::hashQuery);
+    }
+
+    /**
+     * Indicates whether reads are counted.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts one read of a product ID.
+     *
+     * @param pId
+     *            the product ID
+     */
+    public void recordId(long pId) {
+        if (enabled) {
+            ids.record(pId);
+        }
+    }
+
+    /**
+     * Counts one run of a normalized query.
+     *
+     * @param pQuery
+     *            the query, such as {@code search?category=Books}
+     */
+    public void recordQuery(String pQuery) {
+        if (enabled) {
+            queries.record(pQuery);
+        }
+    }
+
+    /**
+     * Estimates how often a product ID was read recently.
+     *
+     * @param pId
+     *            the product ID
+     * @return the aged count, or 0 when disabled
+     */
+    public int idFrequency(long pId) {
+        return enabled ? ids.frequency(pId) : 0;
+    }
+
+    /**
+     * Estimates how often a query was run recently.
+     *
+     * @param pQuery
+     *            the normalized query
+     * @return the aged count, or 0 when disabled
+     */
+    public int queryFrequency(String pQuery) {
+        return enabled ? queries.frequency(pQuery) : 0;
+    }
+
+    /**
+     * Lists the hottest IDs and queries. For a key read at a steady rate, its count
+     * just after a halving equals the reads of one half-life, so the rate is the
+     * count over the half-life plus the time since the last halving.
+     *
+     * @return the hottest keys, hottest first
+     */
+    public HotKeysResponse snapshot() {
+        double windowSeconds = (halfLifeMillis + (System.nanoTime() - lastHalvedNanos) / 1_000_000.0) / 1000.0;
+        return new HotKeysResponse(ids.snapshot(windowSeconds), queries.snapshot(windowSeconds), halfLifeMillis);
+    }
+
+    /**
+     * Halves all counts.
+     */
+    public void halve() {
+        ids.halve();
+        queries.halve();
+        lastHalvedNanos = System.nanoTime();
+    }
+
+    private static long hashId(Long pId) {
+        long z = pId + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long hashQuery(String pQuery) {
+        // 64-bit FNV-1a: String.hashCode has too few bits for four sketch rows
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < pQuery.length(); i++) {
+            h = (h ^ pQuery.charAt(i)) * 0x100000001B3L;
+        }
+        return h;
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "hot-key-aging");
+                thread.setDaemon(true);
+                return thread;
+            });
+            lastHalvedNanos = System.nanoTime();
+            scheduler.scheduleAtFixedRate(this::halve, halfLifeMillis, halfLifeMillis, TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts aging before the web server takes reads.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.hotkeys.recorded", ids.recorded, LongAdder::sum).tag("kind", "id")
+                .description("Reads counted in the hot-key sketches").register(pRegistry);
+        FunctionCounter.builder("product.hotkeys.recorded", queries.recorded, LongAdder::sum).tag("kind", "query")
+                .description("Reads counted in the hot-key sketches").register(pRegistry);
+        Gauge.builder("product.hotkeys.memory", this,
+                tracker -> tracker.enabled
+                        ? tracker.ids.sketch.memoryBytes() + tracker.queries.sketch.memoryBytes()
+                        : 0)
+                .baseUnit("bytes").description("Memory held by the hot-key sketches").register(pRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.productservice.invalidation;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * UDP transport of the invalidation bus. With multicast every node joins one
+ * group and a batch is a single datagram to it; where multicast is not routed,
+ * e.g. between containers, a batch is sent as a unicast datagram to each
+ * configured peer instead.
+ */
+public final class DatagramTransport implements InvalidationTransport {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatagramTransport.class);
+    private static final int MAX_DATAGRAM = 65_507;
+
+    // CHECKSTYLE:OFF - transport state uses standard naming
+    private final DatagramSocket socket;
+    private final List<InetSocketAddress> targets;
+    private Thread receiver;
+    // CHECKSTYLE:ON
+
+    private DatagramTransport(DatagramSocket pSocket, List<InetSocketAddress> pTargets) {
+        this.socket = pSocket;
+        this.targets = pTargets;
+    }
+
+    /**
+     * Opens a transport that joins a multicast group.
+     *
+     * @param pGroup
+     *            the group address
+     * @param pPort
+     *            the group's port
+     * @param pTtl
+     *            the hop limit of sent datagrams
+     * @return the transport
+     * @throws IOException
+     *             if the socket cannot be opened or the group joined
+     */
+    public static DatagramTransport multicast(String pGroup, int pPort, int pTtl) throws IOException {
+        InetSocketAddress group = new InetSocketAddress(InetAddress.getByName(pGroup), pPort);
+        MulticastSocket socket = new MulticastSocket(pPort);
+        try {
+            socket.setTimeToLive(pTtl);
+            socket.joinGroup(group, null);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+        return new DatagramTransport(socket, List.of(group));
+    }
+
+    /**
+     * Opens a transport that sends to a fixed list of peers.
+     *
+     * @param pPort
+     *            the local port to receive on
+     * @param pPeers
+     *            the other nodes
+     * @return the transport
+     * @throws SocketException
+     *             if the port cannot be bound
+     */
+    public static DatagramTransport unicast(int pPort, List<InetSocketAddress> pPeers) throws SocketException {
+        return new DatagramTransport(new DatagramSocket(pPort), List.copyOf(pPeers));
+    }
+
+    /**
+     * Parses a peer address.
+     *
+     * @param pPeer
+     *            the peer as {@code host:port}
+     * @return the address
+     * @throws IllegalArgumentException
+     *             if the port is missing or not a number
+     */
+    public static InetSocketAddress parsePeer(String pPeer) {
+        int colon = pPeer.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("Peer must be host:port: " + pPeer);
+        }
+        return new InetSocketAddress(pPeer.substring(0, colon).strip(),
+                Integer.parseInt(pPeer.substring(colon + 1).strip()));
+    }
+
+    @Override
+    public synchronized void start(Consumer<byte[]> pReceiver) {
+        if (receiver != null) {
+            return;
+        }
+        receiver = new Thread(() -> receive(pReceiver), "product-invalidation");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    private void receive(Consumer<byte[]> pReceiver) {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                pReceiver.accept(
+                        Arrays.copyOfRange(buffer, packet.getOffset(), packet.getOffset() + packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    LOG.warn("Receiving invalidation batch failed", e);
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Applying invalidation batch failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void send(byte[] pPayload) throws IOException {
+        for (InetSocketAddress target : targets) {
+            socket.send(new DatagramPacket(pPayload, pPayload.length, target));
+        }
+    }
+
+    /**
+     * Gets the local port datagrams are received on.
+     *
+     * @return the port
+     */
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    @Override
+    public void close() {
+        socket.close();
+        Thread thread;
+        synchronized (this) {
+            thread = receiver;
+            receiver = null;
+        }
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
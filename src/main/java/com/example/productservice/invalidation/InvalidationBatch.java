@@ -0,0 +1,116 @@
+package com.example.productservice.invalidation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.productservice.event.ProductChangedEvent;
+
+/**
+ * One datagram of the invalidation bus: the product changes a node committed
+ * since its previous batch, numbered with the node's batch sequence. A batch
+ * can also ask for a full resync, after a bulk write whose products are not
+ * known individually. A batch with neither is a heartbeat carrying the sequence
+ * of the last batch sent.
+ *
+ * <p>
+ * Encoded big-endian as a header of magic, format version, flags, node ID,
+ * sequence and change count, followed by each change's type, product ID and
+ * commit time.
+ *
+ * @param node
+ *            the random ID of the sending node, new on every start
+ * @param sequence
+ *            the batch sequence, starting at 1
+ * @param resync
+ *            whether receivers must resynchronize all local state
+ * @param changes
+ *            the changes, empty for a heartbeat
+ */
+record InvalidationBatch(long node, long sequence, boolean resync, List<Change> changes) {
+
+    /** Bytes of the header. */
+    static final int HEADER_SIZE = 4 + 1 + 1 + 8 + 8 + 2;
+
+    /** Bytes of each change. */
+    static final int CHANGE_SIZE = 1 + 8 + 8;
+
+    /** Changes that fit in the largest UDP payload. */
+    static final int MAX_CHANGES = (65_507 - HEADER_SIZE) / CHANGE_SIZE;
+
+    private static final int MAGIC = 0x50494E56;
+    private static final byte FORMAT = 1;
+    private static final byte RESYNC_FLAG = 1;
+
+    /**
+     * A committed product write.
+     *
+     * @param type
+     *            the kind of write
+     * @param productId
+     *            the product ID
+     * @param committedAt
+     *            the commit time on the sending node, in epoch milliseconds
+     */
+    record Change(ProductChangedEvent.Type type, long productId, long committedAt) {
+    }
+
+    /**
+     * Indicates whether this batch is a heartbeat.
+     *
+     * @return true if it carries no changes and no resync
+     */
+    boolean isHeartbeat() {
+        return !resync && changes.isEmpty();
+    }
+
+    /**
+     * Encodes the batch into a datagram payload.
+     *
+     * @return the bytes
+     */
+    byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + changes.size() * CHANGE_SIZE);
+        buffer.putInt(MAGIC).put(FORMAT).put(resync ? RESYNC_FLAG : 0).putLong(node).putLong(sequence)
+                .putShort((short) changes.size());
+        for (Change change : changes) {
+            buffer.put((byte) change.type().ordinal()).putLong(change.productId()).putLong(change.committedAt());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes a datagram payload.
+     *
+     * @param pData
+     *            the received bytes
+     * @return the batch
+     * @throws IllegalArgumentException
+     *             if the payload is not a batch of this format
+     */
+    static InvalidationBatch decode(byte[] pData) {
+        ByteBuffer buffer = ByteBuffer.wrap(pData);
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != FORMAT) {
+                throw new IllegalArgumentException("Not an invalidation batch");
+            }
+            boolean resync = (buffer.get() & RESYNC_FLAG) != 0;
+            long node = buffer.getLong();
+            long sequence = buffer.getLong();
+            int count = Short.toUnsignedInt(buffer.getShort());
+            ProductChangedEvent.Type[] types = ProductChangedEvent.Type.values();
+            List<Change> changes = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int type = buffer.get();
+                if (type < 0 || type >= types.length) {
+                    throw new IllegalArgumentException("Unknown change type " + type);
+                }
+                changes.add(new Change(types[type], buffer.getLong(), buffer.getLong()));
+            }
+            return new InvalidationBatch(node, sequence, resync, changes);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation batch", e);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.productservice.invalidation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.datasource.ReplicaRoutingContext;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.repository.ProductStore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Keeps the in-process caches and indexes of several nodes coherent. Each
+ * committed product write is queued and sent to the other nodes in batches, on
+ * a short interval or as soon as a batch is full; a receiving node re-reads the
+ * product from the primary and publishes it as a remote
+ * {@link ProductChangedEvent}, which its caches apply like a local write.
+ *
+ * <p>
+ * Every batch carries the sender's next sequence number and heartbeats repeat
+ * the last one, so a receiver notices a lost batch, including a lost last
+ * batch, and falls back to a full resync: it publishes a
+ * {@link ProductCatalogResyncEvent} and every cache drops or reloads its state.
+ * Duplicated and late batches are ignored. A bulk write, whose products are not
+ * known individually, also asks receivers for a resync.
+ */
+public class InvalidationBus implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InvalidationBus.class);
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final InvalidationTransport transport;
+    private final ProductStore productStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final long heartbeatIntervalMillis;
+    private final long node = ThreadLocalRandom.current().nextLong();
+    private final Queue<InvalidationBatch.Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean resyncPending = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ReentrantLock sendLock = new ReentrantLock();
+    private final Map<Long, Long> lastSequences = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder batchesSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder ignored = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder lagCount = new LongAdder();
+    private final LongAdder lagMillis = new LongAdder();
+    private long sequence;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependencies and configuration.
+     *
+     * @param pTransport
+     *            carries batches between nodes
+     * @param pProductStore
+     *            the store changed products are re-read from
+     * @param pEventPublisher
+     *            publishes remote changes and resyncs to the local caches
+     * @param pProperties
+     *            the bus settings
+     */
+    public InvalidationBus(InvalidationTransport pTransport, ProductStore pProductStore,
+            ApplicationEventPublisher pEventPublisher, InvalidationProperties pProperties) {
+        this.transport = pTransport;
+        this.productStore = pProductStore;
+        this.eventPublisher = pEventPublisher;
+        this.flushIntervalMillis = Math.max(1, pProperties.getFlushIntervalMs());
+        this.maxBatchSize = Math.max(1, Math.min(InvalidationBatch.MAX_CHANGES, pProperties.getMaxBatchSize()));
+        this.heartbeatIntervalMillis = Math.max(1, pProperties.getHeartbeatIntervalMs());
+    }
+
+    /**
+     * Gets the random ID this node's batches are sent with.
+     *
+     * @return the node ID
+     */
+    public long getNode() {
+        return node;
+    }
+
+    /**
+     * Queues a committed local write for the other nodes. Remote changes are not
+     * sent on.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (pEvent.isRemote() || pEvent.getProductId() == null) {
+            return;
+        }
+        pending.add(new InvalidationBatch.Change(pEvent.getType(), pEvent.getProductId(), System.currentTimeMillis()));
+        if (pendingCount.incrementAndGet() >= maxBatchSize) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Asks the other nodes for a resync after a committed bulk write.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        resyncPending.set(true);
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        ScheduledExecutorService executor = scheduler;
+        if (executor == null || !running) {
+            flush();
+        } else if (flushScheduled.compareAndSet(false, true)) {
+            executor.execute(this::scheduledFlush);
+        }
+    }
+
+    private void scheduledFlush() {
+        flushScheduled.set(false);
+        flush();
+    }
+
+    /**
+     * Sends all queued changes, in batches of at most the configured size. Several
+     * writes of one product in a batch are sent as one change.
+     */
+    public void flush() {
+        sendLock.lock();
+        try {
+            boolean resync = resyncPending.getAndSet(false);
+            while (resync || pendingCount.get() > 0) {
+                List<InvalidationBatch.Change> changes = drain();
+                if (changes.isEmpty() && !resync) {
+                    break;
+                }
+                send(new InvalidationBatch(node, ++sequence, resync, changes));
+                sent.add(changes.size());
+                batchesSent.increment();
+                resync = false;
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    private List<InvalidationBatch.Change> drain() {
+        Map<Long, InvalidationBatch.Change> changes = new LinkedHashMap<>();
+        while (changes.size() < maxBatchSize) {
+            InvalidationBatch.Change change = pending.poll();
+            if (change == null) {
+                break;
+            }
+            pendingCount.decrementAndGet();
+            changes.merge(change.productId(), change, InvalidationBus::coalesce);
+        }
+        return new ArrayList<>(changes.values());
+    }
+
+    /**
+     * Merges two writes of one product. A create followed by updates stays a create
+     * so receivers still learn that the ID exists.
+     */
+    private static InvalidationBatch.Change coalesce(InvalidationBatch.Change pFirst,
+            InvalidationBatch.Change pSecond) {
+        if (pFirst.type() == ProductChangedEvent.Type.CREATED && pSecond.type() == ProductChangedEvent.Type.UPDATED) {
+            return new InvalidationBatch.Change(ProductChangedEvent.Type.CREATED, pSecond.productId(),
+                    pSecond.committedAt());
+        }
+        return pSecond;
+    }
+
+    private void heartbeat() {
+        sendLock.lock();
+        try {
+            send(new InvalidationBatch(node, sequence, false, List.of()));
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Sends a batch. A failed send is only logged: its sequence number is used, so
+     * the other nodes see a gap on the next batch or heartbeat and resync.
+     */
+    private void send(InvalidationBatch pBatch) {
+        try {
+            transport.send(pBatch.encode());
+        } catch (IOException e) {
+            sendFailures.increment();
+            LOG.warn("Sending invalidation batch {} failed", pBatch.sequence(), e);
+        }
+    }
+
+    /**
+     * Applies a batch received from the transport.
+     *
+     * @param pPayload
+     *            the encoded batch
+     */
+    void receive(byte[] pPayload) {
+        InvalidationBatch batch;
+        try {
+            batch = InvalidationBatch.decode(pPayload);
+        } catch (IllegalArgumentException e) {
+            malformed.increment();
+            return;
+        }
+        if (batch.node() == node) {
+            return;
+        }
+        Long last = lastSequences.get(batch.node());
+        long expected = last == null ? batch.sequence() : last + (batch.isHeartbeat() ? 0 : 1);
+        if (last != null && batch.sequence() < expected) {
+            ignored.increment();
+            return;
+        }
+        lastSequences.put(batch.node(), batch.sequence());
+        if (batch.sequence() > expected) {
+            // Batches between the last one seen and this one were lost
+            gaps.increment();
+            resync("lost invalidation batches " + (last + 1) + " to " + batch.sequence() + " of node "
+                    + Long.toHexString(batch.node()));
+        } else if (batch.resync()) {
+            resync("bulk write on node " + Long.toHexString(batch.node()));
+        } else if (!batch.isHeartbeat()) {
+            apply(batch.changes());
+        }
+    }
+
+    private void apply(List<InvalidationBatch.Change> pChanges) {
+        // Replicas may not have the write yet; the primary has committed it
+        ReplicaRoutingContext.forcePrimary();
+        try {
+            long now = System.currentTimeMillis();
+            for (InvalidationBatch.Change change : pChanges) {
+                Product current = change.type() == ProductChangedEvent.Type.DELETED
+                        ? null
+                        : productStore.findById(change.productId()).orElse(null);
+                // A product deleted since is applied as deleted; the delete's own
+                // change follows
+                ProductChangedEvent.Type type = current == null ? ProductChangedEvent.Type.DELETED : change.type();
+                eventPublisher.publishEvent(ProductChangedEvent.remote(type, change.productId(), current));
+                received.increment();
+                lagCount.increment();
+                lagMillis.add(Math.max(0, now - change.committedAt()));
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Applying remote product changes failed", e);
+            resync("failed to apply remote changes");
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+    }
+
+    /**
+     * Makes every local cache drop or reload its state, as changes on other nodes
+     * may have been missed.
+     *
+     * @param pReason
+     *            why, for logging
+     */
+    public void resync(String pReason) {
+        LOG.info("Resynchronizing local product caches: {}", pReason);
+        ReplicaRoutingContext.forcePrimary();
+        try {
+            eventPublisher.publishEvent(new ProductCatalogResyncEvent(pReason));
+        } catch (RuntimeException e) {
+            LOG.error("Resynchronizing local product caches failed", e);
+        } finally {
+            ReplicaRoutingContext.clear();
+            resyncs.increment();
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            transport.start(this::receive);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open the invalidation transport", e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-invalidation-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, 0, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+        running = true;
+        LOG.info("Invalidation bus started as node {}", Long.toHexString(node));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+        flush();
+        try {
+            transport.close();
+        } catch (IOException e) {
+            LOG.warn("Closing the invalidation transport failed", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts after the caches are loaded, so no remote change is applied to a cache
+     * that is still loading, and stops after the web server so the last writes are
+     * still sent.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        Gauge.builder("product.invalidation.pending", pendingCount, AtomicInteger::get).register(pRegistry);
+        FunctionCounter.builder("product.invalidation.sent", sent, LongAdder::sum)
+                .description("Product changes sent to other nodes").register(pRegistry);
+        FunctionCounter.builder("product.invalidation.batches", batchesSent, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.invalidation.send.failures", sendFailures, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.invalidation.received", received, LongAdder::sum)
+                .description("Product changes of other nodes applied to the local caches").register(pRegistry);
+        FunctionCounter.builder("product.invalidation.ignored", ignored, LongAdder::sum)
+                .description("Duplicated or late batches").register(pRegistry);
+        FunctionCounter.builder("product.invalidation.malformed", malformed, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.invalidation.gaps", gaps, LongAdder::sum)
+                .description("Lost batches detected from sequence numbers").register(pRegistry);
+        FunctionCounter.builder("product.invalidation.resyncs", resyncs, LongAdder::sum).register(pRegistry);
+        FunctionTimer
+                .builder("product.invalidation.lag", this, bus -> bus.lagCount.sum(), bus -> bus.lagMillis.sum(),
+                        TimeUnit.MILLISECONDS)
+                .description("Time from a remote commit until the local caches applied it").register(pRegistry);
+    }
+}
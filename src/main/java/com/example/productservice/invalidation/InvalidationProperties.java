@@ -0,0 +1,210 @@
+package com.example.productservice.invalidation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the cross-node invalidation bus, bound from
+ * {@code product.invalidation.*}.
+ */
+@ConfigurationProperties(prefix = "product.invalidation")
+public class InvalidationProperties {
+
+    /**
+     * How batches reach the other nodes.
+     */
+    public enum Transport {
+        /** One datagram to a multicast group all nodes have joined. */
+        MULTICAST,
+        /** One unicast datagram to each configured peer. */
+        UDP
+    }
+
+    // CHECKSTYLE:OFF - configuration property fields use standard naming
+    private boolean enabled;
+    private Transport transport = Transport.MULTICAST;
+    private String group = "239.255.77.1";
+    private int port = 7600;
+    private int ttl = 1;
+    private List<String> peers = new ArrayList<>();
+    private long flushIntervalMs = 5;
+    private int maxBatchSize = 64;
+    private long heartbeatIntervalMs = 1000;
+    // CHECKSTYLE:ON
+
+    /**
+     * Indicates whether product changes are broadcast and received.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether product changes are broadcast and received.
+     *
+     * @param pEnabled
+     *            true to enable
+     */
+    public void setEnabled(boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Gets how batches reach the other nodes.
+     *
+     * @return the transport
+     */
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Sets how batches reach the other nodes.
+     *
+     * @param pTransport
+     *            the transport
+     */
+    public void setTransport(Transport pTransport) {
+        this.transport = pTransport;
+    }
+
+    /**
+     * Gets the multicast group address.
+     *
+     * @return the group
+     */
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * Sets the multicast group address.
+     *
+     * @param pGroup
+     *            the group, e.g. {@code 239.255.77.1}
+     */
+    public void setGroup(String pGroup) {
+        this.group = pGroup;
+    }
+
+    /**
+     * Gets the UDP port this node receives on, and the group's port for multicast.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Sets the UDP port this node receives on, and the group's port for multicast.
+     *
+     * @param pPort
+     *            the port
+     */
+    public void setPort(int pPort) {
+        this.port = pPort;
+    }
+
+    /**
+     * Gets the time-to-live of multicast datagrams.
+     *
+     * @return the hop limit
+     */
+    public int getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Sets the time-to-live of multicast datagrams; 1 keeps them on the local
+     * subnet.
+     *
+     * @param pTtl
+     *            the hop limit
+     */
+    public void setTtl(int pTtl) {
+        this.ttl = pTtl;
+    }
+
+    /**
+     * Gets the other nodes of the UDP transport.
+     *
+     * @return the peers as {@code host:port}
+     */
+    public List<String> getPeers() {
+        return peers;
+    }
+
+    /**
+     * Sets the other nodes of the UDP transport.
+     *
+     * @param pPeers
+     *            the peers as {@code host:port}
+     */
+    public void setPeers(List<String> pPeers) {
+        this.peers = pPeers;
+    }
+
+    /**
+     * Gets the maximum time a change waits to be sent.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    /**
+     * Sets the maximum time a change waits to be sent.
+     *
+     * @param pFlushIntervalMs
+     *            the interval in milliseconds
+     */
+    public void setFlushIntervalMs(long pFlushIntervalMs) {
+        this.flushIntervalMs = pFlushIntervalMs;
+    }
+
+    /**
+     * Gets the number of changes per datagram, which also triggers an early send.
+     *
+     * @return the batch size
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the number of changes per datagram; the default of 64 keeps a batch
+     * within one Ethernet frame.
+     *
+     * @param pMaxBatchSize
+     *            the batch size
+     */
+    public void setMaxBatchSize(int pMaxBatchSize) {
+        this.maxBatchSize = pMaxBatchSize;
+    }
+
+    /**
+     * Gets the interval of heartbeats, which let other nodes detect a lost last
+     * batch.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getHeartbeatIntervalMs() {
+        return heartbeatIntervalMs;
+    }
+
+    /**
+     * Sets the interval of heartbeats.
+     *
+     * @param pHeartbeatIntervalMs
+     *            the interval in milliseconds
+     */
+    public void setHeartbeatIntervalMs(long pHeartbeatIntervalMs) {
+        this.heartbeatIntervalMs = pHeartbeatIntervalMs;
+    }
+}
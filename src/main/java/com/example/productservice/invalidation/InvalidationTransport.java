@@ -0,0 +1,33 @@
+package com.example.productservice.invalidation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Carries encoded invalidation batches between nodes. Delivery may lose,
+ * duplicate or reorder batches; the bus detects this from batch sequences.
+ */
+public interface InvalidationTransport extends Closeable {
+
+    /**
+     * Starts receiving batches sent by other nodes. Batches this node sent may be
+     * delivered back to it.
+     *
+     * @param pReceiver
+     *            called with each received payload, from a single thread
+     * @throws IOException
+     *             if the transport cannot be opened
+     */
+    void start(Consumer<byte[]> pReceiver) throws IOException;
+
+    /**
+     * Sends a payload to every other node.
+     *
+     * @param pPayload
+     *            the encoded batch
+     * @throws IOException
+     *             if sending fails
+     */
+    void send(byte[] pPayload) throws IOException;
+}
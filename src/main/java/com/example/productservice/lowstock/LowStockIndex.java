@@ -0,0 +1,336 @@
+package com.example.productservice.lowstock;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.datasource.ReplicaRoutingContext;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.writebehind.StockWriteBuffer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory index of products ordered by stock level, for low-stock watch
+ * lists. Products are kept in a skip list ordered by stock and then ID, one for
+ * the whole catalog and one per category, so the products at or below a
+ * threshold are the head of a list: a lookup costs the number of matches, not
+ * the catalog size.
+ *
+ * <p>
+ * The index is loaded on startup and updated from committed product change
+ * events, which every write path of the service publishes, including buffered
+ * stock updates. After-commit events of concurrent writes can arrive in any
+ * order, so a change is applied by re-reading the product from the primary,
+ * with its buffered stock, while holding the index's monitor; reloads read
+ * under the monitor too. Whichever read runs last sees the latest committed
+ * state, so a late event or reload never overwrites a newer change. Writers are
+ * serialized; readers never lock. Each change is also passed to the
+ * {@link LowStockStream} so subscribers hear of products crossing their
+ * threshold.
+ */
+@Component
+public class LowStockIndex implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LowStockIndex.class);
+
+    /**
+     * An indexed product with its sort key.
+     */
+    private record Entry(int stock, long id, Product product) {
+    }
+
+    private static final Comparator<Entry> BY_STOCK = Comparator.comparingInt(Entry::stock)
+            .thenComparingLong(Entry::id);
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ProductStore productStore;
+    private final StockWriteBuffer stockBuffer;
+    private final LowStockStream stream;
+    private final boolean enabled;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableSet<Entry> all = new ConcurrentSkipListSet<>(BY_STOCK);
+    private final Map<String, NavigableSet<Entry>> byCategory = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection.
+     *
+     * @param pProductStore
+     *            the store the index is loaded from
+     * @param pStockBuffer
+     *            write-behind buffer whose pending stock levels override the stored
+     *            ones on reload
+     * @param pStream
+     *            the subscribers to threshold crossings
+     * @param pEnabled
+     *            whether low-stock lists are served from the index
+     */
+    public LowStockIndex(ProductStore pProductStore, StockWriteBuffer pStockBuffer, LowStockStream pStream,
+            @Value("${product.low-stock.enabled:false}") boolean pEnabled) {
+        this.productStore = pProductStore;
+        this.stockBuffer = pStockBuffer;
+        this.stream = pStream;
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Indicates whether low-stock lists are served from the index.
+     *
+     * @return true if the index is active
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the products at or below a stock level.
+     *
+     * @param pThreshold
+     *            the highest stock level to return
+     * @param pCategory
+     *            the category (optional)
+     * @return the products, lowest stock first, then by ID
+     */
+    public List<Product> atOrBelow(int pThreshold, String pCategory) {
+        NavigableSet<Entry> entriesByStock = pCategory == null ? all : byCategory.get(pCategory);
+        if (entriesByStock == null) {
+            return new ArrayList<>();
+        }
+        List<Product> products = new ArrayList<>();
+        for (Entry entry : entriesByStock.headSet(new Entry(pThreshold, Long.MAX_VALUE, null), true)) {
+            products.add(entry.product());
+        }
+        return products;
+    }
+
+    /**
+     * Applies a committed product write to the index by re-reading the product.
+     * Deletes are final and are applied without a read.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (!enabled) {
+            return;
+        }
+        Long id = pEvent.getProductId();
+        if (pEvent.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(id);
+            return;
+        }
+        synchronized (this) {
+            Product current = fromPrimary(() -> productStore.findById(id).orElse(null));
+            if (current == null) {
+                remove(id);
+            } else {
+                put(withBufferedStock(current));
+            }
+        }
+    }
+
+    /**
+     * Reloads the products of a category after a bulk write, so the products
+     * returned carry their new prices.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            for (Product product : fromPrimary(() -> productStore.findByCategory(pEvent.getCategory()))) {
+                put(withBufferedStock(product));
+            }
+        }
+    }
+
+    /**
+     * Reloads the index when changes on other nodes may have been missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Adds or replaces a product. Products without a stock level are not indexed.
+     *
+     * @param pProduct
+     *            the product
+     */
+    public synchronized void put(Product pProduct) {
+        if (pProduct == null || pProduct.getId() == null) {
+            return;
+        }
+        if (!pProduct.hasStock()) {
+            remove(pProduct.getId());
+            return;
+        }
+        Entry entry = new Entry(pProduct.getStockCount(), pProduct.getId(), new Product(pProduct));
+        Entry previous = entries.put(pProduct.getId(), entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+        all.add(entry);
+        byCategory.computeIfAbsent(categoryKey(pProduct), category -> new ConcurrentSkipListSet<>(BY_STOCK)).add(entry);
+        stream.publish(previous == null ? null : previous.stock(), entry.product());
+    }
+
+    /**
+     * Removes a product.
+     *
+     * @param pId
+     *            the product ID
+     */
+    public synchronized void remove(Long pId) {
+        Entry previous = entries.remove(pId);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    /**
+     * Reloads every product from the store, removing those no longer stored. The
+     * store is read under the monitor, so no change applied meanwhile is
+     * overwritten with an older row.
+     */
+    public synchronized void reload() {
+        List<Product> products = fromPrimary(productStore::findAll);
+        Set<Long> stored = new HashSet<>();
+        for (Product product : products) {
+            put(withBufferedStock(product));
+            stored.add(product.getId());
+        }
+        for (Long id : new ArrayList<>(entries.keySet())) {
+            if (!stored.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of indexed products.
+     *
+     * @return the product count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void unlink(Entry pEntry) {
+        all.remove(pEntry);
+        String category = categoryKey(pEntry.product());
+        NavigableSet<Entry> inCategory = byCategory.get(category);
+        if (inCategory != null) {
+            inCategory.remove(pEntry);
+            if (inCategory.isEmpty()) {
+                byCategory.remove(category);
+            }
+        }
+    }
+
+    private static String categoryKey(Product pProduct) {
+        return pProduct.getCategory() == null ? "" : pProduct.getCategory();
+    }
+
+    /**
+     * Runs a read against the primary, as replicas may not have the change yet,
+     * restoring this thread's routing afterwards.
+     */
+    private static <T> T fromPrimary(Supplier<T> pRead) {
+        boolean primaryForced = ReplicaRoutingContext.isPrimaryForced();
+        ReplicaRoutingContext.forcePrimary();
+        try {
+            return pRead.get();
+        } finally {
+            if (!primaryForced) {
+                ReplicaRoutingContext.releasePrimary();
+            }
+        }
+    }
+
+    private Product withBufferedStock(Product pProduct) {
+        Integer bufferedStock = stockBuffer.isEnabled() ? stockBuffer.pendingStock(pProduct.getId()) : null;
+        if (bufferedStock == null) {
+            return pProduct;
+        }
+        Product copy = new Product(pProduct);
+        copy.setStockCount(bufferedStock);
+        return copy;
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            long started = System.nanoTime();
+            List<Product> products = productStore.findAll();
+            synchronized (this) {
+                for (Product product : products) {
+                    put(product);
+                }
+            }
+            LOG.info("Indexed {} products by stock in {} ms", products.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server so the first request sees a loaded index.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        Gauge.builder("product.low.stock.index.size", this, LowStockIndex::size).register(pRegistry);
+    }
+}
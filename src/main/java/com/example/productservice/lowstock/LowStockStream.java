@@ -0,0 +1,253 @@
+package com.example.productservice.lowstock;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.productservice.entity.Product;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Server-sent event streams of low-stock alerts. Each subscriber watches a
+ * threshold, optionally within a category, and gets a {@code low-stock} event
+ * when a product's stock drops to the threshold or below, and a
+ * {@code restocked} event when it rises above it again.
+ *
+ * <p>
+ * Events are queued per subscriber, in a queue of
+ * {@code product.low-stock.subscriber-queue-size} events, and sent from a
+ * background thread, so a slow client never delays the write that caused the
+ * alert or the other subscribers. At most one thread sends to a subscriber at a
+ * time. A subscriber whose queue is full, having fallen behind, or whose
+ * connection fails is dropped.
+ */
+@Component
+public class LowStockStream implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LowStockStream.class);
+
+    /** Event name of a product whose stock dropped to the threshold or below. */
+    public static final String LOW_STOCK = "low-stock";
+
+    /** Event name of a product whose stock rose above the threshold. */
+    public static final String RESTOCKED = "restocked";
+
+    /**
+     * A subscriber's watch, its connection and the events not sent yet.
+     * {@code sending} is set while a thread drains the queue.
+     */
+    private record Subscription(int threshold, String category, SseEmitter emitter,
+            BlockingQueue<SseEmitter.SseEventBuilder> events, AtomicBoolean sending) {
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private ExecutorService sender;
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with configuration injection.
+     *
+     * @param pMaxSubscribers
+     *            maximum number of open streams
+     * @param pTimeoutMillis
+     *            time after which a stream is closed, so clients reconnect
+     * @param pQueueSize
+     *            events queued for a subscriber before it is dropped
+     */
+    public LowStockStream(@Value("${product.low-stock.max-subscribers:100}") int pMaxSubscribers,
+            @Value("${product.low-stock.stream-timeout-ms:1800000}") long pTimeoutMillis,
+            @Value("${product.low-stock.subscriber-queue-size:32}") int pQueueSize) {
+        this.maxSubscribers = pMaxSubscribers;
+        this.timeoutMillis = pTimeoutMillis;
+        this.queueSize = Math.max(1, pQueueSize);
+    }
+
+    /**
+     * Opens a stream of alerts.
+     *
+     * @param pThreshold
+     *            the stock level at or below which a product is low
+     * @param pCategory
+     *            the category to watch (optional)
+     * @return the stream, or null if too many streams are open
+     */
+    public SseEmitter subscribe(int pThreshold, String pCategory) {
+        if (subscriptions.size() >= maxSubscribers) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscription subscription = new Subscription(pThreshold, pCategory, emitter,
+                new ArrayBlockingQueue<>(queueSize), new AtomicBoolean());
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(() -> subscriptions.remove(subscription));
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        return emitter;
+    }
+
+    /**
+     * Sends alerts for a product whose stock changed, to every subscriber whose
+     * threshold it crossed.
+     *
+     * @param pPreviousStock
+     *            the stock before the change, or null for a new product
+     * @param pProduct
+     *            the product after the change
+     */
+    void publish(Integer pPreviousStock, Product pProduct) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        int stock = pProduct.getStockCount();
+        for (Subscription subscription : subscriptions) {
+            if (subscription.category() != null && !subscription.category().equals(pProduct.getCategory())) {
+                continue;
+            }
+            boolean wasLow = pPreviousStock != null && pPreviousStock <= subscription.threshold();
+            boolean isLow = stock <= subscription.threshold();
+            if (isLow && !wasLow) {
+                send(subscription, LOW_STOCK, pProduct);
+            } else if (wasLow && !isLow) {
+                send(subscription, RESTOCKED, pProduct);
+            }
+        }
+    }
+
+    private void send(Subscription pSubscription, String pName, Product pProduct) {
+        ExecutorService executor = sender;
+        if (executor == null) {
+            return;
+        }
+        if (!pSubscription.events()
+                .offer(SseEmitter.event().name(pName).id(Objects.toString(pProduct.getId())).data(pProduct))) {
+            LOG.debug("Dropping low-stock subscriber {} events behind", queueSize);
+            drop(pSubscription, executor);
+            return;
+        }
+        if (pSubscription.sending().compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(pSubscription));
+            } catch (RejectedExecutionException e) {
+                // stopping
+            }
+        }
+    }
+
+    /**
+     * Sends a subscriber's queued events, until the queue stays empty.
+     */
+    private void drain(Subscription pSubscription) {
+        do {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = pSubscription.events().poll()) != null) {
+                    pSubscription.emitter().send(event);
+                    sent.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                LOG.debug("Dropping low-stock subscriber", e);
+                subscriptions.remove(pSubscription);
+                pSubscription.events().clear();
+                pSubscription.emitter().completeWithError(e);
+                return;
+            } finally {
+                pSubscription.sending().set(false);
+            }
+        } while (!pSubscription.events().isEmpty() && pSubscription.sending().compareAndSet(false, true));
+    }
+
+    /**
+     * Drops a subscriber that fell behind. The stream is closed on the sender
+     * threads, since closing it waits for a send in progress.
+     */
+    private void drop(Subscription pSubscription, ExecutorService pExecutor) {
+        if (!subscriptions.remove(pSubscription)) {
+            return;
+        }
+        dropped.increment();
+        pSubscription.events().clear();
+        try {
+            pExecutor.execute(() -> pSubscription.emitter().complete());
+        } catch (RejectedExecutionException e) {
+            // stopping
+        }
+    }
+
+    /**
+     * Gets the number of open streams.
+     *
+     * @return the subscriber count
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Starts the sender threads: at most one per open stream, so a client that
+     * stops reading holds up only its own stream.
+     */
+    @Override
+    public void start() {
+        AtomicInteger threads = new AtomicInteger();
+        sender = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "product-low-stock-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (sender != null) {
+            sender.shutdownNow();
+            sender = null;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter().complete();
+        }
+        subscriptions.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        Gauge.builder("product.low.stock.subscribers", this, LowStockStream::getSubscriberCount).register(pRegistry);
+        FunctionCounter.builder("product.low.stock.alerts", sent, LongAdder::sum)
+                .description("Low-stock and restocked events sent to subscribers").register(pRegistry);
+        FunctionCounter.builder("product.low.stock.dropped", dropped, LongAdder::sum)
+                .description("Subscribers dropped for falling behind").register(pRegistry);
+    }
+}
@@ -0,0 +1,803 @@
+package com.example.productservice.memory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+import com.example.productservice.repository.ProductStore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Product store that keeps every product in memory, for deployments without a
+ * database. Products live in a long-keyed open-addressing table split into
+ * stripes; writes take their stripe's lock, reads are optimistic and only lock
+ * when they raced with a write. Category and price indexes narrow searches;
+ * their hits are re-checked against the table, so an index entry that is
+ * briefly out of date never produces a wrong result.
+ *
+ * <p>
+ * Writes are made durable by the {@link WriteAheadLog}: a write is applied in
+ * memory and logged under its stripe lock, and returns once its group commit
+ * has been synced. Concurrent readers can see a write shortly before it is
+ * durable. A background task writes a snapshot of all products and deletes the
+ * log segments it covers, when the current segment exceeds
+ * {@code product.memory.compact-bytes} or the snapshot interval has passed. On
+ * startup the latest snapshot is loaded and the newer segments are replayed.
+ *
+ * <p>
+ * Stored products are never modified; callers get copies, so changing a
+ * returned product has no effect until it is saved.
+ */
+public class MemoryProductStore implements ProductStore, DisposableBean, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MemoryProductStore.class);
+
+    private static final Comparator<Product> BY_ID = Comparator.comparing(Product::getId);
+
+    /**
+     * Price index entry, ordered by price then ID.
+     */
+    private record PriceKey(long cents, long id) implements Comparable<PriceKey> {
+        @Override
+        public int compareTo(PriceKey pOther) {
+            int byPrice = Long.compare(cents, pOther.cents);
+            return byPrice != 0 ? byPrice : Long.compare(id, pOther.id);
+        }
+    }
+
+    /**
+     * One stripe of the table: linear probing over parallel key and value arrays,
+     * with backward-shift deletion so no tombstones are needed. Mutators are called
+     * with the write lock held.
+     */
+    private static final class Stripe {
+        // CHECKSTYLE:OFF - internal table state uses standard naming
+        private final StampedLock lock = new StampedLock();
+        private long[] keys = new long[16];
+        private Product[] values = new Product[16];
+        private int size;
+        // CHECKSTYLE:ON
+
+        Product get(long pId) {
+            long[] k = keys;
+            Product[] v = values;
+            if (k.length != v.length) {
+                // Torn read during a resize; the caller's validation fails
+                return null;
+            }
+            int mask = k.length - 1;
+            for (int i = slot(pId, mask), probes = 0; probes < k.length; i = (i + 1) & mask, probes++) {
+                Product value = v[i];
+                if (value == null) {
+                    return null;
+                }
+                if (k[i] == pId) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        Product put(long pId, Product pValue) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = slot(pId, mask);
+            while (values[i] != null) {
+                if (keys[i] == pId) {
+                    Product previous = values[i];
+                    values[i] = pValue;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = pId;
+            values[i] = pValue;
+            size++;
+            return null;
+        }
+
+        Product remove(long pId) {
+            int mask = keys.length - 1;
+            int i = slot(pId, mask);
+            while (values[i] != null && keys[i] != pId) {
+                i = (i + 1) & mask;
+            }
+            Product previous = values[i];
+            if (previous == null) {
+                return null;
+            }
+            // Shift later entries of the probe run back into the gap
+            int gap = i;
+            for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = null;
+            size--;
+            return previous;
+        }
+
+        void clear() {
+            keys = new long[16];
+            values = new Product[16];
+            size = 0;
+        }
+
+        void collect(List<Product> pOut) {
+            for (Product value : values) {
+                if (value != null) {
+                    pOut.add(value);
+                }
+            }
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Product[] oldValues = values;
+            long[] newKeys = new long[oldKeys.length * 2];
+            Product[] newValues = new Product[oldKeys.length * 2];
+            int mask = newKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int j = slot(oldKeys[i], mask);
+                    while (newValues[j] != null) {
+                        j = (j + 1) & mask;
+                    }
+                    newKeys[j] = oldKeys[i];
+                    newValues[j] = oldValues[i];
+                }
+            }
+            // Values first: an optimistic reader that sees mismatched lengths bails out
+            values = newValues;
+            keys = newKeys;
+        }
+
+        private static int slot(long pId, int pMask) {
+            return (int) mix(pId) & pMask;
+        }
+    }
+
+    // CHECKSTYLE:OFF - store fields use standard naming
+    private final Path directory;
+    private final Stripe[] stripes;
+    private final Map<String, NavigableSet<Long>> categoryIndex = new ConcurrentHashMap<>();
+    private final NavigableSet<PriceKey> priceIndex = new ConcurrentSkipListSet<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private final long compactBytes;
+    private final long snapshotIntervalMillis;
+    private final LongAdder snapshots = new LongAdder();
+    private final Object snapshotLock = new Object();
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService maintenance;
+    private volatile long lastSnapshotNanos = System.nanoTime();
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the store, loading the latest snapshot and replaying the log segments
+     * written after it.
+     *
+     * @param pDirectory
+     *            the data directory for snapshots and log segments
+     * @param pStripes
+     *            number of lock stripes (rounded up to a power of two)
+     * @param pFsync
+     *            whether a write waits for its log record to reach the device
+     * @param pCompactBytes
+     *            log segment size that triggers a snapshot
+     * @param pSnapshotIntervalMillis
+     *            maximum time between snapshots while there are writes
+     * @throws UncheckedIOException
+     *             if the data directory cannot be read or written
+     */
+    public MemoryProductStore(Path pDirectory, int pStripes, boolean pFsync, long pCompactBytes,
+            long pSnapshotIntervalMillis) {
+        this.directory = pDirectory;
+        int stripeCount = Integer.highestOneBit(Math.max(1, pStripes - 1)) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.compactBytes = pCompactBytes;
+        this.snapshotIntervalMillis = pSnapshotIntervalMillis;
+        try {
+            Files.createDirectories(pDirectory);
+            long segment = recover();
+            this.wal = new WriteAheadLog(pDirectory, segment, pFsync);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open product data directory " + pDirectory, e);
+        }
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::maybeSnapshot, 1, 1, TimeUnit.SECONDS);
+    }
+
+    // ---- Reads
+
+    @Override
+    public List<Product> findAll() {
+        List<Product> products = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                stripe.collect(products);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return sortedCopies(products);
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        List<Long> ids = new ArrayList<>();
+        for (Product product : findAll()) {
+            ids.add(product.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public Optional<Product> findById(Long pId) {
+        Product product = pId == null ? null : read(pId);
+        return product == null ? Optional.empty() : Optional.of(new Product(product));
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> pIds) {
+        List<Product> products = new ArrayList<>();
+        for (Long id : pIds) {
+            Product product = id == null ? null : read(id);
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return sortedCopies(products);
+    }
+
+    @Override
+    public boolean existsById(Long pId) {
+        return pId != null && read(pId) != null;
+    }
+
+    @Override
+    public List<Product> findByCategory(String pCategory) {
+        return searchProducts(null, pCategory, null, null, 0);
+    }
+
+    @Override
+    public List<Product> findByNameContainingIgnoreCase(String pName) {
+        return searchProducts(pName, null, null, null, 0);
+    }
+
+    @Override
+    public List<Product> findByPriceCentsBetween(long pMinCents, long pMaxCents) {
+        return searchProducts(null, null, pMinCents, pMaxCents, 0);
+    }
+
+    @Override
+    public List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents) {
+        return searchProducts(pName, pCategory, pMinCents, pMaxCents, 0);
+    }
+
+    /**
+     * Searches through the category index when a category is given, else through
+     * the price index when a price bound is given, else over all products.
+     */
+    @Override
+    public List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents, int pLimit) {
+        String name = pName == null ? null : pName.toLowerCase(Locale.ROOT);
+        long min = pMinCents == null ? Long.MIN_VALUE : pMinCents;
+        long max = pMaxCents == null ? Long.MAX_VALUE : pMaxCents;
+        List<Product> matches = new ArrayList<>();
+        if (pCategory != null) {
+            // Index IDs are in ascending order, so the limit can stop the scan
+            for (Long id : categoryIndex.getOrDefault(pCategory, new ConcurrentSkipListSet<>())) {
+                Product product = read(id);
+                if (product != null && pCategory.equals(product.getCategory()) && matches(product, name, min, max)) {
+                    matches.add(new Product(product));
+                    if (pLimit > 0 && matches.size() == pLimit) {
+                        return matches;
+                    }
+                }
+            }
+            return matches;
+        }
+        List<Product> candidates = new ArrayList<>();
+        if (pMinCents != null || pMaxCents != null) {
+            for (PriceKey key : priceIndex.subSet(new PriceKey(min, Long.MIN_VALUE), true,
+                    new PriceKey(max, Long.MAX_VALUE), true)) {
+                Product product = read(key.id());
+                if (product != null) {
+                    candidates.add(product);
+                }
+            }
+        } else {
+            for (Stripe stripe : stripes) {
+                long stamp = stripe.lock.readLock();
+                try {
+                    stripe.collect(candidates);
+                } finally {
+                    stripe.lock.unlockRead(stamp);
+                }
+            }
+        }
+        for (Product product : candidates) {
+            if (matches(product, name, min, max)) {
+                matches.add(product);
+            }
+        }
+        List<Product> sorted = sortedCopies(matches);
+        return pLimit > 0 && sorted.size() > pLimit ? new ArrayList<>(sorted.subList(0, pLimit)) : sorted;
+    }
+
+    @Override
+    public List<Product> findAllProjected(Set<ProductField> pFields) {
+        return ProductField.project(findAll(), pFields);
+    }
+
+    @Override
+    public List<Product> searchProductsProjected(String pName, String pCategory, Long pMinCents, Long pMaxCents,
+            Set<ProductField> pFields) {
+        return ProductField.project(searchProducts(pName, pCategory, pMinCents, pMaxCents, 0), pFields);
+    }
+
+    @Override
+    public long[] findIdRangeByCategory(String pCategory) {
+        NavigableSet<Long> ids = categoryIndex.get(pCategory);
+        if (ids == null || ids.isEmpty()) {
+            return null;
+        }
+        long[] range = new long[2];
+        range[0] = ids.first();
+        range[1] = ids.last();
+        return range;
+    }
+
+    // ---- Writes
+
+    @Override
+    public <S extends Product> S save(S pProduct) {
+        long id;
+        if (pProduct.getId() == null) {
+            id = nextId.incrementAndGet();
+        } else {
+            id = pProduct.getId();
+            nextId.accumulateAndGet(id, Math::max);
+        }
+        Product stored = new Product(pProduct);
+        stored.setId(id);
+        CompletableFuture<Void> durable;
+        Stripe stripe = stripe(id);
+        long stamp = stripe.lock.writeLock();
+        try {
+            durable = apply(stripe, stored);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+        await(durable);
+        pProduct.setId(id);
+        return pProduct;
+    }
+
+    @Override
+    public void deleteById(Long pId) {
+        if (pId == null) {
+            return;
+        }
+        CompletableFuture<Void> durable = null;
+        Stripe stripe = stripe(pId);
+        long stamp = stripe.lock.writeLock();
+        try {
+            Product previous = stripe.remove(pId);
+            if (previous != null) {
+                unindex(previous);
+                durable = wal.append(WriteAheadLog.delete(pId));
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+        if (durable != null) {
+            await(durable);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        long[] stamps = new long[stripes.length];
+        CompletableFuture<Void> durable;
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].lock.writeLock();
+        }
+        try {
+            for (Stripe stripe : stripes) {
+                stripe.clear();
+            }
+            categoryIndex.clear();
+            priceIndex.clear();
+            durable = wal.append(WriteAheadLog.clear());
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].lock.unlockWrite(stamps[i]);
+            }
+        }
+        await(durable);
+    }
+
+    /**
+     * Reprices the matching products one at a time under their stripe locks, and
+     * waits once for the group commit of the last record.
+     */
+    @Override
+    public int adjustPrices(String pCategory, long pMinCents, long pMaxCents, BigDecimal pFactor, long pFromId,
+            long pToId) {
+        NavigableSet<Long> ids = categoryIndex.get(pCategory);
+        if (ids == null) {
+            return 0;
+        }
+        int updated = 0;
+        CompletableFuture<Void> last = null;
+        for (Long id : ids.subSet(pFromId, true, pToId, true)) {
+            Stripe stripe = stripe(id);
+            long stamp = stripe.lock.writeLock();
+            try {
+                Product current = stripe.get(id);
+                if (current == null || !pCategory.equals(current.getCategory()) || current.getPriceCents() < pMinCents
+                        || current.getPriceCents() > pMaxCents) {
+                    continue;
+                }
+                Product repriced = new Product(current);
+                repriced.setPriceCents(BigDecimal.valueOf(current.getPriceCents()).multiply(pFactor)
+                        .setScale(0, RoundingMode.HALF_UP).longValueExact());
+                last = apply(stripe, repriced);
+                updated++;
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+        if (last != null) {
+            // The log is written in order and refuses everything after a failure,
+            // so the last record being durable covers the earlier ones
+            await(last);
+        }
+        return updated;
+    }
+
+    private CompletableFuture<Void> apply(Stripe pStripe, Product pProduct) {
+        // Encoded first: a product the log refuses must not change the table
+        byte[] record = WriteAheadLog.put(pProduct);
+        Product previous = pStripe.put(pProduct.getId(), pProduct);
+        if (previous != null) {
+            unindex(previous);
+        }
+        index(pProduct);
+        return wal.append(record);
+    }
+
+    private void index(Product pProduct) {
+        if (pProduct.getCategory() != null) {
+            categoryIndex.computeIfAbsent(pProduct.getCategory(), k -> new ConcurrentSkipListSet<>())
+                    .add(pProduct.getId());
+        }
+        priceIndex.add(new PriceKey(pProduct.getPriceCents(), pProduct.getId()));
+    }
+
+    private void unindex(Product pProduct) {
+        if (pProduct.getCategory() != null) {
+            NavigableSet<Long> ids = categoryIndex.get(pProduct.getCategory());
+            if (ids != null) {
+                ids.remove(pProduct.getId());
+            }
+        }
+        priceIndex.remove(new PriceKey(pProduct.getPriceCents(), pProduct.getId()));
+    }
+
+    private Product read(long pId) {
+        Stripe stripe = stripe(pId);
+        long stamp = stripe.lock.tryOptimisticRead();
+        Product product = stripe.get(pId);
+        if (!stripe.lock.validate(stamp)) {
+            stamp = stripe.lock.readLock();
+            try {
+                product = stripe.get(pId);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return product;
+    }
+
+    private static boolean matches(Product pProduct, String pLowerName, long pMinCents, long pMaxCents) {
+        if (pLowerName != null
+                && (pProduct.getName() == null || !pProduct.getName().toLowerCase(Locale.ROOT).contains(pLowerName))) {
+            return false;
+        }
+        return pProduct.getPriceCents() >= pMinCents && pProduct.getPriceCents() <= pMaxCents;
+    }
+
+    private static List<Product> sortedCopies(List<Product> pProducts) {
+        List<Product> copies = new ArrayList<>(pProducts.size());
+        for (Product product : pProducts) {
+            copies.add(new Product(product));
+        }
+        copies.sort(BY_ID);
+        return copies;
+    }
+
+    private Stripe stripe(long pId) {
+        return stripes[(int) (mix(pId) >>> 40) & (stripes.length - 1)];
+    }
+
+    private static long mix(long pValue) {
+        long z = pValue * 0x9E3779B97F4A7C15L;
+        return z ^ (z >>> 29);
+    }
+
+    private static void await(CompletableFuture<Void> pDurable) {
+        try {
+            pDurable.join();
+        } catch (CompletionException e) {
+            throw new DataAccessResourceFailureException("Write-ahead log write failed", e.getCause());
+        }
+    }
+
+    // ---- Recovery, snapshots and compaction
+
+    private static Path snapshotPath(Path pDirectory, long pSegment) {
+        return pDirectory.resolve(String.format("snapshot-%012d.dat", pSegment));
+    }
+
+    /**
+     * Loads the latest snapshot and replays the newer segments.
+     *
+     * @return the number of the segment new writes go to
+     */
+    private long recover() throws IOException {
+        long started = System.nanoTime();
+        long snapshot = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    Files.delete(path);
+                } else if (name.matches("snapshot-\\d+\\.dat")) {
+                    snapshot = Math.max(snapshot, Long.parseLong(name.substring(9, name.length() - 4)));
+                }
+            }
+        }
+        long loaded = 0;
+        if (snapshot >= 0) {
+            Path path = snapshotPath(directory, snapshot);
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+                loaded = WriteAheadLog.read(in, this::replay);
+            }
+            if (loaded < Files.size(path)) {
+                throw new IOException("Snapshot " + path + " is corrupt at byte " + loaded);
+            }
+        }
+        List<Long> segments = WriteAheadLog.segments(directory);
+        long replayed = 0;
+        long next = Math.max(snapshot, 0);
+        for (int i = 0; i < segments.size(); i++) {
+            long segment = segments.get(i);
+            Path path = WriteAheadLog.segmentPath(directory, segment);
+            if (segment < snapshot) {
+                Files.delete(path);
+                continue;
+            }
+            long size = Files.size(path);
+            long valid;
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+                valid = WriteAheadLog.read(in, this::replay);
+            }
+            if (valid < size) {
+                if (i < segments.size() - 1) {
+                    throw new IOException("Log segment " + path + " is corrupt at byte " + valid);
+                }
+                LOG.warn("Truncating torn tail of {} at byte {} of {}", path, valid, size);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid);
+                }
+            }
+            replayed += valid;
+            next = segment + 1;
+        }
+        LOG.info("Loaded {} products (snapshot {} bytes, log {} bytes) in {} ms", size(), loaded, replayed,
+                (System.nanoTime() - started) / 1_000_000);
+        return next;
+    }
+
+    private void replay(WriteAheadLog.Record pRecord) {
+        switch (pRecord.type()) {
+            case WriteAheadLog.PUT -> {
+                Product product = pRecord.product();
+                Product previous = stripe(product.getId()).put(product.getId(), product);
+                if (previous != null) {
+                    unindex(previous);
+                }
+                index(product);
+                nextId.accumulateAndGet(product.getId(), Math::max);
+            }
+            case WriteAheadLog.DELETE -> {
+                Product previous = stripe(pRecord.product().getId()).remove(pRecord.product().getId());
+                if (previous != null) {
+                    unindex(previous);
+                }
+            }
+            default -> {
+                for (Stripe stripe : stripes) {
+                    stripe.clear();
+                }
+                categoryIndex.clear();
+                priceIndex.clear();
+            }
+        }
+    }
+
+    private void maybeSnapshot() {
+        long bytes = wal.getSegmentBytes();
+        boolean due = bytes > 0 && System.nanoTime() - lastSnapshotNanos >= snapshotIntervalMillis * 1_000_000;
+        if (bytes >= compactBytes || due) {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Product snapshot failed; the log keeps growing until the next attempt", e);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of all products and deletes the log segments it covers. The
+     * log is rotated first, so every write not in an older segment is in the new
+     * one; writes that land in both the snapshot and the new segment are replayed
+     * harmlessly.
+     *
+     * @throws IOException
+     *             if the snapshot cannot be written
+     */
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long started = System.nanoTime();
+            long segment = wal.rotate();
+            Path tmp = directory.resolve("snapshot-" + segment + ".tmp");
+            long count = 0;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                List<Product> products = new ArrayList<>();
+                for (Stripe stripe : stripes) {
+                    products.clear();
+                    long stamp = stripe.lock.readLock();
+                    try {
+                        stripe.collect(products);
+                    } finally {
+                        stripe.lock.unlockRead(stamp);
+                    }
+                    for (Product product : products) {
+                        out.write(WriteAheadLog.put(product));
+                    }
+                    count += products.size();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmp, snapshotPath(directory, segment), StandardCopyOption.ATOMIC_MOVE);
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path path : (Iterable<Path>) files::iterator) {
+                    String name = path.getFileName().toString();
+                    boolean oldSnapshot = name.matches("snapshot-\\d+\\.dat")
+                            && Long.parseLong(name.substring(9, name.length() - 4)) < segment;
+                    boolean oldSegment = name.matches("wal-\\d+\\.log")
+                            && Long.parseLong(name.substring(4, name.length() - 4)) < segment;
+                    if (oldSnapshot || oldSegment) {
+                        Files.delete(path);
+                    }
+                }
+            }
+            lastSnapshotNanos = System.nanoTime();
+            snapshots.increment();
+            LOG.debug("Wrote snapshot {} of {} products in {} ms", segment, count,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Gets the number of stored products.
+     *
+     * @return the product count
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Takes a final snapshot so the next start replays no log, then closes the log.
+     *
+     * @throws IOException
+     *             if the log cannot be closed
+     */
+    @Override
+    public void destroy() throws IOException {
+        maintenance.shutdownNow();
+        try {
+            if (wal.getSegmentBytes() > 0) {
+                snapshot();
+            }
+        } finally {
+            wal.close();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        Gauge.builder("product.memory.size", this, MemoryProductStore::size).register(pRegistry);
+        FunctionCounter.builder("product.memory.wal.syncs", wal, WriteAheadLog::getSyncs)
+                .description("Group commits of the write-ahead log").register(pRegistry);
+        Gauge.builder("product.memory.wal.segment.bytes", wal, WriteAheadLog::getSegmentBytes)
+                .description("Size of the current log segment").register(pRegistry);
+        FunctionCounter.builder("product.memory.snapshots", snapshots, LongAdder::sum).register(pRegistry);
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryProductStore[" + Objects.toString(directory) + "]";
+    }
+}
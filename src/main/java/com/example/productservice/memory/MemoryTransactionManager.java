@@ -0,0 +1,62 @@
+package com.example.productservice.memory;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transaction manager for the in-memory product store, so the service's
+ * {@code @Transactional} methods and transaction-bound event listeners work as
+ * with JPA. It only demarcates transactions: each store write is atomic and
+ * durable on its own, and a rollback does not undo the writes made before it.
+ */
+public class MemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Marker for a transaction begun by this manager.
+     */
+    private static final Object TRANSACTION = new Object();
+
+    @Override
+    protected Object doGetTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive() ? TRANSACTION : new Object();
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object pTransaction) {
+        return pTransaction == TRANSACTION;
+    }
+
+    @Override
+    protected void doBegin(Object pTransaction, TransactionDefinition pDefinition) {
+        // Nothing to bind: the store has no connection or session
+    }
+
+    @Override
+    protected Object doSuspend(Object pTransaction) {
+        return TRANSACTION;
+    }
+
+    @Override
+    protected void doResume(Object pTransaction, Object pSuspendedResources) {
+        // Nothing was bound, so nothing to restore
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus pStatus) {
+        // Writes were made durable as they happened
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus pStatus) {
+        // Writes cannot be undone; see the class comment
+    }
+
+    @Override
+    protected void doSetRollbackOnly(DefaultTransactionStatus pStatus) {
+        // An inner rollback has nothing to mark: the outer commit is a no-op as well
+    }
+}
@@ -0,0 +1,455 @@
+package com.example.productservice.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.productservice.entity.Product;
+
+/**
+ * Append-only log of product writes, split into numbered segment files
+ * ({@code wal-<n>.log}). Each record carries the full state of one product (or
+ * its deletion), so replaying a record twice is harmless.
+ *
+ * <p>
+ * Appends are queued and written by a single flusher thread. It takes every
+ * record queued while the previous write was in progress and syncs them with
+ * one {@code fsync}, so concurrent writers share the cost of a sync (group
+ * commit). A writer is durable once the future returned by
+ * {@link #append(byte[])} completes.
+ *
+ * <p>
+ * Record layout: payload length (int), CRC32 of the payload (int), payload. A
+ * torn record at the end of the last segment (a crash during a write) fails its
+ * length or checksum and is cut off on recovery.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    /** Record type: the product's full state. */
+    static final byte PUT = 1;
+    /** Record type: the product was deleted. */
+    static final byte DELETE = 2;
+    /** Record type: every product was deleted. */
+    static final byte CLEAR = 3;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int MAX_BATCH = 4096;
+
+    /**
+     * A queued record and the future completed once it is durable.
+     */
+    private record Pending(byte[] record, CompletableFuture<Void> durable) {
+    }
+
+    /**
+     * Queued by {@link #close()} to stop the flusher after the records before it.
+     */
+    private static final Pending END = new Pending(null, null);
+
+    // CHECKSTYLE:OFF - log fields use standard naming
+    private final Path directory;
+    private final boolean fsync;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock channelLock = new ReentrantLock();
+    private final Thread flusher;
+    private FileChannel channel;
+    private long segment;
+    private volatile long segmentBytes;
+    private volatile long syncs;
+    private volatile IOException failure;
+    private volatile boolean closed;
+    // CHECKSTYLE:ON
+
+    /**
+     * Opens a new segment after the existing ones and starts the flusher.
+     *
+     * @param pDirectory
+     *            the data directory
+     * @param pSegment
+     *            the number of the segment to create
+     * @param pFsync
+     *            whether writes are forced to the device before they complete
+     * @throws IOException
+     *             if the segment cannot be created
+     */
+    public WriteAheadLog(Path pDirectory, long pSegment, boolean pFsync) throws IOException {
+        this.directory = pDirectory;
+        this.fsync = pFsync;
+        open(pSegment);
+        this.flusher = new Thread(this::flushLoop, "product-wal");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Gets the file of a segment.
+     *
+     * @param pDirectory
+     *            the data directory
+     * @param pSegment
+     *            the segment number
+     * @return the segment path
+     */
+    public static Path segmentPath(Path pDirectory, long pSegment) {
+        return pDirectory.resolve(String.format("wal-%012d.log", pSegment));
+    }
+
+    /**
+     * Queues a record for the next group commit.
+     *
+     * @param pRecord
+     *            an encoded record
+     * @return a future completed when the record is durable, or failed if the log
+     *         cannot be written
+     */
+    public CompletableFuture<Void> append(byte[] pRecord) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        IOException failed = failure;
+        if (failed != null || closed) {
+            durable.completeExceptionally(failed != null ? failed : new IOException("Write-ahead log is closed"));
+            return durable;
+        }
+        queue.add(new Pending(pRecord, durable));
+        return durable;
+    }
+
+    /**
+     * Starts a new segment. Records queued from now on, and those not yet written,
+     * go to the new segment; every older segment is complete once this returns.
+     *
+     * @return the number of the new segment
+     * @throws IOException
+     *             if the new segment cannot be created
+     */
+    public long rotate() throws IOException {
+        channelLock.lock();
+        try {
+            channel.force(false);
+            channel.close();
+            open(segment + 1);
+            return segment;
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of bytes in the current segment.
+     *
+     * @return the segment size
+     */
+    public long getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    /**
+     * Gets the number of group commits so far.
+     *
+     * @return the sync count
+     */
+    public long getSyncs() {
+        return syncs;
+    }
+
+    private void open(long pSegment) throws IOException {
+        this.segment = pSegment;
+        this.channel = FileChannel.open(segmentPath(directory, pSegment), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.segmentBytes = channel.size();
+    }
+
+    private void flushLoop() {
+        List<Pending> batch = new ArrayList<>();
+        boolean end = false;
+        while (!end) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            int stop = batch.indexOf(END);
+            if (stop >= 0) {
+                IOException refused = new IOException("Write-ahead log is closed");
+                for (Pending late : batch.subList(stop + 1, batch.size())) {
+                    late.durable().completeExceptionally(refused);
+                }
+                batch.subList(stop, batch.size()).clear();
+                end = true;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Pending> pBatch) {
+        if (pBatch.isEmpty()) {
+            return;
+        }
+        ByteBuffer[] buffers = new ByteBuffer[pBatch.size()];
+        long length = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.wrap(pBatch.get(i).record());
+            length += buffers[i].remaining();
+        }
+        channelLock.lock();
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            long written = 0;
+            while (written < length) {
+                written += channel.write(buffers);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            segmentBytes += length;
+            syncs++;
+        } catch (IOException e) {
+            if (failure == null) {
+                LOG.error("Write-ahead log failed; further writes are refused", e);
+                failure = e;
+            }
+            for (Pending pending : pBatch) {
+                pending.durable().completeExceptionally(e);
+            }
+            return;
+        } finally {
+            channelLock.unlock();
+        }
+        for (Pending pending : pBatch) {
+            pending.durable().complete(null);
+        }
+    }
+
+    /**
+     * Writes the queued records and closes the current segment.
+     *
+     * @throws IOException
+     *             if the segment cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        queue.add(END);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException refused = new IOException("Write-ahead log is closed");
+        for (Pending pending = queue.poll(); pending != null; pending = queue.poll()) {
+            if (pending != END) {
+                pending.durable().completeExceptionally(refused);
+            }
+        }
+        channelLock.lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(false);
+                channel.close();
+            }
+        } finally {
+            channelLock.unlock();
+        }
+    }
+
+    /**
+     * Encodes the full state of a product.
+     *
+     * @param pProduct
+     *            the product
+     * @return the framed record
+     * @throws IllegalArgumentException
+     *             if the name or category is longer than
+     *             {@link Product#MAX_TEXT_LENGTH}
+     */
+    public static byte[] put(Product pProduct) {
+        return frame(out -> {
+            out.writeByte(PUT);
+            out.writeLong(pProduct.getId());
+            writeString(out, pProduct.getName());
+            writeString(out, pProduct.getCategory());
+            out.writeLong(pProduct.getPriceCents());
+            out.writeInt(pProduct.getStockCount());
+        });
+    }
+
+    /**
+     * Encodes the deletion of a product.
+     *
+     * @param pId
+     *            the product ID
+     * @return the framed record
+     */
+    public static byte[] delete(long pId) {
+        return frame(out -> {
+            out.writeByte(DELETE);
+            out.writeLong(pId);
+        });
+    }
+
+    /**
+     * Encodes the deletion of every product.
+     *
+     * @return the framed record
+     */
+    public static byte[] clear() {
+        return frame(out -> out.writeByte(CLEAR));
+    }
+
+    /**
+     * Reads framed records until the end of the stream or the first torn or corrupt
+     * record.
+     *
+     * @param pIn
+     *            the stream positioned at a record
+     * @param pRecords
+     *            receives each decoded record: a product for {@link #PUT}, a
+     *            product with only an ID for {@link #DELETE}, null for
+     *            {@link #CLEAR}
+     * @return the number of bytes of intact records read
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    public static long read(InputStream pIn, Consumer<Record> pRecords) throws IOException {
+        DataInputStream in = new DataInputStream(pIn);
+        long valid = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            int length;
+            int checksum;
+            byte[] payload;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    return valid;
+                }
+                payload = in.readNBytes(length);
+            } catch (EOFException e) {
+                return valid;
+            }
+            crc.reset();
+            crc.update(payload);
+            if (payload.length < length || (int) crc.getValue() != checksum) {
+                return valid;
+            }
+            pRecords.accept(decode(payload));
+            valid += HEADER_BYTES + length;
+        }
+    }
+
+    /**
+     * A decoded log record.
+     *
+     * @param type
+     *            {@link #PUT}, {@link #DELETE} or {@link #CLEAR}
+     * @param product
+     *            the product state for {@link #PUT}, a product with only its ID for
+     *            {@link #DELETE}, null for {@link #CLEAR}
+     */
+    public record Record(byte type, Product product) {
+    }
+
+    private static Record decode(byte[] pPayload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(pPayload));
+        byte type = in.readByte();
+        if (type == CLEAR) {
+            return new Record(type, null);
+        }
+        Product product = new Product();
+        product.setId(in.readLong());
+        if (type == PUT) {
+            product.setName(readString(in));
+            product.setCategory(readString(in));
+            product.setPriceCents(in.readLong());
+            product.setStockCount(in.readInt());
+        }
+        return new Record(type, product);
+    }
+
+    /**
+     * Writes the fields of a record.
+     */
+    @FunctionalInterface
+    private interface Body {
+        void write(DataOutputStream pOut) throws IOException;
+    }
+
+    private static byte[] frame(Body pBody) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(64);
+            pBody.write(new DataOutputStream(payload));
+            byte[] bytes = payload.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            ByteBuffer framed = ByteBuffer.allocate(HEADER_BYTES + bytes.length);
+            framed.putInt(bytes.length).putInt((int) crc.getValue()).put(bytes);
+            return framed.array();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream pOut, String pValue) throws IOException {
+        if (pValue != null && pValue.length() > Product.MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Text longer than " + Product.MAX_TEXT_LENGTH + " characters: " + pValue.length());
+        }
+        pOut.writeBoolean(pValue != null);
+        if (pValue != null) {
+            pOut.writeUTF(pValue);
+        }
+    }
+
+    private static String readString(DataInputStream pIn) throws IOException {
+        return pIn.readBoolean() ? pIn.readUTF() : null;
+    }
+
+    /**
+     * Lists the segment numbers present in a directory, in ascending order.
+     *
+     * @param pDirectory
+     *            the data directory
+     * @return the segment numbers
+     * @throws IOException
+     *             if the directory cannot be listed
+     */
+    public static List<Long> segments(Path pDirectory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(pDirectory)) {
+            files.map(path -> path.getFileName().toString()).filter(name -> name.matches("wal-\\d+\\.log"))
+                    .forEach(name -> segments.add(Long.parseLong(name.substring(4, name.length() - 4))));
+        }
+        segments.sort(null);
+        return segments;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productservice.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+
+/**
+ * Queries of {@link ProductRepository} that select only some columns. The
+ * selection is only known per request, so these are built at runtime by
+ * {@link ProductProjectionsImpl} instead of being declared as queries.
+ */
+public interface ProductProjections {
+
+    /**
+     * Finds all products, selecting only the given fields and the ID.
+     *
+     * @param pFields
+     *            the fields to select
+     * @return all products ordered by ID, with the other fields unset
+     */
+    List<Product> findAllProjected(Set<ProductField> pFields);
+
+    /**
+     * Finds products matching multiple optional criteria, selecting only the given
+     * fields and the ID.
+     *
+     * @param pName
+     *            the name pattern to search for (can be null)
+     * @param pCategory
+     *            the category to filter by (can be null)
+     * @param pMinCents
+     *            the minimum price in minor units (inclusive, can be null)
+     * @param pMaxCents
+     *            the maximum price in minor units (inclusive, can be null)
+     * @param pFields
+     *            the fields to select
+     * @return the matching products ordered by ID, with the other fields unset
+     */
+    List<Product> searchProductsProjected(String pName, String pCategory, Long pMinCents, Long pMaxCents,
+            Set<ProductField> pFields);
+}
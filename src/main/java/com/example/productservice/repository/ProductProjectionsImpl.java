@@ -0,0 +1,80 @@
+package com.example.productservice.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Implements the column-selecting queries of {@link ProductRepository} as
+ * criteria tuple queries. Rows come back as plain values rather than managed
+ * entities, so the persistence context neither hydrates nor tracks them.
+ */
+public class ProductProjectionsImpl implements ProductProjections {
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor with dependency injection.
+     *
+     * @param pEntityManager
+     *            the entity manager
+     */
+    public ProductProjectionsImpl(EntityManager pEntityManager) {
+        this.entityManager = pEntityManager;
+    }
+
+    @Override
+    public List<Product> findAllProjected(Set<ProductField> pFields) {
+        return searchProductsProjected(null, null, null, null, pFields);
+    }
+
+    @Override
+    public List<Product> searchProductsProjected(String pName, String pCategory, Long pMinCents, Long pMaxCents,
+            Set<ProductField> pFields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Product> product = query.from(Product.class);
+        List<ProductField> fields = new ArrayList<>(ProductField.withId(pFields));
+        List<Selection<?>> columns = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            columns.add(product.get(field.getAttribute()));
+        }
+        List<Predicate> criteria = new ArrayList<>();
+        if (pName != null) {
+            criteria.add(builder.like(builder.lower(product.get("name")), "%" + pName.toLowerCase(Locale.ROOT) + "%"));
+        }
+        if (pCategory != null) {
+            criteria.add(builder.equal(product.get("category"), pCategory));
+        }
+        if (pMinCents != null) {
+            criteria.add(builder.ge(product.get("priceCents"), pMinCents));
+        }
+        if (pMaxCents != null) {
+            criteria.add(builder.le(product.get("priceCents"), pMaxCents));
+        }
+        query.multiselect(columns).where(criteria.toArray(new Predicate[0])).orderBy(builder.asc(product.get("id")));
+
+        List<Tuple> rows = entityManager.createQuery(query).getResultList();
+        List<Product> products = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Product projected = new Product();
+            for (int i = 0; i < fields.size(); i++) {
+                fields.get(i).set(projected, row.get(i));
+            }
+            products.add(projected);
+        }
+        return products;
+    }
+}
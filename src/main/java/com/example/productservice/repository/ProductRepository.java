@@ -1,20 +1,76 @@
 package com.example.productservice.repository;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.productservice.entity.Product;
 
 /**
  * Repository interface for Product entity. Extends JpaRepository to provide
- * CRUD operations.
+ * CRUD operations, and is the default {@link ProductStore}. Queries selecting
+ * only some columns come from {@link ProductProjections}.
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStore, ProductProjections {
+
+    // The CRUD methods below are redeclared so calls resolve unambiguously
+    // between the declarations inherited from CrudRepository and ProductStore.
+
+    /**
+     * Saves a product.
+     *
+     * @param <S>
+     *            the product type
+     * @param pProduct
+     *            the product to save
+     * @return the saved product
+     */
+    @Override
+    <S extends Product> S save(S pProduct);
+
+    /**
+     * Finds a product by ID.
+     *
+     * @param pId
+     *            the product ID
+     * @return the product, if present
+     */
+    @Override
+    Optional<Product> findById(Long pId);
+
+    /**
+     * Checks whether a product exists.
+     *
+     * @param pId
+     *            the product ID
+     * @return true if it exists
+     */
+    @Override
+    boolean existsById(Long pId);
+
+    /**
+     * Deletes a product by ID.
+     *
+     * @param pId
+     *            the product ID
+     */
+    @Override
+    void deleteById(Long pId);
+
+    /**
+     * Deletes all products.
+     */
+    @Override
+    void deleteAll();
 
     /**
      * Finds products by category.
@@ -35,16 +91,16 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByNameContainingIgnoreCase(String pName);
 
     /**
-     * Finds products within a price range.
+     * Finds products within a price range given in minor units.
      *
-     * @param pMinPrice
+     * @param pMinCents
      *            the minimum price (inclusive)
-     * @param pMaxPrice
+     * @param pMaxCents
      *            the maximum price (inclusive)
      * @return list of products within the price range
      */
-    @Query("SELECT p FROM Product p WHERE p.price >= :minPrice AND p.price <= :maxPrice")
-    List<Product> findByPriceBetween(@Param("minPrice") Double pMinPrice, @Param("maxPrice") Double pMaxPrice);
+    @Query("SELECT p FROM Product p WHERE p.priceCents >= :minCents AND p.priceCents <= :maxCents")
+    List<Product> findByPriceCentsBetween(@Param("minCents") long pMinCents, @Param("maxCents") long pMaxCents);
 
     /**
      * Finds products matching multiple criteria: name pattern, category, and price
@@ -54,15 +110,93 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      *            the name pattern to search for (can be null)
      * @param pCategory
      *            the category to filter by (can be null)
-     * @param pMinPrice
-     *            the minimum price (inclusive, can be null)
-     * @param pMaxPrice
-     *            the maximum price (inclusive, can be null)
+     * @param pMinCents
+     *            the minimum price in minor units (inclusive, can be null)
+     * @param pMaxCents
+     *            the maximum price in minor units (inclusive, can be null)
      * @return list of products matching all specified criteria
      */
     @Query("SELECT p FROM Product p WHERE " + "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) "
-            + "AND (:category IS NULL OR p.category = :category) " + "AND (:minPrice IS NULL OR p.price >= :minPrice) "
-            + "AND (:maxPrice IS NULL OR p.price <= :maxPrice)")
+            + "AND (:category IS NULL OR p.category = :category) "
+            + "AND (:minCents IS NULL OR p.priceCents >= :minCents) "
+            + "AND (:maxCents IS NULL OR p.priceCents <= :maxCents)")
+    List<Product> searchProducts(@Param("name") String pName, @Param("category") String pCategory,
+            @Param("minCents") Long pMinCents, @Param("maxCents") Long pMaxCents);
+
+    /**
+     * Finds products matching multiple optional criteria, ordered by ID, with the
+     * limit applied by the database.
+     *
+     * @param pName
+     *            the name pattern to search for (can be null)
+     * @param pCategory
+     *            the category to filter by (can be null)
+     * @param pMinCents
+     *            the minimum price in minor units (inclusive, can be null)
+     * @param pMaxCents
+     *            the maximum price in minor units (inclusive, can be null)
+     * @param pLimit
+     *            maximum number of results
+     * @return the first matching products by ID
+     */
+    @Query("SELECT p FROM Product p WHERE " + "(:name IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))) "
+            + "AND (:category IS NULL OR p.category = :category) "
+            + "AND (:minCents IS NULL OR p.priceCents >= :minCents) "
+            + "AND (:maxCents IS NULL OR p.priceCents <= :maxCents) ORDER BY p.id")
     List<Product> searchProducts(@Param("name") String pName, @Param("category") String pCategory,
-            @Param("minPrice") Double pMinPrice, @Param("maxPrice") Double pMaxPrice);
+            @Param("minCents") Long pMinCents, @Param("maxCents") Long pMaxCents, Limit pLimit);
+
+    @Override
+    default List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents, int pLimit) {
+        return searchProducts(pName, pCategory, pMinCents, pMaxCents,
+                pLimit > 0 ? Limit.of(pLimit) : Limit.unlimited());
+    }
+
+    /**
+     * Lists the IDs of all products.
+     *
+     * @return all product IDs
+     */
+    @Override
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    /**
+     * Finds the lowest and highest ID of a category in one query.
+     *
+     * @param pCategory
+     *            the category
+     * @return a single row of lowest and highest ID, both null if the category is
+     *         empty
+     */
+    @Query("SELECT MIN(p.id), MAX(p.id) FROM Product p WHERE p.category = :category")
+    List<Object[]> findIdBoundsByCategory(@Param("category") String pCategory);
+
+    @Override
+    default long[] findIdRangeByCategory(String pCategory) {
+        List<Object[]> rows = findIdBoundsByCategory(pCategory);
+        if (rows.isEmpty() || rows.get(0)[0] == null) {
+            return null;
+        }
+        long[] range = new long[2];
+        range[0] = ((Number) rows.get(0)[0]).longValue();
+        range[1] = ((Number) rows.get(0)[1]).longValue();
+        return range;
+    }
+
+    /**
+     * Multiplies prices in one {@code UPDATE} that bypasses the persistence
+     * context; each call commits on its own so a chunk holds its row locks only for
+     * the duration of the statement. The factor is cast explicitly because H2 would
+     * otherwise type it after {@code price_cents} and truncate it.
+     */
+    @Override
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE products SET price_cents = ROUND(price_cents * CAST(:factor AS DECIMAL(19, 9))) "
+            + "WHERE category = :category AND price_cents BETWEEN :minCents AND :maxCents "
+            + "AND id BETWEEN :fromId AND :toId", nativeQuery = true)
+    int adjustPrices(@Param("category") String pCategory, @Param("minCents") long pMinCents,
+            @Param("maxCents") long pMaxCents, @Param("factor") BigDecimal pFactor, @Param("fromId") long pFromId,
+            @Param("toId") long pToId);
 }
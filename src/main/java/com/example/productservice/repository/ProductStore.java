@@ -0,0 +1,202 @@
+package com.example.productservice.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+
+/**
+ * Storage operations used by the service layer. The JPA
+ * {@link ProductRepository} implements it directly; alternative engines such as
+ * the sharded store provide their own implementation and replace it.
+ */
+public interface ProductStore {
+
+    /**
+     * Finds all products.
+     *
+     * @return all products
+     */
+    List<Product> findAll();
+
+    /**
+     * Finds all products, reading only the selected fields and the ID.
+     *
+     * @param pFields
+     *            the fields to read
+     * @return all products ordered by ID, with the other fields unset
+     */
+    List<Product> findAllProjected(Set<ProductField> pFields);
+
+    /**
+     * Lists the IDs of all products without loading the products.
+     *
+     * @return all product IDs
+     */
+    List<Long> findAllIds();
+
+    /**
+     * Finds a product by ID.
+     *
+     * @param pId
+     *            the product ID
+     * @return the product, if present
+     */
+    Optional<Product> findById(Long pId);
+
+    /**
+     * Finds the products with the given IDs; missing IDs are skipped.
+     *
+     * @param pIds
+     *            the product IDs
+     * @return the products found, in no particular order
+     */
+    List<Product> findAllById(Iterable<Long> pIds);
+
+    /**
+     * Inserts a new product or updates an existing one.
+     *
+     * @param <S>
+     *            the product type
+     * @param pProduct
+     *            the product to save
+     * @return the saved product, with its ID assigned
+     */
+    <S extends Product> S save(S pProduct);
+
+    /**
+     * Checks whether a product exists.
+     *
+     * @param pId
+     *            the product ID
+     * @return true if it exists
+     */
+    boolean existsById(Long pId);
+
+    /**
+     * Deletes a product; does nothing if it does not exist.
+     *
+     * @param pId
+     *            the product ID
+     */
+    void deleteById(Long pId);
+
+    /**
+     * Deletes all products.
+     */
+    void deleteAll();
+
+    /**
+     * Finds products by category.
+     *
+     * @param pCategory
+     *            the category to search for
+     * @return list of products in the specified category
+     */
+    List<Product> findByCategory(String pCategory);
+
+    /**
+     * Finds products by name containing the given string (case-insensitive).
+     *
+     * @param pName
+     *            the name pattern to search for
+     * @return list of products matching the name pattern
+     */
+    List<Product> findByNameContainingIgnoreCase(String pName);
+
+    /**
+     * Finds products within a price range given in minor units.
+     *
+     * @param pMinCents
+     *            the minimum price (inclusive)
+     * @param pMaxCents
+     *            the maximum price (inclusive)
+     * @return list of products within the price range
+     */
+    List<Product> findByPriceCentsBetween(long pMinCents, long pMaxCents);
+
+    /**
+     * Finds products matching multiple optional criteria.
+     *
+     * @param pName
+     *            the name pattern to search for (can be null)
+     * @param pCategory
+     *            the category to filter by (can be null)
+     * @param pMinCents
+     *            the minimum price in minor units (inclusive, can be null)
+     * @param pMaxCents
+     *            the maximum price in minor units (inclusive, can be null)
+     * @return list of products matching all specified criteria
+     */
+    List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents);
+
+    /**
+     * Finds products matching multiple optional criteria, at most a given number,
+     * ordered by ID.
+     *
+     * @param pName
+     *            the name pattern to search for (can be null)
+     * @param pCategory
+     *            the category to filter by (can be null)
+     * @param pMinCents
+     *            the minimum price in minor units (inclusive, can be null)
+     * @param pMaxCents
+     *            the maximum price in minor units (inclusive, can be null)
+     * @param pLimit
+     *            maximum number of results, or 0 for no limit
+     * @return the first matching products by ID
+     */
+    List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents, int pLimit);
+
+    /**
+     * Searches like {@link #searchProducts(String, String, Long, Long)}, reading
+     * only the selected fields and the ID.
+     *
+     * @param pName
+     *            the name pattern to search for (can be null)
+     * @param pCategory
+     *            the category to filter by (can be null)
+     * @param pMinCents
+     *            the minimum price in minor units (inclusive, can be null)
+     * @param pMaxCents
+     *            the maximum price in minor units (inclusive, can be null)
+     * @param pFields
+     *            the fields to read
+     * @return the matching products ordered by ID, with the other fields unset
+     */
+    List<Product> searchProductsProjected(String pName, String pCategory, Long pMinCents, Long pMaxCents,
+            Set<ProductField> pFields);
+
+    /**
+     * Finds the lowest and highest ID of the products in a category.
+     *
+     * @param pCategory
+     *            the category
+     * @return the lowest and highest ID, or null if the category is empty
+     */
+    long[] findIdRangeByCategory(String pCategory);
+
+    /**
+     * Multiplies the prices of a category's products within a price range and an ID
+     * range by a factor, rounding to whole minor units, in one set-based statement
+     * per database.
+     *
+     * @param pCategory
+     *            the category
+     * @param pMinCents
+     *            the minimum current price in minor units (inclusive)
+     * @param pMaxCents
+     *            the maximum current price in minor units (inclusive)
+     * @param pFactor
+     *            the price factor, e.g. 1.05 for +5%
+     * @param pFromId
+     *            the lowest ID to update (inclusive)
+     * @param pToId
+     *            the highest ID to update (inclusive)
+     * @return the number of products updated
+     */
+    int adjustPrices(String pCategory, long pMinCents, long pMaxCents, BigDecimal pFactor, long pFromId, long pToId);
+}
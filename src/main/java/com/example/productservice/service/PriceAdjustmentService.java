@@ -0,0 +1,203 @@
+package com.example.productservice.service;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.example.productservice.bulkhead.WorkloadClass;
+import com.example.productservice.bulkhead.WorkloadContext;
+import com.example.productservice.dto.PriceAdjustmentJob;
+import com.example.productservice.dto.PriceAdjustmentRequest;
+import com.example.productservice.entity.Money;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.repository.ProductStore;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Applies percentage price changes to whole categories with set-based updates
+ * instead of loading and saving each product. A job walks the category's ID
+ * range in chunks of {@code product.price-adjustment.chunk-size} IDs, one
+ * committed statement per chunk, so no lock is held for the whole category.
+ * Jobs run one at a time on a background worker and report their progress.
+ *
+ * <p>
+ * The updates bypass the entity layer, so no per-product change events are
+ * published. Once a job ends, successfully or not, a
+ * {@link ProductsBulkUpdatedEvent} tells caches and indexes to drop or reload
+ * the category. Until then reads may serve the previous prices. A concurrent
+ * full update of a product through the API may overwrite its adjusted price
+ * with the price it loaded before the chunk ran.
+ */
+@Service
+public class PriceAdjustmentService implements DisposableBean, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PriceAdjustmentService.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ProductStore productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long chunkSize;
+    private final int retainedJobs;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong nextJobId = new AtomicLong();
+    private final Map<Long, PriceAdjustmentJob> jobs;
+    private final LongAdder updatedRows = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection.
+     *
+     * @param pProductRepository
+     *            the product store
+     * @param pEventPublisher
+     *            publisher for the end-of-job event
+     * @param pChunkSize
+     *            number of IDs each update statement covers
+     * @param pMaxQueuedJobs
+     *            number of jobs that may wait for the worker
+     * @param pRetainedJobs
+     *            number of jobs whose status is kept for the status endpoint
+     */
+    @Autowired
+    public PriceAdjustmentService(ProductStore pProductRepository, ApplicationEventPublisher pEventPublisher,
+            @Value("${product.price-adjustment.chunk-size:10000}") long pChunkSize,
+            @Value("${product.price-adjustment.max-queued-jobs:4}") int pMaxQueuedJobs,
+            @Value("${product.price-adjustment.retained-jobs:100}") int pRetainedJobs) {
+        this.productRepository = pProductRepository;
+        this.eventPublisher = pEventPublisher;
+        this.chunkSize = Math.max(1, pChunkSize);
+        this.retainedJobs = Math.max(1, pRetainedJobs);
+        this.jobs = new LinkedHashMap<>();
+        this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, pMaxQueuedJobs)), r -> {
+                    Thread thread = new Thread(r, "price-adjustment");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues a price adjustment.
+     *
+     * @param pRequest
+     *            the validated request
+     * @return the queued job, or null if too many jobs are already waiting
+     */
+    public PriceAdjustmentJob submit(PriceAdjustmentRequest pRequest) {
+        PriceAdjustmentJob job = new PriceAdjustmentJob(nextJobId.incrementAndGet(), pRequest.getCategory(),
+                pRequest.getPercent());
+        BigDecimal factor = BigDecimal.ONE.add(pRequest.getPercent().divide(HUNDRED, MathContext.DECIMAL64));
+        // The lower bound also skips products without a price
+        long minCents = pRequest.getMinPrice() == null ? 0 : Money.toMinorUnits(pRequest.getMinPrice());
+        long maxCents = pRequest.getMaxPrice() == null ? Long.MAX_VALUE : Money.toMinorUnits(pRequest.getMaxPrice());
+        try {
+            WorkloadClass workload = WorkloadContext.current();
+            executor.execute(() -> {
+                // Chunks take their connections from the share of the submitting request
+                WorkloadContext.set(workload);
+                try {
+                    run(job, factor, minCents, maxCents);
+                } finally {
+                    WorkloadContext.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            if (jobs.size() > retainedJobs) {
+                jobs.remove(jobs.keySet().iterator().next());
+            }
+        }
+        return job;
+    }
+
+    /**
+     * Gets the status of a job.
+     *
+     * @param pJobId
+     *            the job ID
+     * @return the job, or null if it is unknown or no longer retained
+     */
+    public PriceAdjustmentJob getJob(long pJobId) {
+        synchronized (jobs) {
+            return jobs.get(pJobId);
+        }
+    }
+
+    private void run(PriceAdjustmentJob pJob, BigDecimal pFactor, long pMinCents, long pMaxCents) {
+        String category = pJob.getCategory();
+        String error = null;
+        try {
+            long[] range = productRepository.findIdRangeByCategory(category);
+            if (range == null) {
+                pJob.start(0, -1);
+                return;
+            }
+            pJob.start(range[0], range[1]);
+            for (long from = range[0]; from <= range[1]; from += chunkSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Interrupted by shutdown");
+                }
+                long to = Math.min(range[1], from + chunkSize - 1);
+                int updated = productRepository.adjustPrices(category, pMinCents, pMaxCents, pFactor, from, to);
+                pJob.chunkDone(to, updated);
+                updatedRows.add(updated);
+                chunks.increment();
+                if (to == Long.MAX_VALUE) {
+                    break;
+                }
+            }
+            LOG.info("Price adjustment {} of category {} updated {} products in {} chunks", pJob.getId(), category,
+                    pJob.getUpdatedCount(), pJob.getChunks());
+        } catch (RuntimeException e) {
+            LOG.warn("Price adjustment {} of category {} failed after {} products", pJob.getId(), category,
+                    pJob.getUpdatedCount(), e);
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        } finally {
+            pJob.finish(error);
+            if (pJob.getUpdatedCount() > 0) {
+                eventPublisher.publishEvent(new ProductsBulkUpdatedEvent(category, (int) pJob.getUpdatedCount()));
+            }
+        }
+    }
+
+    /**
+     * Stops the worker; a running job stops after its current chunk.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.price.adjustment.updated", updatedRows, LongAdder::sum)
+                .description("Products repriced by bulk price adjustments").register(pRegistry);
+        FunctionCounter.builder("product.price.adjustment.chunks", chunks, LongAdder::sum)
+                .description("Update statements run by bulk price adjustments").register(pRegistry);
+    }
+}
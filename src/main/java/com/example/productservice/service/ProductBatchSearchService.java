@@ -0,0 +1,233 @@
+package com.example.productservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.productservice.bulkhead.WorkloadClass;
+import com.example.productservice.bulkhead.WorkloadContext;
+import com.example.productservice.datasource.ReplicaRoutingContext;
+import com.example.productservice.deadline.Deadline;
+import com.example.productservice.deadline.DeadlineContext;
+import com.example.productservice.dto.ProductBatchSearchResponse;
+import com.example.productservice.dto.ProductSearchRequest;
+import com.example.productservice.dto.ProductSearchResult;
+import com.example.productservice.entity.Product;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Runs the searches of a batch request concurrently on a bounded executor, so a
+ * page assembled from several searches waits for the slowest one rather than
+ * their sum. All searches share one deadline; those still running when it
+ * passes are cancelled and reported as timed out, and the others are returned
+ * as usual. When the executor queue is full, searches are rejected rather than
+ * queued without bound.
+ *
+ * <p>
+ * Each search runs in its own read-only transaction on a worker thread. A
+ * primary-forced read (read-your-writes), the workload class and the deadline
+ * of the calling request are carried over to the workers, and the batch
+ * deadline never outlasts the request's. Workers run under the batch deadline,
+ * so with request deadlines enabled their statements time out with it.
+ */
+@Service
+public class ProductBatchSearchService implements DisposableBean, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductBatchSearchService.class);
+
+    /**
+     * Products found by one search and the time it took on the worker.
+     */
+    private record Timed(List<Product> products, long elapsedNanos) {
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ProductService productService;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxSearches;
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection.
+     *
+     * @param pProductService
+     *            the product service (its transactional proxy)
+     * @param pParallelism
+     *            number of searches run at the same time across all batches
+     * @param pQueueCapacity
+     *            number of searches that may wait for a worker
+     * @param pMaxSearches
+     *            maximum number of searches in one batch
+     * @param pTimeoutMillis
+     *            deadline of a whole batch
+     * @param pDefaultLimit
+     *            result limit of searches that do not set one
+     * @param pMaxLimit
+     *            highest result limit a search may ask for
+     */
+    @Autowired
+    public ProductBatchSearchService(ProductService pProductService,
+            @Value("${product.batch-search.parallelism:8}") int pParallelism,
+            @Value("${product.batch-search.queue-capacity:64}") int pQueueCapacity,
+            @Value("${product.batch-search.max-searches:20}") int pMaxSearches,
+            @Value("${product.batch-search.timeout-ms:2000}") long pTimeoutMillis,
+            @Value("${product.batch-search.default-limit:50}") int pDefaultLimit,
+            @Value("${product.batch-search.max-limit:500}") int pMaxLimit) {
+        this.productService = pProductService;
+        this.timeoutMillis = pTimeoutMillis;
+        this.maxSearches = pMaxSearches;
+        this.maxLimit = pMaxLimit;
+        this.defaultLimit = Math.min(pDefaultLimit, pMaxLimit);
+        int threads = Math.max(1, pParallelism);
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, pQueueCapacity)), r -> {
+                    Thread thread = new Thread(r, "batch-search");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the maximum number of searches accepted in one batch.
+     *
+     * @return the maximum
+     */
+    public int getMaxSearches() {
+        return maxSearches;
+    }
+
+    /**
+     * Runs the searches of a batch and waits for them until the deadline.
+     *
+     * @param pSearches
+     *            the searches, already validated
+     * @param pTimeoutMillis
+     *            deadline requested by the client, or null; capped by the
+     *            configured one
+     * @return one result per search, in request order
+     */
+    public ProductBatchSearchResponse search(List<ProductSearchRequest> pSearches, Long pTimeoutMillis) {
+        long started = System.nanoTime();
+        long timeout = pTimeoutMillis == null ? timeoutMillis : Math.min(pTimeoutMillis, timeoutMillis);
+        Deadline requestDeadline = DeadlineContext.current();
+        if (requestDeadline != null) {
+            timeout = Math.min(timeout, requestDeadline.remainingMillis());
+        }
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeout);
+        // The earlier of the batch and request deadlines, so the query timeout of
+        // a worker's statements ends it with the batch
+        Deadline searchDeadline = Deadline.after(timeout);
+        boolean primaryForced = ReplicaRoutingContext.isPrimaryForced();
+        WorkloadClass workload = WorkloadContext.current();
+
+        List<Future<Timed>> futures = new ArrayList<>(pSearches.size());
+        for (ProductSearchRequest search : pSearches) {
+            try {
+                futures.add(executor.submit(() -> run(search, primaryForced, workload, searchDeadline)));
+            } catch (RejectedExecutionException e) {
+                rejections.increment();
+                futures.add(null);
+            }
+        }
+
+        List<ProductSearchResult> results = new ArrayList<>(futures.size());
+        for (Future<Timed> future : futures) {
+            results.add(await(future, started, deadline));
+        }
+        return new ProductBatchSearchResponse(results, micros(System.nanoTime() - started));
+    }
+
+    private Timed run(ProductSearchRequest pSearch, boolean pPrimaryForced, WorkloadClass pWorkload,
+            Deadline pDeadline) {
+        long started = System.nanoTime();
+        if (pPrimaryForced) {
+            ReplicaRoutingContext.forcePrimary();
+        }
+        WorkloadContext.set(pWorkload);
+        DeadlineContext.set(pDeadline);
+        try {
+            List<Product> products = productService.searchProducts(pSearch.getName(), pSearch.getCategory(),
+                    pSearch.getMinPrice(), pSearch.getMaxPrice(), limitOf(pSearch));
+            return new Timed(products, System.nanoTime() - started);
+        } finally {
+            ReplicaRoutingContext.clear();
+            WorkloadContext.clear();
+            DeadlineContext.clear();
+        }
+    }
+
+    private ProductSearchResult await(Future<Timed> pFuture, long pStarted, long pDeadline) {
+        if (pFuture == null) {
+            return new ProductSearchResult(ProductSearchResult.Status.REJECTED, 0, List.of());
+        }
+        try {
+            Timed timed = pFuture.get(Math.max(0, pDeadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return new ProductSearchResult(ProductSearchResult.Status.OK, micros(timed.elapsedNanos()),
+                    timed.products());
+        } catch (TimeoutException e) {
+            // Interrupts the worker; a statement already running keeps going until
+            // the driver notices
+            pFuture.cancel(true);
+            timeouts.increment();
+            return new ProductSearchResult(ProductSearchResult.Status.TIMEOUT, micros(System.nanoTime() - pStarted),
+                    List.of());
+        } catch (ExecutionException e) {
+            LOG.warn("Batch search failed", e.getCause());
+            return new ProductSearchResult(ProductSearchResult.Status.FAILED, micros(System.nanoTime() - pStarted),
+                    List.of());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pFuture.cancel(true);
+            return new ProductSearchResult(ProductSearchResult.Status.TIMEOUT, micros(System.nanoTime() - pStarted),
+                    List.of());
+        }
+    }
+
+    private int limitOf(ProductSearchRequest pSearch) {
+        Integer limit = pSearch.getLimit();
+        return limit == null ? defaultLimit : Math.min(limit, maxLimit);
+    }
+
+    private static long micros(long pNanos) {
+        return TimeUnit.NANOSECONDS.toMicros(pNanos);
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.batch.search.timeouts", timeouts, LongAdder::sum)
+                .description("Batch searches cancelled at the batch deadline").register(pRegistry);
+        FunctionCounter.builder("product.batch.search.rejections", rejections, LongAdder::sum)
+                .description("Batch searches rejected because the executor was saturated").register(pRegistry);
+    }
+}
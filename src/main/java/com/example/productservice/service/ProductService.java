@@ -1,54 +1,240 @@
 package com.example.productservice.service;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.productservice.cache.OffHeapProductCache;
+import com.example.productservice.cache.ProductIdFilter;
+import com.example.productservice.cache.ProductSearchCache;
+import com.example.productservice.dto.ProductBatchResponse;
+import com.example.productservice.dto.ProductSuggestion;
+import com.example.productservice.entity.Money;
 import com.example.productservice.entity.Product;
-import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.entity.ProductField;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.lowstock.LowStockIndex;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.suggest.ProductSuggestIndex;
+import com.example.productservice.tiering.ColdProductStore;
+import com.example.productservice.writebehind.StockWriteBuffer;
 
 /**
  * Service class for managing Product operations. Contains business logic for
- * CRUD operations.
+ * CRUD operations. Read methods run in read-only transactions so they can be
+ * served by a read replica when replica routing is enabled.
  */
 @Service
 public class ProductService {
 
     // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
-    private final ProductRepository productRepository;
+    private final ProductStore productRepository;
+    private final ProductSearchCache searchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockWriteBuffer stockBuffer;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductIdFilter idFilter;
+    private final OffHeapProductCache offHeapCache;
+    private final LowStockIndex lowStockIndex;
+    private int multiGetChunkSize = 500;
+    private ColdProductStore coldStore;
     // CHECKSTYLE:ON
 
+    // CHECKSTYLE:OFF - ParameterNumber: one collaborator per derived view
     /**
      * Constructor with dependency injection.
      *
      * @param pProductRepository
-     *            the product repository
+     *            the product store (the JPA repository unless another engine is
+     *            enabled)
+     * @param pSearchCache
+     *            the search result cache
+     * @param pEventPublisher
+     *            publisher for product change events
+     * @param pStockBuffer
+     *            write-behind buffer for stock-only updates
+     * @param pSuggestIndex
+     *            the typeahead prefix index
+     * @param pIdFilter
+     *            filter of existing product IDs for short-circuiting misses
+     * @param pOffHeapCache
+     *            off-heap cache for reads by ID
+     * @param pLowStockIndex
+     *            the index of products by stock level
      */
     @Autowired
-    public ProductService(ProductRepository pProductRepository) {
+    public ProductService(ProductStore pProductRepository, ProductSearchCache pSearchCache,
+            ApplicationEventPublisher pEventPublisher, StockWriteBuffer pStockBuffer, ProductSuggestIndex pSuggestIndex,
+            ProductIdFilter pIdFilter, OffHeapProductCache pOffHeapCache, LowStockIndex pLowStockIndex) {
         this.productRepository = pProductRepository;
+        this.searchCache = pSearchCache;
+        this.eventPublisher = pEventPublisher;
+        this.stockBuffer = pStockBuffer;
+        this.suggestIndex = pSuggestIndex;
+        this.idFilter = pIdFilter;
+        this.offHeapCache = pOffHeapCache;
+        this.lowStockIndex = pLowStockIndex;
     }
+    // CHECKSTYLE:ON
 
     /**
      * Retrieves all products from the database.
      *
      * @return list of all products
      */
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
     /**
-     * Retrieves a product by its ID.
+     * Retrieves all products, reading only the selected fields (and the ID) from
+     * the store.
+     *
+     * @param pFields
+     *            the fields to read
+     * @return all products ordered by ID, or all fields of all products when every
+     *         field is selected
+     */
+    @Transactional(readOnly = true)
+    public List<Product> getAllProducts(Set<ProductField> pFields) {
+        if (pFields.size() == ProductField.ALL.size()) {
+            return getAllProducts();
+        }
+        return productRepository.findAllProjected(pFields);
+    }
+
+    /**
+     * Retrieves a product by its ID. When write-behind is enabled, a buffered stock
+     * level that has not been flushed yet is reflected in the result. IDs the ID
+     * filter knows do not exist are answered without a query, and with the off-heap
+     * cache enabled cached products as well. With tiering enabled, a product not in
+     * the hot tier is looked up in the cold tier.
      *
      * @param pId
      *            the product ID
      * @return an Optional containing the product if found
      */
+    @Transactional(readOnly = true)
     public Optional<Product> getProductById(Long pId) {
-        return productRepository.findById(pId);
+        Optional<Product> product = offHeapCache.isEnabled() ? findCached(pId) : findById(pId, false);
+        if (!stockBuffer.isEnabled()) {
+            return product;
+        }
+        return product.map(this::withBufferedStock);
+    }
+
+    /**
+     * Sets how many IDs a multi-get resolves per {@code IN (...)} query.
+     *
+     * @param pChunkSize
+     *            the chunk size
+     */
+    @Autowired
+    public void setMultiGetChunkSize(@Value("${product.multi-get.chunk-size:500}") int pChunkSize) {
+        this.multiGetChunkSize = Math.max(1, pChunkSize);
+    }
+
+    /**
+     * Sets the cold tier, present when tiering is enabled.
+     *
+     * @param pColdStore
+     *            the cold tier
+     */
+    @Autowired(required = false)
+    public void setColdStore(ColdProductStore pColdStore) {
+        this.coldStore = pColdStore;
+    }
+
+    /**
+     * Retrieves many products by ID. Duplicate IDs are resolved once and the IDs
+     * are loaded with one {@code IN (...)} query per chunk instead of one query per
+     * ID. With the off-heap cache enabled only the uncached IDs are loaded. With
+     * tiering enabled, the IDs missing from the hot tier are looked up in the cold
+     * tier.
+     *
+     * @param pIds
+     *            the product IDs
+     * @return the products found in request order, plus the IDs not found
+     */
+    @Transactional(readOnly = true)
+    public ProductBatchResponse getProductsByIds(Collection<Long> pIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(pIds));
+        List<Long> candidates = ids;
+        if (idFilter.isEnabled()) {
+            candidates = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                if (idFilter.mightContain(id)) {
+                    candidates.add(id);
+                }
+            }
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        Map<Long, Long> versions = null;
+        if (offHeapCache.isEnabled()) {
+            List<Long> uncached = new ArrayList<>(candidates.size());
+            versions = new HashMap<>();
+            for (Long id : candidates) {
+                Product cached = offHeapCache.get(id);
+                if (cached != null) {
+                    byId.put(id, stockBuffer.isEnabled() ? withBufferedStock(cached) : cached);
+                } else {
+                    uncached.add(id);
+                    versions.put(id, offHeapCache.version(id));
+                }
+            }
+            candidates = uncached;
+        }
+        List<Long> cold = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += multiGetChunkSize) {
+            List<Long> chunk = candidates.subList(from, Math.min(candidates.size(), from + multiGetChunkSize));
+            for (Product product : productRepository.findAllById(chunk)) {
+                if (versions != null) {
+                    offHeapCache.put(product, versions.get(product.getId()));
+                }
+                byId.put(product.getId(), stockBuffer.isEnabled() ? withBufferedStock(product) : product);
+            }
+            if (coldStore != null) {
+                for (Long id : chunk) {
+                    if (!byId.containsKey(id)) {
+                        cold.add(id);
+                    }
+                }
+            }
+        }
+        for (int from = 0; from < cold.size(); from += multiGetChunkSize) {
+            for (Product product : coldStore
+                    .findAllById(cold.subList(from, Math.min(cold.size(), from + multiGetChunkSize)))) {
+                if (versions != null) {
+                    offHeapCache.put(product, versions.get(product.getId()));
+                }
+                byId.put(product.getId(), product);
+            }
+        }
+        List<Product> found = new ArrayList<>(byId.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = byId.get(id);
+            if (product != null) {
+                found.add(product);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new ProductBatchResponse(found, missing);
     }
 
     /**
@@ -58,12 +244,18 @@ public class ProductService {
      *            the product to add
      * @return the saved product with generated ID
      */
+    @Transactional
     public Product addProduct(Product pProduct) {
-        return productRepository.save(pProduct);
+        Product saved = productRepository.save(pProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved));
+        return saved;
     }
 
     /**
-     * Updates an existing product.
+     * Updates an existing product. When write-behind is enabled and only the stock
+     * changes, the new stock level is buffered and written in a later batch instead
+     * of in its own transaction. With tiering enabled, an archived product is moved
+     * back to the hot tier before it is updated.
      *
      * @param pId
      *            the product ID to update
@@ -71,11 +263,24 @@ public class ProductService {
      *            the product data to update
      * @return an Optional containing the updated product if found
      */
+    @Transactional
     public Optional<Product> updateProduct(Long pId, Product pProduct) {
         if (pProduct == null) {
             return Optional.empty();
         }
-        return productRepository.findById(pId).map(existingProduct -> {
+        return findById(pId, true).map(existingProduct -> {
+            if (stockBuffer.isEnabled()) {
+                Product before = withBufferedStock(existingProduct);
+                if (isStockOnlyChange(before, pProduct)) {
+                    stockBuffer.put(pId, pProduct.getStockCount());
+                    Product after = ProductChangedEvent.snapshot(before);
+                    after.setStockCount(pProduct.getStockCount());
+                    eventPublisher.publishEvent(ProductChangedEvent.updated(before, after));
+                    return after;
+                }
+                stockBuffer.discard(pId);
+            }
+            Product before = ProductChangedEvent.snapshot(existingProduct);
             // Defensive null checks to prevent NPE if validation is bypassed
             if (pProduct.getName() != null) {
                 existingProduct.setName(pProduct.getName());
@@ -83,29 +288,41 @@ public class ProductService {
             if (pProduct.getCategory() != null) {
                 existingProduct.setCategory(pProduct.getCategory());
             }
-            if (pProduct.getPrice() != null) {
-                existingProduct.setPrice(pProduct.getPrice());
+            if (pProduct.hasPrice()) {
+                existingProduct.setPriceCents(pProduct.getPriceCents());
             }
-            if (pProduct.getStock() != null) {
-                existingProduct.setStock(pProduct.getStock());
+            if (pProduct.hasStock()) {
+                existingProduct.setStockCount(pProduct.getStockCount());
             }
-            return productRepository.save(existingProduct);
+            Product saved = productRepository.save(existingProduct);
+            eventPublisher.publishEvent(ProductChangedEvent.updated(before, saved));
+            return saved;
         });
     }
 
     /**
-     * Deletes a product by its ID.
+     * Deletes a product by its ID. The product is loaded rather than checked with a
+     * count query: JPA's delete reuses the loaded entity, so the delete takes one
+     * SELECT and one DELETE, and listeners get the deleted state. An archived
+     * product is moved back to the hot tier and deleted from there.
      *
      * @param pId
      *            the product ID to delete
      * @return true if product was deleted, false if not found
      */
+    @Transactional
     public boolean deleteProduct(Long pId) {
-        if (productRepository.existsById(pId)) {
-            productRepository.deleteById(pId);
-            return true;
+        Optional<Product> existing = findById(pId, true);
+        if (existing.isEmpty()) {
+            return false;
+        }
+        if (stockBuffer.isEnabled()) {
+            stockBuffer.discard(pId);
         }
-        return false;
+        Product before = ProductChangedEvent.snapshot(existing.get());
+        productRepository.deleteById(pId);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(pId, before));
+        return true;
     }
 
     /**
@@ -115,6 +332,7 @@ public class ProductService {
      *            the name pattern to search for
      * @return list of products matching the name pattern
      */
+    @Transactional(readOnly = true)
     public List<Product> searchProductsByName(String pName) {
         return productRepository.findByNameContainingIgnoreCase(pName);
     }
@@ -126,26 +344,32 @@ public class ProductService {
      *            the category to filter by
      * @return list of products in the specified category
      */
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(String pCategory) {
         return productRepository.findByCategory(pCategory);
     }
 
     /**
-     * Finds products within a price range.
+     * Finds products within a price range. Bounds are rounded to minor units, so
+     * products priced exactly at a bound are always included.
      *
      * @param pMinPrice
-     *            the minimum price (inclusive)
+     *            the minimum price (inclusive, null for no lower bound)
      * @param pMaxPrice
-     *            the maximum price (inclusive)
+     *            the maximum price (inclusive, null for no upper bound)
      * @return list of products within the price range
      */
+    @Transactional(readOnly = true)
     public List<Product> getProductsByPriceRange(Double pMinPrice, Double pMaxPrice) {
-        return productRepository.findByPriceBetween(pMinPrice, pMaxPrice);
+        long minCents = pMinPrice == null ? 0 : Money.toMinorUnits(pMinPrice);
+        long maxCents = pMaxPrice == null ? Long.MAX_VALUE : Money.toMinorUnits(pMaxPrice);
+        return productRepository.findByPriceCentsBetween(minCents, maxCents);
     }
 
     /**
      * Advanced search for products with multiple criteria. All parameters are
-     * optional and can be combined.
+     * optional and can be combined. When the search cache is enabled, repeated
+     * searches are answered from cached result IDs.
      *
      * @param pName
      *            the name pattern to search for (optional)
@@ -157,7 +381,302 @@ public class ProductService {
      *            the maximum price (optional)
      * @return list of products matching all specified criteria
      */
+    @Transactional(readOnly = true)
     public List<Product> searchProducts(String pName, String pCategory, Double pMinPrice, Double pMaxPrice) {
-        return productRepository.searchProducts(pName, pCategory, pMinPrice, pMaxPrice);
+        Long minCents = Money.toMinorUnitsOrNull(pMinPrice);
+        Long maxCents = Money.toMinorUnitsOrNull(pMaxPrice);
+        if (!searchCache.isEnabled()) {
+            return productRepository.searchProducts(pName, pCategory, minCents, maxCents);
+        }
+        ProductSearchCache.Key key = ProductSearchCache.Key.of(pName, pCategory, pMinPrice, pMaxPrice);
+        List<Long> cachedIds = searchCache.get(key);
+        if (cachedIds != null) {
+            return findAllInOrder(cachedIds);
+        }
+        long epoch = searchCache.currentEpoch();
+        List<Product> products = productRepository.searchProducts(pName, pCategory, minCents, maxCents);
+        searchCache.put(key, products, epoch);
+        return products;
+    }
+
+    /**
+     * Searches like {@link #searchProducts(String, String, Double, Double)},
+     * reading only the selected fields (and the ID) from the store. A search
+     * answered from the search cache loads its products by ID and drops the other
+     * fields in memory.
+     *
+     * @param pName
+     *            the name pattern to search for (optional)
+     * @param pCategory
+     *            the category to filter by (optional)
+     * @param pMinPrice
+     *            the minimum price (optional)
+     * @param pMaxPrice
+     *            the maximum price (optional)
+     * @param pFields
+     *            the fields to read
+     * @return list of products matching all specified criteria
+     */
+    @Transactional(readOnly = true)
+    public List<Product> searchProducts(String pName, String pCategory, Double pMinPrice, Double pMaxPrice,
+            Set<ProductField> pFields) {
+        if (pFields.size() == ProductField.ALL.size()) {
+            return searchProducts(pName, pCategory, pMinPrice, pMaxPrice);
+        }
+        Long minCents = Money.toMinorUnitsOrNull(pMinPrice);
+        Long maxCents = Money.toMinorUnitsOrNull(pMaxPrice);
+        if (!searchCache.isEnabled()) {
+            return productRepository.searchProductsProjected(pName, pCategory, minCents, maxCents, pFields);
+        }
+        ProductSearchCache.Key key = ProductSearchCache.Key.of(pName, pCategory, pMinPrice, pMaxPrice);
+        List<Long> cachedIds = searchCache.get(key);
+        if (cachedIds != null) {
+            return ProductField.project(findAllInOrder(cachedIds), pFields);
+        }
+        long epoch = searchCache.currentEpoch();
+        List<Product> products = productRepository.searchProductsProjected(pName, pCategory, minCents, maxCents,
+                pFields);
+        searchCache.put(key, products, epoch);
+        return products;
+    }
+
+    /**
+     * Searches like {@link #searchProducts(String, String, Double, Double)} but
+     * returns at most the first {@code pLimit} matches by ID. Without the search
+     * cache the limit is applied by the store.
+     *
+     * @param pName
+     *            the name pattern to search for (optional)
+     * @param pCategory
+     *            the category to filter by (optional)
+     * @param pMinPrice
+     *            the minimum price (optional)
+     * @param pMaxPrice
+     *            the maximum price (optional)
+     * @param pLimit
+     *            maximum number of results, or 0 for no limit
+     * @return the first matching products by ID
+     */
+    @Transactional(readOnly = true)
+    public List<Product> searchProducts(String pName, String pCategory, Double pMinPrice, Double pMaxPrice,
+            int pLimit) {
+        if (pLimit <= 0) {
+            return searchProducts(pName, pCategory, pMinPrice, pMaxPrice);
+        }
+        if (searchCache.isEnabled()) {
+            List<Product> products = new ArrayList<>(searchProducts(pName, pCategory, pMinPrice, pMaxPrice));
+            products.sort(Comparator.comparing(Product::getId));
+            return products.size() > pLimit ? products.subList(0, pLimit) : products;
+        }
+        return productRepository.searchProducts(pName, pCategory, Money.toMinorUnitsOrNull(pMinPrice),
+                Money.toMinorUnitsOrNull(pMaxPrice), pLimit);
+    }
+
+    /**
+     * Searches like {@link #searchProducts(String, String, Double, Double)} in both
+     * tiers, for searches that ask for archived products too. The cold tier is
+     * always queried; its results are not cached.
+     *
+     * @param pName
+     *            the name pattern to search for (optional)
+     * @param pCategory
+     *            the category to filter by (optional)
+     * @param pMinPrice
+     *            the minimum price (optional)
+     * @param pMaxPrice
+     *            the maximum price (optional)
+     * @return matching products of both tiers ordered by ID
+     */
+    @Transactional(readOnly = true)
+    public List<Product> searchAllTiers(String pName, String pCategory, Double pMinPrice, Double pMaxPrice) {
+        List<Product> products = new ArrayList<>(searchProducts(pName, pCategory, pMinPrice, pMaxPrice));
+        if (coldStore == null) {
+            return products;
+        }
+        products.addAll(coldStore.search(pName, pCategory, Money.toMinorUnitsOrNull(pMinPrice),
+                Money.toMinorUnitsOrNull(pMaxPrice)));
+        products.sort(Comparator.comparing(Product::getId));
+        return products;
+    }
+
+    /**
+     * Finds the products at or below a stock level. Served from the in-memory stock
+     * index when it is enabled, without a transaction or a query; otherwise the
+     * products of the category, or all products, are loaded and filtered.
+     *
+     * @param pThreshold
+     *            the highest stock level to return
+     * @param pCategory
+     *            the category to filter by (optional)
+     * @return the products, lowest stock first, then by ID
+     */
+    public List<Product> getLowStockProducts(int pThreshold, String pCategory) {
+        if (lowStockIndex.isEnabled()) {
+            return lowStockIndex.atOrBelow(pThreshold, pCategory);
+        }
+        List<Product> products = new ArrayList<>();
+        for (Product product : pCategory == null ? getAllProducts() : getProductsByCategory(pCategory)) {
+            Product current = stockBuffer.isEnabled() ? withBufferedStock(product) : product;
+            if (current.hasStock() && current.getStockCount() <= pThreshold) {
+                products.add(current);
+            }
+        }
+        products.sort(Comparator.comparingInt(Product::getStockCount).thenComparing(Product::getId));
+        return products;
+    }
+
+    /**
+     * Indicates whether low-stock lists are served from the in-memory stock index,
+     * which also feeds the low-stock alert streams.
+     *
+     * @return true if the index is active
+     */
+    public boolean isLowStockIndexEnabled() {
+        return lowStockIndex.isEnabled();
+    }
+
+    /**
+     * Suggests products whose name, or a word in it, starts with a prefix. Served
+     * from the in-memory prefix index when it is enabled, without a transaction or
+     * a query; otherwise the matches of a name search are ranked the same way.
+     *
+     * @param pPrefix
+     *            the typed prefix
+     * @param pLimit
+     *            maximum number of suggestions
+     * @return the suggestions, best first
+     */
+    public List<ProductSuggestion> suggestProducts(String pPrefix, int pLimit) {
+        if (pPrefix == null || pPrefix.isBlank()) {
+            return List.of();
+        }
+        if (suggestIndex.isEnabled()) {
+            return suggestIndex.suggest(pPrefix, pLimit);
+        }
+        return suggestIndex.rank(productRepository.findByNameContainingIgnoreCase(pPrefix.strip()), pPrefix, pLimit);
+    }
+
+    /**
+     * Loads a product, skipping the query when the ID filter knows the ID does not
+     * exist and counting the filter's false positives. With tiering enabled, a
+     * product missing from the hot tier is looked up in the cold tier.
+     *
+     * @param pId
+     *            the product ID
+     * @param pRestore
+     *            whether an archived product is moved back to the hot tier, so the
+     *            caller gets the store's own entity to modify
+     * @return the product, if present
+     */
+    private Optional<Product> findById(Long pId, boolean pRestore) {
+        if (idFilter.isEnabled() && !idFilter.mightContain(pId)) {
+            return Optional.empty();
+        }
+        Optional<Product> product = productRepository.findById(pId);
+        if (product.isEmpty() && coldStore != null) {
+            product = pRestore ? restore(pId) : coldStore.findById(pId);
+        }
+        if (product.isEmpty() && idFilter.isEnabled()) {
+            idFilter.recordFalsePositive();
+        }
+        return product;
+    }
+
+    /**
+     * Moves an archived product back to the hot tier, in the caller's transaction.
+     * The caches see it created again.
+     *
+     * @param pId
+     *            the product ID
+     * @return the restored product as loaded by the store, if it was archived
+     */
+    private Optional<Product> restore(Long pId) {
+        Optional<Product> restored = coldStore.restore(pId, new Timestamp(System.currentTimeMillis()));
+        if (restored.isEmpty()) {
+            return restored;
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.created(restored.get()));
+        return productRepository.findById(pId);
+    }
+
+    /**
+     * Loads a product through the off-heap cache. The cache version is read before
+     * the load, so a write committed in between keeps the loaded copy out of the
+     * cache. Write paths load through {@link #findById(Long, boolean)} instead, so
+     * the entities they modify are the store's own.
+     *
+     * @param pId
+     *            the product ID
+     * @return the product, if present
+     */
+    private Optional<Product> findCached(Long pId) {
+        Product cached = offHeapCache.get(pId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long version = offHeapCache.version(pId);
+        Optional<Product> product = findById(pId, false);
+        product.ifPresent(loaded -> offHeapCache.put(loaded, version));
+        return product;
+    }
+
+    /**
+     * Returns a detached copy of a product carrying its buffered stock level, or
+     * the product itself if no stock update is buffered. A copy is used so the
+     * managed entity is never dirtied by an unflushed value.
+     *
+     * @param pProduct
+     *            the loaded product
+     * @return the product as clients should see it
+     */
+    private Product withBufferedStock(Product pProduct) {
+        Integer bufferedStock = stockBuffer.pendingStock(pProduct.getId());
+        if (bufferedStock == null) {
+            return pProduct;
+        }
+        Product copy = ProductChangedEvent.snapshot(pProduct);
+        copy.setStockCount(bufferedStock);
+        return copy;
+    }
+
+    /**
+     * Checks whether an update request changes nothing but the stock level.
+     *
+     * @param pCurrent
+     *            the current product state
+     * @param pUpdate
+     *            the requested update
+     * @return true if the update can be buffered
+     */
+    private static boolean isStockOnlyChange(Product pCurrent, Product pUpdate) {
+        return pUpdate.hasStock() && (pUpdate.getName() == null || pUpdate.getName().equals(pCurrent.getName()))
+                && (pUpdate.getCategory() == null || pUpdate.getCategory().equals(pCurrent.getCategory()))
+                && (!pUpdate.hasPrice() || pUpdate.getPriceCents() == pCurrent.getPriceCents());
+    }
+
+    /**
+     * Loads products by ID, preserving the order of the given IDs and skipping IDs
+     * that no longer exist.
+     *
+     * @param pIds
+     *            the product IDs
+     * @return the products in ID order
+     */
+    private List<Product> findAllInOrder(List<Long> pIds) {
+        if (pIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> byId = new HashMap<>();
+        for (Product product : productRepository.findAllById(pIds)) {
+            byId.put(product.getId(), product);
+        }
+        List<Product> ordered = new ArrayList<>(pIds.size());
+        for (Long id : pIds) {
+            Product product = byId.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
     }
 }
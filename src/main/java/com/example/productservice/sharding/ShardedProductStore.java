@@ -0,0 +1,518 @@
+package com.example.productservice.sharding;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.example.productservice.deadline.Deadline;
+import com.example.productservice.deadline.DeadlineContext;
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Product store that spreads rows over several databases by category.
+ *
+ * <p>
+ * A new product is placed on the shard its category hashes to, and its ID
+ * encodes that shard in the low {@value #SHARD_BITS} bits, so lookups by ID
+ * always go to exactly one shard. Category-scoped queries go to the shards
+ * known to hold the category (normally just its home shard; a product whose
+ * category is later changed stays on its original shard to keep its ID, and the
+ * category directory records the extra shard). Unscoped queries fan out to all
+ * shards in parallel and the per-shard results, each ordered by ID, are merged
+ * into one ID-ordered list with an optional limit.
+ */
+public class ShardedProductStore implements ProductStore, DisposableBean {
+
+    /** Number of low ID bits that hold the shard index. */
+    public static final int SHARD_BITS = 10;
+
+    /** Maximum number of shards the ID scheme can address. */
+    public static final int MAX_SHARDS = 1 << SHARD_BITS;
+
+    private static final String COLUMNS = "id, name, category, price_cents, stock";
+
+    private static final RowMapper<Product> ROW_MAPPER = (rs, rowNum) -> {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setName(rs.getString("name"));
+        product.setCategory(rs.getString("category"));
+        product.setPriceCents(rs.getLong("price_cents"));
+        product.setStockCount(rs.getInt("stock"));
+        return product;
+    };
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final List<DataSource> dataSources;
+    private final List<JdbcTemplate> shards;
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+    private final Map<String, Set<Integer>> categoryShards = new ConcurrentHashMap<>();
+    // CHECKSTYLE:ON
+
+    /**
+     * Creates the store, initializing each shard's schema and the category
+     * directory.
+     *
+     * @param pShards
+     *            the shard data sources; their order defines the shard index
+     * @param pParallelism
+     *            threads used for scatter-gather queries
+     * @param pTimeoutMillis
+     *            maximum time to wait for all shards of one query
+     */
+    public ShardedProductStore(List<DataSource> pShards, int pParallelism, long pTimeoutMillis) {
+        if (pShards.isEmpty() || pShards.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("Sharding needs between 1 and " + MAX_SHARDS + " shards");
+        }
+        List<JdbcTemplate> templates = new ArrayList<>();
+        for (DataSource dataSource : pShards) {
+            templates.add(new JdbcTemplate(dataSource));
+        }
+        this.dataSources = List.copyOf(pShards);
+        this.shards = Collections.unmodifiableList(templates);
+        this.timeoutMillis = pTimeoutMillis;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, pParallelism), r -> {
+            Thread thread = new Thread(r, "shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < shards.size(); i++) {
+            initializeShard(i);
+        }
+    }
+
+    private void initializeShard(int pShard) {
+        JdbcTemplate shard = shards.get(pShard);
+        shard.execute("CREATE TABLE IF NOT EXISTS products (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                + "category VARCHAR(255) NOT NULL, price_cents BIGINT NOT NULL, stock INTEGER NOT NULL)");
+        // (category, id) serves category searches in ID order and ID-range chunks of a
+        // category
+        shard.execute("DROP INDEX IF EXISTS idx_products_category");
+        shard.execute("CREATE INDEX IF NOT EXISTS idx_products_category_id ON products (category, id)");
+        shard.execute("CREATE SEQUENCE IF NOT EXISTS product_local_id_seq");
+        for (String category : shard.queryForList("SELECT DISTINCT category FROM products", String.class)) {
+            registerCategory(category, pShard);
+        }
+    }
+
+    /**
+     * Gets the home shard of a category.
+     *
+     * @param pCategory
+     *            the category
+     * @return the shard index
+     */
+    public int homeShard(String pCategory) {
+        return Math.floorMod(pCategory.hashCode(), shards.size());
+    }
+
+    /**
+     * Gets the shard that holds a product ID.
+     *
+     * @param pId
+     *            the product ID
+     * @return the shard index
+     */
+    public static int shardOf(long pId) {
+        return (int) (pId & (MAX_SHARDS - 1));
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the shard count
+     */
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return scatter(allShards(), "SELECT " + COLUMNS + " FROM products ORDER BY id", ROW_MAPPER, new Object[0], 0);
+    }
+
+    @Override
+    public List<Long> findAllIds() {
+        List<Long> ids = new ArrayList<>();
+        for (JdbcTemplate shard : shards) {
+            ids.addAll(shard.queryForList("SELECT id FROM products", Long.class));
+        }
+        return ids;
+    }
+
+    @Override
+    public Optional<Product> findById(Long pId) {
+        JdbcTemplate shard = shardFor(pId);
+        if (shard == null) {
+            return Optional.empty();
+        }
+        List<Product> rows = shard.query("SELECT " + COLUMNS + " FROM products WHERE id = ?", ROW_MAPPER, pId);
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> pIds) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : pIds) {
+            if (shardFor(id) != null) {
+                byShard.computeIfAbsent(shardOf(id), k -> new ArrayList<>()).add(id);
+            }
+        }
+        List<CompletableFuture<List<Product>>> futures = new ArrayList<>();
+        for (Map.Entry<Integer, List<Long>> entry : byShard.entrySet()) {
+            List<Long> ids = entry.getValue();
+            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+            String sql = "SELECT " + COLUMNS + " FROM products WHERE id IN (" + placeholders + ") ORDER BY id";
+            futures.add(submit(entry.getKey(), shard -> shard.query(sql, ROW_MAPPER, ids.toArray())));
+        }
+        return mergeById(gather(futures), 0);
+    }
+
+    @Override
+    public <S extends Product> S save(S pProduct) {
+        if (pProduct.getId() == null) {
+            int shardIndex = homeShard(pProduct.getCategory());
+            JdbcTemplate shard = shards.get(shardIndex);
+            Long local = shard.queryForObject("SELECT NEXT VALUE FOR product_local_id_seq", Long.class);
+            long id = (local << SHARD_BITS) | shardIndex;
+            shard.update("INSERT INTO products (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)", id, pProduct.getName(),
+                    pProduct.getCategory(), pProduct.getPriceCents(), pProduct.getStockCount());
+            pProduct.setId(id);
+            registerCategory(pProduct.getCategory(), shardIndex);
+            return pProduct;
+        }
+        JdbcTemplate shard = shardFor(pProduct.getId());
+        if (shard == null) {
+            throw new IllegalArgumentException("Product ID " + pProduct.getId() + " does not map to a shard");
+        }
+        int updated = shard.update(
+                "UPDATE products SET name = ?, category = ?, price_cents = ?, stock = ? WHERE id = ?",
+                pProduct.getName(), pProduct.getCategory(), pProduct.getPriceCents(), pProduct.getStockCount(),
+                pProduct.getId());
+        if (updated == 0) {
+            shard.update("INSERT INTO products (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?)", pProduct.getId(),
+                    pProduct.getName(), pProduct.getCategory(), pProduct.getPriceCents(), pProduct.getStockCount());
+        }
+        registerCategory(pProduct.getCategory(), shardOf(pProduct.getId()));
+        return pProduct;
+    }
+
+    @Override
+    public boolean existsById(Long pId) {
+        JdbcTemplate shard = shardFor(pId);
+        return shard != null
+                && !shard.queryForList("SELECT 1 FROM products WHERE id = ?", Integer.class, pId).isEmpty();
+    }
+
+    @Override
+    public void deleteById(Long pId) {
+        JdbcTemplate shard = shardFor(pId);
+        if (shard != null) {
+            shard.update("DELETE FROM products WHERE id = ?", pId);
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        for (JdbcTemplate shard : shards) {
+            shard.update("DELETE FROM products");
+        }
+    }
+
+    @Override
+    public List<Product> findByCategory(String pCategory) {
+        return searchProducts(null, pCategory, null, null);
+    }
+
+    @Override
+    public List<Product> findByNameContainingIgnoreCase(String pName) {
+        return searchProducts(pName, null, null, null);
+    }
+
+    @Override
+    public List<Product> findByPriceCentsBetween(long pMinCents, long pMaxCents) {
+        return searchProducts(null, null, pMinCents, pMaxCents);
+    }
+
+    @Override
+    public List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents) {
+        return searchProducts(pName, pCategory, pMinCents, pMaxCents, 0);
+    }
+
+    /**
+     * Searches with optional criteria, routing category-scoped searches to the
+     * category's shards and fanning out otherwise.
+     *
+     * @param pName
+     *            the name pattern (optional)
+     * @param pCategory
+     *            the category (optional)
+     * @param pMinCents
+     *            the minimum price in minor units (optional)
+     * @param pMaxCents
+     *            the maximum price in minor units (optional)
+     * @param pLimit
+     *            maximum number of results, or 0 for no limit
+     * @return matching products ordered by ID
+     */
+    @Override
+    public List<Product> searchProducts(String pName, String pCategory, Long pMinCents, Long pMaxCents, int pLimit) {
+        return search(COLUMNS, ROW_MAPPER, pName, pCategory, pMinCents, pMaxCents, pLimit);
+    }
+
+    @Override
+    public List<Product> findAllProjected(Set<ProductField> pFields) {
+        return searchProductsProjected(null, null, null, null, pFields);
+    }
+
+    /**
+     * Searches like {@link #searchProducts(String, String, Long, Long, int)}, with
+     * each shard selecting only the given columns and the ID.
+     */
+    @Override
+    public List<Product> searchProductsProjected(String pName, String pCategory, Long pMinCents, Long pMaxCents,
+            Set<ProductField> pFields) {
+        List<ProductField> fields = new ArrayList<>(ProductField.withId(pFields));
+        List<String> columns = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            columns.add(field.getColumn());
+        }
+        RowMapper<Product> mapper = (rs, rowNum) -> {
+            Product product = new Product();
+            for (int i = 0; i < fields.size(); i++) {
+                fields.get(i).set(product, rs.getObject(i + 1));
+            }
+            return product;
+        };
+        return search(String.join(", ", columns), mapper, pName, pCategory, pMinCents, pMaxCents, 0);
+    }
+
+    private List<Product> search(String pColumns, RowMapper<Product> pMapper, String pName, String pCategory,
+            Long pMinCents, Long pMaxCents, int pLimit) {
+        StringBuilder sql = new StringBuilder("SELECT " + pColumns + " FROM products WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (pName != null) {
+            sql.append(" AND LOWER(name) LIKE LOWER(CONCAT('%', ?, '%'))");
+            args.add(pName);
+        }
+        if (pCategory != null) {
+            sql.append(" AND category = ?");
+            args.add(pCategory);
+        }
+        if (pMinCents != null) {
+            sql.append(" AND price_cents >= ?");
+            args.add(pMinCents);
+        }
+        if (pMaxCents != null) {
+            sql.append(" AND price_cents <= ?");
+            args.add(pMaxCents);
+        }
+        sql.append(" ORDER BY id");
+        if (pLimit > 0) {
+            sql.append(" LIMIT ").append(pLimit);
+        }
+        Set<Integer> targets = pCategory == null ? allShards() : shardsForCategory(pCategory);
+        return scatter(targets, sql.toString(), pMapper, args.toArray(), pLimit);
+    }
+
+    @Override
+    public long[] findIdRangeByCategory(String pCategory) {
+        long[] range = null;
+        for (int shard : shardsForCategory(pCategory)) {
+            Map<String, Object> row = shards.get(shard)
+                    .queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM products WHERE category = ?", pCategory);
+            if (row.get("lo") instanceof Number lo && row.get("hi") instanceof Number hi) {
+                if (range == null) {
+                    range = new long[2];
+                    range[0] = lo.longValue();
+                    range[1] = hi.longValue();
+                } else {
+                    range[0] = Math.min(range[0], lo.longValue());
+                    range[1] = Math.max(range[1], hi.longValue());
+                }
+            }
+        }
+        return range;
+    }
+
+    /**
+     * Runs the update on each shard holding the category, one auto-committed
+     * statement per shard.
+     */
+    @Override
+    public int adjustPrices(String pCategory, long pMinCents, long pMaxCents, BigDecimal pFactor, long pFromId,
+            long pToId) {
+        // The factor is cast explicitly: H2 would otherwise type it after price_cents
+        String sql = "UPDATE products SET price_cents = ROUND(price_cents * CAST(? AS DECIMAL(19, 9))) "
+                + "WHERE category = ? AND price_cents BETWEEN ? AND ? AND id BETWEEN ? AND ?";
+        int updated = 0;
+        for (int shard : shardsForCategory(pCategory)) {
+            updated += shards.get(shard).update(sql, pFactor, pCategory, pMinCents, pMaxCents, pFromId, pToId);
+        }
+        return updated;
+    }
+
+    private Set<Integer> shardsForCategory(String pCategory) {
+        Set<Integer> known = categoryShards.get(pCategory);
+        if (known == null) {
+            return Set.of(homeShard(pCategory));
+        }
+        return new TreeSet<>(known);
+    }
+
+    private void registerCategory(String pCategory, int pShard) {
+        if (pCategory != null) {
+            categoryShards.computeIfAbsent(pCategory, k -> ConcurrentHashMap.newKeySet()).add(pShard);
+        }
+    }
+
+    private Set<Integer> allShards() {
+        Set<Integer> all = new TreeSet<>();
+        for (int i = 0; i < shards.size(); i++) {
+            all.add(i);
+        }
+        return all;
+    }
+
+    private JdbcTemplate shardFor(Long pId) {
+        if (pId == null || pId <= 0) {
+            return null;
+        }
+        int index = shardOf(pId);
+        return index < shards.size() ? shards.get(index) : null;
+    }
+
+    private List<Product> scatter(Set<Integer> pShards, String pSql, RowMapper<Product> pMapper, Object[] pArgs,
+            int pLimit) {
+        if (pShards.size() == 1) {
+            return shards.get(pShards.iterator().next()).query(pSql, pMapper, pArgs);
+        }
+        List<CompletableFuture<List<Product>>> futures = new ArrayList<>();
+        for (Integer shard : pShards) {
+            futures.add(submit(shard, template -> template.query(pSql, pMapper, pArgs)));
+        }
+        return mergeById(gather(futures), pLimit);
+    }
+
+    private CompletableFuture<List<Product>> submit(int pShard, Function<JdbcTemplate, List<Product>> pQuery) {
+        JdbcTemplate shard = shards.get(pShard);
+        // Statements on the query threads time out with the calling request
+        Deadline deadline = DeadlineContext.current();
+        return CompletableFuture.supplyAsync(() -> {
+            DeadlineContext.set(deadline);
+            try {
+                return pQuery.apply(shard);
+            } finally {
+                DeadlineContext.clear();
+            }
+        }, executor);
+    }
+
+    private List<List<Product>> gather(List<CompletableFuture<List<Product>>> pFutures) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(pFutures.toArray(new CompletableFuture<?>[0]));
+        try {
+            all.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pFutures.forEach(future -> future.cancel(true));
+            throw new QueryTimeoutException("Shard query did not complete within " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for shard queries", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        List<List<Product>> results = new ArrayList<>(pFutures.size());
+        for (CompletableFuture<List<Product>> future : pFutures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Position of the next unmerged row in one shard's result.
+     */
+    private record Cursor(int source, int position) {
+
+        Product current(List<List<Product>> pResults) {
+            return pResults.get(source).get(position);
+        }
+    }
+
+    /**
+     * K-way merges ID-ordered shard results into one ID-ordered list.
+     *
+     * @param pResults
+     *            per-shard results, each ordered by ID
+     * @param pLimit
+     *            maximum number of results, or 0 for no limit
+     * @return the merged list
+     */
+    static List<Product> mergeById(List<List<Product>> pResults, int pLimit) {
+        int total = 0;
+        for (List<Product> result : pResults) {
+            total += result.size();
+        }
+        int max = pLimit > 0 ? Math.min(pLimit, total) : total;
+        List<Product> merged = new ArrayList<>(max);
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(
+                (a, b) -> Long.compare(a.current(pResults).getId(), b.current(pResults).getId()));
+        for (int i = 0; i < pResults.size(); i++) {
+            if (!pResults.get(i).isEmpty()) {
+                heads.add(new Cursor(i, 0));
+            }
+        }
+        while (merged.size() < max && !heads.isEmpty()) {
+            Cursor head = heads.poll();
+            merged.add(head.current(pResults));
+            if (head.position() + 1 < pResults.get(head.source()).size()) {
+                heads.add(new Cursor(head.source(), head.position() + 1));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Stops the query threads and closes the shard pools, which are owned by this
+     * store.
+     *
+     * @throws Exception
+     *             if a pool cannot be closed
+     */
+    @Override
+    public void destroy() throws Exception {
+        executor.shutdownNow();
+        for (DataSource dataSource : dataSources) {
+            // Pools may be wrapped, e.g. for request deadlines
+            if (dataSource.isWrapperFor(AutoCloseable.class)) {
+                dataSource.unwrap(AutoCloseable.class).close();
+            }
+        }
+    }
+}
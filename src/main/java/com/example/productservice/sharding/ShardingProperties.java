@@ -0,0 +1,166 @@
+package com.example.productservice.sharding;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of category sharding, bound from {@code product.sharding.*}.
+ * The order of {@code shards} defines the shard index encoded in product IDs,
+ * so shards may only ever be appended, never reordered.
+ */
+@ConfigurationProperties(prefix = "product.sharding")
+public class ShardingProperties {
+
+    /**
+     * Connection settings of one shard.
+     */
+    public static class Shard {
+        // CHECKSTYLE:OFF - configuration property fields use standard naming
+        private String url;
+        private String username;
+        private String password;
+        // CHECKSTYLE:ON
+
+        /**
+         * Gets the JDBC URL.
+         *
+         * @return the URL
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Sets the JDBC URL.
+         *
+         * @param pUrl
+         *            the URL
+         */
+        public void setUrl(String pUrl) {
+            this.url = pUrl;
+        }
+
+        /**
+         * Gets the user name.
+         *
+         * @return the user name
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Sets the user name.
+         *
+         * @param pUsername
+         *            the user name
+         */
+        public void setUsername(String pUsername) {
+            this.username = pUsername;
+        }
+
+        /**
+         * Gets the password.
+         *
+         * @return the password
+         */
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * Sets the password.
+         *
+         * @param pPassword
+         *            the password
+         */
+        public void setPassword(String pPassword) {
+            this.password = pPassword;
+        }
+    }
+
+    // CHECKSTYLE:OFF - configuration property fields use standard naming
+    private boolean enabled;
+    private List<Shard> shards = new ArrayList<>();
+    private int parallelism = 8;
+    private long timeoutMillis = 2000;
+    // CHECKSTYLE:ON
+
+    /**
+     * Indicates whether sharding is enabled.
+     *
+     * @return true if products are stored in the shards
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables sharding.
+     *
+     * @param pEnabled
+     *            the flag
+     */
+    public void setEnabled(boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Gets the shards in index order.
+     *
+     * @return the shards
+     */
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Sets the shards in index order.
+     *
+     * @param pShards
+     *            the shards
+     */
+    public void setShards(List<Shard> pShards) {
+        this.shards = pShards;
+    }
+
+    /**
+     * Gets the number of threads used for scatter-gather queries.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Sets the number of threads used for scatter-gather queries.
+     *
+     * @param pParallelism
+     *            the parallelism
+     */
+    public void setParallelism(int pParallelism) {
+        this.parallelism = pParallelism;
+    }
+
+    /**
+     * Gets how long a fan-out query waits for all shards.
+     *
+     * @return the timeout in milliseconds
+     */
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * Sets how long a fan-out query waits for all shards.
+     *
+     * @param pTimeoutMillis
+     *            the timeout in milliseconds
+     */
+    public void setTimeoutMillis(long pTimeoutMillis) {
+        this.timeoutMillis = pTimeoutMillis;
+    }
+}
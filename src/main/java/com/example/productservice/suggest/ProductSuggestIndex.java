@@ -0,0 +1,568 @@
+package com.example.productservice.suggest;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.dto.ProductSuggestion;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductCatalogResyncEvent;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.repository.ProductStore;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * In-memory prefix index for typeahead suggestions. Every product is indexed
+ * under its normalized full name and each name token, so "lap" and "gaming lap"
+ * both find "Gaming Laptop". Each trie node keeps the best {@code max-results}
+ * products of its subtree by the configured ranking, so a lookup walks the
+ * prefix and copies at most that many entries, whatever the catalog size.
+ *
+ * <p>
+ * The index is loaded on startup and updated from committed product change
+ * events. Writers are serialized; readers never lock and see each node's
+ * suggestion array as an immutable snapshot.
+ */
+@Component
+public class ProductSuggestIndex implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSuggestIndex.class);
+
+    /**
+     * Signal suggestions are ranked by; ties are broken by name.
+     */
+    public enum RankBy {
+        /** Highest stock first. */
+        STOCK,
+        /** Lowest price first. */
+        PRICE,
+        /** Alphabetical. */
+        NAME
+    }
+
+    /**
+     * An indexed product with its precomputed rank.
+     */
+    private record Entry(long id, String sortName, long score, ProductSuggestion suggestion) {
+    }
+
+    /**
+     * Trie node. {@code children} is sorted by key; {@code top} holds the best
+     * entries of the subtree; {@code terminals} holds the entries whose term ends
+     * here and is only used by writers.
+     */
+    private static final class Node {
+        // CHECKSTYLE:OFF - internal index state uses standard naming
+        private final char key;
+        private volatile Node[] children = NO_NODES;
+        private volatile Entry[] top = NO_ENTRIES;
+        private Entry[] terminals = NO_ENTRIES;
+        // CHECKSTYLE:ON
+
+        Node(char pKey) {
+            this.key = pKey;
+        }
+    }
+
+    private static final Node[] NO_NODES = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> RANKING = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::sortName).thenComparingLong(Entry::id);
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ProductStore productStore;
+    private final boolean enabled;
+    private final int maxResults;
+    private final RankBy rankBy;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Node root = new Node('\0');
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection.
+     *
+     * @param pProductStore
+     *            the store the index is loaded from
+     * @param pEnabled
+     *            whether suggestions are served from the index
+     * @param pMaxResults
+     *            number of suggestions kept per prefix, and the largest limit a
+     *            request can use
+     * @param pRankBy
+     *            the ranking signal: stock, price or name
+     */
+    public ProductSuggestIndex(ProductStore pProductStore, @Value("${product.suggest.enabled:false}") boolean pEnabled,
+            @Value("${product.suggest.max-results:10}") int pMaxResults,
+            @Value("${product.suggest.rank-by:stock}") String pRankBy) {
+        this.productStore = pProductStore;
+        this.enabled = pEnabled;
+        this.maxResults = Math.max(1, pMaxResults);
+        this.rankBy = RankBy.valueOf(pRankBy.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Indicates whether suggestions are served from the index.
+     *
+     * @return true if the index is active
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets the largest number of suggestions a request can return.
+     *
+     * @return the maximum limit
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Looks up the best products with a name or name token starting with a prefix.
+     *
+     * @param pPrefix
+     *            the typed prefix
+     * @param pLimit
+     *            maximum number of suggestions
+     * @return the suggestions, best first
+     */
+    public List<ProductSuggestion> suggest(String pPrefix, int pLimit) {
+        String prefix = normalize(pPrefix);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = child(node, prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        Entry[] top = node.top;
+        int count = Math.min(Math.min(pLimit, maxResults), top.length);
+        List<ProductSuggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            suggestions.add(top[i].suggestion());
+        }
+        return suggestions;
+    }
+
+    /**
+     * Ranks products loaded by other means (e.g. a name search while the index is
+     * disabled) the way the index would.
+     *
+     * @param pProducts
+     *            candidate products
+     * @param pPrefix
+     *            the typed prefix
+     * @param pLimit
+     *            maximum number of suggestions
+     * @return the matching suggestions, best first
+     */
+    public List<ProductSuggestion> rank(List<Product> pProducts, String pPrefix, int pLimit) {
+        String prefix = normalize(pPrefix);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        List<Entry> matches = new ArrayList<>();
+        for (Product product : pProducts) {
+            for (String term : terms(product.getName())) {
+                if (term.startsWith(prefix)) {
+                    matches.add(entry(product));
+                    break;
+                }
+            }
+        }
+        matches.sort(RANKING);
+        List<ProductSuggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i < matches.size() && i < Math.min(pLimit, maxResults); i++) {
+            suggestions.add(matches.get(i).suggestion());
+        }
+        return suggestions;
+    }
+
+    /**
+     * Applies a committed product write to the index.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (!enabled) {
+            return;
+        }
+        if (pEvent.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(pEvent.getProductId());
+        } else {
+            put(pEvent.getAfter());
+        }
+    }
+
+    /**
+     * Reloads the products of a category after a bulk write, so their ranking
+     * scores are current. Only needed when suggestions are ranked by price.
+     *
+     * @param pEvent
+     *            the bulk write
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent pEvent) {
+        if (!enabled || rankBy != RankBy.PRICE) {
+            return;
+        }
+        for (Product product : productStore.findByCategory(pEvent.getCategory())) {
+            put(product);
+        }
+    }
+
+    /**
+     * Reloads the index when changes on other nodes may have been missed.
+     *
+     * @param pEvent
+     *            the resync
+     */
+    @EventListener
+    public void onCatalogResync(ProductCatalogResyncEvent pEvent) {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Adds or replaces a product.
+     *
+     * @param pProduct
+     *            the product
+     */
+    public synchronized void put(Product pProduct) {
+        if (pProduct == null || pProduct.getId() == null) {
+            return;
+        }
+        Entry entry = entry(pProduct);
+        Entry previous = entries.get(pProduct.getId());
+        if (previous != null) {
+            if (previous.score() == entry.score()
+                    && previous.suggestion().getName().equals(entry.suggestion().getName())
+                    && Objects.equals(previous.suggestion().getCategory(), pProduct.getCategory())) {
+                return;
+            }
+            unlink(previous);
+        }
+        entries.put(pProduct.getId(), entry);
+        link(entry);
+    }
+
+    /**
+     * Removes a product.
+     *
+     * @param pId
+     *            the product ID
+     */
+    public synchronized void remove(Long pId) {
+        Entry previous = entries.remove(pId);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    /**
+     * Reloads every product from the store, removing those no longer stored.
+     */
+    public void reload() {
+        List<Product> products = productStore.findAll();
+        Set<Long> stored = new HashSet<>();
+        synchronized (this) {
+            for (Product product : products) {
+                put(product);
+                stored.add(product.getId());
+            }
+            for (Long id : new ArrayList<>(entries.keySet())) {
+                if (!stored.contains(id)) {
+                    remove(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of indexed products.
+     *
+     * @return the product count
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void link(Entry pEntry) {
+        for (String term : terms(pEntry.suggestion().getName())) {
+            Node node = root;
+            for (int i = 0; i < term.length(); i++) {
+                node = childOrCreate(node, term.charAt(i));
+                offer(node, pEntry);
+            }
+            node.terminals = append(node.terminals, pEntry);
+        }
+    }
+
+    private void unlink(Entry pEntry) {
+        Set<String> terms = terms(pEntry.suggestion().getName());
+        List<Node[]> paths = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Node[] path = new Node[term.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < term.length(); i++) {
+                path[i + 1] = child(path[i], term.charAt(i));
+            }
+            Node last = path[term.length()];
+            last.terminals = without(last.terminals, pEntry.id());
+            paths.add(path);
+        }
+        // Terminals are gone from every term first, so recomputing a node shared
+        // by two terms cannot bring the entry back
+        for (Node[] path : paths) {
+            for (int i = path.length - 1; i > 0; i--) {
+                Node node = path[i];
+                if (contains(node.top, pEntry.id())) {
+                    recompute(node);
+                }
+                if (node.terminals.length == 0 && node.children.length == 0) {
+                    removeChild(path[i - 1], node.key);
+                }
+            }
+        }
+    }
+
+    private void offer(Node pNode, Entry pEntry) {
+        Entry[] top = pNode.top;
+        if (contains(top, pEntry.id())) {
+            return;
+        }
+        if (top.length == maxResults && RANKING.compare(pEntry, top[top.length - 1]) >= 0) {
+            return;
+        }
+        int position = 0;
+        while (position < top.length && RANKING.compare(top[position], pEntry) < 0) {
+            position++;
+        }
+        Entry[] updated = new Entry[Math.min(maxResults, top.length + 1)];
+        System.arraycopy(top, 0, updated, 0, position);
+        updated[position] = pEntry;
+        System.arraycopy(top, position, updated, position + 1, updated.length - position - 1);
+        pNode.top = updated;
+    }
+
+    private void recompute(Node pNode) {
+        List<Entry> candidates = new ArrayList<>(Arrays.asList(pNode.terminals));
+        for (Node child : pNode.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(RANKING);
+        List<Entry> best = new ArrayList<>(maxResults);
+        Set<Long> seen = new HashSet<>();
+        for (Entry candidate : candidates) {
+            if (best.size() == maxResults) {
+                break;
+            }
+            if (seen.add(candidate.id())) {
+                best.add(candidate);
+            }
+        }
+        pNode.top = best.toArray(NO_ENTRIES);
+    }
+
+    private static Node child(Node pNode, char pKey) {
+        Node[] children = pNode.children;
+        int index = indexOf(children, pKey);
+        return index >= 0 ? children[index] : null;
+    }
+
+    private static Node childOrCreate(Node pNode, char pKey) {
+        Node[] children = pNode.children;
+        int index = indexOf(children, pKey);
+        if (index >= 0) {
+            return children[index];
+        }
+        int insertion = -index - 1;
+        Node created = new Node(pKey);
+        Node[] updated = new Node[children.length + 1];
+        System.arraycopy(children, 0, updated, 0, insertion);
+        updated[insertion] = created;
+        System.arraycopy(children, insertion, updated, insertion + 1, children.length - insertion);
+        pNode.children = updated;
+        return created;
+    }
+
+    private static void removeChild(Node pNode, char pKey) {
+        Node[] children = pNode.children;
+        int index = indexOf(children, pKey);
+        if (index < 0) {
+            return;
+        }
+        Node[] updated = new Node[children.length - 1];
+        System.arraycopy(children, 0, updated, 0, index);
+        System.arraycopy(children, index + 1, updated, index, children.length - index - 1);
+        pNode.children = updated;
+    }
+
+    private static int indexOf(Node[] pChildren, char pKey) {
+        int low = 0;
+        int high = pChildren.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char key = pChildren[mid].key;
+            if (key < pKey) {
+                low = mid + 1;
+            } else if (key > pKey) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static boolean contains(Entry[] pEntries, long pId) {
+        for (Entry entry : pEntries) {
+            if (entry.id() == pId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry[] append(Entry[] pEntries, Entry pEntry) {
+        Entry[] updated = Arrays.copyOf(pEntries, pEntries.length + 1);
+        updated[pEntries.length] = pEntry;
+        return updated;
+    }
+
+    private static Entry[] without(Entry[] pEntries, long pId) {
+        return Arrays.stream(pEntries).filter(entry -> entry.id() != pId).toArray(Entry[]::new);
+    }
+
+    private Entry entry(Product pProduct) {
+        long score = switch (rankBy) {
+            case STOCK -> pProduct.hasStock() ? pProduct.getStockCount() : Long.MIN_VALUE;
+            case PRICE -> pProduct.hasPrice() ? -pProduct.getPriceCents() : Long.MIN_VALUE;
+            case NAME -> 0;
+        };
+        String name = pProduct.getName() == null ? "" : pProduct.getName();
+        return new Entry(pProduct.getId(), normalize(name), score,
+                new ProductSuggestion(pProduct.getId(), name, pProduct.getCategory()));
+    }
+
+    /**
+     * Returns the terms a name is indexed under: the normalized name and each of
+     * its tokens.
+     *
+     * @param pName
+     *            the product name
+     * @return the distinct terms
+     */
+    static Set<String> terms(String pName) {
+        Set<String> terms = new LinkedHashSet<>();
+        String normalized = normalize(pName);
+        if (!normalized.isEmpty()) {
+            terms.add(normalized);
+            for (String token : normalized.split(" ")) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-cases a name, strips accents and collapses everything that is not a
+     * letter or digit into single spaces.
+     *
+     * @param pText
+     *            the text
+     * @return the normalized text
+     */
+    static String normalize(String pText) {
+        if (pText == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(pText, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            long started = System.nanoTime();
+            List<Product> products = productStore.findAll();
+            synchronized (this) {
+                for (Product product : products) {
+                    put(product);
+                }
+            }
+            LOG.info("Indexed {} products for suggestions in {} ms", products.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before the web server so the first request sees a loaded index.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 2048;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        Gauge.builder("product.suggest.index.size", this, ProductSuggestIndex::size).register(pRegistry);
+    }
+}
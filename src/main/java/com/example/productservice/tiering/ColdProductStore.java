@@ -0,0 +1,322 @@
+package com.example.productservice.tiering;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.productservice.entity.Product;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * The cold tier: products moved out of the {@code products} table into
+ * {@code products_archive}, which has the same columns plus the time of the
+ * move. The hot table, its indexes and every scan of it shrink accordingly;
+ * archived products are still found by ID, and by searches that ask for them.
+ *
+ * <p>
+ * Also keeps {@code product_activity}, the time of the last read or write of
+ * each hot product, which decides when a product becomes inactive. A product
+ * the tiering job has not seen yet starts its idle period when it is first
+ * seen.
+ */
+public class ColdProductStore implements MeterBinder {
+
+    private static final String COLUMNS = "id, name, category, price_cents, stock";
+
+    private static final RowMapper<Product> ROW_MAPPER = (rs, rowNum) -> {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setName(rs.getString("name"));
+        product.setCategory(rs.getString("category"));
+        product.setPriceCents(rs.getLong("price_cents"));
+        product.setStockCount(rs.getInt("stock"));
+        return product;
+    };
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder restored = new LongAdder();
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependencies. Creates the archive and activity tables if
+     * they do not exist.
+     *
+     * @param pJdbcTemplate
+     *            JDBC template of the database holding the {@code products} table
+     * @param pTransactionManager
+     *            transaction manager of that database
+     */
+    public ColdProductStore(JdbcTemplate pJdbcTemplate, PlatformTransactionManager pTransactionManager) {
+        this.jdbcTemplate = pJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(pTransactionManager);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS products_archive (id BIGINT PRIMARY KEY, "
+                + "name VARCHAR(255) NOT NULL, category VARCHAR(255) NOT NULL, price_cents BIGINT NOT NULL, "
+                + "stock INTEGER NOT NULL, archived_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute(
+                "CREATE INDEX IF NOT EXISTS idx_products_archive_category_id ON products_archive " + "(category, id)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS product_activity (id BIGINT PRIMARY KEY, "
+                + "last_active_at TIMESTAMP NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_product_activity_last_active_at ON product_activity "
+                + "(last_active_at)");
+    }
+
+    /**
+     * Loads an archived product.
+     *
+     * @param pId
+     *            the product ID
+     * @return the product, if archived
+     */
+    public Optional<Product> findById(Long pId) {
+        lookups.increment();
+        List<Product> found = jdbcTemplate.query("SELECT " + COLUMNS + " FROM products_archive WHERE id = ?",
+                ROW_MAPPER, pId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(found.get(0));
+    }
+
+    /**
+     * Loads archived products by ID.
+     *
+     * @param pIds
+     *            the product IDs
+     * @return the archived ones, in no particular order
+     */
+    public List<Product> findAllById(Collection<Long> pIds) {
+        if (pIds.isEmpty()) {
+            return List.of();
+        }
+        lookups.add(pIds.size());
+        List<Product> found = jdbcTemplate.query(
+                "SELECT " + COLUMNS + " FROM products_archive WHERE id IN (" + placeholders(pIds.size()) + ")",
+                ROW_MAPPER, pIds.toArray());
+        hits.add(found.size());
+        return found;
+    }
+
+    /**
+     * Gets the IDs of all archived products.
+     *
+     * @return the IDs
+     */
+    public List<Long> findAllIds() {
+        return jdbcTemplate.queryForList("SELECT id FROM products_archive", Long.class);
+    }
+
+    /**
+     * Searches archived products with the criteria of the hot tier's search.
+     *
+     * @param pName
+     *            the name pattern (optional)
+     * @param pCategory
+     *            the category (optional)
+     * @param pMinCents
+     *            the minimum price in minor units (optional)
+     * @param pMaxCents
+     *            the maximum price in minor units (optional)
+     * @return matching products ordered by ID
+     */
+    public List<Product> search(String pName, String pCategory, Long pMinCents, Long pMaxCents) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM products_archive WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (pName != null) {
+            sql.append(" AND LOWER(name) LIKE LOWER(CONCAT('%', ?, '%'))");
+            args.add(pName);
+        }
+        if (pCategory != null) {
+            sql.append(" AND category = ?");
+            args.add(pCategory);
+        }
+        if (pMinCents != null) {
+            sql.append(" AND price_cents >= ?");
+            args.add(pMinCents);
+        }
+        if (pMaxCents != null) {
+            sql.append(" AND price_cents <= ?");
+            args.add(pMaxCents);
+        }
+        sql.append(" ORDER BY id");
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Saves the time of the last read or write of products.
+     *
+     * @param pIds
+     *            the active product IDs
+     * @param pAt
+     *            the time of the activity
+     */
+    public void recordActivity(List<Long> pIds, Timestamp pAt) {
+        jdbcTemplate.batchUpdate("MERGE INTO product_activity (id, last_active_at) KEY (id) VALUES (?, ?)", pIds, 500,
+                (ps, id) -> {
+                    ps.setLong(1, id);
+                    ps.setTimestamp(2, pAt);
+                });
+    }
+
+    /**
+     * Starts the idle period of hot products without recorded activity, and drops
+     * the activity of products no longer in the hot table.
+     *
+     * @param pNow
+     *            the current time
+     */
+    public void trackNewProducts(Timestamp pNow) {
+        jdbcTemplate.update("INSERT INTO product_activity (id, last_active_at) SELECT p.id, ? FROM products p "
+                + "WHERE NOT EXISTS (SELECT 1 FROM product_activity a WHERE a.id = p.id)", pNow);
+        jdbcTemplate
+                .update("DELETE FROM product_activity a WHERE NOT EXISTS (SELECT 1 FROM products p WHERE p.id = a.id)");
+    }
+
+    /**
+     * Finds hot products eligible for the cold tier.
+     *
+     * @param pMaxStock
+     *            the highest stock level of a product that may be moved
+     * @param pIdleSince
+     *            the time before which an eligible product was last active
+     * @param pAfterId
+     *            the ID after which to start, for paging
+     * @param pLimit
+     *            the maximum number of IDs
+     * @return the eligible IDs, ascending
+     */
+    public List<Long> findInactive(int pMaxStock, Timestamp pIdleSince, long pAfterId, int pLimit) {
+        return jdbcTemplate.queryForList(
+                "SELECT p.id FROM products p JOIN product_activity a ON a.id = p.id "
+                        + "WHERE p.id > ? AND p.stock <= ? AND a.last_active_at < ? ORDER BY p.id LIMIT ?",
+                Long.class, pAfterId, pMaxStock, pIdleSince, pLimit);
+    }
+
+    /**
+     * Moves products to the cold tier in one transaction. The rows are locked and
+     * the policy is checked again, so a product restocked or read since it was
+     * found eligible stays hot, as does one the caller still needs hot.
+     *
+     * @param pIds
+     *            the eligible IDs
+     * @param pMaxStock
+     *            the highest stock level of a product that may be moved
+     * @param pIdleSince
+     *            the time before which a moved product was last active
+     * @param pNow
+     *            the time of the move
+     * @param pKeepHot
+     *            tells which products to leave hot, asked once their rows are
+     *            locked
+     * @return the products moved
+     */
+    public List<Product> archive(List<Long> pIds, int pMaxStock, Timestamp pIdleSince, Timestamp pNow,
+            Predicate<Long> pKeepHot) {
+        if (pIds.isEmpty()) {
+            return List.of();
+        }
+        List<Product> moved = transactionTemplate.execute(status -> {
+            List<Object> args = new ArrayList<>(pIds);
+            args.add(pMaxStock);
+            args.add(pIdleSince);
+            List<Product> products = jdbcTemplate.query("SELECT " + COLUMNS + " FROM products WHERE id IN ("
+                    + placeholders(pIds.size()) + ") AND stock <= ? AND id IN (SELECT a.id FROM product_activity a "
+                    + "WHERE a.last_active_at < ?) FOR UPDATE", ROW_MAPPER, args.toArray());
+            products.removeIf(product -> pKeepHot.test(product.getId()));
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO products_archive (" + COLUMNS + ", archived_at) " + "VALUES (?, ?, ?, ?, ?, ?)",
+                    products, products.size(), (ps, product) -> {
+                        ps.setLong(1, product.getId());
+                        ps.setString(2, product.getName());
+                        ps.setString(3, product.getCategory());
+                        ps.setLong(4, product.getPriceCents());
+                        ps.setInt(5, product.getStockCount());
+                        ps.setTimestamp(6, pNow);
+                    });
+            jdbcTemplate.batchUpdate("DELETE FROM products WHERE id = ?", products, products.size(),
+                    (ps, product) -> ps.setLong(1, product.getId()));
+            jdbcTemplate.batchUpdate("DELETE FROM product_activity WHERE id = ?", products, products.size(),
+                    (ps, product) -> ps.setLong(1, product.getId()));
+            return products;
+        });
+        archived.add(moved.size());
+        return moved;
+    }
+
+    /**
+     * Sets the stock of an archived product.
+     *
+     * @param pId
+     *            the product ID
+     * @param pStock
+     *            the new stock level
+     * @return true if the product is archived
+     */
+    public boolean updateStock(Long pId, int pStock) {
+        return jdbcTemplate.update("UPDATE products_archive SET stock = ? WHERE id = ?", pStock, pId) > 0;
+    }
+
+    /**
+     * Moves an archived product back to the hot table, starting a new idle period.
+     * Runs in the caller's transaction.
+     *
+     * @param pId
+     *            the product ID
+     * @param pNow
+     *            the current time
+     * @return the restored product, if it was archived
+     */
+    public Optional<Product> restore(Long pId, Timestamp pNow) {
+        Optional<Product> product = findById(pId);
+        if (product.isEmpty()) {
+            return product;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO products (" + COLUMNS + ") SELECT " + COLUMNS + " FROM products_archive WHERE id = ?",
+                pId);
+        jdbcTemplate.update("DELETE FROM products_archive WHERE id = ?", pId);
+        jdbcTemplate.update("MERGE INTO product_activity (id, last_active_at) KEY (id) VALUES (?, ?)", pId, pNow);
+        restored.increment();
+        return product;
+    }
+
+    /**
+     * Deletes every archived product and all recorded activity.
+     */
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM products_archive");
+        jdbcTemplate.update("DELETE FROM product_activity");
+    }
+
+    private static String placeholders(int pCount) {
+        return String.join(", ", Collections.nCopies(pCount, "?"));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.tiering.cold.lookups", lookups, LongAdder::sum)
+                .description("Reads by ID that missed the hot tier").register(pRegistry);
+        FunctionCounter.builder("product.tiering.cold.hits", hits, LongAdder::sum)
+                .description("Reads by ID answered from the cold tier").register(pRegistry);
+        FunctionCounter.builder("product.tiering.archived", archived, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.tiering.restored", restored, LongAdder::sum).register(pRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.productservice.tiering;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.productservice.event.ProductChangedEvent;
+
+/**
+ * Records which products were read by ID or written since the last save of
+ * activity, so the tiering job can tell inactive products apart. Only the set
+ * of IDs is kept, so a hot product costs one entry per interval however often
+ * it is read. Does nothing unless tiering is enabled.
+ */
+@Component
+public class ProductActivityTracker {
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final boolean enabled;
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with configuration injection.
+     *
+     * @param pEnabled
+     *            whether activity is recorded
+     */
+    public ProductActivityTracker(@Value("${product.tiering.enabled:false}") boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Records a read of a product.
+     *
+     * @param pId
+     *            the product ID
+     */
+    public void record(Long pId) {
+        if (enabled && pId != null) {
+            active.add(pId);
+        }
+    }
+
+    /**
+     * Records committed creates and updates of products.
+     *
+     * @param pEvent
+     *            the product change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent pEvent) {
+        if (pEvent.getType() != ProductChangedEvent.Type.DELETED) {
+            record(pEvent.getProductId());
+        }
+    }
+
+    /**
+     * Takes the IDs recorded since the last call.
+     *
+     * @return the active product IDs
+     */
+    public List<Long> drain() {
+        List<Long> ids = new ArrayList<>(active.size());
+        for (Long id : active) {
+            if (active.remove(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
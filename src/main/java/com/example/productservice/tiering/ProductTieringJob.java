@@ -0,0 +1,201 @@
+package com.example.productservice.tiering;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.writebehind.StockWriteBuffer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Background job that moves inactive products to the cold tier. Recorded reads
+ * and writes are saved on a short interval; on a longer one, the products
+ * matching the policy are moved in batches, each in its own transaction.
+ *
+ * <p>
+ * To the hot tier's caches and indexes a moved product is deleted, so a
+ * {@link ProductChangedEvent} of type {@code DELETED} is published for it after
+ * its batch commits; reads by ID still find it in the cold tier. Products with
+ * a buffered stock update are left alone until it is written. The buffer is
+ * checked with the rows locked and flushes held, and an update buffered for a
+ * product after that check is written to its archived row, so no flush can miss
+ * a moved row.
+ */
+public class ProductTieringJob implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductTieringJob.class);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final ColdProductStore coldStore;
+    private final ProductActivityTracker activityTracker;
+    private final StockWriteBuffer stockBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long idleMillis;
+    private final int maxStock;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final long activityFlushIntervalMillis;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder activitySaved = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependencies and configuration.
+     *
+     * @param pColdStore
+     *            the cold tier
+     * @param pActivityTracker
+     *            the reads and writes recorded since the last save
+     * @param pStockBuffer
+     *            write-behind buffer whose pending products are not moved
+     * @param pEventPublisher
+     *            publishes the moves to the hot tier's caches
+     * @param pProperties
+     *            the tiering policy and schedule
+     */
+    public ProductTieringJob(ColdProductStore pColdStore, ProductActivityTracker pActivityTracker,
+            StockWriteBuffer pStockBuffer, ApplicationEventPublisher pEventPublisher, TieringProperties pProperties) {
+        this.coldStore = pColdStore;
+        this.activityTracker = pActivityTracker;
+        this.stockBuffer = pStockBuffer;
+        this.eventPublisher = pEventPublisher;
+        this.idleMillis = pProperties.getIdleDays() * MILLIS_PER_DAY;
+        this.maxStock = pProperties.getMaxStock();
+        this.intervalMillis = Math.max(1, pProperties.getIntervalMs());
+        this.batchSize = Math.max(1, pProperties.getBatchSize());
+        this.activityFlushIntervalMillis = Math.max(1, pProperties.getActivityFlushIntervalMs());
+    }
+
+    /**
+     * Saves the reads and writes recorded since the last save.
+     *
+     * @return the number of products saved as active
+     */
+    public int saveActivity() {
+        List<Long> ids = activityTracker.drain();
+        if (!ids.isEmpty()) {
+            coldStore.recordActivity(ids, new Timestamp(System.currentTimeMillis()));
+            activitySaved.add(ids.size());
+        }
+        return ids.size();
+    }
+
+    /**
+     * Moves every product matching the policy to the cold tier.
+     *
+     * @return the number of products moved
+     */
+    public int run() {
+        saveActivity();
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Timestamp idleSince = new Timestamp(now.getTime() - idleMillis);
+        coldStore.trackNewProducts(now);
+        int total = 0;
+        long after = 0;
+        while (true) {
+            List<Long> ids = coldStore.findInactive(maxStock, idleSince, after, batchSize);
+            for (Product product : archive(ids, idleSince, now)) {
+                eventPublisher.publishEvent(ProductChangedEvent.deleted(product.getId(), product));
+                total++;
+            }
+            if (ids.size() < batchSize) {
+                break;
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        runs.increment();
+        if (total > 0) {
+            LOG.info("Moved {} inactive products to the cold tier", total);
+        }
+        return total;
+    }
+
+    private List<Product> archive(List<Long> pIds, Timestamp pIdleSince, Timestamp pNow) {
+        if (!stockBuffer.isEnabled()) {
+            return coldStore.archive(pIds, maxStock, pIdleSince, pNow, id -> false);
+        }
+        return stockBuffer.holdFlushes(() -> {
+            List<Product> moved = coldStore.archive(pIds, maxStock, pIdleSince, pNow,
+                    id -> stockBuffer.pendingStock(id) != null);
+            for (Product product : moved) {
+                Integer stock = stockBuffer.take(product.getId());
+                if (stock != null) {
+                    coldStore.updateStock(product.getId(), stock);
+                    product.setStockCount(stock);
+                }
+            }
+            return moved;
+        });
+    }
+
+    private void runSafely(Runnable pTask, String pName) {
+        try {
+            pTask.run();
+        } catch (RuntimeException e) {
+            LOG.warn("Product tiering {} failed", pName, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "product-tiering");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::saveActivity, "activity save"),
+                activityFlushIntervalMillis, activityFlushIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(() -> runSafely(this::run, "run"), intervalMillis, intervalMillis,
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        runSafely(this::saveActivity, "activity save");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server so the last reads are saved, but before the
+     * datasource is closed.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        FunctionCounter.builder("product.tiering.runs", runs, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.tiering.activity.saved", activitySaved, LongAdder::sum)
+                .description("Products saved as read or written").register(pRegistry);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.productservice.tiering;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of hot/cold tiering, bound from {@code product.tiering.*}. A
+ * product is moved to the cold tier when its stock is at most {@code max-stock}
+ * and it has not been read or written for {@code idle-days}.
+ */
+@ConfigurationProperties(prefix = "product.tiering")
+public class TieringProperties {
+
+    // CHECKSTYLE:OFF - configuration property fields use standard naming
+    private boolean enabled;
+    private int idleDays = 90;
+    private int maxStock;
+    private long intervalMs = 3_600_000;
+    private int batchSize = 500;
+    private long activityFlushIntervalMs = 60_000;
+    // CHECKSTYLE:ON
+
+    /**
+     * Indicates whether inactive products are moved to the cold tier.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets whether inactive products are moved to the cold tier.
+     *
+     * @param pEnabled
+     *            true to enable
+     */
+    public void setEnabled(boolean pEnabled) {
+        this.enabled = pEnabled;
+    }
+
+    /**
+     * Gets the days without reads or writes after which a product is inactive.
+     *
+     * @return the idle period in days
+     */
+    public int getIdleDays() {
+        return idleDays;
+    }
+
+    /**
+     * Sets the days without reads or writes after which a product is inactive.
+     *
+     * @param pIdleDays
+     *            the idle period in days
+     */
+    public void setIdleDays(int pIdleDays) {
+        this.idleDays = pIdleDays;
+    }
+
+    /**
+     * Gets the highest stock level of a product that may be moved.
+     *
+     * @return the stock level
+     */
+    public int getMaxStock() {
+        return maxStock;
+    }
+
+    /**
+     * Sets the highest stock level of a product that may be moved; the default of 0
+     * only moves products out of stock.
+     *
+     * @param pMaxStock
+     *            the stock level
+     */
+    public void setMaxStock(int pMaxStock) {
+        this.maxStock = pMaxStock;
+    }
+
+    /**
+     * Gets the interval between tiering runs.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    /**
+     * Sets the interval between tiering runs.
+     *
+     * @param pIntervalMs
+     *            the interval in milliseconds
+     */
+    public void setIntervalMs(long pIntervalMs) {
+        this.intervalMs = pIntervalMs;
+    }
+
+    /**
+     * Gets the number of products moved per transaction.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of products moved per transaction.
+     *
+     * @param pBatchSize
+     *            the batch size
+     */
+    public void setBatchSize(int pBatchSize) {
+        this.batchSize = pBatchSize;
+    }
+
+    /**
+     * Gets the interval at which recorded reads and writes are saved.
+     *
+     * @return the interval in milliseconds
+     */
+    public long getActivityFlushIntervalMs() {
+        return activityFlushIntervalMs;
+    }
+
+    /**
+     * Sets the interval at which recorded reads and writes are saved.
+     *
+     * @param pActivityFlushIntervalMs
+     *            the interval in milliseconds
+     */
+    public void setActivityFlushIntervalMs(long pActivityFlushIntervalMs) {
+        this.activityFlushIntervalMs = pActivityFlushIntervalMs;
+    }
+}
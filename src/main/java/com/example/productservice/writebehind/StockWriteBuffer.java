@@ -0,0 +1,502 @@
+package com.example.productservice.writebehind;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.productservice.event.StockFlushedEvent;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Write-behind buffer for stock-only product updates. Updates are coalesced per
+ * product ID in a fixed number of lock-striped maps, so only the latest stock
+ * value of a hot product is written, and are flushed as one JDBC batch on a
+ * short interval or as soon as the batch size threshold is reached.
+ *
+ * <p>
+ * Durability is bounded by two settings: at most {@code flush-interval-ms} of
+ * updates are buffered in time, and at most {@code max-pending} in count. When
+ * the count bound is reached the writer waits for a flush on the flusher
+ * thread, outside its own transaction, so a crash can never lose more than that
+ * many acknowledged stock updates. The buffer is drained on shutdown. An update
+ * whose row no longer exists is dropped and counted, not retried. Every written
+ * batch is announced with a {@link StockFlushedEvent}, so caches filled from
+ * the store before the write drop their copies.
+ */
+@Component
+public class StockWriteBuffer implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StockWriteBuffer.class);
+    private static final String UPDATE_STOCK_SQL = "UPDATE products SET stock = ? WHERE id = ?";
+
+    /**
+     * One lock-protected slice of the buffer. {@code pending} holds updates not yet
+     * taken by a flush; {@code flushing} holds updates taken by the flush in
+     * progress so readers still see them until the batch is written.
+     */
+    private static final class Stripe {
+        // CHECKSTYLE:OFF - internal buffer state uses standard naming
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private Map<Long, Integer> pending = new HashMap<>();
+        private Map<Long, Integer> flushing = Map.of();
+        // CHECKSTYLE:ON
+    }
+
+    // CHECKSTYLE:OFF - Spring managed bean fields use standard naming
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final int maxPending;
+    private final Stripe[] stripes;
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder syncFlushes = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    // CHECKSTYLE:ON
+
+    /**
+     * Constructor with dependency and configuration injection. Engines without a
+     * database, such as the in-memory store, have no JDBC template; write-behind
+     * must stay disabled with them.
+     *
+     * @param pJdbcTemplate
+     *            JDBC template used for batched writes, if there is a database
+     * @param pEnabled
+     *            whether stock-only updates are buffered
+     * @param pFlushIntervalMillis
+     *            maximum time an update stays buffered
+     * @param pMaxBatchSize
+     *            pending updates that trigger an early flush
+     * @param pMaxPending
+     *            hard bound on unwritten updates before writers flush inline
+     * @param pStripes
+     *            number of lock stripes (rounded up to a power of two)
+     * @param pEventPublisher
+     *            publisher of the events announcing written batches
+     * @throws IllegalStateException
+     *             if write-behind is enabled without a database
+     */
+    @Autowired
+    public StockWriteBuffer(ObjectProvider<JdbcTemplate> pJdbcTemplate,
+            @Value("${product.write-behind.enabled:false}") boolean pEnabled,
+            @Value("${product.write-behind.flush-interval-ms:50}") long pFlushIntervalMillis,
+            @Value("${product.write-behind.max-batch-size:500}") int pMaxBatchSize,
+            @Value("${product.write-behind.max-pending:10000}") int pMaxPending,
+            @Value("${product.write-behind.stripes:16}") int pStripes, ApplicationEventPublisher pEventPublisher) {
+        this(pJdbcTemplate.getIfAvailable(), pEnabled, pFlushIntervalMillis, pMaxBatchSize, pMaxPending, pStripes,
+                pEventPublisher);
+        if (pEnabled && jdbcTemplate == null) {
+            throw new IllegalStateException("product.write-behind.enabled requires a JDBC data source");
+        }
+    }
+
+    /**
+     * Constructor with configuration.
+     *
+     * @param pJdbcTemplate
+     *            JDBC template used for batched writes
+     * @param pEnabled
+     *            whether stock-only updates are buffered
+     * @param pFlushIntervalMillis
+     *            maximum time an update stays buffered
+     * @param pMaxBatchSize
+     *            pending updates that trigger an early flush
+     * @param pMaxPending
+     *            hard bound on unwritten updates before writers flush inline
+     * @param pStripes
+     *            number of lock stripes (rounded up to a power of two)
+     * @param pEventPublisher
+     *            publisher of the events announcing written batches
+     */
+    public StockWriteBuffer(JdbcTemplate pJdbcTemplate, boolean pEnabled, long pFlushIntervalMillis, int pMaxBatchSize,
+            int pMaxPending, int pStripes, ApplicationEventPublisher pEventPublisher) {
+        this.jdbcTemplate = pJdbcTemplate;
+        this.eventPublisher = pEventPublisher;
+        this.enabled = pEnabled;
+        this.flushIntervalMillis = pFlushIntervalMillis;
+        this.maxBatchSize = pMaxBatchSize;
+        this.maxPending = Math.max(pMaxPending, pMaxBatchSize);
+        int stripeCount = Integer.highestOneBit(Math.max(1, pStripes - 1)) << 1;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Indicates whether write-behind is active.
+     *
+     * @return true if stock-only updates should be buffered
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Buffers a new stock level for a product, replacing any earlier buffered value
+     * for the same product.
+     *
+     * @param pId
+     *            the product ID
+     * @param pStock
+     *            the new stock level
+     */
+    public void put(Long pId, Integer pStock) {
+        Stripe stripe = stripeFor(pId);
+        stripe.lock.lock();
+        try {
+            if (stripe.pending.put(pId, pStock) == null) {
+                pendingCount.incrementAndGet();
+            } else {
+                coalesced.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        buffered.increment();
+        int pendingNow = pendingCount.get();
+        if (pendingNow >= maxPending || !running) {
+            syncFlushes.increment();
+            flushOutsideCaller();
+        } else if (pendingNow >= maxBatchSize && scheduler != null && flushScheduled.compareAndSet(false, true)) {
+            scheduler.execute(this::scheduledFlush);
+        }
+    }
+
+    /**
+     * Flushes on the flusher thread and waits for it, so the batch never joins a
+     * transaction the writer may still roll back. Falls back to flushing inline
+     * when the buffer is not running.
+     */
+    private void flushOutsideCaller() {
+        ScheduledExecutorService executor = scheduler;
+        Future<?> flushed;
+        try {
+            flushed = executor != null ? executor.submit(this::flush) : null;
+        } catch (RejectedExecutionException e) {
+            flushed = null;
+        }
+        if (flushed == null) {
+            flush();
+            return;
+        }
+        try {
+            flushed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Stock flush failed", e.getCause());
+        }
+    }
+
+    /**
+     * Returns the buffered stock level for a product, if any. Values already taken
+     * by an in-progress flush are still visible.
+     *
+     * @param pId
+     *            the product ID
+     * @return the buffered stock, or null if nothing is buffered
+     */
+    public Integer pendingStock(Long pId) {
+        Stripe stripe = stripeFor(pId);
+        stripe.lock.lock();
+        try {
+            Integer stock = stripe.pending.get(pId);
+            return stock != null ? stock : stripe.flushing.get(pId);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops any buffered stock for a product before a full update or delete writes
+     * the row directly. Waits for an in-progress flush of the same stripe so an
+     * older buffered value cannot overwrite the direct write.
+     *
+     * @param pId
+     *            the product ID
+     */
+    public void discard(Long pId) {
+        take(pId);
+    }
+
+    /**
+     * Removes and returns the buffered stock for a product, for a caller that
+     * writes it somewhere else. Waits for an in-progress flush of the same stripe
+     * like {@link #discard(Long)}.
+     *
+     * @param pId
+     *            the product ID
+     * @return the buffered stock, or null if nothing was buffered
+     */
+    public Integer take(Long pId) {
+        Stripe stripe = stripeFor(pId);
+        stripe.flushLock.lock();
+        try {
+            stripe.lock.lock();
+            try {
+                Integer stock = stripe.pending.remove(pId);
+                if (stock != null) {
+                    pendingCount.decrementAndGet();
+                }
+                return stock;
+            } finally {
+                stripe.lock.unlock();
+            }
+        } finally {
+            stripe.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while no flush can write, so it can move rows and then take
+     * the updates buffered for them meanwhile. Writers keep buffering; one that
+     * reaches the pending bound waits for the action.
+     *
+     * @param <T>
+     *            the result type
+     * @param pAction
+     *            the action
+     * @return the action's result
+     */
+    public <T> T holdFlushes(Supplier<T> pAction) {
+        for (Stripe stripe : stripes) {
+            stripe.flushLock.lock();
+        }
+        try {
+            return pAction.get();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes all buffered updates, one JDBC batch per stripe.
+     *
+     * @return the number of rows written
+     */
+    public int flush() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += flushStripe(stripe);
+        }
+        return total;
+    }
+
+    private int flushStripe(Stripe pStripe) {
+        pStripe.flushLock.lock();
+        try {
+            Map<Long, Integer> batch;
+            pStripe.lock.lock();
+            try {
+                if (pStripe.pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pStripe.pending;
+                pStripe.pending = new HashMap<>();
+                pStripe.flushing = batch;
+                pendingCount.addAndGet(-batch.size());
+            } finally {
+                pStripe.lock.unlock();
+            }
+            List<Map.Entry<Long, Integer>> rows = new ArrayList<>(batch.entrySet());
+            int[][] counts;
+            try {
+                counts = jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setInt(1, row.getValue());
+                    ps.setLong(2, row.getKey());
+                });
+            } catch (RuntimeException e) {
+                requeue(pStripe, batch);
+                throw e;
+            }
+            eventPublisher.publishEvent(new StockFlushedEvent(new ArrayList<>(batch.keySet())));
+            pStripe.lock.lock();
+            try {
+                pStripe.flushing = Map.of();
+            } finally {
+                pStripe.lock.unlock();
+            }
+            int rowsWritten = countWritten(rows, counts);
+            written.add(rowsWritten);
+            batches.increment();
+            return rowsWritten;
+        } finally {
+            pStripe.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Counts the rows a batch updated, logging and counting the updates of products
+     * whose row was not found.
+     */
+    private int countWritten(List<Map.Entry<Long, Integer>> pRows, int[][] pCounts) {
+        int rowsWritten = 0;
+        int row = 0;
+        List<Long> missing = new ArrayList<>();
+        for (int[] chunk : pCounts) {
+            for (int count : chunk) {
+                if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                    rowsWritten++;
+                } else {
+                    missing.add(pRows.get(row).getKey());
+                }
+                row++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            dropped.add(missing.size());
+            LOG.warn("Dropped {} buffered stock updates of products not found: {}", missing.size(), missing);
+        }
+        return rowsWritten;
+    }
+
+    /**
+     * Puts a failed batch back, keeping any newer values buffered meanwhile.
+     */
+    private void requeue(Stripe pStripe, Map<Long, Integer> pBatch) {
+        pStripe.lock.lock();
+        try {
+            for (Map.Entry<Long, Integer> entry : pBatch.entrySet()) {
+                if (pStripe.pending.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                    pendingCount.incrementAndGet();
+                }
+            }
+            pStripe.flushing = Map.of();
+        } finally {
+            pStripe.lock.unlock();
+        }
+    }
+
+    private void scheduledFlush() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.warn("Write-behind stock flush failed, {} updates will be retried", pendingCount.get(), e);
+        }
+    }
+
+    private Stripe stripeFor(Long pId) {
+        long h = pId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (stripes.length - 1)];
+    }
+
+    /**
+     * Gets the number of buffered updates not yet taken by a flush.
+     *
+     * @return the pending count
+     */
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    /**
+     * Gets the number of flushed updates that found no row to write.
+     *
+     * @return the dropped count
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "stock-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdown();
+            try {
+                scheduler.awaitTermination(flushIntervalMillis * 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            scheduler = null;
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops after the web server so in-flight requests can still buffer, but before
+     * the datasource is closed.
+     *
+     * @return the lifecycle phase
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 1024;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry pRegistry) {
+        Gauge.builder("product.stock.write.behind.pending", pendingCount, AtomicInteger::get).register(pRegistry);
+        FunctionCounter.builder("product.stock.write.behind.buffered", buffered, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.stock.write.behind.coalesced", coalesced, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.stock.write.behind.written", written, LongAdder::sum)
+                .description("Buffered stock updates written to a row").register(pRegistry);
+        FunctionCounter.builder("product.stock.write.behind.dropped", dropped, LongAdder::sum)
+                .description("Buffered stock updates whose product row was not found").register(pRegistry);
+        FunctionCounter.builder("product.stock.write.behind.batches", batches, LongAdder::sum).register(pRegistry);
+        FunctionCounter.builder("product.stock.write.behind.sync.flushes", syncFlushes, LongAdder::sum)
+                .register(pRegistry);
+    }
+}
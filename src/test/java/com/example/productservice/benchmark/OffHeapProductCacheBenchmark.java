@@ -0,0 +1,145 @@
+package com.example.productservice.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.productservice.cache.OffHeapProductCache;
+import com.example.productservice.entity.Product;
+
+/**
+ * Heap footprint and GC cost of caching a large catalog on the heap (a map of
+ * {@link Product} objects) against the off-heap tier, under the same read and
+ * refill load on four threads. Each trial prints the heap retained by the
+ * filled cache and the GC count and time of the measurement; run with
+ * {@code -prof gc} for allocation rates as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx3g", "-XX:+UseG1GC", "-XX:MaxDirectMemorySize=2g" })
+public class OffHeapProductCacheBenchmark {
+
+    @Param({ "heap", "offheap" })
+    private String tier;
+
+    @Param({ "2000000" })
+    private int catalog;
+
+    private Map<Long, Product> heapCache;
+    private OffHeapProductCache offHeapCache;
+    private long gcCount;
+    private long gcMillis;
+
+    /**
+     * Fills the tier with the whole catalog and reports the heap it retains.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        long before = retainedHeap();
+        if ("heap".equals(tier)) {
+            heapCache = new ConcurrentHashMap<>(catalog * 2);
+        } else {
+            offHeapCache = new OffHeapProductCache(true, 1024, 1024, 16, catalog + catalog / 4);
+        }
+        for (long id = 1; id <= catalog; id++) {
+            fill(product(id));
+        }
+        System.out.printf("%n%s tier: %d MiB of heap retained by %d cached products%n", tier,
+                (retainedHeap() - before) >> 20, catalog);
+    }
+
+    /**
+     * Starts the GC counters for the measurement.
+     */
+    @Setup(Level.Iteration)
+    public void startCounters() {
+        gcCount = 0;
+        gcMillis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount -= gc.getCollectionCount();
+            gcMillis -= gc.getCollectionTime();
+        }
+    }
+
+    /**
+     * Reports the GCs of the iteration.
+     */
+    @TearDown(Level.Iteration)
+    public void reportCounters() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += gc.getCollectionCount();
+            gcMillis += gc.getCollectionTime();
+        }
+        System.out.printf("  %s tier: %d GCs, %d ms%n", tier, gcCount, gcMillis);
+    }
+
+    /**
+     * One request: sixteen random reads and one refill, as after an invalidation.
+     *
+     * @param pRandom
+     *            per-thread random source
+     * @param pBlackhole
+     *            sink for the products read
+     */
+    @Benchmark
+    public void readAndRefill(ThreadRandom pRandom, Blackhole pBlackhole) {
+        for (int i = 0; i < 16; i++) {
+            long id = 1 + pRandom.random.nextInt(catalog);
+            pBlackhole.consume("heap".equals(tier) ? heapCache.get(id) : offHeapCache.get(id));
+        }
+        fill(product(1 + pRandom.random.nextInt(catalog)));
+    }
+
+    private void fill(Product pProduct) {
+        if (heapCache != null) {
+            heapCache.put(pProduct.getId(), pProduct);
+        } else {
+            offHeapCache.put(pProduct, offHeapCache.version(pProduct.getId()));
+        }
+    }
+
+    private static Product product(long pId) {
+        return new Product(pId, "Product " + pId, "Category " + (pId % 50), 1.0 + pId % 10_000 / 100.0,
+                (int) (pId % 500));
+    }
+
+    private static long retainedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Random source of one benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        // CHECKSTYLE:OFF - benchmark fixture uses standard naming
+        private final SplittableRandom random = new SplittableRandom();
+        // CHECKSTYLE:ON
+    }
+}
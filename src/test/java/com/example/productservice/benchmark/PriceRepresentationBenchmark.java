@@ -0,0 +1,172 @@
+package com.example.productservice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.productservice.cache.ProductSearchCache;
+import com.example.productservice.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares the previous boxed {@code Double}/{@code Integer} product
+ * representation with the minor-unit one on the paths it affects: building
+ * products from rows, price-range filtering and JSON serialization. Run with
+ * {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PriceRepresentationBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int PAGE = 100;
+
+    /**
+     * The product shape before prices moved to minor units, serialized by the
+     * default bean serializer.
+     */
+    public static class BoxedProduct {
+        // CHECKSTYLE:OFF - benchmark fixture uses bean naming
+        private Long id;
+        private String name;
+        private String category;
+        private Double price;
+        private Integer stock;
+        // CHECKSTYLE:ON
+
+        BoxedProduct(Long pId, String pName, String pCategory, Double pPrice, Integer pStock) {
+            this.id = pId;
+            this.name = pName;
+            this.category = pCategory;
+            this.price = pPrice;
+            this.stock = pStock;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public Integer getStock() {
+            return stock;
+        }
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ProductSearchCache.Key key = ProductSearchCache.Key.of(null, null, 20.0, 80.0);
+    private final Double minPrice = 20.0;
+    private final Double maxPrice = 80.0;
+    private long[] rowCents;
+    private double[] rowPrices;
+    private int[] rowStock;
+    private List<BoxedProduct> boxed;
+    private List<Product> primitive;
+
+    /**
+     * Generates the same catalog in both representations.
+     */
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        rowCents = new long[ROWS];
+        rowPrices = new double[ROWS];
+        rowStock = new int[ROWS];
+        boxed = new ArrayList<>(ROWS);
+        primitive = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rowCents[i] = 100 + random.nextLong(20_000);
+            rowPrices[i] = rowCents[i] / 100.0;
+            rowStock[i] = random.nextInt(500);
+            boxed.add(new BoxedProduct((long) i, "Product " + i, "Category " + (i % 40), rowPrices[i], rowStock[i]));
+            Product product = new Product();
+            product.setId((long) i);
+            product.setName("Product " + i);
+            product.setCategory("Category " + (i % 40));
+            product.setPriceCents(rowCents[i]);
+            product.setStockCount(rowStock[i]);
+            primitive.add(product);
+        }
+    }
+
+    @Benchmark
+    public void materializeBoxed(Blackhole pBlackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            pBlackhole.consume(new BoxedProduct((long) i, "n", "c", rowPrices[i], rowStock[i]));
+        }
+    }
+
+    @Benchmark
+    public void materializePrimitive(Blackhole pBlackhole) {
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setId((long) i);
+            product.setPriceCents(rowCents[i]);
+            product.setStockCount(rowStock[i]);
+            pBlackhole.consume(product);
+        }
+    }
+
+    @Benchmark
+    public int filterBoxed() {
+        int matches = 0;
+        for (BoxedProduct product : boxed) {
+            Double price = product.getPrice();
+            if (price != null && price >= minPrice && price <= maxPrice && product.getStock() > 0) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int filterPrimitive() {
+        int matches = 0;
+        long min = key.minCents();
+        long max = key.maxCents();
+        for (Product product : primitive) {
+            long price = product.getPriceCents();
+            if (price >= min && price <= max && product.getStockCount() > 0) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public byte[] serializeBoxed() throws Exception {
+        return mapper.writeValueAsBytes(boxed.subList(0, PAGE));
+    }
+
+    @Benchmark
+    public byte[] serializePrimitive() throws Exception {
+        return mapper.writeValueAsBytes(primitive.subList(0, PAGE));
+    }
+}
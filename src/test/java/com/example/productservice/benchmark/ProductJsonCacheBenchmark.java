@@ -0,0 +1,88 @@
+package com.example.productservice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.example.productservice.cache.ProductJsonCache;
+import com.example.productservice.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Response-writing throughput of the plain {@code ResponseEntity<Product>} path
+ * (Jackson message converter) against cached product documents written by the
+ * byte array converter, for one product and for a page of products.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductJsonCacheBenchmark {
+
+    private static final int PAGE = 100;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final MappingJackson2HttpMessageConverter jacksonConverter = new MappingJackson2HttpMessageConverter(
+            mapper);
+    private final ByteArrayHttpMessageConverter bytesConverter = new ByteArrayHttpMessageConverter();
+    private final ProductJsonCache cache = new ProductJsonCache(mapper, true, 10_000);
+    private final List<Product> page = new ArrayList<>(PAGE);
+    private Product single;
+
+    /**
+     * Creates a page of products and warms the cache with their documents.
+     */
+    @Setup
+    public void setUp() {
+        for (long id = 1; id <= PAGE; id++) {
+            page.add(new Product(id, "Product " + id, "Category " + (id % 7), 10.0 + id * 1.25, (int) id));
+        }
+        single = page.get(0);
+        cache.array(page, cache.currentEpoch());
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage singlePlain() throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        jacksonConverter.write(single, MediaType.APPLICATION_JSON, out);
+        return out;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage singleCached() throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        bytesConverter.write(cache.get(single.getId()), MediaType.APPLICATION_JSON, out);
+        return out;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage pagePlain() throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        jacksonConverter.write(page, MediaType.APPLICATION_JSON, out);
+        return out;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage pageCached() throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        bytesConverter.write(cache.array(page, cache.currentEpoch()), MediaType.APPLICATION_JSON, out);
+        return out;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.productservice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.productservice.dto.ProductSuggestion;
+import com.example.productservice.entity.Product;
+import com.example.productservice.suggest.ProductSuggestIndex;
+
+/**
+ * Latency distribution of typeahead lookups from the prefix index compared with
+ * ranking the matches of a name scan, as the endpoint does when the index is
+ * disabled (the scan itself is not included). Short prefixes are the worst case
+ * for the scan and the common case while typing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSuggestBenchmark {
+
+    private static final int LIMIT = 10;
+
+    @Param({ "100000" })
+    private int products;
+
+    @Param({ "s", "sta", "gaming la" })
+    private String prefix;
+
+    private ProductSuggestIndex index;
+    private List<Product> catalog;
+
+    /**
+     * Builds a catalog of generated names and indexes it.
+     */
+    @Setup
+    public void setUp() {
+        List<String> adjectives = List.of("Gaming", "Wireless", "Compact", "Steel", "Smart", "Portable", "Classic");
+        List<String> nouns = List.of("Laptop", "Mouse", "Stand", "Speaker", "Lamp", "Kettle", "Backpack", "Stapler");
+        SplittableRandom random = new SplittableRandom(42);
+        index = new ProductSuggestIndex(null, true, LIMIT, "stock");
+        catalog = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            String name = adjectives.get(random.nextInt(adjectives.size())) + " "
+                    + nouns.get(random.nextInt(nouns.size())) + " " + Integer.toString(i, 36);
+            Product product = new Product((long) i, name, "Category " + (i % 40), 9.99, random.nextInt(1000));
+            index.put(product);
+            catalog.add(product);
+        }
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> index() {
+        return index.suggest(prefix, LIMIT);
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> rankScan() {
+        return index.rank(catalog, prefix, LIMIT);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.productservice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.productservice.compression.CompressionProperties;
+import com.example.productservice.compression.ContentEncoding;
+import com.example.productservice.compression.ResponseCompressor;
+import com.example.productservice.entity.Product;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * CPU time per response and compressed size of a pretty-printed product list,
+ * as {@code GET /api/products} writes it, for each encoding at a fast and a
+ * default level. Each trial prints the body size before and after compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+    @Param({ "gzip:1", "gzip:6", "zstd:1", "zstd:3" })
+    private String codec;
+
+    @Param({ "1000", "20000" })
+    private int products;
+
+    private ContentEncoding encoding;
+    private ResponseCompressor compressor;
+    private byte[] body;
+
+    /**
+     * Serializes the list and reports its size per encoding.
+     *
+     * @throws Exception
+     *             if serialization fails
+     */
+    @Setup
+    public void setUp() throws Exception {
+        List<Product> list = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            list.add(new Product(id, "Product " + id, "Category " + (id % 50), 1.0 + id % 10_000 / 100.0,
+                    (int) (id % 500)));
+        }
+        body = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsBytes(list);
+        String[] parts = codec.split(":");
+        encoding = ContentEncoding.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        CompressionProperties properties = new CompressionProperties();
+        properties.setEncodings(List.of(encoding));
+        properties.setGzipLevel(Integer.parseInt(parts[1]));
+        properties.setZstdLevel(Integer.parseInt(parts[1]));
+        compressor = new ResponseCompressor(properties);
+        byte[] compressed = compressor.compress(encoding, body);
+        System.out.printf("%n%s, %d products: %d KiB -> %d KiB (%.1f%%)%n", codec, products, body.length >> 10,
+                compressed.length >> 10, 100.0 * compressed.length / body.length);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return compressor.compress(encoding, body);
+    }
+}
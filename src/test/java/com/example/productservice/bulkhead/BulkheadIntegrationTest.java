@@ -0,0 +1,133 @@
+package com.example.productservice.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Integration tests for the workload bulkheads: endpoint classification, queue
+ * limits and connection shares.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:bulkheads", "product.bulkheads.enabled=true",
+        "product.bulkheads.bulk.threads=1", "product.bulkheads.bulk.queue-capacity=1",
+        "product.bulkheads.write.connections=1", "product.bulkheads.connection-timeout-ms=100" })
+@AutoConfigureMockMvc
+@DisplayName("Bulkhead Integration Tests")
+class BulkheadIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Autowired
+    private FilterRegistrationBean<BulkheadFilter> bulkheadFilter;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductStore productStore;
+
+    /**
+     * Cleanup method to empty the database.
+     */
+    @AfterEach
+    void tearDown() {
+        productStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should classify requests by the workload of their endpoint")
+    void testClassification() {
+        BulkheadFilter filter = bulkheadFilter.getFilter();
+
+        assertEquals(WorkloadClass.BULK, filter.classify(new MockHttpServletRequest("GET", "/api/products")));
+        assertEquals(WorkloadClass.BULK, filter.classify(new MockHttpServletRequest("GET", "/api/products/search")));
+        assertEquals(WorkloadClass.INTERACTIVE, filter.classify(new MockHttpServletRequest("GET", "/api/products/7")));
+        assertEquals(WorkloadClass.WRITE, filter.classify(new MockHttpServletRequest("POST", "/api/products")));
+        assertEquals(WorkloadClass.WRITE, filter.classify(new MockHttpServletRequest("DELETE", "/api/products/7")));
+        assertEquals(WorkloadClass.INTERACTIVE, filter.classify(new MockHttpServletRequest("GET", "/api/missing")));
+    }
+
+    @Test
+    @DisplayName("Should serve requests on the class executors")
+    void testRequestsRunInBulkheads() throws Exception {
+        String body = "{\"name\":\"Laptop\",\"category\":\"Electronics\",\"price\":999.99,\"stock\":10}";
+        mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        Long id = productStore.findAll().get(0).getId();
+
+        mockMvc.perform(get("/api/products/" + id)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should reject bulk requests when the bulk queue is full and keep serving reads by ID")
+    void testBulkQueueLimit() throws Exception {
+        // Arrange: the single bulk thread is busy and its one queue slot taken
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> running = bulkheads.submit(WorkloadClass.BULK, () -> release.await(10, TimeUnit.SECONDS));
+        Future<Boolean> queued = bulkheads.submit(WorkloadClass.BULK, () -> true);
+        try {
+            // Act & Assert
+            mockMvc.perform(get("/api/products")).andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+            mockMvc.perform(get("/api/products/12345")).andExpect(status().isNotFound());
+            assertEquals(1.0, bulkheads.saturation(WorkloadClass.BULK), 0.0001);
+        } finally {
+            release.countDown();
+        }
+        running.get();
+        queued.get();
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should limit the connections of a class to its share")
+    void testConnectionShare() throws Exception {
+        Future<Void> check = bulkheads.submit(WorkloadClass.WRITE, () -> {
+            try (Connection first = dataSource.getConnection()) {
+                assertTrue(first.isValid(1));
+                assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            }
+            // Closing returned the permit
+            try (Connection again = dataSource.getConnection()) {
+                assertTrue(again.isValid(1));
+            }
+            return null;
+        });
+        check.get();
+
+        // Threads outside a request are not limited
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertTrue(first.isValid(1) && second.isValid(1));
+        }
+    }
+}
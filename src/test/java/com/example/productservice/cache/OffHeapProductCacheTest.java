@@ -0,0 +1,126 @@
+package com.example.productservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.hotkeys.HotKeyTracker;
+
+/**
+ * Unit tests for OffHeapProductCache encoding, invalidation, eviction and
+ * admission.
+ */
+@DisplayName("Off-Heap Product Cache Tests")
+class OffHeapProductCacheTest {
+
+    private final Product laptop = new Product(1L, "Laptop", "Electronics", 999.99, 10);
+
+    @Test
+    @DisplayName("Should materialize an equal copy of the cached product")
+    void testRoundTrip() {
+        OffHeapProductCache cache = new OffHeapProductCache(true, 1, 64, 2, 1_000);
+        Product unpriced = new Product(2L, "Café crème", null, null, null);
+
+        cache.put(laptop, cache.version(1L));
+        cache.put(unpriced, cache.version(2L));
+
+        Product cached = cache.get(1L);
+        assertEquals("Laptop", cached.getName());
+        assertEquals("Electronics", cached.getCategory());
+        assertEquals(99_999, cached.getPriceCents());
+        assertEquals(10, cached.getStock());
+        Product other = cache.get(2L);
+        assertEquals("Café crème", other.getName());
+        assertNull(other.getCategory());
+        assertNull(other.getPrice());
+        assertNull(other.getStock());
+        assertNull(cache.get(3L));
+    }
+
+    @Test
+    @DisplayName("Should drop changed products and not keep a copy loaded before a concurrent write")
+    void testInvalidation() {
+        OffHeapProductCache cache = new OffHeapProductCache(true, 1, 64, 2, 1_000);
+        cache.put(laptop, cache.version(1L));
+
+        long version = cache.version(1L);
+        cache.onProductChanged(ProductChangedEvent.updated(laptop, laptop));
+        assertNull(cache.get(1L));
+
+        cache.put(laptop, version);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should evict unread products when the budget is full and give read ones a second chance")
+    void testEviction() {
+        // Two 512 KiB slabs of about 11,000 records each
+        OffHeapProductCache cache = new OffHeapProductCache(true, 1, 512, 1, 100_000);
+        for (long id = 1; id <= 15_000; id++) {
+            cache.put(new Product(id, "Product " + id, "Books", 10.0, 1), cache.version(id));
+        }
+        assertNotNull(cache.get(1L));
+
+        for (long id = 15_001; id <= 30_000; id++) {
+            cache.put(new Product(id, "Product " + id, "Books", 10.0, 1), cache.version(id));
+        }
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(30_000L));
+        assertTrue(cache.size() < 30_000);
+    }
+
+    @Test
+    @DisplayName("Should keep the entry count within the index bound")
+    void testEntryBound() {
+        OffHeapProductCache cache = new OffHeapProductCache(true, 1, 64, 1, 16);
+        for (long id = 1; id <= 100; id++) {
+            cache.put(new Product(id, "Product " + id, "Books", 10.0, 1), cache.version(id));
+        }
+
+        assertTrue(cache.size() <= 16, "size " + cache.size());
+        assertNotNull(cache.get(100L));
+    }
+
+    @Test
+    @DisplayName("Should not let a scan of cold IDs evict products, but admit a hotter one")
+    void testFrequencyAdmission() {
+        // Arrange: two 512 KiB slabs, about 22,000 records; each ID is read before it
+        // is cached, the first 20,000 twice. The sketch is wide enough that no
+        // estimate is off by more than one.
+        HotKeyTracker hotKeys = new HotKeyTracker(true, 262_144, 10, 60_000);
+        OffHeapProductCache cache = new OffHeapProductCache(true, 1, 512, 1, 100_000);
+        cache.setHotKeys(hotKeys);
+
+        // Act: once full, the scan's new IDs are no hotter than the victims
+        for (long id = 1; id <= 30_000; id++) {
+            hotKeys.recordId(id);
+            if (id <= 20_000) {
+                hotKeys.recordId(id);
+            }
+            cache.put(new Product(id, "Product " + id, "Books", 10.0, 1), cache.version(id));
+        }
+
+        // Assert
+        assertNull(cache.get(30_000L));
+        assertNotNull(cache.get(1L));
+
+        // Act: an ID read five times displaces the oldest slab's unread products
+        for (int i = 0; i < 5; i++) {
+            hotKeys.recordId(40_000L);
+        }
+        cache.put(new Product(40_000L, "Hot", "Books", 10.0, 1), cache.version(40_000L));
+
+        // Assert
+        assertNotNull(cache.get(40_000L));
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.productservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Unit tests for ProductIdFilter builds, inserts and false-positive accounting.
+ */
+@DisplayName("Product ID Filter Tests")
+class ProductIdFilterTest {
+
+    private ProductStore store;
+    private ProductIdFilter filter;
+
+    /**
+     * Setup method to create an enabled filter over a store of even IDs.
+     */
+    @BeforeEach
+    void setUp() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 2; id <= 20_000; id += 2) {
+            ids.add(id);
+        }
+        store = mock(ProductStore.class);
+        when(store.findAllIds()).thenReturn(ids);
+        filter = new ProductIdFilter(store, true, 0.01, 60_000);
+        filter.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should never rule out an existing ID and rule out most missing ones")
+    void testMembership() {
+        int falsePositives = 0;
+        for (long id = 1; id <= 20_000; id++) {
+            boolean maybe = filter.mightContain(id);
+            if (id % 2 == 0) {
+                assertTrue(maybe, "existing ID " + id);
+            } else if (maybe) {
+                falsePositives++;
+            }
+        }
+        // Sized for twice the catalog, so well under the 1% target
+        assertTrue(falsePositives < 100, "false positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Should add created IDs and drop deleted ones on rebuild")
+    void testCreateAndRebuild() {
+        filter.onProductChanged(ProductChangedEvent.created(new Product(1_000_001L, "Pen", "Office", 1.0, 1)));
+        assertTrue(filter.mightContain(1_000_001L));
+
+        when(store.findAllIds()).thenReturn(List.of(4L));
+        filter.rebuild();
+
+        assertTrue(filter.mightContain(4L));
+        assertFalse(filter.mightContain(1_000_001L));
+    }
+
+    @Test
+    @DisplayName("Should report the observed false-positive rate")
+    void testFalsePositiveRate() {
+        filter.mightContain(-1L);
+        filter.mightContain(-3L);
+        filter.mightContain(-5L);
+        filter.recordFalsePositive();
+
+        assertEquals(0.25, filter.getFalsePositiveRate(), 1e-9);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.productservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for ProductJsonCache fills, list assembly and invalidation.
+ */
+@DisplayName("Product JSON Cache Tests")
+class ProductJsonCacheTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ProductJsonCache cache;
+    private final Product laptop = new Product(1L, "Laptop", "Electronics", 999.99, 10);
+    private final Product novel = new Product(2L, "Novel", "Books", 19.99, 5);
+
+    /**
+     * Setup method to create an enabled cache.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new ProductJsonCache(mapper, true, 16);
+    }
+
+    @Test
+    @DisplayName("Should cache the same bytes Jackson produces")
+    void testDocument() throws Exception {
+        byte[] document = cache.document(laptop, cache.version(1L));
+
+        assertArrayEquals(mapper.writeValueAsBytes(laptop), document);
+        assertArrayEquals(document, cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should not keep a document loaded before a concurrent write")
+    void testStaleFillDiscarded() {
+        long version = cache.version(1L);
+        cache.onProductChanged(ProductChangedEvent.updated(laptop, laptop));
+
+        cache.document(laptop, version);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    @DisplayName("Should assemble lists from cached and fresh documents")
+    void testArray() throws Exception {
+        cache.document(laptop, cache.version(1L));
+
+        byte[] array = cache.array(List.of(laptop, novel), cache.currentEpoch());
+
+        assertEquals(mapper.writeValueAsString(List.of(laptop, novel)), new String(array, StandardCharsets.UTF_8));
+        assertNotNull(cache.get(2L));
+        assertEquals("[]", new String(cache.array(List.of(), cache.currentEpoch()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Should drop a document when its product changes and bound the entry count")
+    void testInvalidationAndBound() {
+        cache.document(laptop, cache.version(1L));
+        cache.onProductChanged(ProductChangedEvent.deleted(1L, null));
+        for (long id = 10; id < 40; id++) {
+            cache.document(new Product(id, "P" + id, "C", 1.0, 1), cache.version(id));
+        }
+
+        assertNull(cache.get(1L));
+        assertEquals(16, cache.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.productservice.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.hotkeys.HotKeyTracker;
+
+/**
+ * Unit tests for ProductSearchCache invalidation and statistics.
+ */
+@DisplayName("Product Search Cache Tests")
+class ProductSearchCacheTest {
+
+    private ProductSearchCache cache;
+
+    private final ProductSearchCache.Key electronics = ProductSearchCache.Key.of(null, "Electronics", null, null);
+    private final ProductSearchCache.Key books = ProductSearchCache.Key.of(null, "Books", null, null);
+    private final ProductSearchCache.Key cheap = ProductSearchCache.Key.of(null, null, 0.0, 50.0);
+
+    /**
+     * Setup method to populate the cache with three searches.
+     */
+    @BeforeEach
+    void setUp() {
+        cache = new ProductSearchCache(true, 16);
+        Product laptop = new Product(1L, "Laptop", "Electronics", 999.99, 10);
+        Product novel = new Product(2L, "Novel", "Books", 19.99, 5);
+        cache.put(electronics, List.of(laptop), cache.currentEpoch());
+        cache.put(books, List.of(novel), cache.currentEpoch());
+        cache.put(cheap, List.of(novel), cache.currentEpoch());
+    }
+
+    @Test
+    @DisplayName("Should normalize name case in keys")
+    void testKeyNormalization() {
+        assertEquals(ProductSearchCache.Key.of("LAPTOP", null, null, null),
+                ProductSearchCache.Key.of("laptop", null, null, null));
+    }
+
+    @Test
+    @DisplayName("Should invalidate only searches whose category or price range admit the product")
+    void testScopedInvalidation() {
+        // Act: an expensive electronics product is created
+        cache.onProductChanged(ProductChangedEvent.created(new Product(3L, "TV", "Electronics", 499.0, 3)));
+
+        // Assert
+        assertNull(cache.get(electronics));
+        assertNotNull(cache.get(books));
+        assertNotNull(cache.get(cheap));
+        assertEquals(1, cache.invalidationCount());
+    }
+
+    @Test
+    @DisplayName("Should invalidate searches matching the state before an update")
+    void testInvalidationUsesPreviousState() {
+        // Act: a book moves to Electronics and becomes expensive
+        Product before = new Product(2L, "Novel", "Books", 19.99, 5);
+        Product after = new Product(2L, "Novel", "Electronics", 99.0, 5);
+        cache.onProductChanged(ProductChangedEvent.updated(before, after));
+
+        // Assert
+        assertNull(cache.get(electronics));
+        assertNull(cache.get(books));
+        assertNull(cache.get(cheap));
+    }
+
+    @Test
+    @DisplayName("Should invalidate searches containing a deleted ID when state is unknown")
+    void testDeleteInvalidatesContainingEntries() {
+        // Act
+        cache.onProductChanged(ProductChangedEvent.deleted(1L, null));
+
+        // Assert
+        assertNull(cache.get(electronics));
+        assertEquals(Arrays.asList(2L), cache.get(books));
+    }
+
+    @Test
+    @DisplayName("Should keep searches when only the stock changes")
+    void testStockOnlyUpdateKeepsEntries() {
+        // Act
+        Product before = new Product(1L, "Laptop", "Electronics", 999.99, 10);
+        Product after = new Product(1L, "Laptop", "Electronics", 999.99, 9);
+        cache.onProductChanged(ProductChangedEvent.updated(before, after));
+
+        // Assert
+        assertNotNull(cache.get(electronics));
+        assertEquals(0, cache.invalidationCount());
+    }
+
+    @Test
+    @DisplayName("Should not store results computed across a write")
+    void testStalePutRejected() {
+        // Arrange
+        ProductSearchCache.Key key = ProductSearchCache.Key.of("mouse", null, null, null);
+        long epoch = cache.currentEpoch();
+        cache.onProductChanged(ProductChangedEvent.deleted(9L, null));
+
+        // Act
+        cache.put(key, List.of(new Product(4L, "Mouse", "Electronics", 29.99, 50)), epoch);
+
+        // Assert
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    @DisplayName("Should render keys as normalized query strings")
+    void testToQuery() {
+        assertEquals("search?name=lap&category=Books&minPrice=10.0&maxPrice=19.99",
+                ProductSearchCache.Key.of("LAP", "Books", 10.0, 19.99).toQuery());
+        assertEquals("search?category=Electronics", electronics.toQuery());
+        assertEquals("search", ProductSearchCache.Key.of(null, null, null, null).toQuery());
+    }
+
+    @Test
+    @DisplayName("Should admit a search into a full cache only if it is hotter than the LRU victim")
+    void testFrequencyAdmission() {
+        // Arrange: a full cache whose LRU entry was searched twice
+        HotKeyTracker hotKeys = new HotKeyTracker(true, 1024, 10, 60_000);
+        ProductSearchCache full = new ProductSearchCache(true, 2);
+        full.setHotKeys(hotKeys);
+        Product novel = new Product(2L, "Novel", "Books", 19.99, 5);
+        for (ProductSearchCache.Key key : List.of(books, electronics, books)) {
+            hotKeys.recordQuery(key.toQuery());
+        }
+        full.put(books, List.of(novel), full.currentEpoch());
+        full.put(electronics, List.of(), full.currentEpoch());
+        full.get(electronics);
+
+        // Act: a one-off search, then a search run three times
+        hotKeys.recordQuery(cheap.toQuery());
+        full.put(cheap, List.of(novel), full.currentEpoch());
+        ProductSearchCache.Key popular = ProductSearchCache.Key.of("novel", null, null, null);
+        for (int i = 0; i < 3; i++) {
+            hotKeys.recordQuery(popular.toQuery());
+        }
+        full.put(popular, List.of(novel), full.currentEpoch());
+
+        // Assert
+        assertNull(full.get(cheap));
+        assertNotNull(full.get(popular));
+        assertNull(full.get(books));
+        assertNotNull(full.get(electronics));
+    }
+
+    @Test
+    @DisplayName("Should report hit ratio")
+    void testHitRatio() {
+        cache.get(electronics);
+        cache.get(ProductSearchCache.Key.of("missing", null, null, null));
+
+        assertEquals(0.5, cache.hitRatio(), 0.0001);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.productservice.compression;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Integration tests for response compression: negotiation, the size threshold,
+ * the compressed response cache and event streams passed through.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:compression", "product.compression.enabled=true",
+        "product.compression.min-size=512", "product.compression.cache-min-size=4096",
+        "product.low-stock.enabled=true" })
+@AutoConfigureMockMvc
+@DisplayName("Compression Integration Tests")
+class CompressionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResponseCompressor compressor;
+
+    @Autowired
+    private ProductStore productStore;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CompressedResponseCache cache;
+
+    /**
+     * Setup method to store enough products for a large list.
+     */
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 100; i++) {
+            productStore.save(new Product("Product " + i, i % 2 == 0 ? "Books" : "Toys", 10.0 + i, i));
+        }
+        cache.clear();
+    }
+
+    /**
+     * Cleanup method to empty the database.
+     */
+    @AfterEach
+    void tearDown() {
+        productStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should pick the accepted encoding with the highest weight, then the service's preference")
+    void testNegotiation() {
+        assertEquals(ContentEncoding.GZIP, compressor.negotiate("gzip, deflate, br"));
+        assertEquals(ContentEncoding.ZSTD, compressor.negotiate("gzip, zstd"));
+        assertEquals(ContentEncoding.GZIP, compressor.negotiate("gzip;q=0.8, zstd;q=0.5"));
+        assertEquals(ContentEncoding.GZIP, compressor.negotiate("*, zstd;q=0"));
+        assertNull(compressor.negotiate("identity"));
+        assertNull(compressor.negotiate(null));
+    }
+
+    @Test
+    @DisplayName("Should compress large responses with gzip or zstd and leave small ones as they are")
+    void testCompression() throws Exception {
+        MvcResult gzip = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING))).andReturn();
+        MvcResult zstd = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip, zstd"))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "zstd"))
+                .andReturn();
+        MvcResult plain = mockMvc.perform(get("/api/products")).andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING)).andReturn();
+
+        byte[] body = plain.getResponse().getContentAsByteArray();
+        assertEquals(100, objectMapper.readTree(gunzip(gzip.getResponse().getContentAsByteArray())).size());
+        byte[] zstdBody = zstd.getResponse().getContentAsByteArray();
+        JsonNode decoded = objectMapper.readTree(Zstd.decompress(zstdBody, (int) Zstd.getFrameContentSize(zstdBody)));
+        assertEquals(objectMapper.readTree(body), decoded);
+        assertTrue(gzip.getResponse().getContentAsByteArray().length < body.length / 4);
+
+        Long id = productStore.findAll().get(0).getId();
+        mockMvc.perform(get("/api/products/" + id).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated list from the compressed cache until a product changes")
+    void testCompressedCache() throws Exception {
+        double hits = meterRegistry.get("product.compression.cache.hits").functionCounter().count();
+        double compressions = meterRegistry.get("product.compression.time").tag("encoding", "gzip").functionTimer()
+                .count();
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andExpect(status().isOk());
+        MvcResult cached = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        assertEquals(hits + 1, meterRegistry.get("product.compression.cache.hits").functionCounter().count());
+        assertEquals(compressions + 1,
+                meterRegistry.get("product.compression.time").tag("encoding", "gzip").functionTimer().count());
+        assertTrue(cached.getResponse().getContentType().startsWith("application/json"));
+        assertEquals(100, objectMapper.readTree(gunzip(cached.getResponse().getContentAsByteArray())).size());
+
+        // Act: a write starts a new catalog epoch
+        productService.addProduct(new Product("New", "Books", 1.0, 1));
+        MvcResult fresh = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andReturn();
+
+        assertEquals(101, objectMapper.readTree(gunzip(fresh.getResponse().getContentAsByteArray())).size());
+    }
+
+    @Test
+    @DisplayName("Should pass event streams through uncompressed whatever the Accept header")
+    void testEventStreamNotBuffered() throws Exception {
+        Product book = productStore.findByCategory("Books").stream().filter(product -> product.getStockCount() > 5)
+                .findFirst().orElseThrow();
+        MvcResult stream = mockMvc.perform(get("/api/products/low-stock/stream").param("threshold", "5")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andExpect(request().asyncStarted()).andReturn();
+
+        productService.updateProduct(book.getId(), new Product(null, null, null, 1));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!stream.getResponse().getContentAsString().contains("event:low-stock")) {
+            assertTrue(System.currentTimeMillis() < deadline, "No event received");
+            Thread.sleep(10);
+        }
+        assertNull(stream.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    private static byte[] gunzip(byte[] pBody) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(pBody))) {
+            return in.readAllBytes();
+        }
+    }
+}
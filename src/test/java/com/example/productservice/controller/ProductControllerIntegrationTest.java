@@ -2,6 +2,10 @@ package com.example.productservice.controller;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -9,6 +13,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -18,16 +23,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.productservice.entity.Product;
-import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.support.SqlStatementCounter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.persistence.EntityManager;
+
 /**
- * Integration tests for ProductController using MockMvc and H2 database.
+ * Integration tests for ProductController using MockMvc and H2 database. The
+ * {@code memory-engine} Surefire execution runs them again with the in-memory
+ * store.
  */
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.productservice.support.SqlStatementCounter")
 @AutoConfigureMockMvc
 @Transactional
 @DisplayName("Product Controller Integration Tests")
@@ -37,11 +49,15 @@ class ProductControllerIntegrationTest {
     private MockMvc mockMvc;
 
     @Autowired
-    private ProductRepository productRepository;
+    private ProductStore productRepository;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    /** Absent when the suite runs against the in-memory engine. */
+    @Autowired(required = false)
+    private EntityManager entityManager;
+
     private Product testProduct1;
     private Product testProduct2;
 
@@ -83,6 +99,27 @@ class ProductControllerIntegrationTest {
             mockMvc.perform(get("/api/products").contentType(MediaType.APPLICATION_JSON)).andExpect(status().isOk())
                     .andExpect(jsonPath("$", hasSize(0)));
         }
+
+        @Test
+        @DisplayName("Should return only the requested fields")
+        void testGetAllProductsSparseFields() throws Exception {
+            // Arrange
+            productRepository.save(testProduct1);
+            productRepository.save(testProduct2);
+
+            // Act & Assert
+            mockMvc.perform(get("/api/products").param("fields", "name,price")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2))).andExpect(jsonPath("$[0].name", is("Laptop")))
+                    .andExpect(jsonPath("$[0].price", is(999.99))).andExpect(jsonPath("$[0].id").doesNotExist())
+                    .andExpect(jsonPath("$[0].category").doesNotExist())
+                    .andExpect(jsonPath("$[0].stock").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an unknown field")
+        void testGetAllProductsUnknownField() throws Exception {
+            mockMvc.perform(get("/api/products").param("fields", "id,weight")).andExpect(status().isBadRequest());
+        }
     }
 
     /**
@@ -114,6 +151,52 @@ class ProductControllerIntegrationTest {
         }
     }
 
+    /**
+     * Tests for multi-get endpoints.
+     */
+    @Nested
+    @DisplayName("GET /api/products?ids and POST /api/products/lookup Tests")
+    class MultiGetTests {
+
+        @Test
+        @DisplayName("Should return requested products and missing IDs")
+        void testGetProductsByIds() throws Exception {
+            // Arrange
+            Product saved1 = productRepository.save(testProduct1);
+            Product saved2 = productRepository.save(testProduct2);
+            String ids = saved2.getId() + ",999999," + saved1.getId();
+
+            // Act & Assert
+            mockMvc.perform(get("/api/products").param("ids", ids).contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$.products", hasSize(2)))
+                    .andExpect(jsonPath("$.products[0].name", is("Mouse")))
+                    .andExpect(jsonPath("$.products[1].name", is("Laptop")))
+                    .andExpect(jsonPath("$.missingIds", hasSize(1))).andExpect(jsonPath("$.missingIds[0]", is(999999)));
+        }
+
+        @Test
+        @DisplayName("Should accept IDs in a POST body")
+        void testLookupProducts() throws Exception {
+            // Arrange
+            Product saved1 = productRepository.save(testProduct1);
+
+            // Act & Assert
+            mockMvc.perform(post("/api/products/lookup").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"ids\":[" + saved1.getId() + ",424242]}")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.products", hasSize(1)))
+                    .andExpect(jsonPath("$.products[0].name", is("Laptop")))
+                    .andExpect(jsonPath("$.missingIds[0]", is(424242)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for invalid IDs")
+        void testGetProductsByIdsInvalid() throws Exception {
+            // Act & Assert
+            mockMvc.perform(get("/api/products").param("ids", "1,-2").contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     /**
      * Tests for POST /api/products endpoint.
      */
@@ -146,6 +229,26 @@ class ProductControllerIntegrationTest {
             mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(productJson))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("Should return 400 when the name is longer than its column")
+        void testCreateProductNameTooLong() throws Exception {
+            Product invalidProduct = new Product("x".repeat(Product.MAX_TEXT_LENGTH + 1), "Electronics", 79.99, 25);
+            String productJson = objectMapper.writeValueAsString(invalidProduct);
+
+            mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(productJson))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 when the price is out of range or not a number")
+        void testCreateProductPriceOutOfRange() throws Exception {
+            for (String price : new String[] { "1e17", "1e400", "\"NaN\"" }) {
+                mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON).content(
+                        "{\"name\": \"Lamp\", \"category\": \"Home\", \"price\": " + price + ", \"stock\": 1}"))
+                        .andExpect(status().isBadRequest());
+            }
+        }
     }
 
     /**
@@ -278,6 +381,22 @@ class ProductControllerIntegrationTest {
                     .andExpect(jsonPath("$[0].price", is(29.99)));
         }
 
+        @Test
+        @DisplayName("Should treat huge and infinite price bounds as open-ended and reject NaN")
+        void testSearchProductsExtremePriceBounds() throws Exception {
+            // Arrange
+            productRepository.save(new Product("Mouse", "Electronics", 29.99, 50));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/products/search").param("maxPrice", "1e17")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+            mockMvc.perform(get("/api/products/search").param("maxPrice", "Infinity")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)));
+            mockMvc.perform(get("/api/products/search").param("minPrice", "1e17")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+            mockMvc.perform(get("/api/products/search").param("minPrice", "NaN")).andExpect(status().isBadRequest());
+        }
+
         @Test
         @DisplayName("Should return products matching all criteria")
         void testSearchProductsWithAllCriteria() throws Exception {
@@ -318,6 +437,21 @@ class ProductControllerIntegrationTest {
                     .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(0)));
         }
 
+        @Test
+        @DisplayName("Should return only the requested fields of matching products")
+        void testSearchProductsSparseFields() throws Exception {
+            // Arrange
+            productRepository.save(testProduct1);
+            productRepository.save(testProduct2);
+
+            // Act & Assert
+            mockMvc.perform(get("/api/products/search").param("maxPrice", "100").param("fields", "id, stock"))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id", is(testProduct2.getId().intValue())))
+                    .andExpect(jsonPath("$[0].stock", is(50))).andExpect(jsonPath("$[0].name").doesNotExist())
+                    .andExpect(jsonPath("$[0].price").doesNotExist());
+        }
+
         @Test
         @DisplayName("Should return products matching name and category")
         void testSearchProductsByNameAndCategory() throws Exception {
@@ -333,4 +467,296 @@ class ProductControllerIntegrationTest {
                     .andExpect(jsonPath("$[0].category", is("Electronics")));
         }
     }
+
+    /**
+     * Tests for POST /api/products/search/batch endpoint. The searches run in their
+     * own transactions on worker threads, so these tests commit their data and
+     * remove it afterwards.
+     */
+    @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("POST /api/products/search/batch Tests")
+    class BatchSearchTests {
+
+        @AfterEach
+        void tearDown() {
+            productRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Should return one result per search in request order with limits applied")
+        void testBatchSearch() throws Exception {
+            // Arrange
+            Product laptop = productRepository.save(new Product("Laptop", "Electronics", 999.99, 10));
+            Product mouse = productRepository.save(new Product("Mouse", "Electronics", 29.99, 50));
+            productRepository.save(new Product("Book", "Books", 19.99, 100));
+            String body = """
+                    {"searches": [
+                      {"category": "Books"},
+                      {"category": "Electronics", "limit": 1},
+                      {"maxPrice": 50.0},
+                      {"name": "NonExistent"}
+                    ]}""";
+
+            // Act & Assert
+            mockMvc.perform(post("/api/products/search/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$.results", hasSize(4)))
+                    .andExpect(jsonPath("$.results[0].status", is("OK")))
+                    .andExpect(jsonPath("$.results[0].products[0].name", is("Book")))
+                    .andExpect(jsonPath("$.results[1].products", hasSize(1)))
+                    .andExpect(jsonPath("$.results[1].products[0].id", is(laptop.getId().intValue())))
+                    .andExpect(jsonPath("$.results[2].products", hasSize(2)))
+                    .andExpect(jsonPath("$.results[2].products[0].id", is(mouse.getId().intValue())))
+                    .andExpect(jsonPath("$.results[3].products", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for an empty batch")
+        void testBatchSearchEmpty() throws Exception {
+            mockMvc.perform(post("/api/products/search/batch").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"searches\": []}")).andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 when any search has an invalid price range")
+        void testBatchSearchInvalidPriceRange() throws Exception {
+            mockMvc.perform(post("/api/products/search/batch").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"searches\": [{\"category\": \"Books\"}, {\"minPrice\": 50, \"maxPrice\": 10}]}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a non-positive limit")
+        void testBatchSearchInvalidLimit() throws Exception {
+            mockMvc.perform(post("/api/products/search/batch").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"searches\": [{\"limit\": 0}]}")).andExpect(status().isBadRequest());
+        }
+    }
+
+    /**
+     * Tests for the bulk price adjustment endpoints. The job commits from a worker
+     * thread, so these tests commit their data and remove it afterwards.
+     */
+    @Nested
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("POST /api/products/price-adjustments Tests")
+    class PriceAdjustmentTests {
+
+        @AfterEach
+        void tearDown() {
+            productRepository.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Should reprice the category within the price range and report completion")
+        void testAdjustPrices() throws Exception {
+            // Arrange
+            Product novel = productRepository.save(new Product("Novel", "Books", 19.99, 10));
+            Product atlas = productRepository.save(new Product("Atlas", "Books", 120.0, 2));
+            Product mouse = productRepository.save(new Product("Mouse", "Electronics", 29.99, 50));
+
+            // Act
+            String location = mockMvc
+                    .perform(post("/api/products/price-adjustments").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"category\": \"Books\", \"percent\": 10, \"maxPrice\": 100}"))
+                    .andExpect(status().isAccepted()).andExpect(jsonPath("$.category", is("Books"))).andReturn()
+                    .getResponse().getHeader("Location");
+            String state = "QUEUED";
+            for (int i = 0; i < 100 && !"COMPLETED".equals(state); i++) {
+                Thread.sleep(20);
+                state = objectMapper
+                        .readTree(mockMvc.perform(get(location)).andReturn().getResponse().getContentAsString())
+                        .get("status").asText();
+            }
+
+            // Assert
+            mockMvc.perform(get(location)).andExpect(status().isOk()).andExpect(jsonPath("$.status", is("COMPLETED")))
+                    .andExpect(jsonPath("$.updatedCount", is(1))).andExpect(jsonPath("$.progress", is(1.0)));
+            assertEquals(2199, productRepository.findById(novel.getId()).orElseThrow().getPriceCents());
+            assertEquals(12_000, productRepository.findById(atlas.getId()).orElseThrow().getPriceCents());
+            assertEquals(2999, productRepository.findById(mouse.getId()).orElseThrow().getPriceCents());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a percentage that would make prices negative")
+        void testAdjustPricesInvalidPercent() throws Exception {
+            mockMvc.perform(post("/api/products/price-adjustments").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"category\": \"Books\", \"percent\": -100}")).andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a price bound above the largest price")
+        void testAdjustPricesBoundOutOfRange() throws Exception {
+            mockMvc.perform(post("/api/products/price-adjustments").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"category\": \"Books\", \"percent\": 5, \"maxPrice\": 1e17}"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 404 for an unknown job")
+        void testUnknownJob() throws Exception {
+            mockMvc.perform(get("/api/products/price-adjustments/999999")).andExpect(status().isNotFound());
+        }
+    }
+
+    /**
+     * Tests for GET /api/products/suggest endpoint.
+     */
+    @Nested
+    @DisplayName("GET /api/products/suggest Tests")
+    class SuggestProductsTests {
+
+        @Test
+        @DisplayName("Should suggest products by word prefix ranked by stock")
+        void testSuggestProducts() throws Exception {
+            // Arrange
+            productRepository.save(new Product("Laptop", "Electronics", 999.99, 10));
+            productRepository.save(new Product("Gaming Laptop", "Electronics", 1499.99, 40));
+            productRepository.save(new Product("Flaptop Stand", "Accessories", 19.99, 99));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/products/suggest").param("prefix", "lap")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2))).andExpect(jsonPath("$[0].name", is("Gaming Laptop")))
+                    .andExpect(jsonPath("$[1].name", is("Laptop")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a non-positive limit")
+        void testSuggestProductsInvalidLimit() throws Exception {
+            mockMvc.perform(get("/api/products/suggest").param("prefix", "lap").param("limit", "0"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    /**
+     * Tests for GET /api/products/low-stock endpoint.
+     */
+    @Nested
+    @DisplayName("GET /api/products/low-stock Tests")
+    class LowStockTests {
+
+        @Test
+        @DisplayName("Should return products at or below the threshold, lowest stock first")
+        void testLowStockProducts() throws Exception {
+            // Arrange
+            productRepository.save(new Product("Laptop", "Electronics", 999.99, 3));
+            productRepository.save(new Product("Mouse", "Electronics", 29.99, 1));
+            productRepository.save(new Product("Keyboard", "Electronics", 79.99, 15));
+            productRepository.save(new Product("Book", "Books", 19.99, 2));
+
+            // Act & Assert
+            mockMvc.perform(get("/api/products/low-stock").param("threshold", "3")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(3))).andExpect(jsonPath("$[0].name", is("Mouse")))
+                    .andExpect(jsonPath("$[1].name", is("Book"))).andExpect(jsonPath("$[2].name", is("Laptop")));
+            mockMvc.perform(get("/api/products/low-stock").param("threshold", "3").param("category", "Books"))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].name", is("Book")));
+        }
+
+        @Test
+        @DisplayName("Should return 400 for a negative threshold")
+        void testLowStockInvalidThreshold() throws Exception {
+            mockMvc.perform(get("/api/products/low-stock").param("threshold", "-1")).andExpect(status().isBadRequest());
+        }
+    }
+
+    /**
+     * Statement budgets per request. Each test starts from an empty persistence
+     * context and flushes after the request, so the counts include the writes that
+     * would be issued at commit.
+     */
+    @Nested
+    @DisplayName("SQL Statement Budget Tests")
+    class StatementBudgetTests {
+
+        private Long laptopId;
+
+        @BeforeEach
+        void setUpProducts() {
+            assumeTrue(entityManager != null, "SQL budgets apply to the JPA engine only");
+            laptopId = productRepository.save(testProduct1).getId();
+            productRepository.save(testProduct2);
+            productRepository.save(new Product("Keyboard", "Electronics", 79.99, 15));
+            entityManager.flush();
+            entityManager.clear();
+            SqlStatementCounter.reset();
+        }
+
+        @Test
+        @DisplayName("GET by ID should issue one SELECT")
+        void testGetProductByIdBudget() throws Exception {
+            mockMvc.perform(get("/api/products/{id}", laptopId)).andExpect(status().isOk());
+            entityManager.flush();
+
+            SqlStatementCounter.assertCounts(1, 0, 0, 0);
+        }
+
+        @Test
+        @DisplayName("GET all, search and suggest should each issue one SELECT")
+        void testListBudgets() throws Exception {
+            mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+            SqlStatementCounter.assertCounts(1, 0, 0, 0);
+
+            SqlStatementCounter.reset();
+            mockMvc.perform(get("/api/products/search").param("category", "Electronics")).andExpect(status().isOk());
+            SqlStatementCounter.assertCounts(1, 0, 0, 0);
+
+            SqlStatementCounter.reset();
+            mockMvc.perform(get("/api/products/suggest").param("prefix", "lap")).andExpect(status().isOk());
+            SqlStatementCounter.assertCounts(1, 0, 0, 0);
+        }
+
+        @Test
+        @DisplayName("A sparse fieldset should select only its columns")
+        void testSparseFieldsBudget() throws Exception {
+            mockMvc.perform(get("/api/products/search").param("name", "o").param("fields", "name"))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(3)));
+
+            SqlStatementCounter.assertCounts(1, 0, 0, 0);
+            String sql = SqlStatementCounter.statements().get(0);
+            assertTrue(sql.contains(".name"), sql);
+            assertFalse(sql.contains("price_cents") || sql.contains("stock") || sql.contains("category"), sql);
+        }
+
+        @Test
+        @DisplayName("Multi-get should issue one SELECT for all IDs, not one per ID")
+        void testMultiGetBudget() throws Exception {
+            mockMvc.perform(get("/api/products").param("ids", laptopId + "," + (laptopId + 1) + "," + (laptopId + 2)))
+                    .andExpect(status().isOk()).andExpect(jsonPath("$.products", hasSize(3)));
+            entityManager.flush();
+
+            SqlStatementCounter.assertCounts(1, 0, 0, 0);
+        }
+
+        @Test
+        @DisplayName("POST should issue one INSERT")
+        void testCreateProductBudget() throws Exception {
+            mockMvc.perform(post("/api/products").contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Product("Monitor", "Electronics", 199.99, 7))))
+                    .andExpect(status().isCreated());
+            entityManager.flush();
+
+            SqlStatementCounter.assertCounts(0, 1, 0, 0);
+        }
+
+        @Test
+        @DisplayName("PUT should issue one SELECT and one UPDATE")
+        void testUpdateProductBudget() throws Exception {
+            mockMvc.perform(put("/api/products/{id}", laptopId).contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(new Product("Laptop", "Electronics", 899.99, 10))))
+                    .andExpect(status().isOk());
+            entityManager.flush();
+
+            SqlStatementCounter.assertCounts(1, 0, 1, 0);
+        }
+
+        @Test
+        @DisplayName("DELETE should issue one SELECT and one DELETE")
+        void testDeleteProductBudget() throws Exception {
+            mockMvc.perform(delete("/api/products/{id}", laptopId)).andExpect(status().isNoContent());
+            entityManager.flush();
+
+            SqlStatementCounter.assertCounts(1, 0, 0, 1);
+        }
+    }
 }
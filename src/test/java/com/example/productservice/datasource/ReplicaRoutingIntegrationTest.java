@@ -0,0 +1,138 @@
+package com.example.productservice.datasource;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.service.ProductService;
+
+/**
+ * Integration tests for read/write routing with two H2 databases standing in
+ * for the primary and a read replica. The databases are not replicated, so a
+ * row's location reveals which one served a query.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1",
+        "product.datasource.routing.enabled=true",
+        "product.datasource.routing.replicas[0].url=jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1",
+        "product.datasource.routing.replicas[0].username=sa",
+        "product.datasource.routing.lag-query=SELECT COALESCE(MAX(lag_ms), 0) FROM replica_lag",
+        "product.datasource.routing.max-lag-millis=1000",
+        "product.datasource.routing.health-check-interval-millis=600000" })
+@AutoConfigureMockMvc
+@DisplayName("Replica Routing Integration Tests")
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    private final JdbcTemplate primary = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    /**
+     * Setup method to give the replica a schema and a row the primary does not
+     * have.
+     */
+    @BeforeEach
+    void setUp() {
+        replica.execute("CREATE TABLE IF NOT EXISTS products (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "category VARCHAR(255), name VARCHAR(255), price_cents BIGINT, stock INTEGER)");
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_ms BIGINT)");
+        replica.update(
+                "INSERT INTO products (category, name, price_cents, stock) VALUES ('Tools', 'Replica Widget', 500, 1)");
+        routingDataSource.checkReplicas();
+    }
+
+    /**
+     * Cleanup method to empty both databases.
+     */
+    @AfterEach
+    void tearDown() {
+        primary.update("DELETE FROM products");
+        replica.update("DELETE FROM products");
+        replica.update("DELETE FROM replica_lag");
+    }
+
+    @Test
+    @DisplayName("Should serve read-only service calls from the replica")
+    void testReadsGoToReplica() {
+        // Act
+        List<Product> products = productService.getAllProducts();
+
+        // Assert
+        assertEquals(1, products.size());
+        assertEquals("Replica Widget", products.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should send writes to the primary")
+    void testWritesGoToPrimary() {
+        // Act
+        productService.addProduct(new Product("Primary Widget", "Tools", 7.0, 2));
+
+        // Assert
+        assertEquals(1, primary.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+        assertEquals(1, replica.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Should route a client's reads to the primary right after its own write")
+    void testReadYourWrites() throws Exception {
+        // Act: client A writes
+        mockMvc.perform(post("/api/products").header(ReadYourWritesFilter.CLIENT_ID_HEADER, "client-a")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Primary Widget\",\"category\":\"Tools\",\"price\":7.0,\"stock\":2}"))
+                .andExpect(status().isCreated());
+
+        // Assert: A reads its write from the primary, B still reads the replica
+        mockMvc.perform(get("/api/products").header(ReadYourWritesFilter.CLIENT_ID_HEADER, "client-a"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Primary Widget")));
+        mockMvc.perform(get("/api/products").header(ReadYourWritesFilter.CLIENT_ID_HEADER, "client-b"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Replica Widget")));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when the replica lags too far behind")
+    void testLaggingReplicaExcluded() {
+        // Arrange
+        primary.update(
+                "INSERT INTO products (category, name, price_cents, stock) VALUES ('Tools', 'Primary Widget', 700, 2)");
+        replica.update("INSERT INTO replica_lag (lag_ms) VALUES (5000)");
+        routingDataSource.checkReplicas();
+
+        // Act
+        List<Product> products = productService.getAllProducts();
+
+        // Assert
+        assertEquals("Primary Widget", products.get(0).getName());
+        assertEquals(5000, routingDataSource.getReplicas().get(0).getLagMillis());
+    }
+}
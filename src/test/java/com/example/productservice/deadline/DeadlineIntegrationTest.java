@@ -0,0 +1,136 @@
+package com.example.productservice.deadline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ProductStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Integration tests for request deadlines: expired requests, store calls and
+ * statement query timeouts.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:deadlines", "product.deadlines.enabled=true" })
+@AutoConfigureMockMvc
+@DisplayName("Deadline Integration Tests")
+class DeadlineIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ProductStore productStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DeadlineInterceptor deadlineInterceptor;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    /**
+     * Cleanup method to empty the database and the thread's deadline.
+     */
+    @AfterEach
+    void tearDown() {
+        DeadlineContext.clear();
+        productStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should answer requests within their deadline")
+    void testWithinDeadline() throws Exception {
+        Long id = productStore.save(new Product("Laptop", "Electronics", 999.99, 10)).getId();
+
+        mockMvc.perform(get("/api/products/" + id).header(DeadlineInterceptor.TIMEOUT_HEADER, "3000"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/search").param("category", "Electronics")).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should answer 504 and count the request when the client's deadline has passed")
+    void testExpiredRequest() throws Exception {
+        double expired = meterRegistry.get("product.deadline.expired").functionCounter().count();
+        double cancelled = meterRegistry.get("product.deadline.cancelled").functionCounter().count();
+
+        mockMvc.perform(get("/api/products/1").header(DeadlineInterceptor.TIMEOUT_HEADER, "0"))
+                .andExpect(status().isGatewayTimeout());
+
+        assertEquals(expired + 1, meterRegistry.get("product.deadline.expired").functionCounter().count());
+        assertEquals(cancelled + 1, meterRegistry.get("product.deadline.cancelled").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should count the time before the handler, such as bulkhead queueing, against the deadline")
+    void testDeadlineFromArrival() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/1");
+        request.addHeader(DeadlineInterceptor.TIMEOUT_HEADER, "100");
+        new DeadlineFilter().doFilter(request, new MockHttpServletResponse(), (pRequest, pResponse) -> {
+        });
+        assertTrue(request.getAttribute(DeadlineFilter.ARRIVED_AT_ATTRIBUTE) instanceof Long);
+        Object handler = handlerMapping.getHandler(request).getHandler();
+
+        // Arrived 200 ms ago, as if queued that long
+        request.setAttribute(DeadlineFilter.ARRIVED_AT_ATTRIBUTE,
+                System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(200));
+        deadlineInterceptor.preHandle(request, new MockHttpServletResponse(), handler);
+
+        assertTrue(DeadlineContext.current().isExpired());
+    }
+
+    @Test
+    @DisplayName("Should refuse product store calls after the deadline")
+    void testStoreCall() {
+        DeadlineContext.set(Deadline.after(0));
+
+        assertThrows(DeadlineExceededException.class, () -> productStore.findById(1L));
+    }
+
+    @Test
+    @DisplayName("Should run statements with a query timeout of the time left")
+    void testQueryTimeout() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                assertEquals(0, statement.getQueryTimeout());
+            }
+
+            DeadlineContext.set(Deadline.after(2500));
+            try (Statement statement = connection.prepareStatement("SELECT 1")) {
+                assertEquals(3, statement.getQueryTimeout());
+            }
+
+            DeadlineContext.set(Deadline.after(0));
+            assertThrows(SQLTimeoutException.class, connection::createStatement);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.productservice.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ProductStore;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Integration tests for the Flight Recorder events of requests and service and
+ * product store calls, read back from a recording stream.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:jfrevents")
+@AutoConfigureMockMvc
+@DisplayName("JFR Events Integration Tests")
+class JfrEventsIntegrationTest {
+
+    private static final String REQUEST = "com.example.productservice.Request";
+    private static final String METHOD_CALL = "com.example.productservice.MethodCall";
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductStore productStore;
+
+    /**
+     * Cleanup method to empty the database.
+     */
+    @AfterEach
+    void tearDown() {
+        productStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should record the request with its route and the calls it made")
+    void testRequestAndCallEvents() throws Exception {
+        Product laptop = productStore.save(new Product("Laptop", "Electronics", 999.99, 10));
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(REQUEST).withThreshold(Duration.ZERO);
+            recording.enable(METHOD_CALL).withThreshold(Duration.ZERO);
+            recording.onEvent(REQUEST, events::add);
+            recording.onEvent(METHOD_CALL, events::add);
+            recording.startAsync();
+
+            mockMvc.perform(get("/api/products/" + laptop.getId())).andExpect(status().isOk());
+
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (find(events, REQUEST, "route", "/api/products/{id}") == null
+                    || find(events, METHOD_CALL, "method", "ProductService.getProductById") == null
+                    || find(events, METHOD_CALL, "layer", "repository") == null) {
+                assertTrue(System.currentTimeMillis() < deadline, "Events not recorded: " + events);
+                Thread.sleep(50);
+            }
+        }
+
+        RecordedEvent request = find(events, REQUEST, "route", "/api/products/{id}");
+        assertEquals("GET", request.getString("method"));
+        assertEquals(200, request.getInt("status"));
+        RecordedEvent call = find(events, METHOD_CALL, "method", "ProductService.getProductById");
+        assertEquals("service", call.getString("layer"));
+        assertEquals("Long", call.getString("arguments"));
+        assertFalse(call.getBoolean("failed"));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> pEvents, String pType, String pField, String pValue) {
+        for (RecordedEvent event : pEvents) {
+            if (event.getEventType().getName().equals(pType) && pValue.equals(event.getString(pField))) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.productservice.diagnostics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Unit tests for the slow-query data source, its plan capture and the call
+ * shapes recorded in JFR events.
+ */
+@DisplayName("Slow Query Diagnostics Tests")
+class SlowQueryDataSourceTest {
+
+    private DriverManagerDataSource target;
+    private Connection keepAlive;
+
+    /**
+     * Setup method to create an H2 database with a product table.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        target = new DriverManagerDataSource("jdbc:h2:mem:slowquery;DB_CLOSE_DELAY=-1", "sa", "");
+        keepAlive = target.getConnection();
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("CREATE TABLE product (id BIGINT PRIMARY KEY, category VARCHAR(255))");
+            statement.execute("INSERT INTO product VALUES (1, 'Books')");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        keepAlive.close();
+    }
+
+    @Test
+    @DisplayName("Should report statements over the threshold and keep results intact")
+    void testReportsSlowStatements() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(true, 0, 30);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(target, log);
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection
+                        .prepareStatement("SELECT category FROM product WHERE id = ?")) {
+            statement.setLong(1, 1L);
+            try (ResultSet rows = statement.executeQuery()) {
+                assertTrue(rows.next());
+                assertEquals("Books", rows.getString(1));
+            }
+        }
+
+        assertEquals(1, log.getSlowQueryCount());
+    }
+
+    @Test
+    @DisplayName("Should not report statements under the threshold")
+    void testIgnoresFastStatements() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(true, 60_000, 30);
+        SlowQueryDataSource dataSource = new SlowQueryDataSource(target, log);
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT COUNT(*) FROM product").close();
+        }
+
+        assertEquals(0, log.getSlowQueryCount());
+    }
+
+    @Test
+    @DisplayName("Should capture the H2 plan with the bound parameters")
+    void testPlan() throws Exception {
+        Object[] parameters = new Object[1];
+        parameters[0] = 1L;
+
+        String plan = SlowQueryLog.plan(keepAlive, "SELECT category FROM product WHERE id = ?", parameters, 1);
+
+        assertNotNull(plan);
+        assertTrue(plan.contains("PRIMARY_KEY"), plan);
+        assertNull(SlowQueryLog.plan(keepAlive, "SELECT missing FROM product", parameters, 0));
+    }
+
+    @Test
+    @DisplayName("Should describe call arguments and results without values")
+    void testCallShape() {
+        Object[] arguments = new Object[3];
+        arguments[0] = 5L;
+        arguments[2] = new ArrayList<>(List.of(1L, 2L, 3L));
+
+        assertEquals("Long,null,ArrayList[3]", MethodCallInterceptor.shapeOf(arguments));
+        assertEquals(2, MethodCallInterceptor.rowsOf(List.of("a", "b")));
+        assertEquals(-1, MethodCallInterceptor.rowsOf(Boolean.TRUE));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.productservice.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Unit tests for Money conversions and the JSON form of minor-unit prices.
+ */
+@DisplayName("Money Tests")
+class MoneyTest {
+
+    @Test
+    @DisplayName("Should convert amounts to minor units exactly, rounding half-up")
+    void testToMinorUnits() {
+        assertEquals(7999, Money.toMinorUnits(79.99));
+        assertEquals(1, Money.toMinorUnits(0.01));
+        assertEquals(101, Money.toMinorUnits(1.005));
+        assertEquals(8000, Money.toMinorUnits(79.999));
+        assertNull(Money.toMinorUnitsOrNull(null));
+    }
+
+    @Test
+    @DisplayName("Should saturate amounts beyond the long range and reject NaN")
+    void testToMinorUnitsOutOfRange() {
+        assertEquals(Long.MAX_VALUE, Money.toMinorUnits(1e17));
+        assertEquals(Long.MIN_VALUE, Money.toMinorUnits(-1e17));
+        assertEquals(Long.MAX_VALUE, Money.toMinorUnits(Double.POSITIVE_INFINITY));
+        assertEquals(Long.MIN_VALUE, Money.toMinorUnitsOrNull(Double.NEGATIVE_INFINITY));
+        assertEquals(1_000_000_000_000_000L, Money.toMinorUnits(Double.parseDouble(Money.MAX_AMOUNT)));
+        assertThrows(IllegalArgumentException.class, () -> Money.toMinorUnits(Double.NaN));
+    }
+
+    @Test
+    @DisplayName("Should format minor units the way Double.toString prints the amount")
+    void testFormat() {
+        for (double amount : new double[] { 0.0, 0.05, 0.5, 10.0, 19.99, 79.9, 1499.99, 999999.01 }) {
+            assertEquals(Double.toString(amount), Money.format(Money.toMinorUnits(amount)));
+        }
+        assertEquals("-3.07", Money.format(-307));
+    }
+
+    @Test
+    @DisplayName("Should keep the product JSON shape and treat missing fields as null")
+    void testProductJson() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Product product = new Product(7L, "Lamp", "Home", 19.99, 3);
+
+        String json = mapper.writeValueAsString(product);
+        Product partial = mapper.readValue("{\"name\":\"Lamp\"}", Product.class);
+
+        assertEquals("{\"id\":7,\"name\":\"Lamp\",\"category\":\"Home\",\"price\":19.99,\"stock\":3}", json);
+        assertEquals(1999, mapper.readValue(json, Product.class).getPriceCents());
+        assertNull(partial.getPrice());
+        assertNull(partial.getStock());
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.productservice.hotkeys;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.productservice.dto.HotKey;
+import com.example.productservice.dto.HotKeysResponse;
+
+/**
+ * Unit tests for FrequencySketch estimates and HotKeyTracker top-K and aging.
+ */
+@DisplayName("Hot Key Tracker Tests")
+class HotKeyTrackerTest {
+
+    @Test
+    @DisplayName("Should never undercount and stay close with many more keys than counters")
+    void testSketchEstimates() {
+        FrequencySketch sketch = new FrequencySketch(1000);
+        for (long key = 1; key <= 20_000; key++) {
+            for (int i = 0; i < (key <= 10 ? 100 : 1); i++) {
+                sketch.increment(key * 0x9E3779B97F4A7C15L);
+            }
+        }
+
+        for (long key = 1; key <= 10; key++) {
+            int estimate = sketch.estimate(key * 0x9E3779B97F4A7C15L);
+            assertTrue(estimate >= 100 && estimate < 120, "estimate " + estimate);
+        }
+        assertEquals(4 * 1024 * Integer.BYTES, sketch.memoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should list only the K hottest IDs and queries, hottest first")
+    void testTopK() {
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 3, 10_000);
+        // ID n is read 60 / n times, a long tail of IDs once
+        for (long id = 1; id <= 1_000; id++) {
+            for (int i = 0; i < Math.max(1, 60 / id); i++) {
+                tracker.recordId(id);
+            }
+        }
+        for (int i = 0; i < 5; i++) {
+            tracker.recordQuery("search?category=Books");
+        }
+        tracker.recordQuery("suggest?prefix=lap");
+
+        HotKeysResponse response = tracker.snapshot();
+
+        assertEquals(List.of("1", "2", "3"), response.getIds().stream().map(HotKey::getKey).toList());
+        assertEquals(60, response.getIds().get(0).getEstimatedCount());
+        // No halving yet: 60 reads over about one half-life
+        assertEquals(6.0, response.getIds().get(0).getEstimatedRate(), 0.1);
+        assertEquals("search?category=Books", response.getQueries().get(0).getKey());
+        assertEquals(2, response.getQueries().size());
+    }
+
+    @Test
+    @DisplayName("Should age counts by halving so newly hot keys take over")
+    void testAging() {
+        HotKeyTracker tracker = new HotKeyTracker(true, 4096, 1, 10_000);
+        for (int i = 0; i < 100; i++) {
+            tracker.recordId(1L);
+        }
+        tracker.halve();
+        tracker.halve();
+        assertEquals(25, tracker.idFrequency(1L));
+
+        for (int i = 0; i < 30; i++) {
+            tracker.recordId(2L);
+        }
+
+        assertEquals("2", tracker.snapshot().getIds().get(0).getKey());
+    }
+
+    @Test
+    @DisplayName("Should count nothing when disabled")
+    void testDisabled() {
+        HotKeyTracker tracker = new HotKeyTracker(false, 4096, 3, 10_000);
+        tracker.recordId(1L);
+        tracker.recordQuery("search");
+
+        assertEquals(0, tracker.idFrequency(1L));
+        assertEquals(0, tracker.queryFrequency("search"));
+        assertTrue(tracker.snapshot().getIds().isEmpty());
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.productservice.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.example.productservice.cache.ProductSearchCache;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.service.ProductService;
+import com.example.productservice.suggest.ProductSuggestIndex;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Integration tests for the invalidation bus over UDP on loopback. The test
+ * plays a second node: it receives the batches of the application's node and
+ * sends it batches of writes made directly in the shared database.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:invalidation", "product.invalidation.enabled=true",
+        "product.invalidation.transport=udp", "product.invalidation.heartbeat-interval-ms=60000",
+        "product.search-cache.enabled=true", "product.suggest.enabled=true" })
+@DisplayName("Invalidation Bus Integration Tests")
+class InvalidationBusIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+    private static final DatagramSocket PEER = openPeer();
+    private static final int NODE_PORT = freePort();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductStore productStore;
+
+    @Autowired
+    private ProductSearchCache searchCache;
+
+    @Autowired
+    private ProductSuggestIndex suggestIndex;
+
+    @Autowired
+    private InvalidationBus bus;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void transportProperties(DynamicPropertyRegistry pRegistry) {
+        pRegistry.add("product.invalidation.port", () -> NODE_PORT);
+        pRegistry.add("product.invalidation.peers", () -> "127.0.0.1:" + PEER.getLocalPort());
+    }
+
+    /**
+     * Cleanup method to empty the database and the caches.
+     */
+    @AfterEach
+    void tearDown() {
+        productStore.deleteAll();
+        searchCache.clear();
+        suggestIndex.reload();
+    }
+
+    /**
+     * Closes the peer's socket.
+     */
+    @AfterAll
+    static void closePeer() {
+        PEER.close();
+    }
+
+    @Test
+    @DisplayName("Should send committed local writes to the other nodes")
+    void testSendsLocalWrites() throws IOException {
+        drainPeer();
+
+        Product saved = productService.addProduct(new Product("Laptop", "Electronics", 999.99, 10));
+        InvalidationBatch batch = receiveBatch();
+
+        assertEquals(bus.getNode(), batch.node());
+        assertEquals(1, batch.changes().size());
+        assertEquals(ProductChangedEvent.Type.CREATED, batch.changes().get(0).type());
+        assertEquals(saved.getId(), batch.changes().get(0).productId());
+    }
+
+    @Test
+    @DisplayName("Should apply another node's writes to the local caches without sending them on")
+    void testAppliesRemoteWrites() throws IOException {
+        drainPeer();
+        Product saved = productService.addProduct(new Product("Laptop", "Electronics", 999.99, 10));
+        assertEquals(1, productService.searchProducts(null, "Electronics", null, null).size());
+        assertEquals(1, searchCache.size());
+        assertEquals(1, suggestIndex.suggest("lap", 10).size());
+        receiveBatch();
+
+        // Act: another node renames and moves the product in the shared database
+        Product moved = new Product(saved);
+        moved.setName("Desk");
+        moved.setCategory("Office");
+        productStore.save(moved);
+        send(new InvalidationBatch(ThreadLocalRandom.current().nextLong(), 1, false,
+                List.of(new InvalidationBatch.Change(ProductChangedEvent.Type.UPDATED, saved.getId(),
+                        System.currentTimeMillis()))));
+
+        await(() -> suggestIndex.suggest("desk", 10).size() == 1);
+        assertTrue(suggestIndex.suggest("lap", 10).isEmpty());
+        assertEquals(0, searchCache.size());
+        assertTrue(productService.searchProducts(null, "Electronics", null, null).isEmpty());
+        assertNull(receiveBatchOrNull(200));
+    }
+
+    @Test
+    @DisplayName("Should resync all local caches when a batch is lost, and ignore late batches")
+    void testResyncOnGap() throws IOException {
+        double resyncs = meterRegistry.get("product.invalidation.resyncs").functionCounter().count();
+        double ignored = meterRegistry.get("product.invalidation.ignored").functionCounter().count();
+        long node = ThreadLocalRandom.current().nextLong();
+        productService.addProduct(new Product("Laptop", "Electronics", 999.99, 10));
+        productService.searchProducts(null, "Electronics", null, null);
+        assertEquals(1, searchCache.size());
+
+        send(new InvalidationBatch(node, 1, false, List.of()));
+        send(new InvalidationBatch(node, 3, false, List.of()));
+        await(() -> meterRegistry.get("product.invalidation.resyncs").functionCounter().count() == resyncs + 1);
+        assertEquals(0, searchCache.size());
+
+        send(new InvalidationBatch(node, 2, false,
+                List.of(new InvalidationBatch.Change(ProductChangedEvent.Type.DELETED, 1, 0))));
+        await(() -> meterRegistry.get("product.invalidation.ignored").functionCounter().count() == ignored + 1);
+    }
+
+    @Test
+    @DisplayName("Should encode and decode batches")
+    void testBatchEncoding() {
+        InvalidationBatch batch = new InvalidationBatch(42, 7, true,
+                List.of(new InvalidationBatch.Change(ProductChangedEvent.Type.DELETED, 5, 1234)));
+
+        assertEquals(batch, InvalidationBatch.decode(batch.encode()));
+        assertTrue(new InvalidationBatch(42, 7, false, List.of()).isHeartbeat());
+    }
+
+    private static DatagramSocket openPeer() {
+        try {
+            DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+            socket.setSoTimeout((int) TIMEOUT_MILLIS);
+            return socket;
+        } catch (SocketException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int freePort() {
+        try (DatagramSocket socket = new DatagramSocket(0)) {
+            return socket.getLocalPort();
+        } catch (SocketException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void send(InvalidationBatch pBatch) throws IOException {
+        byte[] payload = pBatch.encode();
+        PEER.send(new DatagramPacket(payload, payload.length, InetAddress.getLoopbackAddress(), NODE_PORT));
+    }
+
+    private static InvalidationBatch receiveBatch() throws IOException {
+        InvalidationBatch batch = receiveBatchOrNull(TIMEOUT_MILLIS);
+        if (batch == null) {
+            throw new SocketTimeoutException("No invalidation batch received");
+        }
+        return batch;
+    }
+
+    /**
+     * Receives the next batch that is not a heartbeat.
+     */
+    private static InvalidationBatch receiveBatchOrNull(long pTimeoutMillis) throws IOException {
+        byte[] buffer = new byte[65_507];
+        long deadline = System.currentTimeMillis() + pTimeoutMillis;
+        while (System.currentTimeMillis() < deadline) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            PEER.setSoTimeout((int) Math.max(1, deadline - System.currentTimeMillis()));
+            try {
+                PEER.receive(packet);
+            } catch (SocketTimeoutException e) {
+                return null;
+            }
+            InvalidationBatch batch = InvalidationBatch.decode(Arrays.copyOf(buffer, packet.getLength()));
+            if (!batch.isHeartbeat()) {
+                return batch;
+            }
+        }
+        return null;
+    }
+
+    private static void drainPeer() throws IOException {
+        while (receiveBatchOrNull(50) != null) {
+            // discard batches of earlier tests
+        }
+    }
+
+    private static void await(BooleanSupplier pCondition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!pCondition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.productservice.lowstock;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.UnsupportedEncodingException;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.service.ProductService;
+
+/**
+ * Integration tests for the low-stock index and its alert stream.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:lowstock", "product.low-stock.enabled=true" })
+@AutoConfigureMockMvc
+@DisplayName("Low Stock Integration Tests")
+class LowStockIntegrationTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductStore productStore;
+
+    @Autowired
+    private LowStockIndex index;
+
+    /**
+     * Cleanup method to empty the database and the index.
+     */
+    @AfterEach
+    void tearDown() {
+        productStore.deleteAll();
+        index.reload();
+    }
+
+    @Test
+    @DisplayName("Should answer from the index and follow every write")
+    void testIndexFollowsWrites() throws Exception {
+        Product laptop = productService.addProduct(new Product("Laptop", "Electronics", 999.99, 3));
+        Product mouse = productService.addProduct(new Product("Mouse", "Electronics", 29.99, 1));
+        Product book = productService.addProduct(new Product("Book", "Books", 19.99, 2));
+        productService.addProduct(new Product("Keyboard", "Electronics", 79.99, 15));
+        // Written past the service: not in the index until it reloads
+        productStore.save(new Product("Pen", "Office", 1.99, 0));
+
+        mockMvc.perform(get("/api/products/low-stock").param("threshold", "3")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].name", contains("Mouse", "Book", "Laptop")));
+        mockMvc.perform(get("/api/products/low-stock").param("threshold", "3").param("category", "Electronics"))
+                .andExpect(jsonPath("$[*].name", contains("Mouse", "Laptop")));
+
+        productService.updateProduct(mouse.getId(), new Product(null, null, null, 20));
+        productService.updateProduct(laptop.getId(), new Product(null, null, 899.99, null));
+        productService.deleteProduct(book.getId());
+        mockMvc.perform(get("/api/products/low-stock").param("threshold", "3"))
+                .andExpect(jsonPath("$[*].name", contains("Laptop"))).andExpect(jsonPath("$[0].price").value(899.99));
+
+        index.reload();
+        mockMvc.perform(get("/api/products/low-stock").param("threshold", "3"))
+                .andExpect(jsonPath("$[*].name", contains("Pen", "Laptop")));
+    }
+
+    @Test
+    @DisplayName("Should keep the newest committed stock when an older write's event arrives late")
+    void testLateEventKeepsNewerWrite() throws Exception {
+        Product mouse = productService.addProduct(new Product("Mouse", "Electronics", 29.99, 1));
+        Product stale = ProductChangedEvent.snapshot(mouse);
+        productService.updateProduct(mouse.getId(), new Product(null, null, null, 20));
+
+        // The event of an earlier write, delivered after the newer one
+        index.onProductChanged(ProductChangedEvent.updated(stale, stale));
+
+        mockMvc.perform(get("/api/products/low-stock").param("threshold", "3")).andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Should stream products crossing the threshold of the subscriber's category")
+    void testStreamsThresholdCrossings() throws Exception {
+        Product book = productService.addProduct(new Product("Book", "Books", 19.99, 10));
+        Product laptop = productService.addProduct(new Product("Laptop", "Electronics", 999.99, 10));
+        MvcResult stream = mockMvc
+                .perform(get("/api/products/low-stock/stream").param("threshold", "5").param("category", "Books"))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        productService.updateProduct(laptop.getId(), new Product(null, null, null, 1));
+        productService.updateProduct(book.getId(), new Product(null, null, null, 4));
+        productService.updateProduct(book.getId(), new Product(null, null, null, 3));
+        productService.updateProduct(book.getId(), new Product(null, null, null, 8));
+
+        await(() -> content(stream).contains("event:restocked"));
+        String events = content(stream);
+        assertEquals(1, count(events, "event:low-stock"));
+        assertTrue(events.indexOf("event:low-stock") < events.indexOf("event:restocked"));
+        assertTrue(events.contains("id:" + book.getId()));
+        assertFalse(events.contains("Laptop"));
+    }
+
+    @Test
+    @DisplayName("Should return 400 for a negative threshold")
+    void testStreamInvalidThreshold() throws Exception {
+        mockMvc.perform(get("/api/products/low-stock/stream").param("threshold", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String content(MvcResult pResult) {
+        try {
+            return pResult.getResponse().getContentAsString();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int count(String pText, String pPart) {
+        int count = 0;
+        for (int i = pText.indexOf(pPart); i >= 0; i = pText.indexOf(pPart, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void await(BooleanSupplier pCondition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!pCondition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not met in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.productservice.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.productservice.entity.Product;
+
+/**
+ * Unit tests for MemoryProductStore queries, log recovery and snapshots.
+ */
+@DisplayName("Memory Product Store Tests")
+class MemoryProductStoreTest {
+
+    @TempDir
+    private Path directory;
+
+    private MemoryProductStore store;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    private MemoryProductStore open() {
+        return new MemoryProductStore(directory, 4, true, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("Should answer ID, category and price queries from the table and its indexes")
+    void testQueries() {
+        store = open();
+        Product laptop = store.save(new Product("Laptop", "Electronics", 999.99, 10));
+        Product mouse = store.save(new Product("Gaming Mouse", "Electronics", 49.99, 20));
+        Product book = store.save(new Product("Book", "Books", 19.99, 100));
+
+        assertEquals("Laptop", store.findById(laptop.getId()).orElseThrow().getName());
+        assertEquals(List.of(laptop.getId(), mouse.getId()), ids(store.findByCategory("Electronics")));
+        assertEquals(List.of(mouse.getId(), book.getId()), ids(store.findByPriceCentsBetween(1000, 5000)));
+        assertEquals(List.of(mouse.getId()), ids(store.searchProducts("mouse", "Electronics", null, 10_000L)));
+        assertEquals(List.of(laptop.getId()), ids(store.searchProducts(null, null, null, null, 1)));
+
+        // Moving a product updates both indexes
+        mouse.setCategory("Accessories");
+        mouse.setPrice(5.0);
+        store.save(mouse);
+        assertEquals(List.of(laptop.getId()), ids(store.findByCategory("Electronics")));
+        assertEquals(List.of(mouse.getId()), ids(store.findByPriceCentsBetween(0, 1000)));
+
+        store.deleteById(laptop.getId());
+        assertFalse(store.existsById(laptop.getId()));
+        assertNull(store.findIdRangeByCategory("Electronics"));
+        assertEquals(2, store.findAll().size());
+    }
+
+    @Test
+    @DisplayName("Should return copies, so changing a result does not change the store")
+    void testCopies() {
+        store = open();
+        Long id = store.save(new Product("Laptop", "Electronics", 999.99, 10)).getId();
+
+        store.findById(id).orElseThrow().setName("Changed");
+
+        assertEquals("Laptop", store.findById(id).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should refuse a name longer than its column and leave the stored product unchanged")
+    void testTextTooLong() throws Exception {
+        store = open();
+        Long id = store.save(new Product("Laptop", "Electronics", 999.99, 10)).getId();
+        Product renamed = store.findById(id).orElseThrow();
+        renamed.setName("x".repeat(Product.MAX_TEXT_LENGTH + 1));
+        renamed.setCategory("Computers");
+
+        assertThrows(IllegalArgumentException.class, () -> store.save(renamed));
+
+        assertEquals("Laptop", store.findById(id).orElseThrow().getName());
+        assertEquals(List.of(id), ids(store.findByCategory("Electronics")));
+        store.destroy();
+        store = open();
+        assertEquals("Laptop", store.findById(id).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should recover saves, updates, deletes and price adjustments after a restart")
+    void testRecovery() throws Exception {
+        store = open();
+        List<Long> ids = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Product>> saves = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Product product = new Product("Product " + i, i % 2 == 0 ? "Even" : "Odd", 10.0, i);
+                saves.add(executor.submit(() -> store.save(product)));
+            }
+            for (Future<Product> save : saves) {
+                ids.add(save.get().getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        store.deleteById(ids.get(0));
+        long[] range = store.findIdRangeByCategory("Odd");
+        assertEquals(100, store.adjustPrices("Odd", 0, Long.MAX_VALUE, new BigDecimal("1.055"), range[0], range[1]));
+        store.destroy();
+
+        store = open();
+
+        assertEquals(199, store.size());
+        assertFalse(store.existsById(ids.get(0)));
+        assertEquals(100, store.findByCategory("Odd").size());
+        assertEquals(1055, store.findByCategory("Odd").get(0).getPriceCents());
+        assertEquals(1000, store.findByCategory("Even").get(0).getPriceCents());
+        // New IDs continue after the recovered ones
+        assertTrue(store.save(new Product("New", "Even", 1.0, 1)).getId() > ids.get(ids.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Should drop a torn record at the end of the log and keep the records before it")
+    void testTornTail() throws Exception {
+        // Arrange: no final snapshot, as after a crash
+        store = open();
+        Long id = store.save(new Product("Laptop", "Electronics", 999.99, 10)).getId();
+        store.save(new Product("Mouse", "Electronics", 29.99, 50));
+        Path segment = WriteAheadLog.segmentPath(directory, WriteAheadLog.segments(directory).get(0));
+        store = null;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        // Act
+        MemoryProductStore recovered = open();
+        try {
+            // Assert
+            assertEquals(1, recovered.size());
+            assertEquals("Laptop", recovered.findById(id).orElseThrow().getName());
+            Product keyboard = recovered.save(new Product("Keyboard", "Electronics", 79.99, 15));
+            assertTrue(recovered.existsById(keyboard.getId()));
+        } finally {
+            recovered.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should replace covered log segments with a snapshot")
+    void testSnapshot() throws Exception {
+        store = open();
+        for (int i = 0; i < 50; i++) {
+            store.save(new Product("Product " + i, "Books", 10.0, i));
+        }
+        store.deleteAll();
+        Long id = store.save(new Product("Survivor", "Books", 10.0, 1)).getId();
+
+        store.snapshot();
+
+        assertEquals(1, WriteAheadLog.segments(directory).size());
+        assertTrue(Files.exists(
+                directory.resolve(String.format("snapshot-%012d.dat", WriteAheadLog.segments(directory).get(0)))));
+        store.save(new Product("After", "Books", 12.0, 2));
+        store.destroy();
+        store = open();
+        assertEquals(2, store.size());
+        assertEquals("Survivor", store.findById(id).orElseThrow().getName());
+    }
+
+    private static List<Long> ids(List<Product> pProducts) {
+        return pProducts.stream().map(Product::getId).toList();
+    }
+}
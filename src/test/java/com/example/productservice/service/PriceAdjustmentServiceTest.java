@@ -0,0 +1,125 @@
+package com.example.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.productservice.dto.PriceAdjustmentJob;
+import com.example.productservice.dto.PriceAdjustmentRequest;
+import com.example.productservice.event.ProductsBulkUpdatedEvent;
+import com.example.productservice.repository.ProductStore;
+
+/**
+ * Unit tests for PriceAdjustmentService chunking, progress and invalidation.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Price Adjustment Service Tests")
+class PriceAdjustmentServiceTest {
+
+    @Mock
+    private ProductStore productStore;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PriceAdjustmentService service;
+
+    /**
+     * Setup method to create a service with chunks of ten IDs.
+     */
+    @BeforeEach
+    void setUp() {
+        service = new PriceAdjustmentService(productStore, eventPublisher, 10, 4, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    @DisplayName("Should update the category's ID range in chunks and publish one event at the end")
+    void testChunkedAdjustment() {
+        // Arrange
+        long[] range = new long[2];
+        range[0] = 5;
+        range[1] = 27;
+        when(productStore.findIdRangeByCategory("Books")).thenReturn(range);
+        when(productStore.adjustPrices(eq("Books"), eq(1000L), eq(Long.MAX_VALUE), any(), anyLong(), anyLong()))
+                .thenReturn(3);
+
+        // Act
+        PriceAdjustmentJob job = service.submit(new PriceAdjustmentRequest("Books", new BigDecimal("-10"), 10.0, null));
+
+        // Assert
+        ArgumentCaptor<ProductsBulkUpdatedEvent> event = ArgumentCaptor.forClass(ProductsBulkUpdatedEvent.class);
+        verify(eventPublisher, timeout(5000)).publishEvent(event.capture());
+        BigDecimal factor = new BigDecimal("0.9");
+        verify(productStore).adjustPrices("Books", 1000L, Long.MAX_VALUE, factor, 5, 14);
+        verify(productStore).adjustPrices("Books", 1000L, Long.MAX_VALUE, factor, 15, 24);
+        verify(productStore).adjustPrices("Books", 1000L, Long.MAX_VALUE, factor, 25, 27);
+        assertEquals("Books", event.getValue().getCategory());
+        assertEquals(9, event.getValue().getUpdatedCount());
+        assertEquals(PriceAdjustmentJob.Status.COMPLETED, job.getStatus());
+        assertEquals(9, job.getUpdatedCount());
+        assertEquals(3, job.getChunks());
+        assertEquals(1.0, job.getProgress());
+        assertNotNull(service.getJob(job.getId()));
+    }
+
+    @Test
+    @DisplayName("Should keep committed chunks and still invalidate when a chunk fails")
+    void testFailedChunk() {
+        // Arrange
+        long[] range = new long[2];
+        range[0] = 1;
+        range[1] = 20;
+        when(productStore.findIdRangeByCategory("Books")).thenReturn(range);
+        when(productStore.adjustPrices(eq("Books"), anyLong(), anyLong(), any(), eq(1L), eq(10L))).thenReturn(4);
+        when(productStore.adjustPrices(eq("Books"), anyLong(), anyLong(), any(), eq(11L), eq(20L)))
+                .thenThrow(new IllegalStateException("lock timeout"));
+
+        // Act
+        PriceAdjustmentJob job = service.submit(new PriceAdjustmentRequest("Books", BigDecimal.TEN, null, null));
+
+        // Assert
+        verify(eventPublisher, timeout(5000)).publishEvent(any(ProductsBulkUpdatedEvent.class));
+        assertEquals(PriceAdjustmentJob.Status.FAILED, job.getStatus());
+        assertEquals("lock timeout", job.getError());
+        assertEquals(4, job.getUpdatedCount());
+        assertEquals(0.5, job.getProgress());
+    }
+
+    @Test
+    @DisplayName("Should complete without updates or events for an empty category")
+    void testEmptyCategory() throws Exception {
+        // Act
+        PriceAdjustmentJob job = service.submit(new PriceAdjustmentRequest("Nothing", BigDecimal.ONE, null, null));
+
+        // Assert
+        for (int i = 0; i < 100 && job.getStatus() != PriceAdjustmentJob.Status.COMPLETED; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(PriceAdjustmentJob.Status.COMPLETED, job.getStatus());
+        verify(productStore, never()).adjustPrices(any(), anyLong(), anyLong(), any(), anyLong(), anyLong());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
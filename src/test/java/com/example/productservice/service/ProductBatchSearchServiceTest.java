@@ -0,0 +1,149 @@
+package com.example.productservice.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.productservice.deadline.Deadline;
+import com.example.productservice.deadline.DeadlineContext;
+import com.example.productservice.dto.ProductBatchSearchResponse;
+import com.example.productservice.dto.ProductSearchRequest;
+import com.example.productservice.dto.ProductSearchResult;
+import com.example.productservice.entity.Product;
+
+/**
+ * Unit tests for ProductBatchSearchService deadlines, limits and rejections.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Batch Search Service Tests")
+class ProductBatchSearchServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ProductBatchSearchService batchSearchService;
+
+    /**
+     * Releases blocked searches and stops the workers.
+     */
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (batchSearchService != null) {
+            batchSearchService.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should run searches concurrently so the batch takes as long as the slowest")
+    void testConcurrent() {
+        // Arrange
+        batchSearchService = new ProductBatchSearchService(productService, 4, 4, 10, 5_000, 50, 500);
+        Product product = new Product("Laptop", "Electronics", 999.99, 10);
+        when(productService.searchProducts(isNull(), any(), isNull(), isNull(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return List.of(product);
+        });
+        List<ProductSearchRequest> searches = List.of(new ProductSearchRequest(null, "A", null, null, null),
+                new ProductSearchRequest(null, "B", null, null, null),
+                new ProductSearchRequest(null, "C", null, null, null),
+                new ProductSearchRequest(null, "D", null, null, null));
+
+        // Act
+        ProductBatchSearchResponse response = batchSearchService.search(searches, null);
+
+        // Assert
+        assertEquals(4, response.getResults().size());
+        for (ProductSearchResult result : response.getResults()) {
+            assertEquals(ProductSearchResult.Status.OK, result.getStatus());
+            assertEquals(List.of(product), result.getProducts());
+            assertTrue(result.getElapsedMicros() >= 200_000);
+        }
+        assertTrue(response.getElapsedMicros() < 700_000, "took " + response.getElapsedMicros() + " µs");
+    }
+
+    @Test
+    @DisplayName("Should report searches still running at the deadline as timed out")
+    void testDeadline() {
+        // Arrange
+        batchSearchService = new ProductBatchSearchService(productService, 2, 2, 10, 5_000, 50, 500);
+        when(productService.searchProducts(isNull(), eq("Fast"), isNull(), isNull(), eq(50))).thenReturn(List.of());
+        when(productService.searchProducts(isNull(), eq("Slow"), isNull(), isNull(), eq(50))).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        List<ProductSearchRequest> searches = List.of(new ProductSearchRequest(null, "Fast", null, null, null),
+                new ProductSearchRequest(null, "Slow", null, null, null));
+
+        // Act
+        ProductBatchSearchResponse response = batchSearchService.search(searches, 100L);
+
+        // Assert
+        assertEquals(ProductSearchResult.Status.OK, response.getResults().get(0).getStatus());
+        assertEquals(ProductSearchResult.Status.TIMEOUT, response.getResults().get(1).getStatus());
+        assertTrue(response.getElapsedMicros() < 1_000_000);
+    }
+
+    @Test
+    @DisplayName("Should run workers under the batch deadline when it is earlier than the request's")
+    void testWorkerDeadline() {
+        // Arrange
+        batchSearchService = new ProductBatchSearchService(productService, 1, 1, 10, 5_000, 50, 500);
+        AtomicReference<Deadline> workerDeadline = new AtomicReference<>();
+        when(productService.searchProducts(isNull(), eq("A"), isNull(), isNull(), eq(50))).thenAnswer(invocation -> {
+            workerDeadline.set(DeadlineContext.current());
+            return List.of();
+        });
+        DeadlineContext.set(Deadline.after(60_000));
+
+        // Act
+        try {
+            batchSearchService.search(List.of(new ProductSearchRequest(null, "A", null, null, null)), 200L);
+        } finally {
+            DeadlineContext.clear();
+        }
+
+        // Assert
+        assertTrue(workerDeadline.get().remainingMillis() <= 200);
+    }
+
+    @Test
+    @DisplayName("Should reject searches that do not fit the executor queue")
+    void testRejected() {
+        // Arrange
+        batchSearchService = new ProductBatchSearchService(productService, 1, 1, 10, 5_000, 50, 500);
+        lenient().when(productService.searchProducts(any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+        List<ProductSearchRequest> searches = List.of(new ProductSearchRequest(null, "A", null, null, null),
+                new ProductSearchRequest(null, "B", null, null, null),
+                new ProductSearchRequest(null, "C", null, null, 1_000));
+
+        // Act
+        ProductBatchSearchResponse response = batchSearchService.search(searches, 50L);
+
+        // Assert
+        assertEquals(ProductSearchResult.Status.TIMEOUT, response.getResults().get(0).getStatus());
+        assertEquals(ProductSearchResult.Status.TIMEOUT, response.getResults().get(1).getStatus());
+        assertEquals(ProductSearchResult.Status.REJECTED, response.getResults().get(2).getStatus());
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
@@ -21,9 +22,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.example.productservice.cache.OffHeapProductCache;
+import com.example.productservice.cache.ProductIdFilter;
+import com.example.productservice.cache.ProductSearchCache;
+import com.example.productservice.dto.ProductBatchResponse;
 import com.example.productservice.entity.Product;
+import com.example.productservice.lowstock.LowStockIndex;
 import com.example.productservice.repository.ProductRepository;
+import com.example.productservice.suggest.ProductSuggestIndex;
+import com.example.productservice.writebehind.StockWriteBuffer;
 
 /**
  * Unit tests for ProductService using JUnit 5 and Mockito.
@@ -35,6 +44,27 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchCache searchCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockWriteBuffer stockBuffer;
+
+    @Mock
+    private ProductSuggestIndex suggestIndex;
+
+    @Mock
+    private ProductIdFilter idFilter;
+
+    @Mock
+    private OffHeapProductCache offHeapCache;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
     @InjectMocks
     private ProductService productService;
 
@@ -123,6 +153,98 @@ class ProductServiceTest {
             assertFalse(result.isPresent());
             verify(productRepository, times(1)).findById(999L);
         }
+
+        @Test
+        @DisplayName("Should reflect buffered stock that is not flushed yet")
+        void testGetProductByIdWithBufferedStock() {
+            // Arrange
+            when(stockBuffer.isEnabled()).thenReturn(true);
+            when(stockBuffer.pendingStock(1L)).thenReturn(4);
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct1));
+
+            // Act
+            Optional<Product> result = productService.getProductById(1L);
+
+            // Assert
+            assertTrue(result.isPresent());
+            assertEquals(4, result.get().getStock());
+            assertEquals(10, testProduct1.getStock());
+        }
+
+        @Test
+        @DisplayName("Should answer IDs the ID filter rules out without a query")
+        void testGetProductByIdFilteredOut() {
+            // Arrange
+            when(idFilter.isEnabled()).thenReturn(true);
+            when(idFilter.mightContain(999L)).thenReturn(false);
+
+            // Act
+            Optional<Product> result = productService.getProductById(999L);
+
+            // Assert
+            assertFalse(result.isPresent());
+            verify(productRepository, never()).findById(999L);
+        }
+
+        @Test
+        @DisplayName("Should serve cached products without a query and cache loaded ones")
+        void testGetProductByIdOffHeapCache() {
+            // Arrange
+            when(offHeapCache.isEnabled()).thenReturn(true);
+            when(offHeapCache.get(1L)).thenReturn(testProduct1);
+            when(offHeapCache.version(2L)).thenReturn(7L);
+            when(productRepository.findById(2L)).thenReturn(Optional.of(testProduct2));
+
+            // Act
+            Optional<Product> cached = productService.getProductById(1L);
+            Optional<Product> loaded = productService.getProductById(2L);
+
+            // Assert
+            assertEquals(testProduct1, cached.orElseThrow());
+            assertEquals(testProduct2, loaded.orElseThrow());
+            verify(productRepository, never()).findById(1L);
+            verify(offHeapCache).put(testProduct2, 7L);
+        }
+    }
+
+    /**
+     * Tests for getProductsByIds method.
+     */
+    @Nested
+    @DisplayName("Get Products By IDs Tests")
+    class GetProductsByIdsTests {
+
+        @Test
+        @DisplayName("Should return found products in request order and report missing IDs")
+        void testGetProductsByIds() {
+            // Arrange
+            when(productRepository.findAllById(Arrays.asList(2L, 999L, 1L)))
+                    .thenReturn(Arrays.asList(testProduct1, testProduct2));
+
+            // Act
+            ProductBatchResponse result = productService.getProductsByIds(Arrays.asList(2L, 999L, 1L, 2L));
+
+            // Assert
+            assertEquals(Arrays.asList(testProduct2, testProduct1), result.getProducts());
+            assertEquals(Arrays.asList(999L), result.getMissingIds());
+            verify(productRepository, times(1)).findAllById(any());
+            verify(productRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should split long ID lists into chunked queries")
+        void testGetProductsByIdsChunked() {
+            // Arrange
+            productService.setMultiGetChunkSize(2);
+            when(productRepository.findAllById(any())).thenReturn(Arrays.asList());
+
+            // Act
+            ProductBatchResponse result = productService.getProductsByIds(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+
+            // Assert
+            assertEquals(5, result.getMissingIds().size());
+            verify(productRepository, times(3)).findAllById(any());
+        }
     }
 
     /**
@@ -174,6 +296,8 @@ class ProductServiceTest {
             assertEquals(1499.99, result.get().getPrice());
             verify(productRepository, times(1)).findById(1L);
             verify(productRepository, times(1)).save(any(Product.class));
+            // Round-trip budget: one load and one save
+            verifyNoMoreInteractions(productRepository);
         }
 
         @Test
@@ -191,6 +315,44 @@ class ProductServiceTest {
             verify(productRepository, times(1)).findById(999L);
             verify(productRepository, never()).save(any(Product.class));
         }
+
+        @Test
+        @DisplayName("Should buffer stock-only update when write-behind is enabled")
+        void testUpdateProductStockOnlyBuffered() {
+            // Arrange
+            Product stockUpdate = new Product(1L, "Laptop", "Electronics", 999.99, 3);
+            when(stockBuffer.isEnabled()).thenReturn(true);
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct1));
+
+            // Act
+            Optional<Product> result = productService.updateProduct(1L, stockUpdate);
+
+            // Assert
+            assertTrue(result.isPresent());
+            assertEquals(3, result.get().getStock());
+            assertEquals(10, testProduct1.getStock());
+            verify(stockBuffer, times(1)).put(1L, 3);
+            verify(productRepository, never()).save(any(Product.class));
+        }
+
+        @Test
+        @DisplayName("Should write directly and discard buffered stock when other fields change")
+        void testUpdateProductFullUpdateDiscardsBuffer() {
+            // Arrange
+            Product updatedProduct = new Product(1L, "Gaming Laptop", "Electronics", 999.99, 3);
+            when(stockBuffer.isEnabled()).thenReturn(true);
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct1));
+            when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+
+            // Act
+            Optional<Product> result = productService.updateProduct(1L, updatedProduct);
+
+            // Assert
+            assertTrue(result.isPresent());
+            verify(stockBuffer, times(1)).discard(1L);
+            verify(stockBuffer, never()).put(any(), any());
+            verify(productRepository, times(1)).save(any(Product.class));
+        }
     }
 
     /**
@@ -204,31 +366,49 @@ class ProductServiceTest {
         @DisplayName("Should delete product when ID exists")
         void testDeleteProductExists() {
             // Arrange
-            when(productRepository.existsById(1L)).thenReturn(true);
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct1));
 
             // Act
             boolean result = productService.deleteProduct(1L);
 
             // Assert
             assertTrue(result);
-            verify(productRepository, times(1)).existsById(1L);
+            verify(productRepository, times(1)).findById(1L);
             verify(productRepository, times(1)).deleteById(1L);
+            // Round-trip budget: one load and one delete, no separate existence check
+            verifyNoMoreInteractions(productRepository);
         }
 
         @Test
         @DisplayName("Should return false when deleting non-existent product")
         void testDeleteProductNotExists() {
             // Arrange
-            when(productRepository.existsById(999L)).thenReturn(false);
+            when(productRepository.findById(999L)).thenReturn(Optional.empty());
 
             // Act
             boolean result = productService.deleteProduct(999L);
 
             // Assert
             assertFalse(result);
-            verify(productRepository, times(1)).existsById(999L);
+            verify(productRepository, times(1)).findById(999L);
             verify(productRepository, never()).deleteById(999L);
         }
+
+        @Test
+        @DisplayName("Should count a false positive when a filtered-in ID does not exist")
+        void testDeleteProductFalsePositive() {
+            // Arrange
+            when(idFilter.isEnabled()).thenReturn(true);
+            when(idFilter.mightContain(999L)).thenReturn(true);
+            when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+            // Act
+            boolean result = productService.deleteProduct(999L);
+
+            // Assert
+            assertFalse(result);
+            verify(idFilter, times(1)).recordFalsePositive();
+        }
     }
 
     /**
@@ -319,7 +499,7 @@ class ProductServiceTest {
         void testGetProductsByPriceRange() {
             // Arrange
             List<Product> expectedProducts = Arrays.asList(testProduct2);
-            when(productRepository.findByPriceBetween(0.0, 50.0)).thenReturn(expectedProducts);
+            when(productRepository.findByPriceCentsBetween(0L, 5000L)).thenReturn(expectedProducts);
 
             // Act
             List<Product> result = productService.getProductsByPriceRange(0.0, 50.0);
@@ -327,21 +507,21 @@ class ProductServiceTest {
             // Assert
             assertEquals(1, result.size());
             assertEquals(expectedProducts, result);
-            verify(productRepository, times(1)).findByPriceBetween(0.0, 50.0);
+            verify(productRepository, times(1)).findByPriceCentsBetween(0L, 5000L);
         }
 
         @Test
         @DisplayName("Should return empty list when no products in price range")
         void testGetProductsByPriceRangeEmpty() {
             // Arrange
-            when(productRepository.findByPriceBetween(2000.0, 3000.0)).thenReturn(Arrays.asList());
+            when(productRepository.findByPriceCentsBetween(200000L, 300000L)).thenReturn(Arrays.asList());
 
             // Act
             List<Product> result = productService.getProductsByPriceRange(2000.0, 3000.0);
 
             // Assert
             assertEquals(0, result.size());
-            verify(productRepository, times(1)).findByPriceBetween(2000.0, 3000.0);
+            verify(productRepository, times(1)).findByPriceCentsBetween(200000L, 300000L);
         }
     }
 
@@ -357,7 +537,8 @@ class ProductServiceTest {
         void testSearchProductsWithAllCriteria() {
             // Arrange
             List<Product> expectedProducts = Arrays.asList(testProduct1);
-            when(productRepository.searchProducts("Laptop", "Electronics", 500.0, 1500.0)).thenReturn(expectedProducts);
+            when(productRepository.searchProducts("Laptop", "Electronics", 50000L, 150000L))
+                    .thenReturn(expectedProducts);
 
             // Act
             List<Product> result = productService.searchProducts("Laptop", "Electronics", 500.0, 1500.0);
@@ -365,7 +546,7 @@ class ProductServiceTest {
             // Assert
             assertEquals(1, result.size());
             assertEquals(expectedProducts, result);
-            verify(productRepository, times(1)).searchProducts("Laptop", "Electronics", 500.0, 1500.0);
+            verify(productRepository, times(1)).searchProducts("Laptop", "Electronics", 50000L, 150000L);
         }
 
         @Test
@@ -405,7 +586,7 @@ class ProductServiceTest {
         void testSearchProductsWithPriceRangeOnly() {
             // Arrange
             List<Product> expectedProducts = Arrays.asList(testProduct2);
-            when(productRepository.searchProducts(null, null, 0.0, 50.0)).thenReturn(expectedProducts);
+            when(productRepository.searchProducts(null, null, 0L, 5000L)).thenReturn(expectedProducts);
 
             // Act
             List<Product> result = productService.searchProducts(null, null, 0.0, 50.0);
@@ -413,7 +594,7 @@ class ProductServiceTest {
             // Assert
             assertEquals(1, result.size());
             assertEquals(expectedProducts, result);
-            verify(productRepository, times(1)).searchProducts(null, null, 0.0, 50.0);
+            verify(productRepository, times(1)).searchProducts(null, null, 0L, 5000L);
         }
 
         @Test
@@ -431,5 +612,42 @@ class ProductServiceTest {
             assertEquals(expectedProducts, result);
             verify(productRepository, times(1)).searchProducts(null, null, null, null);
         }
+
+        @Test
+        @DisplayName("Should answer repeated search from cached IDs")
+        void testSearchProductsCacheHit() {
+            // Arrange
+            ProductSearchCache.Key key = ProductSearchCache.Key.of(null, "Electronics", null, null);
+            when(searchCache.isEnabled()).thenReturn(true);
+            when(searchCache.get(key)).thenReturn(Arrays.asList(2L, 1L));
+            when(productRepository.findAllById(Arrays.asList(2L, 1L)))
+                    .thenReturn(Arrays.asList(testProduct1, testProduct2));
+
+            // Act
+            List<Product> result = productService.searchProducts(null, "Electronics", null, null);
+
+            // Assert
+            assertEquals(Arrays.asList(testProduct2, testProduct1), result);
+            verify(productRepository, never()).searchProducts(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should populate cache on search miss")
+        void testSearchProductsCacheMiss() {
+            // Arrange
+            List<Product> expectedProducts = Arrays.asList(testProduct1);
+            ProductSearchCache.Key key = ProductSearchCache.Key.of("laptop", null, null, null);
+            when(searchCache.isEnabled()).thenReturn(true);
+            when(searchCache.get(key)).thenReturn(null);
+            when(searchCache.currentEpoch()).thenReturn(7L);
+            when(productRepository.searchProducts("Laptop", null, null, null)).thenReturn(expectedProducts);
+
+            // Act
+            List<Product> result = productService.searchProducts("Laptop", null, null, null);
+
+            // Assert
+            assertEquals(expectedProducts, result);
+            verify(searchCache, times(1)).put(key, expectedProducts, 7L);
+        }
     }
 }
@@ -0,0 +1,201 @@
+package com.example.productservice.sharding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.productservice.deadline.Deadline;
+import com.example.productservice.deadline.DeadlineContext;
+import com.example.productservice.deadline.DeadlineDataSource;
+import com.example.productservice.entity.Product;
+import com.example.productservice.entity.ProductField;
+
+/**
+ * Unit tests for ShardedProductStore routing and scatter-gather over three
+ * in-memory H2 shards.
+ */
+@DisplayName("Sharded Product Store Tests")
+class ShardedProductStoreTest {
+
+    private final List<DataSource> dataSources = new ArrayList<>();
+    private ShardedProductStore store;
+
+    /**
+     * Setup method to create three empty shards.
+     */
+    @BeforeEach
+    void setUp() {
+        String run = UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            dataSources.add(
+                    new DriverManagerDataSource("jdbc:h2:mem:shard" + i + "-" + run + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        }
+        store = new ShardedProductStore(dataSources, 3, 5000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        store.destroy();
+    }
+
+    @Test
+    @DisplayName("Should place products on the category's home shard and route ID lookups there")
+    void testPlacementAndLookup() {
+        Product laptop = store.save(new Product("Laptop", "Electronics", 999.99, 10));
+
+        assertEquals(store.homeShard("Electronics"), ShardedProductStore.shardOf(laptop.getId()));
+        assertEquals("Laptop", store.findById(laptop.getId()).orElseThrow().getName());
+        assertTrue(store.existsById(laptop.getId()));
+        assertFalse(store.existsById(laptop.getId() + ShardedProductStore.MAX_SHARDS));
+    }
+
+    @Test
+    @DisplayName("Should read only the selected fields, merged in ID order")
+    void testProjectedSearch() {
+        String[] categories = { "Electronics", "Books", "Toys" };
+        for (int i = 0; i < 9; i++) {
+            store.save(new Product("Item " + i, categories[i % categories.length], 10.0 + i, i));
+        }
+
+        List<Product> all = store.findAllProjected(EnumSet.of(ProductField.NAME, ProductField.STOCK));
+        List<Product> books = store.searchProductsProjected(null, "Books", null, null, EnumSet.of(ProductField.PRICE));
+
+        assertEquals(store.findAll().stream().map(Product::getId).toList(), all.stream().map(Product::getId).toList());
+        Product first = all.get(0);
+        assertTrue(first.getName().startsWith("Item "));
+        assertTrue(first.hasStock());
+        assertNull(first.getCategory());
+        assertFalse(first.hasPrice());
+        assertEquals(3, books.size());
+        assertEquals(1100, books.get(0).getPriceCents());
+        assertNull(books.get(0).getName());
+    }
+
+    @Test
+    @DisplayName("Should merge fan-out results from all shards in ID order")
+    void testScatterGatherMerge() {
+        String[] categories = { "Electronics", "Books", "Toys", "Garden", "Music", "Kitchen" };
+        for (int i = 0; i < 30; i++) {
+            store.save(new Product("Item " + i, categories[i % categories.length], 10.0 + i, i));
+        }
+
+        List<Product> all = store.findAll();
+        List<Product> cheap = store.findByPriceCentsBetween(1000, 1900);
+        List<Product> limited = store.searchProducts("item", null, null, null, 5);
+
+        assertEquals(30, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            assertTrue(all.get(i - 1).getId() < all.get(i).getId());
+        }
+        assertEquals(10, cheap.size());
+        assertEquals(all.subList(0, 5).stream().map(Product::getId).toList(),
+                limited.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Should run fan-out statements under the calling request's deadline")
+    void testScatterDeadline() throws Exception {
+        List<DataSource> withDeadlines = new ArrayList<>();
+        for (DataSource dataSource : dataSources) {
+            withDeadlines.add(new DeadlineDataSource(dataSource));
+        }
+        ShardedProductStore timed = new ShardedProductStore(withDeadlines, 3, 5000);
+        timed.save(new Product("Laptop", "Electronics", 999.99, 10));
+
+        DeadlineContext.set(Deadline.after(0));
+        try {
+            assertThrows(DataAccessException.class, timed::findAll);
+        } finally {
+            DeadlineContext.clear();
+            timed.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a product's ID when its category moves and still find it by the new category")
+    void testCategoryChange() {
+        Product product = store.save(new Product("Speaker", "Electronics", 49.0, 4));
+        Long id = product.getId();
+        String moved = "Music";
+        for (int i = 0; store.homeShard(moved) == store.homeShard("Electronics"); i++) {
+            moved = "Music" + i;
+        }
+
+        product.setCategory(moved);
+        store.save(product);
+        store.save(new Product("Guitar", moved, 199.0, 1));
+
+        assertEquals(id, store.findById(id).orElseThrow().getId());
+        assertEquals(2, store.findByCategory(moved).size());
+        assertTrue(store.findByCategory("Electronics").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the category directory from existing shard data")
+    void testDirectoryRebuild() throws Exception {
+        Product product = store.save(new Product("Speaker", "Electronics", 49.0, 4));
+        String moved = "Music";
+        for (int i = 0; store.homeShard(moved) == store.homeShard("Electronics"); i++) {
+            moved = "Music" + i;
+        }
+        product.setCategory(moved);
+        store.save(product);
+        store.destroy();
+
+        store = new ShardedProductStore(dataSources, 3, 5000);
+
+        assertEquals(1, store.findByCategory(moved).size());
+        assertEquals(2,
+                store.save(new Product("Cable", "Electronics", 5.0, 9)).getId() >> ShardedProductStore.SHARD_BITS);
+    }
+
+    @Test
+    @DisplayName("Should fetch many IDs across shards and delete by ID")
+    void testFindAllByIdAndDelete() {
+        Product a = store.save(new Product("A", "Electronics", 1.0, 1));
+        Product b = store.save(new Product("B", "Books", 2.0, 2));
+        Product c = store.save(new Product("C", "Toys", 3.0, 3));
+
+        store.deleteById(b.getId());
+
+        List<Product> found = store.findAllById(List.of(a.getId(), b.getId(), c.getId(), 999_999L));
+        assertEquals(2, found.size());
+        assertTrue(store.findById(b.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reprice a category within the price and ID range on its shard")
+    void testAdjustPrices() {
+        Product cheap = store.save(new Product("Pen", "Office", 1.99, 10));
+        Product dear = store.save(new Product("Desk", "Office", 250.0, 1));
+        Product other = store.save(new Product("Book", "Books", 1.99, 5));
+
+        long[] range = store.findIdRangeByCategory("Office");
+        int updated = store.adjustPrices("Office", 0, 10_000, new BigDecimal("1.1"), range[0], range[1]);
+
+        assertEquals(cheap.getId(), range[0]);
+        assertEquals(dear.getId(), range[1]);
+        assertEquals(1, updated);
+        assertEquals(219, store.findById(cheap.getId()).orElseThrow().getPriceCents());
+        assertEquals(25_000, store.findById(dear.getId()).orElseThrow().getPriceCents());
+        assertEquals(199, store.findById(other.getId()).orElseThrow().getPriceCents());
+        assertEquals(null, store.findIdRangeByCategory("Garden"));
+    }
+}
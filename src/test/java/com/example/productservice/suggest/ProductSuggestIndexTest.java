@@ -0,0 +1,119 @@
+package com.example.productservice.suggest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.productservice.dto.ProductSuggestion;
+import com.example.productservice.entity.Product;
+import com.example.productservice.event.ProductChangedEvent;
+
+/**
+ * Unit tests for ProductSuggestIndex lookups, ranking and incremental updates.
+ */
+@DisplayName("Product Suggest Index Tests")
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex index;
+
+    /**
+     * Setup method to create an enabled index ranked by stock.
+     */
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestIndex(null, true, 3, "stock");
+    }
+
+    @Test
+    @DisplayName("Should match the name or any word, ignoring case and accents")
+    void testMatching() {
+        index.put(new Product(1L, "Gaming Laptop", "Electronics", 1499.99, 5));
+        index.put(new Product(2L, "Café Crème", "Food", 4.5, 9));
+
+        assertEquals(List.of(1L), ids(index.suggest("LAP", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("gaming la", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("creme", 10)));
+        assertEquals(List.of(), ids(index.suggest("aptop", 10)));
+        assertEquals(List.of(), ids(index.suggest("  ", 10)));
+    }
+
+    @Test
+    @DisplayName("Should rank by stock and keep only the configured number of results")
+    void testRanking() {
+        for (long id = 1; id <= 5; id++) {
+            index.put(new Product(id, "Pen " + id, "Office", 1.0, (int) id * 10));
+        }
+
+        assertEquals(List.of(5L, 4L, 3L), ids(index.suggest("pen", 10)));
+        assertEquals(List.of(5L), ids(index.suggest("pen", 1)));
+    }
+
+    @Test
+    @DisplayName("Should apply renames, stock changes and deletes incrementally")
+    void testUpdates() {
+        Product pen = new Product(1L, "Pen", "Office", 1.0, 10);
+        index.put(pen);
+        index.put(new Product(2L, "Pencil", "Office", 1.0, 20));
+
+        Product renamed = new Product(1L, "Marker", "Office", 1.0, 30);
+        index.onProductChanged(ProductChangedEvent.updated(pen, renamed));
+        assertEquals(List.of(2L), ids(index.suggest("pen", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("mark", 10)));
+
+        index.onProductChanged(ProductChangedEvent.deleted(2L, null));
+        assertEquals(List.of(), ids(index.suggest("p", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Should agree with a full scan after random writes")
+    void testMatchesFullScan() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<String> words = List.of("red", "read", "ready", "blue", "blues", "bluetooth", "box", "boxer");
+        Map<Long, Product> catalog = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long id = 1 + random.nextInt(60);
+            if (random.nextInt(4) == 0) {
+                catalog.remove(id);
+                index.remove(id);
+            } else {
+                String name = words.get(random.nextInt(words.size())) + " " + words.get(random.nextInt(words.size()));
+                Product product = new Product(id, name, "Misc", 1.0, random.nextInt(50));
+                catalog.put(id, product);
+                index.put(product);
+            }
+        }
+
+        for (String prefix : List.of("r", "re", "rea", "b", "bl", "blue", "box", "red b", "x")) {
+            List<Product> expected = new ArrayList<>();
+            for (Product product : catalog.values()) {
+                for (String term : ProductSuggestIndex.terms(product.getName())) {
+                    if (term.startsWith(prefix)) {
+                        expected.add(product);
+                        break;
+                    }
+                }
+            }
+            expected.sort(Comparator.comparing(Product::getStockCount).reversed().thenComparing(Product::getName)
+                    .thenComparing(Product::getId));
+            List<Long> expectedIds = expected.stream().limit(3).map(Product::getId).toList();
+            assertEquals(expectedIds, ids(index.suggest(prefix, 3)), prefix);
+        }
+        assertEquals(catalog.size(), index.size());
+        assertTrue(index.suggest("zzz", 3).isEmpty());
+    }
+
+    private static List<Long> ids(List<ProductSuggestion> pSuggestions) {
+        return pSuggestions.stream().map(ProductSuggestion::getId).toList();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.productservice.support;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Test support that records every SQL statement Hibernate prepares, so tests
+ * can assert statement budgets per request or service call and fail on N+1
+ * patterns or extra round trips. Enable it with
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.productservice.support.SqlStatementCounter}.
+ *
+ * <p>
+ * Typical use: {@link #reset()}, perform the request, flush the persistence
+ * context so pending writes are issued, then {@link #assertCounts}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Statement kind, from the leading SQL keyword.
+     */
+    public enum Kind {
+        /** Queries. */
+        SELECT,
+        /** Inserts. */
+        INSERT,
+        /** Updates. */
+        UPDATE,
+        /** Deletes. */
+        DELETE,
+        /** Anything else (DDL, merge, call). */
+        OTHER
+    }
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String pSql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(pSql);
+        }
+        return pSql;
+    }
+
+    /**
+     * Forgets all recorded statements.
+     */
+    public static void reset() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    /**
+     * Returns the statements recorded since the last reset.
+     *
+     * @return the SQL in execution order
+     */
+    public static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+
+    /**
+     * Counts the recorded statements by kind.
+     *
+     * @return the count per kind, including zero counts
+     */
+    public static Map<Kind, Integer> counts() {
+        Map<Kind, Integer> counts = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            counts.put(kind, 0);
+        }
+        for (String sql : statements()) {
+            counts.merge(kindOf(sql), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Asserts the exact number of statements of each kind since the last reset; the
+     * failure message lists the statements that were issued.
+     *
+     * @param pSelects
+     *            expected SELECT count
+     * @param pInserts
+     *            expected INSERT count
+     * @param pUpdates
+     *            expected UPDATE count
+     * @param pDeletes
+     *            expected DELETE count
+     */
+    public static void assertCounts(int pSelects, int pInserts, int pUpdates, int pDeletes) {
+        Map<Kind, Integer> expected = new EnumMap<>(Kind.class);
+        expected.put(Kind.SELECT, pSelects);
+        expected.put(Kind.INSERT, pInserts);
+        expected.put(Kind.UPDATE, pUpdates);
+        expected.put(Kind.DELETE, pDeletes);
+        expected.put(Kind.OTHER, 0);
+        assertEquals(expected, counts(), () -> "Statement budget exceeded or changed; issued: " + statements());
+    }
+
+    private static Kind kindOf(String pSql) {
+        String sql = pSql.stripLeading().toLowerCase(Locale.ROOT);
+        for (Kind kind : Kind.values()) {
+            if (kind != Kind.OTHER && sql.startsWith(kind.name().toLowerCase(Locale.ROOT))) {
+                return kind;
+            }
+        }
+        return Kind.OTHER;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.productservice.tiering;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.productservice.cache.ProductIdFilter;
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ProductStore;
+import com.example.productservice.service.ProductService;
+
+/**
+ * Integration tests for hot/cold tiering. With an idle period of zero days, a
+ * product becomes inactive as soon as its last activity has been saved.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:tiering", "product.tiering.enabled=true",
+        "product.tiering.idle-days=0", "product.id-filter.enabled=true" })
+@AutoConfigureMockMvc
+@DisplayName("Product Tiering Integration Tests")
+class ProductTieringIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductStore productStore;
+
+    @Autowired
+    private ColdProductStore coldStore;
+
+    @Autowired
+    private ProductTieringJob job;
+
+    @Autowired
+    private ProductIdFilter idFilter;
+
+    /**
+     * Cleanup method to empty both tiers.
+     */
+    @AfterEach
+    void tearDown() {
+        productStore.deleteAll();
+        coldStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should move idle products without stock to the cold tier and still find them by ID")
+    void testArchivesIdleProducts() throws Exception {
+        Product idle = productService.addProduct(new Product("Old Laptop", "Electronics", 499.99, 0));
+        Product stocked = productService.addProduct(new Product("New Laptop", "Electronics", 999.99, 5));
+
+        assertEquals(1, archive());
+
+        assertTrue(productStore.findById(idle.getId()).isEmpty());
+        assertTrue(productStore.findById(stocked.getId()).isPresent());
+        idFilter.rebuild();
+        mockMvc.perform(get("/api/products/" + idle.getId())).andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Old Laptop"));
+        mockMvc.perform(get("/api/products").param("ids", idle.getId() + "," + stocked.getId()))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.products", hasSize(2)))
+                .andExpect(jsonPath("$.missingIds", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("Should leave archived products out of searches unless asked for")
+    void testSearchExcludesColdTier() throws Exception {
+        Product idle = productService.addProduct(new Product("Old Laptop", "Electronics", 499.99, 0));
+        Product stocked = productService.addProduct(new Product("New Laptop", "Electronics", 999.99, 5));
+        archive();
+
+        mockMvc.perform(get("/api/products/search").param("category", "Electronics")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(stocked.getId().intValue())));
+        mockMvc.perform(get("/api/products/search").param("category", "Electronics").param("archived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", contains(idle.getId().intValue(), stocked.getId().intValue())));
+        mockMvc.perform(
+                get("/api/products/search").param("name", "old").param("archived", "true").param("fields", "id,name"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].price").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Should move an archived product back on update and delete it on delete")
+    void testWritesToArchivedProducts() throws Exception {
+        Product restocked = productService.addProduct(new Product("Old Laptop", "Electronics", 499.99, 0));
+        Product removed = productService.addProduct(new Product("Old Phone", "Electronics", 199.99, 0));
+        assertEquals(2, archive());
+
+        mockMvc.perform(put("/api/products/" + restocked.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Old Laptop\",\"category\":\"Electronics\",\"price\":499.99,\"stock\":3}"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.stock").value(3));
+        assertEquals(3, productStore.findById(restocked.getId()).orElseThrow().getStockCount());
+        assertTrue(coldStore.findById(restocked.getId()).isEmpty());
+        mockMvc.perform(get("/api/products/search").param("category", "Electronics"))
+                .andExpect(jsonPath("$[*].id", contains(restocked.getId().intValue())));
+
+        mockMvc.perform(delete("/api/products/" + removed.getId())).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/products/" + removed.getId())).andExpect(status().isNotFound());
+        assertTrue(coldStore.findAllIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should only find products idle since before the cutoff")
+    void testIdlePolicy() {
+        Product product = productService.addProduct(new Product("Old Laptop", "Electronics", 499.99, 0));
+        long now = System.currentTimeMillis();
+        coldStore.recordActivity(List.of(product.getId()), new Timestamp(now - 2 * 86_400_000L));
+
+        assertEquals(List.of(product.getId()), coldStore.findInactive(0, new Timestamp(now - 86_400_000L), 0, 10));
+        assertTrue(coldStore.findInactive(0, new Timestamp(now - 3 * 86_400_000L), 0, 10).isEmpty());
+        assertTrue(coldStore.findInactive(-1, new Timestamp(now), 0, 10).isEmpty());
+    }
+
+    /**
+     * Saves the recorded writes, which start the idle period of the new products,
+     * and runs the job once that period has passed.
+     */
+    private int archive() throws InterruptedException {
+        job.saveActivity();
+        Thread.sleep(5);
+        return job.run();
+    }
+}
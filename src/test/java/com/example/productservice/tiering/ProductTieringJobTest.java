@@ -0,0 +1,100 @@
+package com.example.productservice.tiering;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.writebehind.StockWriteBuffer;
+
+/**
+ * Unit tests for ProductTieringJob with write-behind stock updates.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Product Tiering Job Tests")
+class ProductTieringJobTest {
+
+    @Mock
+    private ColdProductStore coldStore;
+
+    @Mock
+    private ProductActivityTracker activityTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private StockWriteBuffer buffer;
+
+    private ProductTieringJob job;
+
+    /**
+     * Setup method to create a started buffer that only flushes when asked.
+     */
+    @BeforeEach
+    void setUp() {
+        buffer = new StockWriteBuffer(jdbcTemplate, true, 60_000, 100, 1_000, 4, event -> {
+        });
+        buffer.start();
+        job = new ProductTieringJob(coldStore, activityTracker, buffer, eventPublisher, new TieringProperties());
+    }
+
+    /**
+     * Stops the buffer's flush thread.
+     */
+    @AfterEach
+    void tearDown() {
+        buffer.discard(1L);
+        buffer.stop();
+    }
+
+    @Test
+    @DisplayName("Should keep products with buffered stock hot and move stock buffered during the move")
+    void testBufferedStock() {
+        // Arrange
+        buffer.put(1L, 3);
+        Product moved = new Product("Old Laptop", "Electronics", 499.99, 0);
+        moved.setId(2L);
+        when(coldStore.findInactive(anyInt(), any(), anyLong(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(coldStore.archive(eq(List.of(1L, 2L)), anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            Predicate<Long> keepHot = invocation.getArgument(4);
+            assertTrue(keepHot.test(1L));
+            assertFalse(keepHot.test(2L));
+            // A stock update of the moved product, buffered before the move commits
+            buffer.put(2L, 7);
+            return new ArrayList<>(List.of(moved));
+        });
+
+        // Act
+        assertEquals(1, job.run());
+
+        // Assert
+        verify(coldStore).updateStock(2L, 7);
+        assertEquals(7, moved.getStockCount());
+        assertNull(buffer.pendingStock(2L));
+        assertEquals(3, buffer.pendingStock(1L));
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.productservice.writebehind;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+/**
+ * Unit tests for StockWriteBuffer coalescing and flushing.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Stock Write Buffer Tests")
+class StockWriteBufferTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private StockWriteBuffer buffer;
+
+    /**
+     * Setup method to create a started buffer with a long flush interval so flushes
+     * only happen when the test asks for them.
+     */
+    @BeforeEach
+    void setUp() {
+        buffer = new StockWriteBuffer(jdbcTemplate, true, 60_000, 100, 1_000, 4, event -> {
+        });
+        buffer.start();
+    }
+
+    /**
+     * Stops the buffer's flush thread.
+     */
+    @AfterEach
+    void tearDown() {
+        buffer.stop();
+    }
+
+    /**
+     * Makes every batch update find its row except those of the given products.
+     */
+    private void stubRowsFound(Long... pMissingIds) {
+        Set<Long> missing = Set.of(pMissingIds);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Map.Entry<Long, Integer>>>any()))
+                .thenAnswer(invocation -> {
+                    List<Map.Entry<Long, Integer>> rows = invocation.getArgument(1);
+                    int[] counts = new int[rows.size()];
+                    Arrays.fill(counts, 1);
+                    for (int i = 0; i < rows.size(); i++) {
+                        if (missing.contains(rows.get(i).getKey())) {
+                            counts[i] = 0;
+                        }
+                    }
+                    return new int[][] { counts };
+                });
+    }
+
+    @Test
+    @DisplayName("Should coalesce repeated updates of the same product")
+    @SuppressWarnings("unchecked")
+    void testCoalescing() {
+        // Arrange
+        stubRowsFound();
+
+        // Act
+        buffer.put(1L, 10);
+        buffer.put(1L, 9);
+        buffer.put(1L, 8);
+        buffer.put(2L, 5);
+
+        // Assert
+        assertEquals(2, buffer.getPendingCount());
+        assertEquals(8, buffer.pendingStock(1L));
+        assertEquals(2, buffer.flush());
+        ArgumentCaptor<List<Map.Entry<Long, Integer>>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(eq("UPDATE products SET stock = ? WHERE id = ?"), rows.capture(),
+                anyInt(), ArgumentMatchers.<ParameterizedPreparedStatementSetter<Map.Entry<Long, Integer>>>any());
+        assertEquals(2, rows.getAllValues().stream().mapToLong(List::size).sum());
+        assertNull(buffer.pendingStock(1L));
+    }
+
+    @Test
+    @DisplayName("Should drop discarded updates")
+    void testDiscard() {
+        // Act
+        buffer.put(1L, 10);
+        buffer.discard(1L);
+
+        // Assert
+        assertNull(buffer.pendingStock(1L));
+        assertEquals(0, buffer.flush());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Map.Entry<Long, Integer>>>any());
+    }
+
+    @Test
+    @DisplayName("Should flush inline when the pending bound is reached")
+    void testPendingBound() {
+        // Arrange
+        stubRowsFound();
+        StockWriteBuffer bounded = new StockWriteBuffer(jdbcTemplate, true, 60_000, 2, 2, 1, event -> {
+        });
+        bounded.start();
+
+        // Act
+        bounded.put(1L, 1);
+        bounded.put(2L, 2);
+
+        // Assert
+        assertEquals(0, bounded.getPendingCount());
+        bounded.stop();
+    }
+
+    @Test
+    @DisplayName("Should flush at the pending bound on the flusher thread, outside the writer's transaction")
+    void testPendingBoundFlushThread() {
+        // Arrange
+        AtomicReference<String> flushThread = new AtomicReference<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(),
+                ArgumentMatchers.<ParameterizedPreparedStatementSetter<Map.Entry<Long, Integer>>>any()))
+                .thenAnswer(invocation -> {
+                    flushThread.set(Thread.currentThread().getName());
+                    List<Map.Entry<Long, Integer>> rows = invocation.getArgument(1);
+                    int[] counts = new int[rows.size()];
+                    Arrays.fill(counts, 1);
+                    return new int[][] { counts };
+                });
+        StockWriteBuffer bounded = new StockWriteBuffer(jdbcTemplate, true, 60_000, 2, 2, 1, event -> {
+        });
+        bounded.start();
+
+        // Act
+        bounded.put(1L, 1);
+        bounded.put(2L, 2);
+
+        // Assert
+        assertEquals(0, bounded.getPendingCount());
+        assertEquals("stock-write-behind", flushThread.get());
+        bounded.stop();
+    }
+
+    @Test
+    @DisplayName("Should count updates of missing rows as dropped, not written")
+    void testMissingRows() {
+        // Arrange
+        stubRowsFound(2L);
+
+        // Act
+        buffer.put(1L, 10);
+        buffer.put(2L, 5);
+
+        // Assert
+        assertEquals(1, buffer.flush());
+        assertEquals(1, buffer.getDroppedCount());
+        assertNull(buffer.pendingStock(2L));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.productservice.writebehind;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.productservice.entity.Product;
+import com.example.productservice.repository.ProductStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Integration tests for write-behind stock updates together with the caches
+ * filled from the store. The flush interval is long so flushes only happen when
+ * a test asks for them.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:writebehind", "product.write-behind.enabled=true",
+        "product.write-behind.flush-interval-ms=600000", "product.offheap-cache.enabled=true",
+        "product.json-cache.enabled=true", "product.compression.enabled=true", "product.compression.min-size=0",
+        "product.compression.cache-min-size=0" })
+@AutoConfigureMockMvc
+@DisplayName("Write-Behind Integration Tests")
+class WriteBehindIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductStore productStore;
+
+    @Autowired
+    private StockWriteBuffer stockBuffer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Product product;
+
+    /**
+     * Setup method to store the product the tests update.
+     */
+    @BeforeEach
+    void setUp() {
+        product = productStore.save(new Product("Desk Lamp", "Home", 25.0, 10));
+    }
+
+    /**
+     * Cleanup method to write what is still buffered and empty the database.
+     */
+    @AfterEach
+    void tearDown() {
+        stockBuffer.flush();
+        productStore.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should serve the new stock by ID after the buffered update is flushed")
+    void testGetByIdAfterFlush() throws Exception {
+        // Arrange
+        String path = "/api/products/" + product.getId();
+        mockMvc.perform(get(path)).andExpect(status().isOk()).andExpect(jsonPath("$.stock", is(10)));
+
+        // Act
+        updateStock(3);
+        mockMvc.perform(get(path)).andExpect(status().isOk()).andExpect(jsonPath("$.stock", is(3)));
+        stockBuffer.flush();
+
+        // Assert
+        mockMvc.perform(get(path)).andExpect(status().isOk()).andExpect(jsonPath("$.stock", is(3)));
+    }
+
+    @Test
+    @DisplayName("Should serve the new stock in lists after the buffered update is flushed")
+    void testListAfterFlush() throws Exception {
+        // Act
+        updateStock(3);
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/search").param("category", "Home")).andExpect(status().isOk());
+        stockBuffer.flush();
+
+        // Assert
+        mockMvc.perform(get("/api/products")).andExpect(status().isOk()).andExpect(jsonPath("$[0].stock", is(3)));
+        mockMvc.perform(get("/api/products/search").param("category", "Home")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stock", is(3)));
+    }
+
+    @Test
+    @DisplayName("Should serve the new stock in compressed lists after the buffered update is flushed")
+    void testCompressedListAfterFlush() throws Exception {
+        // Act
+        updateStock(3);
+        mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andExpect(status().isOk());
+        stockBuffer.flush();
+
+        // Assert
+        MvcResult result = mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals(3, objectMapper.readTree(in).get(0).get("stock").asInt());
+        }
+    }
+
+    /**
+     * Sends a stock-only update, which write-behind buffers.
+     */
+    private void updateStock(int pStock) throws Exception {
+        Product update = new Product(product.getName(), product.getCategory(), product.getPrice(), pStock);
+        mockMvc.perform(put("/api/products/" + product.getId()).contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update))).andExpect(status().isOk());
+    }
+}